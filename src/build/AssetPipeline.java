@@ -0,0 +1,136 @@
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Build-time stage for the static assets, run by Maven after resources are copied
+ * ({@code process-classes}) as a single-file Java program, so nothing of it ends up in the application.
+ * For every file under {@code <classes>/static} it
+ * <ul>
+ *     <li>records a content hash in {@code <classes>/asset-manifest.properties}, which the application uses as
+ *     the version in fingerprinted URLs such as {@code /css/style-<hash>.css};</li>
+ *     <li>writes {@code .gz} (deflate level 9) and {@code .br} (quality 11) variants next to the file, keeping each
+ *     only if it is smaller than the file itself.</li>
+ * </ul>
+ * The JDK has no Brotli encoder, so {@code .br} files are written by the Node.js that frontend-maven-plugin
+ * installs; without it, or if it fails, only gzip variants are left, since any {@code .br} file next to an asset
+ * would be served in its place.
+ * <p>
+ * Usage: {@code java AssetPipeline.java <classes dir> [<node install dir>]}
+ */
+public class AssetPipeline {
+
+    static final String MANIFEST = "asset-manifest.properties";
+    static final int HASH_LENGTH = 16;
+
+    private static final String BROTLI_SCRIPT = "const zlib = require('zlib'), fs = require('fs');"
+            + "for (const file of process.argv.slice(1)) {"
+            + "  fs.writeFileSync(file + '.br', zlib.brotliCompressSync(fs.readFileSync(file),"
+            + "    {params: {[zlib.constants.BROTLI_PARAM_QUALITY]: 11}}));"
+            + "}";
+
+    /** What became of the {@code .br} variants. */
+    enum Brotli {
+        WRITTEN, NO_ASSETS, NO_NODE_ARGUMENT, NODE_MISSING, NODE_FAILED
+    }
+
+    public static void main(String[] args) throws Exception {
+        Path classes = Path.of(args[0]);
+        Path staticDir = classes.resolve("static");
+        if (!Files.isDirectory(staticDir)) {
+            System.out.println("[assets] no static directory in " + classes);
+            return;
+        }
+        List<Path> assets;
+        try (Stream<Path> files = Files.walk(staticDir)) {
+            assets = files.filter(Files::isRegularFile)
+                    .filter(file -> !file.toString().endsWith(".gz") && !file.toString().endsWith(".br"))
+                    .sorted()
+                    .toList();
+        }
+
+        Map<String, String> manifest = new TreeMap<>();
+        for (Path asset : assets) {
+            byte[] content = Files.readAllBytes(asset);
+            manifest.put(staticDir.relativize(asset).toString().replace(File.separatorChar, '/'), hash(content));
+            Path gzip = variant(asset, ".gz");
+            try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(gzip)) {
+                {
+                    def.setLevel(Deflater.BEST_COMPRESSION);
+                }
+            }) {
+                out.write(content);
+            }
+            keepIfSmaller(asset, gzip);
+        }
+        try (Writer out = Files.newBufferedWriter(classes.resolve(MANIFEST), StandardCharsets.ISO_8859_1)) {
+            out.write("# content hashes of static/ assets, written by src/build/AssetPipeline.java\n");
+            for (Map.Entry<String, String> entry : manifest.entrySet()) {
+                out.write(entry.getKey() + "=" + entry.getValue() + "\n");
+            }
+        }
+
+        Brotli brotli = args.length > 1 ? brotli(Path.of(args[1]), assets) : Brotli.NO_NODE_ARGUMENT;
+        if (brotli != Brotli.WRITTEN) {
+            // partial output of a failed run, or left over from an earlier build of other content
+            for (Path asset : assets) {
+                Files.deleteIfExists(variant(asset, ".br"));
+            }
+        }
+        System.out.printf("[assets] %d assets hashed, gzip written, brotli %s%n", assets.size(), switch (brotli) {
+            case WRITTEN -> "written";
+            case NO_ASSETS -> "not needed (no assets)";
+            case NO_NODE_ARGUMENT -> "skipped (no Node.js install dir given)";
+            case NODE_MISSING -> "skipped (no Node.js at " + args[1] + ")";
+            case NODE_FAILED -> "failed (Node.js at " + args[1] + " exited with an error), .br files removed";
+        });
+    }
+
+    private static Brotli brotli(Path nodeDir, List<Path> assets) throws IOException, InterruptedException {
+        if (assets.isEmpty()) {
+            return Brotli.NO_ASSETS;
+        }
+        Path node = nodeDir.resolve(File.separatorChar == '\\' ? "node.exe" : "node");
+        if (!Files.isExecutable(node)) {
+            return Brotli.NODE_MISSING;
+        }
+        List<String> command = new ArrayList<>(List.of(node.toString(), "-e", BROTLI_SCRIPT));
+        assets.forEach(asset -> command.add(asset.toString()));
+        if (new ProcessBuilder(command).inheritIO().start().waitFor() != 0) {
+            return Brotli.NODE_FAILED;
+        }
+        for (Path asset : assets) {
+            keepIfSmaller(asset, variant(asset, ".br"));
+        }
+        return Brotli.WRITTEN;
+    }
+
+    private static Path variant(Path asset, String extension) {
+        return asset.resolveSibling(asset.getFileName() + extension);
+    }
+
+    private static void keepIfSmaller(Path asset, Path variant) throws IOException {
+        if (Files.size(variant) >= Files.size(asset)) {
+            Files.delete(variant);
+        }
+    }
+
+    private static String hash(byte[] content) throws NoSuchAlgorithmException {
+        byte[] digest = MessageDigest.getInstance("SHA-256").digest(content);
+        return HexFormat.of().formatHex(digest).substring(0, HASH_LENGTH);
+    }
+}
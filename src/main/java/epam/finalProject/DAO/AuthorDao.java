@@ -1,5 +1,6 @@
 package epam.finalProject.DAO;
 
+import epam.finalProject.dto.AuthorSummary;
 import epam.finalProject.entity.Author;
 import java.util.List;
 
@@ -11,4 +12,20 @@ public interface AuthorDao {
     List<Author> findAll();
     boolean existsById(Long id);
 
+    /**
+     * Loads all authors into memory so that lookups and listings no longer query the database.
+     */
+    void loadCache();
+
+    /**
+     * Returns one page of the author directory ordered by name, with book counts.
+     *
+     * @param cursor    author name to continue from, or {@code null} to start at the edge
+     * @param inclusive whether an author named exactly {@code cursor} belongs to the page
+     * @param forward   {@code true} to read names after the cursor, {@code false} to read names before it
+     * @param limit     maximum number of rows
+     * @return the rows in ascending name order
+     */
+    List<AuthorSummary> findDirectoryPage(String cursor, boolean inclusive, boolean forward, int limit);
+
 }
@@ -1,25 +1,58 @@
 package epam.finalProject.DAO;
 
-import epam.finalProject.db.ConnectionPool;
+import epam.finalProject.cache.AuthorIdCache;
+import epam.finalProject.cache.CatalogVersion;
+import epam.finalProject.cache.ReferenceDataCache;
+import epam.finalProject.db.JdbcExecutor;
+import epam.finalProject.db.RowMapper;
+import epam.finalProject.dto.AuthorSummary;
+import epam.finalProject.search.FacetIndex;
+import epam.finalProject.search.SuggestIndex;
 import epam.finalProject.entity.Author;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.sql.DataSource;
-import java.sql.*;
+import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 /**
  * JDBC implementation of {@link AuthorDao}.
- * Provides CRUD operations for the {@link Author} entity using a configurable {@link DataSource}
- * or a default {@link ConnectionPool}.
+ * Provides CRUD operations for the {@link Author} entity. Statements run through a {@link JdbcExecutor}
+ * on the given {@link DataSource}.
+ * Once {@link #loadCache()} has run, lookups and listings are served from a {@link ReferenceDataCache}
+ * that the write methods keep current. The cache, the name-to-id map and the {@link CatalogVersion} are shared
+ * with the {@link BookDaoImpl} built on this instance.
  */
 public class AuthorDaoImpl implements AuthorDao {
 
     private static final Logger logger = LoggerFactory.getLogger(AuthorDaoImpl.class);
 
-    private final DataSource ds;
+    private static final int CACHE_LOAD_ATTEMPTS = 3;
+
+    private static final String UPDATE_AUTHOR_SQL = "UPDATE authors SET name = ? WHERE id = ?";
+    private static final String DELETE_AUTHOR_SQL = "DELETE FROM authors WHERE id = ?";
+    private static final String SELECT_AUTHOR_BY_ID_SQL = "SELECT id, name FROM authors WHERE id = ?";
+    private static final String SELECT_ALL_AUTHORS_SQL = "SELECT id, name FROM authors ORDER BY name, id";
+    private static final String AUTHOR_EXISTS_SQL = "SELECT 1 FROM authors WHERE id = ?";
+
+    private static final RowMapper<Author> AUTHOR = RowMapper.of((rs, col) -> {
+        Author author = new Author();
+        author.setId(rs.getLong(col[0]));
+        author.setName(rs.getString(col[1]));
+        return author;
+    }, "id", "name");
+    private static final RowMapper<AuthorSummary> AUTHOR_SUMMARY = RowMapper.positional(
+            (rs, col) -> new AuthorSummary(rs.getLong(1), rs.getString(2), rs.getLong(3)));
+
+    private final JdbcExecutor jdbc;
+    private final ReferenceDataCache<Author> cache;
+    private final AuthorIdCache authorIds;
+    private final SuggestIndex suggestIndex;
+    private final FacetIndex facetIndex;
+    private final CatalogVersion catalogVersion;
 
     /**
      * Constructs an AuthorDaoImpl using the given DataSource.
@@ -27,37 +60,43 @@ public class AuthorDaoImpl implements AuthorDao {
      * @param ds the DataSource to obtain connections from
      */
     public AuthorDaoImpl(DataSource ds) {
-        this.ds = ds;
-        logger.debug("AuthorDaoImpl initialized with provided DataSource");
+        this(ds, new SuggestIndex(), new FacetIndex(), new CatalogVersion());
     }
 
     /**
-     * Constructs an AuthorDaoImpl using the default ConnectionPool.
+     * Constructs an AuthorDaoImpl that keeps the book indexes current when authors are renamed or deleted.
+     *
+     * @param ds             the DataSource to obtain connections from
+     * @param suggestIndex   the autocomplete index of the book DAO
+     * @param facetIndex     the facet index of the book DAO
+     * @param catalogVersion bumped after every author write
      */
-    public AuthorDaoImpl() {
-        this.ds = null;
-        logger.debug("AuthorDaoImpl initialized using default ConnectionPool");
+    public AuthorDaoImpl(DataSource ds, SuggestIndex suggestIndex, FacetIndex facetIndex, CatalogVersion catalogVersion) {
+        this.jdbc = new JdbcExecutor(ds);
+        this.cache = newCache();
+        this.authorIds = new AuthorIdCache();
+        this.suggestIndex = suggestIndex;
+        this.facetIndex = facetIndex;
+        this.catalogVersion = catalogVersion;
+        logger.debug("AuthorDaoImpl initialized with provided DataSource");
     }
 
-    /**
-     * Obtains a new database connection, either from the configured DataSource or from ConnectionPool.
-     *
-     * @return a new {@link Connection}
-     * @throws SQLException if a database access error occurs
-     */
-    private Connection getConnection() throws SQLException {
-        if (ds != null) {
-            logger.debug("Acquiring connection from DataSource");
-            return ds.getConnection();
-        } else {
-            logger.debug("Acquiring connection from ConnectionPool");
-            return ConnectionPool.getInstance().getConnection();
-        }
+    ReferenceDataCache<Author> cache() {
+        return cache;
+    }
+
+    AuthorIdCache authorIds() {
+        return authorIds;
+    }
+
+    CatalogVersion catalogVersion() {
+        return catalogVersion;
     }
 
     /**
-     * Inserts a new {@link Author} into the database if an author with the same name does not exist.
-     * If an author with that name already exists, sets the existing ID on the passed author and returns false.
+     * Inserts a new {@link Author} into the database if an author with the same name, ignoring case, does not exist.
+     * If such an author already exists, sets the existing ID on the passed author and returns false.
+     * The check and the insert are one upsert statement, so concurrent saves of the same name yield one row.
      *
      * @param author the Author to save (must have a non-null name)
      * @return true if a new row was inserted, false if the author already existed
@@ -65,42 +104,19 @@ public class AuthorDaoImpl implements AuthorDao {
     @Override
     public boolean save(Author author) {
         logger.debug("save(Author) called for author name='{}'", author.getName());
-        String checkSql = "SELECT id FROM authors WHERE name = ?";
-        String insertSql = "INSERT INTO authors (name) VALUES (?)";
-
-        try (Connection conn = getConnection()) {
-            try (PreparedStatement checkStmt = conn.prepareStatement(checkSql)) {
-                checkStmt.setString(1, author.getName());
-                logger.debug("Executing check query: {} with name='{}'", checkSql, author.getName());
-                ResultSet rs = checkStmt.executeQuery();
-                if (rs.next()) {
-                    long existingId = rs.getLong("id");
-                    author.setId(existingId);
-                    logger.debug("Author already exists with id={} and name='{}'", existingId, author.getName());
-                    return false;
-                }
-            }
-
-            try (PreparedStatement insertStmt = conn.prepareStatement(insertSql, Statement.RETURN_GENERATED_KEYS)) {
-                insertStmt.setString(1, author.getName());
-                logger.debug("Executing insert: {} with name='{}'", insertSql, author.getName());
-                int affectedRows = insertStmt.executeUpdate();
-
-                if (affectedRows == 0) {
-                    logger.warn("Insert affected 0 rows for author name='{}'", author.getName());
-                    return false;
-                }
-
-                try (ResultSet keys = insertStmt.getGeneratedKeys()) {
-                    if (keys.next()) {
-                        long generatedId = keys.getLong(1);
-                        author.setId(generatedId);
-                        logger.debug("Inserted new author with id={} and name='{}'", generatedId, author.getName());
-                    }
-                }
-                return true;
+        try {
+            AuthorUpsert.Result result = jdbc.withConnection(conn -> AuthorUpsert.upsert(jdbc, conn, author.getName().strip()));
+            author.setId(result.id);
+            authorIds.put(result.id, result.name);
+            if (!result.created) {
+                logger.debug("Author already exists with id={} and name='{}'", result.id, result.name);
+                return false;
             }
-
+            author.setName(result.name);
+            cache.put(author);
+            catalogVersion.bump();
+            logger.debug("Inserted new author with id={} and name='{}'", result.id, result.name);
+            return true;
         } catch (SQLException e) {
             logger.error("SQLException in save(Author) for name='{}': {}", author.getName(), e.getMessage(), e);
             return false;
@@ -116,14 +132,15 @@ public class AuthorDaoImpl implements AuthorDao {
     @Override
     public boolean update(Author author) {
         logger.debug("update(Author) called for id={} name='{}'", author.getId(), author.getName());
-        String sql = "UPDATE authors SET name = ? WHERE id = ?";
-        try (Connection conn = getConnection(); PreparedStatement ps = conn.prepareStatement(sql)) {
-
-            ps.setString(1, author.getName());
-            ps.setLong(2, author.getId());
-            logger.debug("Executing update: {} with name='{}', id={}", sql, author.getName(), author.getId());
-            int rowsAffected = ps.executeUpdate();
+        try {
+            logger.debug("Executing update: {} with name='{}', id={}", UPDATE_AUTHOR_SQL, author.getName(), author.getId());
+            int rowsAffected = jdbc.update(UPDATE_AUTHOR_SQL, author.getName(), author.getId());
             if (rowsAffected > 0) {
+                catalogVersion.bump();
+                cache.put(author);
+                authorIds.removeId(author.getId());
+                authorIds.put(author.getId(), author.getName());
+                suggestIndex.putAuthor(author.getId(), author.getName());
                 logger.debug("Updated author id={} successfully", author.getId());
                 return true;
             } else {
@@ -146,13 +163,15 @@ public class AuthorDaoImpl implements AuthorDao {
     @Override
     public boolean delete(Long id) {
         logger.debug("delete(id) called for author id={}", id);
-        String sql = "DELETE FROM authors WHERE id = ?";
-        try (Connection conn = getConnection(); PreparedStatement ps = conn.prepareStatement(sql)) {
-
-            ps.setLong(1, id);
-            logger.debug("Executing delete: {} with id={}", sql, id);
-            int rowsAffected = ps.executeUpdate();
+        try {
+            logger.debug("Executing delete: {} with id={}", DELETE_AUTHOR_SQL, id);
+            int rowsAffected = jdbc.update(DELETE_AUTHOR_SQL, id);
             if (rowsAffected > 0) {
+                catalogVersion.bump();
+                cache.remove(id);
+                authorIds.removeId(id);
+                suggestIndex.removeAuthor(id);
+                facetIndex.removeAuthor(id);
                 logger.debug("Deleted author id={} successfully", id);
                 return true;
             } else {
@@ -175,23 +194,18 @@ public class AuthorDaoImpl implements AuthorDao {
     @Override
     public Author findById(Long id) {
         logger.debug("findById(id) called for author id={}", id);
-        String sql = "SELECT * FROM authors WHERE id = ?";
-        try (Connection conn = getConnection(); PreparedStatement ps = conn.prepareStatement(sql)) {
-
-            ps.setLong(1, id);
-            logger.debug("Executing query: {} with id={}", sql, id);
-            ResultSet rs = ps.executeQuery();
-            if (rs.next()) {
-                Author author = new Author();
-                author.setId(rs.getLong("id"));
-                author.setName(rs.getString("name"));
+        if (cache.isReady()) {
+            return cache.find(id);
+        }
+        try {
+            logger.debug("Executing query: {} with id={}", SELECT_AUTHOR_BY_ID_SQL, id);
+            Author author = jdbc.queryOne(SELECT_AUTHOR_BY_ID_SQL, AUTHOR, id);
+            if (author != null) {
                 logger.debug("Author found: id={} name='{}'", author.getId(), author.getName());
-                return author;
             } else {
                 logger.warn("No author found for id={}", id);
-                return null;
             }
-
+            return author;
         } catch (SQLException e) {
             logger.error("SQLException in findById(id) for id='{}': {}", id, e.getMessage(), e);
             return null;
@@ -199,29 +213,87 @@ public class AuthorDaoImpl implements AuthorDao {
     }
 
     /**
-     * Retrieves all {@link Author} records from the database.
+     * Retrieves all {@link Author} records ordered by name.
+     * When the cache is loaded the returned list is a shared, read-only snapshot.
      *
      * @return a List of all authors, or an empty list if none found or on error
      */
     @Override
     public List<Author> findAll() {
         logger.debug("findAll() called to retrieve all authors");
-        List<Author> authors = new ArrayList<>();
-        String sql = "SELECT * FROM authors";
-
-        try (Connection conn = getConnection(); PreparedStatement ps = conn.prepareStatement(sql); ResultSet rs = ps.executeQuery()) {
+        if (cache.isReady()) {
+            return cache.sorted();
+        }
+        try {
+            return queryAll();
+        } catch (SQLException e) {
+            logger.error("SQLException in findAll(): {}", e.getMessage(), e);
+            return new ArrayList<>();
+        }
+    }
 
-            logger.debug("Executing query: {}", sql);
-            while (rs.next()) {
-                Author author = new Author();
-                author.setId(rs.getLong("id"));
-                author.setName(rs.getString("name"));
-                authors.add(author);
+    /**
+     * Loads all authors into the cache. Retries if a write happens while the table is being read.
+     */
+    @Override
+    public void loadCache() {
+        try {
+            for (int attempt = 1; attempt <= CACHE_LOAD_ATTEMPTS; attempt++) {
+                long stamp = cache.loadStamp();
+                List<Author> authors = queryAll();
+                if (cache.publish(authors, stamp)) {
+                    logger.info("Author cache loaded with {} authors", authors.size());
+                    return;
+                }
+                logger.debug("Authors changed while loading the cache, attempt {}", attempt);
             }
-            logger.debug("Number of authors retrieved: {}", authors.size());
+            logger.warn("Author cache not loaded after {} attempts; lookups stay on the database", CACHE_LOAD_ATTEMPTS);
         } catch (SQLException e) {
-            logger.error("SQLException in findAll(): {}", e.getMessage(), e);
+            logger.error("SQLException in loadCache(): {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Reads one directory page. The page of authors is cut first using the index on
+     * {@code authors.name}; only those rows are then joined with {@code books} and grouped,
+     * so the cost depends on the page size, not on the number of authors.
+     *
+     * @param cursor    author name to continue from, or {@code null}
+     * @param inclusive whether an author named exactly {@code cursor} is included
+     * @param forward   direction of travel from the cursor
+     * @param limit     maximum number of rows
+     * @return the rows in ascending name order, or an empty list on error
+     */
+    @Override
+    public List<AuthorSummary> findDirectoryPage(String cursor, boolean inclusive, boolean forward, int limit) {
+        StringBuilder page = new StringBuilder("SELECT id, name FROM authors");
+        if (cursor != null) {
+            page.append(" WHERE name ").append(forward ? ">" : "<").append(inclusive ? "= ?" : " ?");
+        }
+        page.append(forward ? " ORDER BY name" : " ORDER BY name DESC").append(" LIMIT ?");
+        String sql = "SELECT a.id, a.name, COUNT(b.id) AS book_count FROM (" + page + ") a "
+                + "LEFT JOIN books b ON b.author_id = a.id "
+                + "GROUP BY a.id, a.name ORDER BY a.name" + (forward ? "" : " DESC");
+        logger.debug("findDirectoryPage() called for cursor='{}' inclusive={} forward={} limit={}", cursor, inclusive, forward, limit);
+
+        Object[] params = cursor != null ? new Object[]{cursor, limit} : new Object[]{limit};
+        List<AuthorSummary> result;
+        try {
+            result = jdbc.query(sql, AUTHOR_SUMMARY, params);
+        } catch (SQLException e) {
+            logger.error("SQLException in findDirectoryPage() for cursor='{}': {}", cursor, e.getMessage(), e);
+            return new ArrayList<>();
+        }
+        if (!forward) {
+            Collections.reverse(result);
         }
+        logger.debug("findDirectoryPage() returned {} authors", result.size());
+        return result;
+    }
+
+    private List<Author> queryAll() throws SQLException {
+        List<Author> authors = jdbc.query(SELECT_ALL_AUTHORS_SQL, AUTHOR);
+        logger.debug("Number of authors retrieved: {}", authors.size());
         return authors;
     }
 
@@ -234,19 +306,25 @@ public class AuthorDaoImpl implements AuthorDao {
     @Override
     public boolean existsById(Long id) {
         logger.debug("existsById(id) called for author id={}", id);
-        String sql = "SELECT 1 FROM authors WHERE id = ?";
-        try (Connection conn = getConnection(); PreparedStatement ps = conn.prepareStatement(sql)) {
-
-            ps.setLong(1, id);
-            logger.debug("Executing query: {} with id={}", sql, id);
-            ResultSet rs = ps.executeQuery();
-            boolean exists = rs.next();
+        if (cache.isReady()) {
+            return cache.contains(id);
+        }
+        try {
+            boolean exists = jdbc.exists(AUTHOR_EXISTS_SQL, id);
             logger.debug("Author id={} exists: {}", id, exists);
             return exists;
-
         } catch (SQLException e) {
             logger.error("SQLException in existsById(id) for id='{}': {}", id, e.getMessage(), e);
             return false;
         }
     }
+
+    private static ReferenceDataCache<Author> newCache() {
+        return new ReferenceDataCache<>(Author::getId, Author::getName, a -> {
+            Author copy = new Author();
+            copy.setId(a.getId());
+            copy.setName(a.getName());
+            return copy;
+        });
+    }
 }
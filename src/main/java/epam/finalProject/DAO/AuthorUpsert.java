@@ -0,0 +1,166 @@
+package epam.finalProject.DAO;
+
+import epam.finalProject.cache.AuthorIdCache;
+import epam.finalProject.db.JdbcExecutor;
+import epam.finalProject.db.RowMapper;
+import epam.finalProject.entity.Author;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Get-or-create for authors, shared by {@link AuthorDaoImpl} and {@link BookDaoImpl}.
+ * <p>
+ * On PostgreSQL one statement both finds and creates: an existing author whose name matches
+ * case-insensitively wins, otherwise the name is inserted with {@code ON CONFLICT ((lower(name))) DO UPDATE},
+ * which returns the stored author even when a concurrent transaction inserted the same name first in any case.
+ * The conflict target is the unique {@code idx_authors_name_lower} index, so names differing only in case
+ * cannot both be inserted. The update keeps the stored name, so it does not reindex books: the author
+ * search-vector trigger only fires when the name actually changes.
+ * Other databases (the H2 test schema has no {@code lower(name)} index to use as a conflict target) fall back
+ * to a lookup and an insert per name.
+ */
+final class AuthorUpsert {
+
+    private static final String UPSERT_AUTHOR_SQL = """
+            WITH existing AS (
+                SELECT id, name FROM authors WHERE lower(name) = lower(?) ORDER BY id LIMIT 1
+            ), inserted AS (
+                INSERT INTO authors (name) SELECT ? WHERE NOT EXISTS (SELECT 1 FROM existing)
+                ON CONFLICT ((lower(name))) DO UPDATE SET name = authors.name
+                RETURNING id, name, xmax = 0 AS created
+            )
+            SELECT id, name, false FROM existing
+            UNION ALL
+            SELECT id, name, created FROM inserted
+            """;
+
+    /** The same for many names at once; each distinct lower-cased name yields one row. */
+    private static final String UPSERT_AUTHORS_SQL = """
+            WITH input AS (
+                SELECT DISTINCT ON (lower(n)) n FROM unnest(?::text[]) AS t(n) ORDER BY lower(n), n
+            ), existing AS (
+                SELECT DISTINCT ON (lower(a.name)) a.id, a.name FROM authors a
+                 WHERE lower(a.name) IN (SELECT lower(n) FROM input)
+                 ORDER BY lower(a.name), a.id
+            ), inserted AS (
+                INSERT INTO authors (name)
+                SELECT n FROM input WHERE lower(n) NOT IN (SELECT lower(name) FROM existing)
+                ON CONFLICT ((lower(name))) DO UPDATE SET name = authors.name
+                RETURNING id, name
+            )
+            SELECT id, name FROM existing
+            UNION ALL
+            SELECT id, name FROM inserted
+            """;
+
+    private static final String FIND_AUTHOR_SQL = "SELECT id, name FROM authors WHERE lower(name) = lower(?) ORDER BY id LIMIT 1";
+    private static final String INSERT_AUTHOR_SQL = "INSERT INTO authors (name) VALUES (?)";
+
+    private static final RowMapper<Result> RESULT = RowMapper.positional(
+            (rs, col) -> new Result(rs.getLong(1), rs.getString(2), rs.getBoolean(3)));
+    private static final RowMapper<Result> FOUND = RowMapper.positional(
+            (rs, col) -> new Result(rs.getLong(1), rs.getString(2), false));
+    private static final RowMapper<Author> AUTHOR = RowMapper.positional((rs, col) -> {
+        Author author = new Author();
+        author.setId(rs.getLong(1));
+        author.setName(rs.getString(2));
+        return author;
+    });
+
+    private AuthorUpsert() {
+    }
+
+    /**
+     * Finds the author with this name, ignoring case, or creates it.
+     *
+     * @param jdbc the executor of the calling DAO
+     * @param conn the connection, possibly inside a transaction
+     * @param name the author name, already trimmed
+     * @return the stored author: its id, its name as stored, and whether it was created by this call
+     * @throws SQLException if the author could not be found or created
+     */
+    static Result upsert(JdbcExecutor jdbc, Connection conn, String name) throws SQLException {
+        if (isPostgres(conn)) {
+            Result result = jdbc.queryOne(conn, UPSERT_AUTHOR_SQL, RESULT, name, name);
+            if (result == null) {
+                throw new SQLException("Upsert returned no id for author '" + name + "'");
+            }
+            return result;
+        }
+        Result found = jdbc.queryOne(conn, FIND_AUTHOR_SQL, FOUND, name);
+        if (found != null) {
+            return found;
+        }
+        Long id = jdbc.insert(conn, INSERT_AUTHOR_SQL, name);
+        if (id == null) {
+            throw new SQLException("No row inserted for author '" + name + "'");
+        }
+        return new Result(id, name, true);
+    }
+
+    /**
+     * Finds or creates many authors, with one statement on PostgreSQL and with {@link #upsert} per name elsewhere.
+     *
+     * @param jdbc  the executor of the calling DAO
+     * @param conn  the connection, possibly inside a transaction
+     * @param names author names, already trimmed
+     * @return the stored authors by {@link AuthorIdCache#normalize normalized} name
+     * @throws SQLException if some author could not be found or created
+     */
+    static Map<String, Author> upsertAll(JdbcExecutor jdbc, Connection conn, Collection<String> names) throws SQLException {
+        Map<String, Author> result = new HashMap<>();
+        if (names.isEmpty()) {
+            return result;
+        }
+        if (!isPostgres(conn)) {
+            for (String name : names) {
+                String key = AuthorIdCache.normalize(name);
+                if (!result.containsKey(key)) {
+                    Result stored = upsert(jdbc, conn, name);
+                    Author author = new Author();
+                    author.setId(stored.id);
+                    author.setName(stored.name);
+                    result.put(key, author);
+                }
+            }
+            return result;
+        }
+        for (Author author : jdbc.query(conn, UPSERT_AUTHORS_SQL, AUTHOR, JdbcExecutor.array("text", names))) {
+            result.put(AuthorIdCache.normalize(author.getName()), author);
+        }
+        Map<String, String> missing = new LinkedHashMap<>();
+        for (String name : names) {
+            if (!result.containsKey(AuthorIdCache.normalize(name))) {
+                missing.put(AuthorIdCache.normalize(name), name);
+            }
+        }
+        if (!missing.isEmpty()) {
+            throw new SQLException("Could not resolve authors " + missing.values());
+        }
+        return result;
+    }
+
+    private static boolean isPostgres(Connection conn) throws SQLException {
+        return "PostgreSQL".equals(conn.getMetaData().getDatabaseProductName());
+    }
+
+    /**
+     * An author as stored, and whether the upsert created it.
+     */
+    static final class Result {
+        final long id;
+        final String name;
+        final boolean created;
+
+        Result(long id, String name, boolean created) {
+            this.id = id;
+            this.name = name;
+            this.created = created;
+        }
+    }
+}
@@ -1,35 +1,56 @@
 package epam.finalProject.DAO;
 
-import epam.finalProject.db.ConnectionPool;
+import epam.finalProject.db.JdbcExecutor;
+import epam.finalProject.db.RowMapper;
 import epam.finalProject.entity.BasketItem;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.sql.*;
+import javax.sql.DataSource;
+import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.List;
 
 /**
  * JDBC implementation of {@link BasketDao}.
  * Provides operations to add, update, remove, and retrieve basket items for a user.
- * Utilizes a {@link ConnectionPool} to obtain database connections.
+ * Statements run through a {@link JdbcExecutor} on the given {@link DataSource}.
  */
 public class BasketDaoImpl implements BasketDao {
     private static final Logger logger = LoggerFactory.getLogger(BasketDaoImpl.class);
 
+    private static final String ADD_QUANTITY_SQL = "UPDATE basket_items SET quantity = quantity + ? WHERE user_id = ? AND book_id = ?";
+    private static final String DELETE_IF_EMPTY_SQL = "DELETE FROM basket_items WHERE user_id = ? AND book_id = ? AND quantity <= 0";
+    private static final String INSERT_ITEM_SQL = "INSERT INTO basket_items (user_id, book_id, quantity) VALUES (?, ?, ?)";
+    private static final String SET_QUANTITY_SQL = "UPDATE basket_items SET quantity = ? WHERE user_id = ? AND book_id = ?";
+    private static final String SELECT_BY_USER_SQL = "SELECT id, user_id, book_id, quantity FROM basket_items WHERE user_id = ? ORDER BY id";
+    private static final String DELETE_ITEM_SQL = "DELETE FROM basket_items WHERE user_id = ? AND book_id = ?";
+    private static final String DELETE_ALL_BY_USER_SQL = "DELETE FROM basket_items WHERE user_id = ?";
+
+    private static final RowMapper<BasketItem> BASKET_ITEM = RowMapper.of((rs, col) -> {
+        BasketItem item = new BasketItem();
+        item.setId(rs.getLong(col[0]));
+        item.setUserId(rs.getLong(col[1]));
+        item.setBookId(rs.getLong(col[2]));
+        item.setQuantity(rs.getInt(col[3]));
+        return item;
+    }, "id", "user_id", "book_id", "quantity");
+
+    private final JdbcExecutor jdbc;
+
     /**
-     * Obtains a database connection from the connection pool.
+     * Constructs a BasketDaoImpl using the specified DataSource.
      *
-     * @return a new {@link Connection} from {@link ConnectionPool}
-     * @throws SQLException if a database access error occurs
+     * @param ds the DataSource to obtain connections from
      */
-    private Connection getConnection() throws SQLException {
-        return ConnectionPool.getInstance().getConnection();
+    public BasketDaoImpl(DataSource ds) {
+        this.jdbc = new JdbcExecutor(ds);
     }
 
     /**
      * Adds a new item to the basket or updates the quantity of an existing item.
      * If the update causes quantity to become zero or negative, the item is removed.
+     * Runs in one transaction.
      *
      * @param userId the ID of the user whose basket is being modified
      * @param bookId the ID of the book to add or update in the basket
@@ -38,43 +59,18 @@ public class BasketDaoImpl implements BasketDao {
      */
     @Override
     public boolean addOrUpdateQuantity(Long userId, Long bookId, int delta) {
-        String updateSql = "UPDATE basket_items SET quantity = quantity + ? " + "WHERE user_id = ? AND book_id = ?";
-        String insertSql = "INSERT INTO basket_items (user_id, book_id, quantity) VALUES (?, ?, ?)";
-
-        try (Connection conn = getConnection()) {
-            conn.setAutoCommit(false);
-
-            try (PreparedStatement psUpdate = conn.prepareStatement(updateSql)) {
-                psUpdate.setInt(1, delta);
-                psUpdate.setLong(2, userId);
-                psUpdate.setLong(3, bookId);
+        try {
+            return jdbc.inTransaction(conn -> {
                 logger.debug("Executing UPDATE for basket_items: userId={}, bookId={}, delta={}", userId, bookId, delta);
-                int updated = psUpdate.executeUpdate();
-                if (updated > 0) {
-                    String deleteIfZero = "DELETE FROM basket_items WHERE user_id = ? AND book_id = ? AND quantity <= 0";
-                    try (PreparedStatement psDel = conn.prepareStatement(deleteIfZero)) {
-                        psDel.setLong(1, userId);
-                        psDel.setLong(2, bookId);
-                        logger.debug("Executing DELETE IF ZERO for basket_items: userId={}, bookId={}", userId, bookId);
-                        psDel.executeUpdate();
-                    }
-                    conn.commit();
+                if (jdbc.update(conn, ADD_QUANTITY_SQL, delta, userId, bookId) > 0) {
+                    jdbc.update(conn, DELETE_IF_EMPTY_SQL, userId, bookId);
                     logger.debug("Quantity updated successfully for userId={}, bookId={} (delta={})", userId, bookId, delta);
                     return true;
                 }
-            }
-
-            try (PreparedStatement psInsert = conn.prepareStatement(insertSql)) {
-                psInsert.setLong(1, userId);
-                psInsert.setLong(2, bookId);
-                psInsert.setInt(3, delta);
-                logger.debug("Executing INSERT into basket_items: userId={}, bookId={}, quantity={}", userId, bookId, delta);
-                psInsert.executeUpdate();
-            }
-
-            conn.commit();
-            logger.debug("New basket item inserted for userId={}, bookId={}, quantity={}", userId, bookId, delta);
-            return true;
+                jdbc.update(conn, INSERT_ITEM_SQL, userId, bookId, delta);
+                logger.debug("New basket item inserted for userId={}, bookId={}, quantity={}", userId, bookId, delta);
+                return true;
+            });
         } catch (SQLException e) {
             logger.error("Database error in addOrUpdateQuantity() for userId={}, bookId={}, delta={}", userId, bookId, delta, e);
             return false;
@@ -96,13 +92,9 @@ public class BasketDaoImpl implements BasketDao {
             logger.debug("New quantity <= 0; deleting item for userId={}, bookId={}", userId, bookId);
             return deleteItem(userId, bookId);
         }
-        String sql = "UPDATE basket_items SET quantity = ? WHERE user_id = ? AND book_id = ?";
-        try (Connection conn = getConnection(); PreparedStatement ps = conn.prepareStatement(sql)) {
-            ps.setInt(1, newQuantity);
-            ps.setLong(2, userId);
-            ps.setLong(3, bookId);
+        try {
             logger.debug("Executing SET QUANTITY for basket_items: userId={}, bookId={}, quantity={}", userId, bookId, newQuantity);
-            boolean updated = ps.executeUpdate() > 0;
+            boolean updated = jdbc.update(SET_QUANTITY_SQL, newQuantity, userId, bookId) > 0;
             if (updated) {
                 logger.debug("Quantity set to {} for userId={}, bookId={}", newQuantity, userId, bookId);
             } else {
@@ -123,26 +115,15 @@ public class BasketDaoImpl implements BasketDao {
      */
     @Override
     public List<BasketItem> findByUserId(Long userId) {
-        String sql = "SELECT id, user_id, book_id, quantity FROM basket_items WHERE user_id = ? ORDER BY id";
-        List<BasketItem> result = new ArrayList<>();
-        try (Connection conn = getConnection(); PreparedStatement ps = conn.prepareStatement(sql)) {
-            ps.setLong(1, userId);
+        try {
             logger.debug("Executing SELECT for basket_items by userId={}", userId);
-            try (ResultSet rs = ps.executeQuery()) {
-                while (rs.next()) {
-                    BasketItem item = new BasketItem();
-                    item.setId(rs.getLong("id"));
-                    item.setUserId(rs.getLong("user_id"));
-                    item.setBookId(rs.getLong("book_id"));
-                    item.setQuantity(rs.getInt("quantity"));
-                    result.add(item);
-                }
-            }
+            List<BasketItem> result = jdbc.query(SELECT_BY_USER_SQL, BASKET_ITEM, userId);
             logger.debug("Fetched {} basket items for userId={}", result.size(), userId);
+            return result;
         } catch (SQLException e) {
             logger.error("Database error in findByUserId() for userId={}", userId, e);
+            return new ArrayList<>();
         }
-        return result;
     }
 
     /**
@@ -154,12 +135,9 @@ public class BasketDaoImpl implements BasketDao {
      */
     @Override
     public boolean deleteItem(Long userId, Long bookId) {
-        String sql = "DELETE FROM basket_items WHERE user_id = ? AND book_id = ?";
-        try (Connection conn = getConnection(); PreparedStatement ps = conn.prepareStatement(sql)) {
-            ps.setLong(1, userId);
-            ps.setLong(2, bookId);
+        try {
             logger.debug("Executing DELETE for basket_items: userId={}, bookId={}", userId, bookId);
-            boolean deleted = ps.executeUpdate() > 0;
+            boolean deleted = jdbc.update(DELETE_ITEM_SQL, userId, bookId) > 0;
             if (deleted) {
                 logger.debug("Deleted basket item for userId={}, bookId={}", userId, bookId);
             } else {
@@ -180,11 +158,9 @@ public class BasketDaoImpl implements BasketDao {
      */
     @Override
     public boolean deleteAllByUserId(Long userId) {
-        String sql = "DELETE FROM basket_items WHERE user_id = ?";
-        try (Connection conn = getConnection(); PreparedStatement ps = conn.prepareStatement(sql)) {
-            ps.setLong(1, userId);
+        try {
             logger.debug("Executing DELETE ALL for basket_items: userId={}", userId);
-            boolean deleted = ps.executeUpdate() > 0;
+            boolean deleted = jdbc.update(DELETE_ALL_BY_USER_SQL, userId) > 0;
             if (deleted) {
                 logger.debug("Deleted all basket items for userId={}", userId);
             } else {
@@ -1,9 +1,18 @@
 package epam.finalProject.DAO;
 
+import epam.finalProject.dto.BookFilter;
+import epam.finalProject.dto.BookSuggestion;
+import epam.finalProject.dto.BookSummary;
+import epam.finalProject.dto.FacetCounts;
 import epam.finalProject.entity.Author;
 import epam.finalProject.entity.Book;
+import epam.finalProject.io.ExportWriter;
 import org.springframework.data.domain.Pageable;
+
+import java.io.IOException;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 /**
  * DAO interface for book data access operations.
@@ -43,6 +52,23 @@ public interface BookDao {
 
     List<Book> findAll(Pageable pageable);
 
+    /**
+     * Counts the books matching a filter.
+     *
+     * @param filter filter criteria
+     * @return number of matching books
+     */
+    long count(BookFilter filter);
+
+    /**
+     * Returns one page of book summaries matching a filter, without descriptions.
+     *
+     * @param filter   filter criteria and sort order
+     * @param pageable page to return
+     * @return summaries with author name and genre names
+     */
+    List<BookSummary> findSummaries(BookFilter filter, Pageable pageable);
+
     /**
      * Finds a book by its ID.
      *
@@ -51,8 +77,90 @@ public interface BookDao {
      */
     Book findById(Long id);
 
+    /**
+     * Loads several books, with authors and genres, using one query per table.
+     *
+     * @param ids book IDs
+     * @return books by ID; missing IDs are absent
+     */
+    Map<Long, Book> findByIds(Collection<Long> ids);
+
+    /**
+     * Ranked search over title, author name and description.
+     *
+     * @param query    search text
+     * @param pageable page to return
+     * @return matching books, best first
+     */
+    List<BookSummary> search(String query, Pageable pageable);
+
+    /**
+     * Counts search matches up to a cap.
+     *
+     * @param query search text
+     * @param limit maximum value to return
+     * @return number of matches, at most {@code limit}
+     */
+    long countSearch(String query, int limit);
+
+    /**
+     * Autocomplete over titles and author names, served from memory.
+     *
+     * @param query text typed so far
+     * @param limit maximum number of suggestions
+     * @return matching books, best first
+     */
+    List<BookSuggestion> suggest(String query, int limit);
+
+    /**
+     * Typo-tolerant title search, served from the in-memory index.
+     *
+     * @param query search text, possibly misspelled
+     * @param limit maximum number of books
+     * @return books with similar titles, closest first
+     */
+    List<BookSummary> fuzzySearch(String query, int limit);
+
+    /**
+     * Builds the in-memory autocomplete index from the database.
+     */
+    void loadSuggestIndex();
+
+    /**
+     * Counts books per genre, decade, author and availability under a filter, served from memory.
+     *
+     * @param filter     active filter
+     * @param maxAuthors number of authors to report
+     * @return the counts, or {@code null} while the in-memory index is not built
+     */
+    FacetCounts facetCounts(BookFilter filter, int maxAuthors);
+
+    /**
+     * Builds the in-memory facet index from the database.
+     */
+    void loadFacetIndex();
+
     boolean saveBookWithAuthor(Book book, Author author);
 
+    /**
+     * Inserts a chunk of imported books in one transaction. Each book carries its author by name
+     * ({@link Book#getAuthor()}); missing authors are created. Inserted books get their IDs set.
+     *
+     * @param books books to insert
+     * @return why each rejected book failed, by position in {@code books}; empty if all were inserted
+     */
+    Map<Integer, String> importBooks(List<Book> books);
+
+    /**
+     * Streams the whole catalog to {@code writer}, one row per book, in the column layout accepted by the import.
+     *
+     * @param writer    destination of the rows
+     * @param fetchSize rows fetched from the database per round trip
+     * @return number of rows written
+     * @throws IOException if writing fails or the query fails part-way
+     */
+    long exportCatalog(ExportWriter writer, int fetchSize) throws IOException;
+
 
     boolean decrementQuantity(Long bookId, int amount);
 
@@ -1,72 +1,224 @@
 package epam.finalProject.DAO;
 
-import epam.finalProject.db.ConnectionPool;
+import epam.finalProject.cache.AuthorIdCache;
+import epam.finalProject.cache.CatalogVersion;
+import epam.finalProject.cache.MissingKeyCache;
+import epam.finalProject.cache.ReferenceDataCache;
+import epam.finalProject.cache.SingleFlight;
+import epam.finalProject.db.JdbcExecutor;
+import epam.finalProject.db.RowMapper;
+import epam.finalProject.dto.BookFilter;
+import epam.finalProject.dto.BookSuggestion;
+import epam.finalProject.dto.BookSummary;
+import epam.finalProject.dto.FacetCounts;
 import epam.finalProject.entity.Book;
 import epam.finalProject.entity.Author;
 import epam.finalProject.entity.Genre;
 import epam.finalProject.exception.ResourceNotFoundException;
+import epam.finalProject.io.ExportWriter;
+import epam.finalProject.search.FacetIndex;
+import epam.finalProject.search.SuggestIndex;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Pageable;
 
 import javax.sql.DataSource;
-import java.sql.*;
+import java.io.IOException;
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.sql.Types;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * JDBC implementation of {@link BookDao}.
  * Provides CRUD operations for {@link Book} entities, including associated author and genre handling.
- * Utilizes a {@link DataSource} if provided, or a default {@link ConnectionPool} otherwise.
+ * Statements run through a {@link JdbcExecutor} on the given {@link DataSource}.
+ * Book writes are mirrored into a {@link SuggestIndex} for autocomplete and a {@link FacetIndex} for filter
+ * counts, and new authors into the caches of the {@link AuthorDaoImpl} the instance was built with.
  */
 public class BookDaoImpl implements BookDao {
 
     private static final Logger logger = LoggerFactory.getLogger(BookDaoImpl.class);
 
-    private static final String FIND_AUTHOR_SQL = "SELECT id FROM authors WHERE name = ?";
-    private static final String INSERT_AUTHOR_SQL = "INSERT INTO authors (name) VALUES (?)";
-    private static final String INSERT_BOOK_SQL = "INSERT INTO books (title, year, author_id, description, quantity) VALUES (?, ?, ?, ?, ?)";
+    private static final String INSERT_BOOK_SQL = "INSERT INTO books (title, \"year\", author_id, description, quantity) VALUES (?, ?, ?, ?, ?)";
     private static final String INSERT_BOOK_GENRE_SQL = "INSERT INTO book_genres (book_id, genre_id) VALUES (?, ?)";
     private static final String DELETE_BOOK_SQL = "DELETE FROM books WHERE id = ?";
-    private static final String UPDATE_BOOK_SQL = "UPDATE books SET title = ?, author_id = ?, year = ?, description = ?, quantity = ? WHERE id = ?";
+    private static final String UPDATE_BOOK_SQL = "UPDATE books SET title = ?, author_id = ?, \"year\" = ?, description = ?, quantity = ? WHERE id = ?";
     private static final String SELECT_ALL_BOOKS_SQL = "SELECT * FROM books ORDER BY id";
-    private static final String SELECT_BOOK_BY_ID_SQL = "SELECT * FROM books WHERE id = ?";
-    private static final String SELECT_GENRES_FOR_BOOK_SQL = "SELECT g.id, g.name FROM genres g JOIN book_genres bg ON g.id = bg.genre_id WHERE bg.book_id = ?";
+    private static final String SELECT_BOOK_BY_ID_SQL = "SELECT id, title, author_id, \"year\", description, quantity FROM books WHERE id = ?";
+    private static final String SELECT_BOOKS_BY_IDS_SQL = "SELECT id, title, author_id, \"year\", description, quantity FROM books WHERE id = ANY(?)";
+    private static final String SELECT_BOOK_PAGE_SQL = "SELECT id, title, author_id, \"year\", description, quantity FROM books ORDER BY id LIMIT ? OFFSET ?";
+    private static final String COUNT_BOOKS_SQL = "SELECT COUNT(*) FROM books";
+    private static final String DECREMENT_QUANTITY_SQL = "UPDATE books SET quantity = quantity - ? WHERE id = ? AND quantity >= ? RETURNING quantity";
 
-    private final DataSource ds;
+    /**
+     * Genre names of book {@code b}, aggregated in the database so that a page of summaries is one query.
+     * Used by the list queries below, which select the summary columns (id, title, author_id, author name,
+     * year, quantity, genre names) and never the description. {@code "year"} is quoted because it is a
+     * keyword in some databases.
+     */
+    private static final String GENRE_NAMES_COLUMN = """
+            (SELECT array_agg(g.name ORDER BY g.name)
+               FROM book_genres bg JOIN genres g ON g.id = bg.genre_id
+              WHERE bg.book_id = b.id) AS genre_names""";
+
+    /**
+     * The page is cut from books alone, then only its rows are joined with authors and genres.
+     * Arguments: genre column, WHERE clause built by {@link #appendFilter}, ORDER BY list.
+     */
+    private static final String SELECT_SUMMARIES_SQL = """
+            SELECT b.id, b.title, b.author_id, a.name, b."year", b.quantity, %1$s
+              FROM (SELECT b.id, b.title, b.author_id, b."year", b.quantity FROM books b%2$s
+                     ORDER BY %3$s LIMIT ? OFFSET ?) b
+              LEFT JOIN authors a ON a.id = b.author_id
+             ORDER BY %3$s
+            """;
+
+    private static final String COUNT_FILTERED_SQL = "SELECT COUNT(*) FROM books b";
+
+    /** Summaries of the given books, in no particular order. */
+    private static final String SELECT_SUMMARIES_BY_IDS_SQL = """
+            SELECT b.id, b.title, b.author_id, a.name, b."year", b.quantity, %s
+              FROM books b LEFT JOIN authors a ON a.id = b.author_id
+             WHERE b.id = ANY(?)
+            """.formatted(GENRE_NAMES_COLUMN);
+
+    /**
+     * Filter conditions. Each one is served by an index in schema.sql: idx_books_author_id,
+     * idx_book_genres_genre_book, idx_books_year and the partial idx_books_in_stock.
+     */
+    private static final String GENRE_CONDITION = "b.id IN (SELECT bg.book_id FROM book_genres bg WHERE bg.genre_id = ?)";
+    private static final String AUTHOR_CONDITION = "b.author_id = ?";
+    private static final String YEAR_FROM_CONDITION = "b.\"year\" >= ?";
+    private static final String YEAR_TO_CONDITION = "b.\"year\" <= ?";
+    private static final String IN_STOCK_CONDITION = "b.quantity > 0";
+
+    /**
+     * Ranked full-text search over the trigger-maintained {@code search_vector} column (GIN indexed).
+     * Title matches weigh more than author name matches, which weigh more than description matches.
+     */
+    private static final String SEARCH_BOOKS_SQL = """
+            SELECT b.id, b.title, b.author_id, a.name, b."year", b.quantity, %s
+              FROM (SELECT b.id, b.title, b.author_id, b."year", b.quantity, ts_rank_cd(b.search_vector, q) AS rank
+                      FROM books b, websearch_to_tsquery('simple', ?) q
+                     WHERE b.search_vector @@ q
+                     ORDER BY rank DESC, b.id
+                     LIMIT ? OFFSET ?) b
+              LEFT JOIN authors a ON a.id = b.author_id
+             ORDER BY b.rank DESC, b.id
+            """.formatted(GENRE_NAMES_COLUMN);
+    private static final String COUNT_SEARCH_SQL = """
+            SELECT COUNT(*) FROM (
+                SELECT 1 FROM books b, websearch_to_tsquery('simple', ?) q
+                 WHERE b.search_vector @@ q
+                 LIMIT ?) matches
+            """;
+
+    /**
+     * Substring search used where full-text search is unavailable (the in-memory H2 test database).
+     * Ranked by where the term matched: title, then author name, then description.
+     */
+    private static final String SEARCH_BOOKS_FALLBACK_SQL = """
+            SELECT b.id, b.title, b.author_id, a.name, b."year", b.quantity, %s
+              FROM books b LEFT JOIN authors a ON a.id = b.author_id
+             WHERE LOWER(b.title) LIKE ? OR LOWER(a.name) LIKE ? OR LOWER(b.description) LIKE ?
+             ORDER BY CASE WHEN LOWER(b.title) LIKE ? THEN 0 WHEN LOWER(a.name) LIKE ? THEN 1 ELSE 2 END, b.id
+             LIMIT ? OFFSET ?
+            """.formatted(GENRE_NAMES_COLUMN);
+    private static final String COUNT_SEARCH_FALLBACK_SQL = """
+            SELECT COUNT(*) FROM (
+                SELECT 1 FROM books b LEFT JOIN authors a ON a.id = b.author_id
+                 WHERE LOWER(b.title) LIKE ? OR LOWER(a.name) LIKE ? OR LOWER(b.description) LIKE ?
+                 LIMIT ?) matches
+            """;
+
+    /** One row per book with its genre names joined by '|', in the column layout the catalog import reads. */
+    private static final String EXPORT_CATALOG_SQL = """
+            SELECT b.id, b.title, a.name, b.year, b.quantity,
+                   (SELECT string_agg(g.name, '|' ORDER BY g.name)
+                      FROM book_genres bg JOIN genres g ON g.id = bg.genre_id
+                     WHERE bg.book_id = b.id) AS genres,
+                   b.description
+              FROM books b LEFT JOIN authors a ON a.id = b.author_id
+             ORDER BY b.id
+            """;
+    private static final List<String> EXPORT_CATALOG_COLUMNS =
+            List.of("id", "title", "author", "year", "quantity", "genres", "description");
+
+    private static final String SCAN_BOOKS_FOR_SUGGEST_SQL = "SELECT b.id, b.title, b.author_id, a.name FROM books b LEFT JOIN authors a ON a.id = b.author_id ORDER BY b.id";
+    private static final int SUGGEST_SCAN_FETCH_SIZE = 1000;
+
+    private static final String SCAN_BOOKS_FOR_FACETS_SQL = "SELECT id, author_id, year, quantity FROM books";
+    private static final String SCAN_BOOK_GENRES_FOR_FACETS_SQL = "SELECT book_id, genre_id FROM book_genres";
+
+    private static final RowMapper<Book> BOOK = RowMapper.of((rs, col) -> {
+        Book book = new Book();
+        book.setId(rs.getLong(col[0]));
+        book.setTitle(rs.getString(col[1]));
+        book.setAuthorId(rs.getLong(col[2]));
+        book.setYear(rs.getInt(col[3]));
+        book.setDescription(rs.getString(col[4]));
+        book.setQuantity(rs.getInt(col[5]));
+        return book;
+    }, "id", "title", "author_id", "year", "description", "quantity");
+    private static final RowMapper<Integer> QUANTITY = RowMapper.positional((rs, col) -> rs.getInt(1));
+    private static final RowMapper<BookSummary> SUMMARY = RowMapper.positional((rs, col) -> mapSummary(rs));
+
+    private final JdbcExecutor jdbc;
+    private final SuggestIndex suggestIndex;
+    private final FacetIndex facetIndex;
+    private volatile Boolean fullTextSearch;
+    private final ReferenceDataCache<Author> authorCache;
+    private final AuthorIdCache authorIds;
+    private final AuthorDao authorDao;
+    private final GenreDao genreDao;
+    private final SingleFlight<Long, Book> bookLoads = new SingleFlight<>();
+    private final MissingKeyCache<Long> missingBooks = new MissingKeyCache<>();
+    private final CatalogVersion catalogVersion;
 
     /**
-     * Constructs a BookDaoImpl that uses the provided DataSource.
+     * Constructs a BookDaoImpl, with its own author and genre DAOs, that uses the provided DataSource.
      *
      * @param ds the DataSource to obtain connections from
      */
     public BookDaoImpl(DataSource ds) {
-        this.ds = ds;
-        logger.debug("BookDaoImpl initialized with provided DataSource");
+        this(ds, new SuggestIndex(), new FacetIndex(), new CatalogVersion());
     }
 
-    /**
-     * Constructs a BookDaoImpl that uses the default ConnectionPool.
-     */
-    public BookDaoImpl() {
-        this.ds = null;
-        logger.debug("BookDaoImpl initialized using default ConnectionPool");
+    private BookDaoImpl(DataSource ds, SuggestIndex suggestIndex, FacetIndex facetIndex, CatalogVersion catalogVersion) {
+        this(ds, new AuthorDaoImpl(ds, suggestIndex, facetIndex, catalogVersion), new GenreDaoImpl(ds, catalogVersion),
+                suggestIndex, facetIndex);
     }
 
     /**
-     * Obtains a Connection, either from the configured DataSource or from ConnectionPool.
+     * Constructs a BookDaoImpl on shared collaborators.
      *
-     * @return a new {@link Connection}
-     * @throws SQLException if unable to obtain a connection
+     * @param ds           the DataSource to obtain connections from
+     * @param authorDao    resolves authors and owns the author caches and the catalog version this DAO keeps current
+     * @param genreDao     resolves genres
+     * @param suggestIndex the autocomplete index, also updated by {@code authorDao}
+     * @param facetIndex   the facet index, also updated by {@code authorDao}
      */
-    private Connection getConnection() throws SQLException {
-        if (ds != null) {
-            logger.debug("Acquiring connection from DataSource");
-            return ds.getConnection();
-        } else {
-            logger.debug("Acquiring connection from ConnectionPool");
-            return ConnectionPool.getInstance().getConnection();
-        }
+    public BookDaoImpl(DataSource ds, AuthorDaoImpl authorDao, GenreDao genreDao,
+                       SuggestIndex suggestIndex, FacetIndex facetIndex) {
+        this.jdbc = new JdbcExecutor(ds);
+        this.authorCache = authorDao.cache();
+        this.authorIds = authorDao.authorIds();
+        this.catalogVersion = authorDao.catalogVersion();
+        this.suggestIndex = suggestIndex;
+        this.facetIndex = facetIndex;
+        this.authorDao = authorDao;
+        this.genreDao = genreDao;
+        logger.debug("BookDaoImpl initialized with provided DataSource");
     }
 
     /**
@@ -78,11 +230,13 @@ public class BookDaoImpl implements BookDao {
     @Override
     public boolean deleteBook(Book book) {
         logger.debug("deleteBook() called for book id={}", book.getId());
-        try (Connection conn = getConnection(); PreparedStatement ps = conn.prepareStatement(DELETE_BOOK_SQL)) {
-            ps.setLong(1, book.getId());
+        try {
             logger.debug("Executing DELETE: {} with id={}", DELETE_BOOK_SQL, book.getId());
-            boolean deleted = ps.executeUpdate() > 0;
+            boolean deleted = jdbc.update(DELETE_BOOK_SQL, book.getId()) > 0;
             if (deleted) {
+                catalogVersion.bump();
+                suggestIndex.removeBook(book.getId());
+                facetIndex.removeBook(book.getId());
                 logger.debug("Book deleted successfully: id={}", book.getId());
             } else {
                 logger.warn("No book found to delete for id={}", book.getId());
@@ -103,16 +257,14 @@ public class BookDaoImpl implements BookDao {
     @Override
     public boolean changeBook(Book book) {
         logger.debug("changeBook() called for book id={}", book.getId());
-        try (Connection conn = getConnection(); PreparedStatement ps = conn.prepareStatement(UPDATE_BOOK_SQL)) {
-            ps.setString(1, book.getTitle());
-            ps.setLong(2, book.getAuthorId());
-            ps.setInt(3, book.getYear());
-            ps.setString(4, book.getDescription());
-            ps.setInt(5, book.getQuantity());
-            ps.setLong(6, book.getId());
+        try {
             logger.debug("Executing UPDATE: {} with values title={}, authorId={}, year={}, description={}, quantity={}, id={}", UPDATE_BOOK_SQL, book.getTitle(), book.getAuthorId(), book.getYear(), book.getDescription(), book.getQuantity(), book.getId());
-            boolean updated = ps.executeUpdate() > 0;
+            boolean updated = jdbc.update(UPDATE_BOOK_SQL, book.getTitle(), book.getAuthorId(), book.getYear(),
+                    book.getDescription(), book.getQuantity(), book.getId()) > 0;
             if (updated) {
+                catalogVersion.bump();
+                suggestIndex.putBook(book.getId(), book.getTitle(), book.getAuthorId(), authorNameOf(book.getAuthorId()));
+                facetIndex.updateBook(book.getId(), book.getAuthorId(), book.getYear(), book.getQuantity());
                 logger.debug("Book updated successfully: id={}", book.getId());
             } else {
                 logger.warn("No book found to update for id={}", book.getId());
@@ -127,9 +279,8 @@ public class BookDaoImpl implements BookDao {
 
     @Override
     public long count() {
-        String sql = "SELECT COUNT(*) FROM books";
-        try (Connection conn = ConnectionPool.getInstance().getConnection(); PreparedStatement ps = conn.prepareStatement(sql); ResultSet rs = ps.executeQuery()) {
-            return rs.next() ? rs.getLong(1) : 0L;
+        try {
+            return jdbc.queryLong(COUNT_BOOKS_SQL);
         } catch (SQLException e) {
             logger.error("Error count books", e);
             return 0;
@@ -137,78 +288,405 @@ public class BookDaoImpl implements BookDao {
     }
 
     /**
-     * Retrieves all {@link Book} records from the database, including their associated
-     * {@link Author} and list of {@link Genre}.
+     * Retrieves one page of {@link Book} records, including their associated
+     * {@link Author} and list of {@link Genre}. Genres of the whole page are loaded with one query.
      *
-     * @return a List of all Book entities; empty if none found or on error
+     * @return a List of Book entities; empty if none found or on error
      */
     @Override
     public List<Book> findAll(Pageable pageable) {
-        String sql = """
-                SELECT id, title, author_id, year, description, quantity
-                  FROM books
-                 ORDER BY id
-                 LIMIT ? OFFSET ?
-                """;
-        List<Book> list = new ArrayList<>();
-
-        try (Connection conn = getConnection(); PreparedStatement ps = conn.prepareStatement(sql)) {
-
-            ps.setInt(1, pageable.getPageSize());
-            ps.setLong(2, pageable.getOffset());
-            try (ResultSet rs = ps.executeQuery()) {
-                AuthorDao authorDao = new AuthorDaoImpl(ds);
-                while (rs.next()) {
-                    Book b = mapBasicBook(rs);
-                    b.setAuthor(authorDao.findById(b.getAuthorId()));
-                    b.setGenres(loadGenres(conn, b.getId()));
-
-                    list.add(b);
-                }
-                return list;
-            }
-
+        List<Book> list;
+        try {
+            list = jdbc.query(SELECT_BOOK_PAGE_SQL, BOOK, pageable.getPageSize(), pageable.getOffset());
         } catch (SQLException e) {
             logger.error("Error with findAll(Pageable pageable) ", e);
-            return list;
+            return new ArrayList<>();
+        }
+        attachAuthorsAndGenres(list);
+        return list;
+    }
+
+    /**
+     * Counts the books matching a filter, from the facet index once it is loaded.
+     *
+     * @param filter the filter; its sort order is ignored
+     * @return number of matching books; 0 on error
+     */
+    @Override
+    public long count(BookFilter filter) {
+        if (facetIndex.isReady()) {
+            return facetIndex.count(filter);
+        }
+        if (filter.isUnrestricted()) {
+            return count();
+        }
+        StringBuilder sql = new StringBuilder(COUNT_FILTERED_SQL);
+        List<Object> params = new ArrayList<>();
+        appendFilter(sql, params, filter);
+        try {
+            return jdbc.queryLong(sql.toString(), params.toArray());
+        } catch (SQLException e) {
+            logger.error("Error counting books for filter {}", filter.toQueryString(), e);
+            return 0;
+        }
+    }
+
+    /**
+     * Retrieves one page of {@link BookSummary} rows for the list page with a single query:
+     * the description is not read and genre names are aggregated in SQL.
+     * Filter values are bound as parameters; the sort column comes from {@link BookFilter.Sort}.
+     *
+     * @param filter   the filter and sort order
+     * @param pageable the page to return
+     * @return summaries in the filter's order; empty if none found or on error
+     */
+    @Override
+    public List<BookSummary> findSummaries(BookFilter filter, Pageable pageable) {
+        logger.debug("findSummaries() filter='{}' page={} size={}", filter.toQueryString(), pageable.getPageNumber(), pageable.getPageSize());
+        StringBuilder where = new StringBuilder();
+        List<Object> params = new ArrayList<>();
+        appendFilter(where, params, filter);
+        String direction = filter.isDescending() ? " DESC" : "";
+        String order = filter.getSort() == BookFilter.Sort.ID
+                ? "b.id" + direction
+                : "b." + filter.getSort().getColumn() + direction + ", b.id" + direction;
+        String sql = SELECT_SUMMARIES_SQL.formatted(GENRE_NAMES_COLUMN, where, order);
+        params.add(pageable.getPageSize());
+        params.add(pageable.getOffset());
+        try {
+            return jdbc.query(sql, SUMMARY, params.toArray());
+        } catch (SQLException e) {
+            logger.error("Error fetching book summaries", e);
+            return new ArrayList<>();
         }
     }
 
     /**
      * Retrieves a {@link Book} by its ID, including its {@link Author} and list of {@link Genre}.
+     * Concurrent calls for the same ID share one load and receive the same instance (or the same exception),
+     * so a burst of requests for one popular book costs a single set of queries. IDs found missing are
+     * remembered for {@link MissingKeyCache#DEFAULT_TTL_MILLIS} ms and rejected without a query.
      *
      * @param id the ID of the book to retrieve
-     * @return the Book if found, or {@code null} if not found or on error
+     * @return the Book if found, or {@code null} on error
+     * @throws ResourceNotFoundException if no book has this ID
      */
     @Override
     public Book findById(Long id) {
         logger.debug("findById() called for book id={}", id);
-        Book book = null;
-        try (Connection conn = getConnection(); PreparedStatement ps = conn.prepareStatement(SELECT_BOOK_BY_ID_SQL)) {
-            ps.setLong(1, id);
+        if (missingBooks.contains(id)) {
+            logger.debug("Book id={} was recently found missing", id);
+            throw notFound(id);
+        }
+        return bookLoads.load(id, () -> loadBook(id));
+    }
+
+    private Book loadBook(Long id) {
+        Book book;
+        try {
             logger.debug("Executing SELECT: {} with id={}", SELECT_BOOK_BY_ID_SQL, id);
-            try (ResultSet rs = ps.executeQuery()) {
-                if (rs.next()) {
-                    book = mapBasicBook(rs);
-                    Author author = new AuthorDaoImpl(ds).findById(book.getAuthorId());
-                    book.setAuthor(author);
-                    book.setGenres(loadGenres(conn, id));
-                    logger.debug("Book found: id={} title='{}'", book.getId(), book.getTitle());
-                    return book;
-                } else {
-                    logger.warn("No book found for id={}", id);
-                    throw new ResourceNotFoundException("Book with id=" + id + " is not found");
-                }
-            }
+            book = jdbc.queryOne(SELECT_BOOK_BY_ID_SQL, BOOK, id);
         } catch (SQLException e) {
             logger.error("Error fetching book by id={}", id, e);
-            return book;
+            return null;
+        }
+        if (book == null) {
+            logger.warn("No book found for id={}", id);
+            missingBooks.add(id);
+            throw notFound(id);
+        }
+        attachAuthorsAndGenres(List.of(book));
+        logger.debug("Book found: id={} title='{}'", book.getId(), book.getTitle());
+        return book;
+    }
+
+    private static ResourceNotFoundException notFound(Long id) {
+        return ResourceNotFoundException.withoutStackTrace("Book with id=" + id + " is not found");
+    }
+
+    /**
+     * Searches books by title, author name and description, best matches first.
+     * On PostgreSQL this is a ranked full-text query; on other databases a substring match is used.
+     *
+     * @param query    the user's search text
+     * @param pageable the page to return
+     * @return one page of matching book summaries; empty if nothing matches or on error
+     */
+    @Override
+    public List<BookSummary> search(String query, Pageable pageable) {
+        logger.debug("search() called for query='{}' page={} size={}", query, pageable.getPageNumber(), pageable.getPageSize());
+        List<BookSummary> list;
+        try {
+            list = jdbc.withConnection(conn -> {
+                boolean fullText = supportsFullTextSearch(conn);
+                List<Object> params = searchParams(query, fullText, true);
+                params.add(pageable.getPageSize());
+                params.add(pageable.getOffset());
+                return jdbc.query(conn, fullText ? SEARCH_BOOKS_SQL : SEARCH_BOOKS_FALLBACK_SQL, SUMMARY, params.toArray());
+            });
+        } catch (SQLException e) {
+            logger.error("Error searching books for query='{}'", query, e);
+            return new ArrayList<>();
+        }
+        logger.debug("search() found {} books for query='{}'", list.size(), query);
+        return list;
+    }
+
+    /**
+     * Counts search matches, stopping at {@code limit} so that very broad queries stay cheap.
+     *
+     * @param query the user's search text
+     * @param limit the maximum count to report
+     * @return the number of matches, at most {@code limit}
+     */
+    @Override
+    public long countSearch(String query, int limit) {
+        try {
+            boolean fullText = jdbc.withConnection(this::supportsFullTextSearch);
+            List<Object> params = searchParams(query, fullText, false);
+            params.add(limit);
+            return jdbc.queryLong(fullText ? COUNT_SEARCH_SQL : COUNT_SEARCH_FALLBACK_SQL, params.toArray());
+        } catch (SQLException e) {
+            logger.error("Error counting search results for query='{}'", query, e);
+            return 0;
+        }
+    }
+
+    /**
+     * Returns autocomplete suggestions from the in-memory index; never touches the database.
+     *
+     * @param query the text typed so far
+     * @param limit maximum number of suggestions
+     * @return matching books, best first
+     */
+    @Override
+    public List<BookSuggestion> suggest(String query, int limit) {
+        return suggestIndex.suggest(query, limit);
+    }
+
+    /**
+     * Finds books whose title words are within a few typos of the query words.
+     * Candidates and ranking come from the in-memory index; only the final page is loaded from the database,
+     * as summaries in one query, and put back in the index's order.
+     *
+     * @param query the user's search text
+     * @param limit maximum number of books
+     * @return matching books, closest first; empty while the index is still loading or on error
+     */
+    @Override
+    public List<BookSummary> fuzzySearch(String query, int limit) {
+        if (!suggestIndex.isReady()) {
+            logger.debug("fuzzySearch() skipped, index not loaded yet");
+            return new ArrayList<>();
+        }
+        List<Long> ids = suggestIndex.fuzzyTitles(query, limit);
+        List<BookSummary> books = new ArrayList<>(ids.size());
+        if (ids.isEmpty()) {
+            return books;
+        }
+        Map<Long, BookSummary> byId = new HashMap<>();
+        try {
+            for (BookSummary summary : jdbc.query(SELECT_SUMMARIES_BY_IDS_SQL, SUMMARY, JdbcExecutor.array("bigint", ids))) {
+                byId.put(summary.getId(), summary);
+            }
+        } catch (SQLException e) {
+            logger.error("Error fetching fuzzy search results for query='{}'", query, e);
+            return books;
+        }
+        for (Long id : ids) {
+            BookSummary summary = byId.get(id);
+            if (summary != null) {
+                books.add(summary);
+            }
+        }
+        logger.debug("fuzzySearch() query='{}' returned {} books", query, books.size());
+        return books;
+    }
+
+    /**
+     * Populates the autocomplete index by streaming all books with their author names.
+     * Runs with autocommit off so that the driver honours the fetch size instead of buffering the whole table.
+     */
+    @Override
+    public void loadSuggestIndex() {
+        if (suggestIndex.isReady() || !suggestIndex.beginLoad()) {
+            return;
+        }
+        logger.debug("loadSuggestIndex() called");
+        try {
+            long count = jdbc.stream(SCAN_BOOKS_FOR_SUGGEST_SQL, SUGGEST_SCAN_FETCH_SIZE, rs -> {
+                long authorId = rs.getLong(3);
+                suggestIndex.loadBook(rs.getLong(1), rs.getString(2), rs.wasNull() ? null : authorId, rs.getString(4));
+            });
+            suggestIndex.markReady();
+            logger.info("Suggest index loaded with {} books", count);
+        } catch (SQLException e) {
+            suggestIndex.abortLoad();
+            logger.error("Error loading suggest index", e);
+        }
+    }
+
+    /**
+     * Returns the facet counts for a filter, with the names of the reported authors.
+     *
+     * @param filter     the active filter
+     * @param maxAuthors number of authors to report
+     * @return the counts, or {@code null} while the facet index is not loaded
+     */
+    @Override
+    public FacetCounts facetCounts(BookFilter filter, int maxAuthors) {
+        if (!facetIndex.isReady()) {
+            return null;
+        }
+        FacetCounts counts = facetIndex.counts(filter, maxAuthors);
+        Map<Long, String> names = new HashMap<>();
+        for (Long authorId : counts.getAuthors().keySet()) {
+            names.put(authorId, authorNameOf(authorId));
+        }
+        counts.setAuthorNames(names);
+        return counts;
+    }
+
+    /**
+     * Populates the facet index by streaming the books and then their genre links.
+     * Runs with autocommit off so that the driver honours the fetch size instead of buffering the whole table.
+     */
+    @Override
+    public void loadFacetIndex() {
+        if (facetIndex.isReady() || !facetIndex.beginLoad()) {
+            return;
+        }
+        logger.debug("loadFacetIndex() called");
+        try {
+            long count = jdbc.inTransaction(conn -> {
+                long books = jdbc.forEach(conn, SCAN_BOOKS_FOR_FACETS_SQL, SUGGEST_SCAN_FETCH_SIZE, rs -> {
+                    long authorId = rs.getLong(2);
+                    Long author = rs.wasNull() ? null : authorId;
+                    facetIndex.loadBook(rs.getLong(1), author, rs.getObject(3, Integer.class), rs.getInt(4));
+                });
+                jdbc.forEach(conn, SCAN_BOOK_GENRES_FOR_FACETS_SQL, SUGGEST_SCAN_FETCH_SIZE,
+                        rs -> facetIndex.loadGenre(rs.getLong(1), rs.getLong(2)));
+                return books;
+            });
+            facetIndex.markReady();
+            logger.info("Facet index loaded with {} books, {} bytes of bitmaps", count, facetIndex.sizeInBytes());
+        } catch (SQLException e) {
+            facetIndex.abortLoad();
+            logger.error("Error loading facet index", e);
+        }
+    }
+
+    /**
+     * Streams all books to the writer through a forward-only cursor. Autocommit is switched off for the
+     * duration so that the PostgreSQL driver fetches {@code fetchSize} rows at a time instead of reading
+     * the whole result into memory.
+     *
+     * @param writer    destination of the rows
+     * @param fetchSize rows fetched per round trip
+     * @return number of rows written
+     * @throws IOException if writing fails, or wrapping the SQLException if the query fails
+     */
+    @Override
+    public long exportCatalog(ExportWriter writer, int fetchSize) throws IOException {
+        logger.debug("exportCatalog() called with fetchSize={}", fetchSize);
+        try {
+            writer.start(EXPORT_CATALOG_COLUMNS);
+            jdbc.stream(EXPORT_CATALOG_SQL, fetchSize, rs -> writer.writeRow(rs.getLong(1), rs.getString(2),
+                    rs.getString(3), rs.getObject(4), rs.getInt(5), rs.getString(6), rs.getString(7)));
+        } catch (SQLException e) {
+            logger.error("Error exporting catalog after {} rows", writer.getRowCount(), e);
+            throw new IOException("Catalog export failed", e);
+        }
+        logger.debug("exportCatalog() wrote {} rows", writer.getRowCount());
+        return writer.getRowCount();
+    }
+
+    private String authorNameOf(Long authorId) {
+        if (authorId == null) {
+            return null;
+        }
+        Author author = authorDao.findById(authorId);
+        return author == null ? null : author.getName();
+    }
+
+    /**
+     * Returns the parameters of the search term, to which the caller appends its own.
+     * The fallback statements take the LIKE pattern three times in the filter and twice more for ordering.
+     */
+    private static List<Object> searchParams(String query, boolean fullText, boolean withOrdering) {
+        List<Object> params = new ArrayList<>();
+        if (fullText) {
+            params.add(query);
+            return params;
+        }
+        String pattern = "%" + query.toLowerCase().replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+        int uses = withOrdering ? 5 : 3;
+        for (int i = 0; i < uses; i++) {
+            params.add(pattern);
+        }
+        return params;
+    }
+
+    private boolean supportsFullTextSearch(Connection conn) throws SQLException {
+        Boolean supported = fullTextSearch;
+        if (supported == null) {
+            supported = "PostgreSQL".equals(conn.getMetaData().getDatabaseProductName());
+            fullTextSearch = supported;
+            logger.debug("Full-text search supported: {}", supported);
+        }
+        return supported;
+    }
+
+    /**
+     * Retrieves several books at once, including authors and genres, with one query for the books
+     * and one for their genres. Used by the basket and purchase history views.
+     *
+     * @param ids the IDs of the books to retrieve
+     * @return books by ID; IDs without a matching book are absent
+     */
+    @Override
+    public Map<Long, Book> findByIds(Collection<Long> ids) {
+        Map<Long, Book> result = new HashMap<>();
+        if (ids == null || ids.isEmpty()) {
+            return result;
+        }
+        logger.debug("findByIds() called for {} ids", ids.size());
+        try {
+            for (Book book : jdbc.query(SELECT_BOOKS_BY_IDS_SQL, BOOK, JdbcExecutor.array("bigint", ids))) {
+                result.put(book.getId(), book);
+            }
+        } catch (SQLException e) {
+            logger.error("Error fetching books by ids, count={}", ids.size(), e);
+            return result;
+        }
+        attachAuthorsAndGenres(result.values());
+        logger.debug("findByIds() found {} of {} books", result.size(), ids.size());
+        return result;
+    }
+
+    /**
+     * Fills in the author and genres of already mapped books.
+     * Authors come from the author cache once it is loaded; genres are fetched with a single query.
+     */
+    private void attachAuthorsAndGenres(Collection<Book> books) {
+        if (books.isEmpty()) {
+            return;
+        }
+        List<Long> ids = new ArrayList<>(books.size());
+        for (Book b : books) {
+            ids.add(b.getId());
+        }
+        Map<Long, List<Genre>> genres = genreDao.findByBookIds(ids);
+        for (Book b : books) {
+            b.setAuthor(authorDao.findById(b.getAuthorId()));
+            b.setGenres(genres.getOrDefault(b.getId(), new ArrayList<>()));
         }
     }
 
     /**
      * Saves a new {@link Book} along with its {@link Author} and associated {@link Genre} IDs in a single transaction.
-     * If the author does not exist, it will be created. The method will commit the transaction if all steps succeed.
+     * The author is matched by name ignoring case and created if it does not exist; concurrent saves with the same
+     * new author name resolve to one author. The method will commit the transaction if all steps succeed.
      *
      * @param book   the Book entity to save (without ID)
      * @param author the Author entity (may or may not already exist)
@@ -217,15 +695,26 @@ public class BookDaoImpl implements BookDao {
     @Override
     public boolean saveBookWithAuthor(Book book, Author author) {
         logger.debug("saveBookWithAuthor() called for book title='{}' author='{}'", book.getTitle(), author.getName());
-        try (Connection conn = getConnection()) {
-            conn.setAutoCommit(false);
-
-            long authorId = getOrCreateAuthor(conn, author);
-            long bookId = insertBook(conn, book, authorId);
+        try {
+            long[] bookIdHolder = new long[1];
+            Author stored = jdbc.inTransaction(conn -> {
+                Author a = getOrCreateAuthor(conn, author);
+                bookIdHolder[0] = insertBook(conn, book, a.getId());
+                insertBookGenres(conn, bookIdHolder[0], book.getGenreIds());
+                return a;
+            });
+            long bookId = bookIdHolder[0];
+            long authorId = stored.getId();
             book.setId(bookId);
-
-            insertBookGenres(conn, bookId, book.getGenreIds());
-            conn.commit();
+            book.setAuthorId(authorId);
+            missingBooks.remove(bookId);
+            catalogVersion.bump();
+            // only cached once committed, so a rolled-back author id is never handed out
+            authorIds.put(authorId, stored.getName());
+            suggestIndex.putBook(bookId, book.getTitle(), authorId, stored.getName());
+            facetIndex.putBook(bookId, authorId, book.getYear(), quantityOf(book), book.getGenreIds());
+            // the author may have been created above; put() is a no-op if it is already cached
+            authorCache.put(stored);
 
             logger.debug("Book saved successfully with id={} and authorId={}", bookId, authorId);
             return true;
@@ -235,6 +724,131 @@ public class BookDaoImpl implements BookDao {
         }
     }
 
+    /**
+     * Inserts a chunk of imported books: authors not in the {@link AuthorIdCache} are found or created with one
+     * upsert statement (per author outside PostgreSQL), then books and genre links go in as two JDBC batches, all in a single transaction.
+     * If the batch fails, the chunk is rolled back and retried row by row under savepoints, so that one bad
+     * row only rejects itself and the report can say which row it was.
+     *
+     * @param books books to insert, each with {@link Book#getAuthor()} holding the author name
+     * @return why each rejected book failed, by position in {@code books}
+     */
+    @Override
+    public Map<Integer, String> importBooks(List<Book> books) {
+        Map<Integer, String> failures = new HashMap<>();
+        if (books.isEmpty()) {
+            return failures;
+        }
+        logger.debug("importBooks() called for {} books", books.size());
+        Map<String, Author> authors = new HashMap<>();
+        try {
+            jdbc.inTransaction(conn -> {
+                try {
+                    insertImportChunk(conn, books, authors);
+                } catch (SQLException e) {
+                    conn.rollback();
+                    logger.warn("Import batch of {} books failed, retrying row by row: {}", books.size(), e.getMessage());
+                    authors.clear();
+                    for (Book book : books) {
+                        book.setId(null);
+                    }
+                    for (int i = 0; i < books.size(); i++) {
+                        Savepoint savepoint = conn.setSavepoint();
+                        Map<String, Author> rowAuthors = new HashMap<>(authors);
+                        try {
+                            insertImportChunk(conn, List.of(books.get(i)), rowAuthors);
+                            conn.releaseSavepoint(savepoint);
+                            authors.putAll(rowAuthors);
+                        } catch (SQLException rowError) {
+                            conn.rollback(savepoint);
+                            books.get(i).setId(null);
+                            failures.put(i, rowError.getMessage());
+                        }
+                    }
+                }
+                return null;
+            });
+        } catch (SQLException e) {
+            logger.error("Error importing {} books", books.size(), e);
+            for (int i = 0; i < books.size(); i++) {
+                books.get(i).setId(null);
+                failures.put(i, "Database error: " + e.getMessage());
+            }
+            return failures;
+        }
+
+        for (Author author : authors.values()) {
+            authorIds.put(author.getId(), author.getName());
+        }
+        authorCache.putAll(authors.values());
+        for (Book book : books) {
+            if (book.getId() != null) {
+                missingBooks.remove(book.getId());
+                suggestIndex.putBook(book.getId(), book.getTitle(), book.getAuthorId(), book.getAuthor().getName());
+                facetIndex.putBook(book.getId(), book.getAuthorId(), book.getYear(), quantityOf(book), book.getGenreIds());
+            }
+        }
+        if (failures.size() < books.size()) {
+            catalogVersion.bump();
+        }
+        logger.debug("importBooks() inserted {} of {} books", books.size() - failures.size(), books.size());
+        return failures;
+    }
+
+    private void insertImportChunk(Connection conn, List<Book> books, Map<String, Author> authors) throws SQLException {
+        resolveAuthors(conn, books, authors);
+        for (Book book : books) {
+            Author author = authors.get(AuthorIdCache.normalize(book.getAuthor().getName()));
+            book.setAuthor(author);
+            book.setAuthorId(author.getId());
+        }
+        long[] ids = jdbc.batchInsert(conn, INSERT_BOOK_SQL, books, (ps, book) -> {
+            ps.setString(1, book.getTitle());
+            ps.setObject(2, book.getYear(), Types.INTEGER);
+            ps.setLong(3, book.getAuthorId());
+            ps.setString(4, book.getDescription());
+            ps.setInt(5, quantityOf(book));
+        });
+        List<long[]> links = new ArrayList<>();
+        for (int i = 0; i < books.size(); i++) {
+            Book book = books.get(i);
+            book.setId(ids[i]);
+            if (book.getGenreIds() != null) {
+                for (Long genreId : book.getGenreIds()) {
+                    links.add(new long[]{ids[i], genreId});
+                }
+            }
+        }
+        jdbc.batch(conn, INSERT_BOOK_GENRE_SQL, links, (ps, link) -> {
+            ps.setLong(1, link[0]);
+            ps.setLong(2, link[1]);
+        });
+    }
+
+    /**
+     * Adds the chunk's authors to {@code authors}, keyed by {@link AuthorIdCache#normalize normalized} name:
+     * from the {@link AuthorIdCache} where possible, otherwise found or created by {@link AuthorUpsert#upsertAll}.
+     */
+    private void resolveAuthors(Connection conn, List<Book> books, Map<String, Author> authors) throws SQLException {
+        Set<String> missing = new LinkedHashSet<>();
+        for (Book book : books) {
+            String name = book.getAuthor().getName().strip();
+            String key = AuthorIdCache.normalize(name);
+            if (authors.containsKey(key)) {
+                continue;
+            }
+            Author cached = authorIds.get(name);
+            if (cached != null) {
+                authors.put(key, cached);
+            } else {
+                missing.add(name);
+            }
+        }
+        if (!missing.isEmpty()) {
+            authors.putAll(AuthorUpsert.upsertAll(jdbc, conn, missing));
+        }
+    }
+
     /**
      * Decrements the quantity of a book in stock, ensuring that the quantity does not go negative.
      *
@@ -245,14 +859,13 @@ public class BookDaoImpl implements BookDao {
     @Override
     public boolean decrementQuantity(Long bookId, int amount) {
         logger.debug("decrementQuantity() called for bookId={} amount={}", bookId, amount);
-        String sql = "UPDATE books SET quantity = quantity - ? WHERE id = ? AND quantity >= ?";
-        try (Connection conn = getConnection(); PreparedStatement ps = conn.prepareStatement(sql)) {
-            ps.setInt(1, amount);
-            ps.setLong(2, bookId);
-            ps.setInt(3, amount);
-            logger.debug("Executing UPDATE: {} with amount={}, bookId={}", sql, amount, bookId);
-            boolean updated = ps.executeUpdate() > 0;
+        try {
+            logger.debug("Executing UPDATE: {} with amount={}, bookId={}", DECREMENT_QUANTITY_SQL, amount, bookId);
+            Integer remaining = jdbc.queryOne(DECREMENT_QUANTITY_SQL, QUANTITY, amount, bookId, amount);
+            boolean updated = remaining != null;
             if (updated) {
+                catalogVersion.bump();
+                facetIndex.setQuantity(bookId, remaining);
                 logger.debug("Quantity decremented by {} for bookId={}", amount, bookId);
             } else {
                 logger.warn("Failed to decrement quantity for bookId={}. Not enough stock.", bookId);
@@ -265,44 +878,29 @@ public class BookDaoImpl implements BookDao {
     }
 
     /**
-     * Retrieves the ID of an existing author by name, or inserts a new author if none exists.
+     * Retrieves an existing author by name, ignoring case, or inserts a new author if none exists.
+     * Known names are answered from the {@link AuthorIdCache}; otherwise a single upsert statement finds or
+     * creates the row, so two transactions adding the same new author cannot both miss it.
      *
      * @param conn   the active {@link Connection} in which to execute
      * @param author the Author entity containing the name
-     * @return the ID of the existing or newly created author
+     * @return the stored author, with its ID and its name as stored
      * @throws SQLException if any SQL error occurs
      */
-    private long getOrCreateAuthor(Connection conn, Author author) throws SQLException {
+    private Author getOrCreateAuthor(Connection conn, Author author) throws SQLException {
         logger.debug("getOrCreateAuthor() called for author='{}'", author.getName());
-        try (PreparedStatement ps = conn.prepareStatement(FIND_AUTHOR_SQL)) {
-            ps.setString(1, author.getName());
-            try (ResultSet rs = ps.executeQuery()) {
-                if (rs.next()) {
-                    long existingId = rs.getLong("id");
-                    logger.debug("Author found with id={} for name='{}'", existingId, author.getName());
-                    return existingId;
-                }
-            }
-        } catch (SQLException e) {
-            logger.error("Error with geting or creating an author", e);
-            return 0;
-        }
-        try (PreparedStatement ps = conn.prepareStatement(INSERT_AUTHOR_SQL, Statement.RETURN_GENERATED_KEYS)) {
-            ps.setString(1, author.getName());
-            logger.debug("Executing INSERT: {} with name='{}'", INSERT_AUTHOR_SQL, author.getName());
-            ps.executeUpdate();
-            try (ResultSet rs = ps.getGeneratedKeys()) {
-                if (rs.next()) {
-                    long newId = rs.getLong(1);
-                    logger.debug("New author created with id={} name='{}'", newId, author.getName());
-                    return newId;
-                }
-            }
-        } catch (SQLException e) {
-            logger.error("Error with geting or creating an author", e);
-            return 0;
+        String name = author.getName().strip();
+        Author cached = authorIds.get(name);
+        if (cached != null) {
+            logger.debug("Author id={} for name='{}' served from cache", cached.getId(), name);
+            return cached;
         }
-        return 0;
+        AuthorUpsert.Result result = AuthorUpsert.upsert(jdbc, conn, name);
+        logger.debug("Author {} with id={} for name='{}'", result.created ? "created" : "found", result.id, name);
+        Author stored = new Author();
+        stored.setId(result.id);
+        stored.setName(result.name);
+        return stored;
     }
 
     /**
@@ -312,30 +910,18 @@ public class BookDaoImpl implements BookDao {
      * @param book     the Book to insert (must contain title, year, description, quantity)
      * @param authorId the ID of the existing or newly created author
      * @return the generated ID of the newly inserted book
-     * @throws SQLException if any SQL error occurs
+     * @throws SQLException if any SQL error occurs or no row was inserted
      */
     private long insertBook(Connection conn, Book book, long authorId) throws SQLException {
         logger.debug("insertBook() called for book title='{}' authorId={}", book.getTitle(), authorId);
-        try (PreparedStatement ps = conn.prepareStatement(INSERT_BOOK_SQL, Statement.RETURN_GENERATED_KEYS)) {
-            ps.setString(1, book.getTitle());
-            ps.setInt(2, book.getYear());
-            ps.setLong(3, authorId);
-            ps.setString(4, book.getDescription());
-            ps.setInt(5, book.getQuantity());
-            logger.debug("Executing INSERT: {} with title='{}', year={}, authorId={}, description='{}', quantity={}", INSERT_BOOK_SQL, book.getTitle(), book.getYear(), authorId, book.getDescription(), book.getQuantity());
-            ps.executeUpdate();
-            try (ResultSet rs = ps.getGeneratedKeys()) {
-                if (rs.next()) {
-                    long newBookId = rs.getLong(1);
-                    logger.debug("New book inserted with id={} title='{}'", newBookId, book.getTitle());
-                    return newBookId;
-                }
-            }
-        } catch (SQLException e) {
-            logger.error("Error with inserting a book", e);
-            return 0;
+        logger.debug("Executing INSERT: {} with title='{}', year={}, authorId={}, description='{}', quantity={}", INSERT_BOOK_SQL, book.getTitle(), book.getYear(), authorId, book.getDescription(), book.getQuantity());
+        Long newBookId = jdbc.insert(conn, INSERT_BOOK_SQL, book.getTitle(), book.getYear(), authorId,
+                book.getDescription(), book.getQuantity());
+        if (newBookId == null) {
+            throw new SQLException("No row inserted for book '" + book.getTitle() + "'");
         }
-        return 0;
+        logger.debug("New book inserted with id={} title='{}'", newBookId, book.getTitle());
+        return newBookId;
     }
 
     /**
@@ -351,61 +937,69 @@ public class BookDaoImpl implements BookDao {
             logger.debug("No genres to insert for bookId={}", bookId);
             return;
         }
-        try (PreparedStatement ps = conn.prepareStatement(INSERT_BOOK_GENRE_SQL)) {
-            for (Long gid : genreIds) {
-                ps.setLong(1, bookId);
-                ps.setLong(2, gid);
-                ps.addBatch();
-                logger.debug("Adding to batch: bookId={}, genreId={}", bookId, gid);
-            }
-            ps.executeBatch();
-            logger.debug("Inserted {} genre associations for bookId={}", genreIds.size(), bookId);
-        }
+        jdbc.batch(conn, INSERT_BOOK_GENRE_SQL, genreIds, (ps, gid) -> {
+            ps.setLong(1, bookId);
+            ps.setLong(2, gid);
+        });
+        logger.debug("Inserted {} genre associations for bookId={}", genreIds.size(), bookId);
+    }
+
+    private static int quantityOf(Book book) {
+        return book.getQuantity() == null ? 0 : book.getQuantity();
     }
 
     /**
-     * Loads the list of {@link Genre} entities associated with a given book ID.
+     * Appends the WHERE clause of a filter and collects its parameters in binding order.
      *
-     * @param conn   the active {@link Connection}
-     * @param bookId the ID of the book for which to load genres
-     * @return a List of Genre entities; empty if none found
-     * @throws SQLException if any SQL error occurs
+     * @param sql    the statement to append to
+     * @param params receives the parameter values
+     * @param filter the filter
      */
-    private List<Genre> loadGenres(Connection conn, long bookId) throws SQLException {
-        logger.debug("loadGenres() called for bookId={}", bookId);
-        List<Genre> list = new ArrayList<>();
-        try (PreparedStatement ps = conn.prepareStatement(SELECT_GENRES_FOR_BOOK_SQL)) {
-            ps.setLong(1, bookId);
-            logger.debug("Executing SELECT: {} with bookId={}", SELECT_GENRES_FOR_BOOK_SQL, bookId);
-            try (ResultSet rs = ps.executeQuery()) {
-                while (rs.next()) {
-                    Genre g = new Genre();
-                    g.setId(rs.getLong("id"));
-                    g.setName(rs.getString("name"));
-                    list.add(g);
-                }
-            }
+    private static void appendFilter(StringBuilder sql, List<Object> params, BookFilter filter) {
+        List<String> conditions = new ArrayList<>();
+        if (filter.getGenreId() != null) {
+            conditions.add(GENRE_CONDITION);
+            params.add(filter.getGenreId());
+        }
+        if (filter.getAuthorId() != null) {
+            conditions.add(AUTHOR_CONDITION);
+            params.add(filter.getAuthorId());
+        }
+        if (filter.getYearFrom() != null) {
+            conditions.add(YEAR_FROM_CONDITION);
+            params.add(filter.getYearFrom());
+        }
+        if (filter.getYearTo() != null) {
+            conditions.add(YEAR_TO_CONDITION);
+            params.add(filter.getYearTo());
+        }
+        if (filter.isInStock()) {
+            conditions.add(IN_STOCK_CONDITION);
+        }
+        if (!conditions.isEmpty()) {
+            sql.append(" WHERE ").append(String.join(" AND ", conditions));
         }
-        logger.debug("Loaded {} genres for bookId={}", list.size(), bookId);
-        return list;
     }
 
     /**
-     * Maps the current row of a ResultSet to a basic {@link Book} object without author or genres.
+     * Maps a row of one of the summary queries (see {@link #GENRE_NAMES_COLUMN}) to a {@link BookSummary}.
      *
      * @param rs the ResultSet positioned at a valid row
-     * @return a Book object populated with fields from the ResultSet
+     * @return the summary
      * @throws SQLException if any SQL error occurs
      */
-    private Book mapBasicBook(ResultSet rs) throws SQLException {
-        Book book = new Book();
-        book.setId(rs.getLong("id"));
-        book.setTitle(rs.getString("title"));
-        book.setAuthorId(rs.getLong("author_id"));
-        book.setYear(rs.getInt("year"));
-        book.setDescription(rs.getString("description"));
-        book.setQuantity(rs.getInt("quantity"));
-        logger.debug("Mapped basic book: id={}, title='{}'", book.getId(), book.getTitle());
-        return book;
+    private static BookSummary mapSummary(ResultSet rs) throws SQLException {
+        long authorId = rs.getLong(3);
+        Long author = rs.wasNull() ? null : authorId;
+        List<String> genreNames = new ArrayList<>();
+        Array names = rs.getArray(7);
+        if (names != null) {
+            for (Object name : (Object[]) names.getArray()) {
+                genreNames.add((String) name);
+            }
+            names.free();
+        }
+        return new BookSummary(rs.getLong(1), rs.getString(2), author, rs.getString(4),
+                rs.getObject(5, Integer.class), rs.getObject(6, Integer.class), genreNames);
     }
 }
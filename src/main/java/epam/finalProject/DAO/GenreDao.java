@@ -2,8 +2,9 @@ package epam.finalProject.DAO;
 
 import epam.finalProject.entity.Genre;
 
-import java.sql.SQLException;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 public interface GenreDao {
     boolean save(Genre genre);
@@ -12,6 +13,19 @@ public interface GenreDao {
 
     List<Genre> findAll();
 
-    List<Genre> findByBookId(long bookId) throws SQLException;
+    List<Genre> findByBookId(long bookId);
+
+    /**
+     * Loads the genres of many books with one query.
+     *
+     * @param bookIds book IDs
+     * @return genres per book ID; books without genres are absent
+     */
+    Map<Long, List<Genre>> findByBookIds(Collection<Long> bookIds);
+
+    /**
+     * Loads all genres into memory so that lookups and listings no longer query the database.
+     */
+    void loadCache();
 
 }
@@ -1,25 +1,48 @@
 package epam.finalProject.DAO;
 
 import epam.finalProject.entity.Genre;
-import epam.finalProject.db.ConnectionPool;
+import epam.finalProject.cache.CatalogVersion;
+import epam.finalProject.cache.ReferenceDataCache;
+import epam.finalProject.db.JdbcExecutor;
+import epam.finalProject.db.RowMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.sql.DataSource;
-import java.sql.*;
+import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * JDBC implementation of {@link GenreDao}.
  * Provides CRUD operations for {@link Genre} entities.
- * Uses a provided {@link DataSource} or a default {@link ConnectionPool}.
+ * Statements run through a {@link JdbcExecutor} on the given {@link DataSource}.
+ * Once {@link #loadCache()} has run, {@link #findAll()} and {@link #findById(Long)} are served
+ * from a {@link ReferenceDataCache}.
  */
 public class GenreDaoImpl implements GenreDao {
 
     private static final Logger logger = LoggerFactory.getLogger(GenreDaoImpl.class);
 
-    private final DataSource ds;
+    private static final int CACHE_LOAD_ATTEMPTS = 3;
+    private static final String INSERT_GENRE_SQL = "INSERT INTO genres (name) VALUES (?)";
+    private static final String SELECT_ALL_GENRES_SQL = "SELECT id, name FROM genres ORDER BY name, id";
+    private static final String SELECT_GENRE_BY_ID_SQL = "SELECT id, name FROM genres WHERE id = ?";
+    private static final String SELECT_GENRES_FOR_BOOKS_SQL = "SELECT bg.book_id, g.id, g.name FROM book_genres bg JOIN genres g ON g.id = bg.genre_id WHERE bg.book_id = ANY(?) ORDER BY bg.book_id, g.name";
+
+    private static final RowMapper<Genre> GENRE = RowMapper.of((rs, col) -> {
+        Genre genre = new Genre();
+        genre.setId(rs.getLong(col[0]));
+        genre.setName(rs.getString(col[1]));
+        return genre;
+    }, "id", "name");
+
+    private final JdbcExecutor jdbc;
+    private final ReferenceDataCache<Genre> cache;
+    private final CatalogVersion catalogVersion;
 
     /**
      * Constructs a GenreDaoImpl using the specified DataSource.
@@ -27,32 +50,20 @@ public class GenreDaoImpl implements GenreDao {
      * @param ds the DataSource to obtain connections from
      */
     public GenreDaoImpl(DataSource ds) {
-        this.ds = ds;
-        logger.debug("GenreDaoImpl initialized with provided DataSource");
-    }
-
-    /**
-     * Constructs a GenreDaoImpl using the default ConnectionPool.
-     */
-    public GenreDaoImpl() {
-        this.ds = null;
-        logger.debug("GenreDaoImpl initialized using default ConnectionPool");
+        this(ds, new CatalogVersion());
     }
 
     /**
-     * Obtains a database connection, either from the configured DataSource or from ConnectionPool.
+     * Constructs a GenreDaoImpl that reports its writes to a shared catalog version.
      *
-     * @return a new {@link Connection}
-     * @throws SQLException if a database access error occurs
+     * @param ds             the DataSource to obtain connections from
+     * @param catalogVersion bumped after every genre write
      */
-    private Connection getConnection() throws SQLException {
-        if (ds != null) {
-            logger.debug("Acquiring connection from DataSource");
-            return ds.getConnection();
-        } else {
-            logger.debug("Acquiring connection from ConnectionPool");
-            return ConnectionPool.getInstance().getConnection();
-        }
+    public GenreDaoImpl(DataSource ds, CatalogVersion catalogVersion) {
+        this.jdbc = new JdbcExecutor(ds);
+        this.cache = newCache();
+        this.catalogVersion = catalogVersion;
+        logger.debug("GenreDaoImpl initialized with provided DataSource");
     }
 
     /**
@@ -64,24 +75,16 @@ public class GenreDaoImpl implements GenreDao {
     @Override
     public boolean save(Genre genre) {
         logger.debug("save(Genre) called for name='{}'", genre.getName());
-        String sql = "INSERT INTO genres (name) VALUES (?)";
-        try (Connection conn = getConnection(); PreparedStatement ps = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-
-            ps.setString(1, genre.getName());
-            logger.debug("Executing INSERT: {} with name='{}'", sql, genre.getName());
-            int affectedRows = ps.executeUpdate();
-
-            if (affectedRows == 0) {
+        try {
+            Long id = jdbc.insert(INSERT_GENRE_SQL, genre.getName());
+            if (id == null) {
                 logger.warn("No rows inserted for genre name='{}'", genre.getName());
                 return false;
             }
-
-            try (ResultSet keys = ps.getGeneratedKeys()) {
-                if (keys.next()) {
-                    genre.setId(keys.getLong(1));
-                    logger.debug("Inserted genre with id={} name='{}'", genre.getId(), genre.getName());
-                }
-            }
+            genre.setId(id);
+            cache.put(genre);
+            catalogVersion.bump();
+            logger.debug("Inserted genre with id={} name='{}'", genre.getId(), genre.getName());
             return true;
         } catch (SQLException e) {
             logger.error("SQLException in save(Genre) for name='{}': {}", genre.getName(), e.getMessage(), e);
@@ -90,29 +93,49 @@ public class GenreDaoImpl implements GenreDao {
     }
 
     /**
-     * Retrieves all {@link Genre} records from the database.
+     * Retrieves all {@link Genre} records ordered by name.
+     * When the cache is loaded the returned list is a shared, read-only snapshot.
      *
      * @return a List of all genres, or an empty list if none found or on error
      */
     @Override
     public List<Genre> findAll() {
         logger.debug("findAll() called to retrieve all genres");
-        List<Genre> genres = new ArrayList<>();
-        String sql = "SELECT id, name FROM genres";
-
-        try (Connection conn = getConnection(); PreparedStatement ps = conn.prepareStatement(sql); ResultSet rs = ps.executeQuery()) {
+        if (cache.isReady()) {
+            return cache.sorted();
+        }
+        try {
+            return queryAll();
+        } catch (SQLException e) {
+            logger.error("SQLException in findAll(): {}", e.getMessage(), e);
+            return new ArrayList<>();
+        }
+    }
 
-            logger.debug("Executing SELECT: {}", sql);
-            while (rs.next()) {
-                Genre genre = new Genre();
-                genre.setId(rs.getLong("id"));
-                genre.setName(rs.getString("name"));
-                genres.add(genre);
+    /**
+     * Loads all genres into the cache. Retries if a genre is saved while the table is being read.
+     */
+    @Override
+    public void loadCache() {
+        try {
+            for (int attempt = 1; attempt <= CACHE_LOAD_ATTEMPTS; attempt++) {
+                long stamp = cache.loadStamp();
+                List<Genre> genres = queryAll();
+                if (cache.publish(genres, stamp)) {
+                    logger.info("Genre cache loaded with {} genres", genres.size());
+                    return;
+                }
+                logger.debug("Genres changed while loading the cache, attempt {}", attempt);
             }
-            logger.debug("Number of genres retrieved: {}", genres.size());
+            logger.warn("Genre cache not loaded after {} attempts; lookups stay on the database", CACHE_LOAD_ATTEMPTS);
         } catch (SQLException e) {
-            logger.error("SQLException in findAll(): {}", e.getMessage(), e);
+            logger.error("SQLException in loadCache(): {}", e.getMessage(), e);
         }
+    }
+
+    private List<Genre> queryAll() throws SQLException {
+        List<Genre> genres = jdbc.query(SELECT_ALL_GENRES_SQL, GENRE);
+        logger.debug("Number of genres retrieved: {}", genres.size());
         return genres;
     }
 
@@ -125,48 +148,67 @@ public class GenreDaoImpl implements GenreDao {
     @Override
     public Genre findById(Long id) {
         logger.debug("findById() called for genre id={}", id);
-        String sql = "SELECT id, name FROM genres WHERE id = ?";
-
-        try (Connection conn = getConnection(); PreparedStatement ps = conn.prepareStatement(sql)) {
-
-            ps.setLong(1, id);
-            logger.debug("Executing SELECT: {} with id={}", sql, id);
-            try (ResultSet rs = ps.executeQuery()) {
-                if (rs.next()) {
-                    Genre genre = new Genre();
-                    genre.setId(rs.getLong("id"));
-                    genre.setName(rs.getString("name"));
-                    logger.debug("Genre found: id={} name='{}'", genre.getId(), genre.getName());
-                    return genre;
-                } else {
-                    logger.warn("No genre found for id={}", id);
-                    return null;
-                }
+        if (cache.isReady()) {
+            return cache.find(id);
+        }
+        try {
+            Genre genre = jdbc.queryOne(SELECT_GENRE_BY_ID_SQL, GENRE, id);
+            if (genre != null) {
+                logger.debug("Genre found: id={} name='{}'", genre.getId(), genre.getName());
+            } else {
+                logger.warn("No genre found for id={}", id);
             }
+            return genre;
         } catch (SQLException e) {
             logger.error("SQLException in findById(id) for id={}: {}", id, e.getMessage(), e);
             return null;
         }
     }
 
+    /**
+     * Retrieves the genres of a single book.
+     *
+     * @param bookId the ID of the book
+     * @return the book's genres ordered by name; empty if none found or on error
+     */
     @Override
-    public List<Genre> findByBookId(long bookId) throws SQLException {
-        String sql = "SELECT g.id, g.name " + "FROM genres g " + "JOIN book_genre bg ON g.id = bg.genre_id " + "WHERE bg.book_id = ?";
-        List<Genre> genres = new ArrayList<>();
-
-        try (Connection conn = getConnection(); PreparedStatement ps = conn.prepareStatement(sql)) {
-            ps.setLong(1, bookId);
-            try (ResultSet rs = ps.executeQuery()) {
-                while (rs.next()) {
-                    Genre g = new Genre();
-                    g.setId(rs.getLong("id"));
-                    g.setName(rs.getString("name"));
-                    genres.add(g);
-                }
-            }
-        }
-        return genres;
+    public List<Genre> findByBookId(long bookId) {
+        return findByBookIds(List.of(bookId)).getOrDefault(bookId, new ArrayList<>());
     }
 
+    /**
+     * Retrieves the genres of many books with a single query.
+     *
+     * @param bookIds the IDs of the books
+     * @return genres per book ID, each list ordered by name; books without genres are absent from the map
+     */
+    @Override
+    public Map<Long, List<Genre>> findByBookIds(Collection<Long> bookIds) {
+        Map<Long, List<Genre>> result = new HashMap<>();
+        if (bookIds == null || bookIds.isEmpty()) {
+            return result;
+        }
+        logger.debug("findByBookIds() called for {} books", bookIds.size());
+        try {
+            jdbc.forEach(SELECT_GENRES_FOR_BOOKS_SQL, rs -> {
+                Genre g = new Genre();
+                g.setId(rs.getLong(2));
+                g.setName(rs.getString(3));
+                result.computeIfAbsent(rs.getLong(1), k -> new ArrayList<>()).add(g);
+            }, JdbcExecutor.array("bigint", bookIds));
+            logger.debug("Loaded genres for {} of {} books", result.size(), bookIds.size());
+        } catch (SQLException e) {
+            logger.error("SQLException in findByBookIds() for {} books: {}", bookIds.size(), e.getMessage(), e);
+        }
+        return result;
+    }
 
+    private static ReferenceDataCache<Genre> newCache() {
+        return new ReferenceDataCache<>(Genre::getId, Genre::getName, g -> {
+            Genre copy = new Genre();
+            copy.setId(g.getId());
+            copy.setName(g.getName());
+            return copy;
+        });
+    }
 }
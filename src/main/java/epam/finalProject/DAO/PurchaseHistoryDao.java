@@ -1,11 +1,23 @@
 package epam.finalProject.DAO;
 
 import epam.finalProject.entity.PurchaseHistory;
+import epam.finalProject.io.ExportWriter;
 
+import java.io.IOException;
 import java.util.List;
 
 public interface PurchaseHistoryDao {
     boolean save(PurchaseHistory record);
 
     List<PurchaseHistory> findByUserId(Long userId);
+
+    /**
+     * Streams every purchase, oldest first, with the buyer's username and the book title.
+     *
+     * @param writer    destination of the rows
+     * @param fetchSize rows fetched from the database per round trip
+     * @return number of rows written
+     * @throws IOException if writing fails or the query fails part-way
+     */
+    long exportAll(ExportWriter writer, int fetchSize) throws IOException;
 }
@@ -1,31 +1,58 @@
 package epam.finalProject.DAO;
 
-import epam.finalProject.db.ConnectionPool;
+import epam.finalProject.db.JdbcExecutor;
+import epam.finalProject.db.RowMapper;
 import epam.finalProject.entity.PurchaseHistory;
+import epam.finalProject.io.ExportWriter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.sql.*;
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.List;
 
 /**
  * JDBC implementation of {@link PurchaseHistoryDao}.
  * Provides methods to save a purchase record and retrieve purchase history by user ID.
- * Uses {@link ConnectionPool} to obtain database connections.
+ * Statements run through a {@link JdbcExecutor} on the given {@link DataSource}.
  */
 public class PurchaseHistoryDaoImpl implements PurchaseHistoryDao {
     private static final Logger logger = LoggerFactory.getLogger(PurchaseHistoryDaoImpl.class);
 
+    private static final String INSERT_PURCHASE_SQL = "INSERT INTO purchase_history (user_id, book_id, quantity, purchase_date) VALUES (?, ?, ?, ?)";
+    private static final String SELECT_BY_USER_SQL = "SELECT id, user_id, book_id, quantity, purchase_date FROM purchase_history WHERE user_id = ? ORDER BY purchase_date DESC";
+
+    private static final String EXPORT_ALL_SQL = """
+            SELECT ph.id, ph.purchase_date, ph.user_id, u.username, ph.book_id, b.title, ph.quantity
+              FROM purchase_history ph
+              LEFT JOIN users u ON u.id = ph.user_id
+              LEFT JOIN books b ON b.id = ph.book_id
+             ORDER BY ph.id
+            """;
+    private static final List<String> EXPORT_COLUMNS =
+            List.of("id", "purchase_date", "user_id", "username", "book_id", "title", "quantity");
+
+    private static final RowMapper<PurchaseHistory> PURCHASE = RowMapper.of((rs, col) -> {
+        PurchaseHistory ph = new PurchaseHistory();
+        ph.setId(rs.getLong(col[0]));
+        ph.setUserId(rs.getLong(col[1]));
+        ph.setBookId(rs.getLong(col[2]));
+        ph.setQuantity(rs.getInt(col[3]));
+        ph.setPurchaseDate(rs.getTimestamp(col[4]));
+        return ph;
+    }, "id", "user_id", "book_id", "quantity", "purchase_date");
+
+    private final JdbcExecutor jdbc;
+
     /**
-     * Obtains a connection from the {@link ConnectionPool}.
+     * Constructs a PurchaseHistoryDaoImpl using the specified DataSource.
      *
-     * @return a new {@link Connection}
-     * @throws SQLException if a database access error occurs
+     * @param ds the DataSource to obtain connections from
      */
-    private Connection getConnection() throws SQLException {
-        logger.debug("Acquiring connection from ConnectionPool");
-        return ConnectionPool.getInstance().getConnection();
+    public PurchaseHistoryDaoImpl(DataSource ds) {
+        this.jdbc = new JdbcExecutor(ds);
     }
 
     /**
@@ -37,32 +64,16 @@ public class PurchaseHistoryDaoImpl implements PurchaseHistoryDao {
      */
     @Override
     public boolean save(PurchaseHistory record) {
-        String sql = "INSERT INTO purchase_history (user_id, book_id, quantity, purchase_date) VALUES (?, ?, ?, ?)";
         logger.debug("save(PurchaseHistory) called for userId={}, bookId={}, quantity={}", record.getUserId(), record.getBookId(), record.getQuantity());
-
-        try (Connection conn = getConnection(); PreparedStatement ps = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-
-            ps.setLong(1, record.getUserId());
-            ps.setLong(2, record.getBookId());
-            ps.setInt(3, record.getQuantity());
-            ps.setTimestamp(4, record.getPurchaseDate());
-            logger.debug("Executing INSERT: {} with values userId={}, bookId={}, quantity={}, purchaseDate={}", sql, record.getUserId(), record.getBookId(), record.getQuantity(), record.getPurchaseDate());
-
-            int affected = ps.executeUpdate();
-            if (affected == 0) {
+        try {
+            Long generatedId = jdbc.insert(INSERT_PURCHASE_SQL, record.getUserId(), record.getBookId(), record.getQuantity(), record.getPurchaseDate());
+            if (generatedId == null) {
                 logger.warn("No rows inserted for PurchaseHistory record: {}", record);
                 return false;
             }
-
-            try (ResultSet keys = ps.getGeneratedKeys()) {
-                if (keys.next()) {
-                    long generatedId = keys.getLong(1);
-                    record.setId(generatedId);
-                    logger.debug("PurchaseHistory saved with generated ID={}", generatedId);
-                }
-            }
+            record.setId(generatedId);
+            logger.debug("PurchaseHistory saved with generated ID={}", generatedId);
             return true;
-
         } catch (SQLException e) {
             logger.error("Database error in save(PurchaseHistory): userId={}, bookId={}, quantity={}", record.getUserId(), record.getBookId(), record.getQuantity(), e);
             return false;
@@ -77,34 +88,39 @@ public class PurchaseHistoryDaoImpl implements PurchaseHistoryDao {
      */
     @Override
     public List<PurchaseHistory> findByUserId(Long userId) {
-        String sql = "SELECT id, user_id, book_id, quantity, purchase_date " + "FROM purchase_history WHERE user_id = ? ORDER BY purchase_date DESC";
         logger.debug("findByUserId() called for userId={}", userId);
-
-        List<PurchaseHistory> result = new ArrayList<>();
-        try (Connection conn = getConnection(); PreparedStatement ps = conn.prepareStatement(sql)) {
-
-            ps.setLong(1, userId);
-            logger.debug("Executing SELECT: {} with userId={}", sql, userId);
-
-            try (ResultSet rs = ps.executeQuery()) {
-                while (rs.next()) {
-                    PurchaseHistory ph = new PurchaseHistory();
-                    ph.setId(rs.getLong("id"));
-                    ph.setUserId(rs.getLong("user_id"));
-                    ph.setBookId(rs.getLong("book_id"));
-                    ph.setQuantity(rs.getInt("quantity"));
-
-                    Timestamp ts = rs.getTimestamp("purchase_date");
-                    ph.setPurchaseDate(ts);
-
-                    result.add(ph);
-                }
-                logger.debug("Fetched {} purchase history records for userId={}", result.size(), userId);
-            }
-
+        try {
+            List<PurchaseHistory> result = jdbc.query(SELECT_BY_USER_SQL, PURCHASE, userId);
+            logger.debug("Fetched {} purchase history records for userId={}", result.size(), userId);
+            return result;
         } catch (SQLException e) {
             logger.error("Database error in findByUserId(): userId={}", userId, e);
+            return new ArrayList<>();
+        }
+    }
+
+    /**
+     * Streams all purchases to the writer through a forward-only cursor. Autocommit is switched off for the
+     * duration so that the PostgreSQL driver fetches {@code fetchSize} rows at a time instead of reading
+     * the whole result into memory.
+     *
+     * @param writer    destination of the rows
+     * @param fetchSize rows fetched per round trip
+     * @return number of rows written
+     * @throws IOException if writing fails, or wrapping the SQLException if the query fails
+     */
+    @Override
+    public long exportAll(ExportWriter writer, int fetchSize) throws IOException {
+        logger.debug("exportAll() called with fetchSize={}", fetchSize);
+        writer.start(EXPORT_COLUMNS);
+        try {
+            jdbc.stream(EXPORT_ALL_SQL, fetchSize, rs -> writer.writeRow(rs.getLong(1), rs.getTimestamp(2), rs.getObject(3),
+                    rs.getString(4), rs.getObject(5), rs.getString(6), rs.getInt(7)));
+        } catch (SQLException e) {
+            logger.error("Error exporting purchase history after {} rows", writer.getRowCount(), e);
+            throw new IOException("Purchase history export failed", e);
         }
-        return result;
+        logger.debug("exportAll() wrote {} rows", writer.getRowCount());
+        return writer.getRowCount();
     }
 }
@@ -1,10 +1,14 @@
 package epam.finalProject.DAO;
 
+import epam.finalProject.dto.BulkOutcome;
+import epam.finalProject.dto.UserSummary;
 import epam.finalProject.entity.User;
 
 import org.springframework.data.domain.Pageable;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 /**
  * DAO interface for user data access operations.
@@ -20,13 +24,22 @@ public interface UserDao {
     boolean save(User user);
 
     /**
-     * Finds a user by username.
+     * Finds a user by username. Unknown usernames may be answered from memory without a query.
      *
      * @param username the username
      * @return the user object or null
      */
     User findByUsername(String username);
 
+    /**
+     * Finds a user by username for authentication, always reading the database, so that users created
+     * by another writer can log in.
+     *
+     * @param username the username
+     * @return the user object with its password hash, or null
+     */
+    User findCredentials(String username);
+
     /**
      * Updates an existing user's password or role.
      *
@@ -44,9 +57,52 @@ public interface UserDao {
 
     List<User> findAll(Pageable pageable);
 
+    /**
+     * Returns a keyset page of users ordered by username, without password hashes.
+     *
+     * @param usernamePrefix prefix filter, or {@code null} for all users
+     * @param cursor         username to continue from (exclusive), or {@code null}
+     * @param forward        direction relative to the cursor
+     * @param limit          maximum number of rows
+     * @return users in ascending username order
+     */
+    List<UserSummary> findSummaries(String usernamePrefix, String cursor, boolean forward, int limit);
+
     boolean delete(User user);
 
     User findById(Long id);
 
     boolean updateRole(Long id, String newRole);
+
+    /**
+     * Assigns a role to many users in a single statement. Other admins are never changed;
+     * the acting admin may change their own row.
+     *
+     * @param ids            user ids
+     * @param newRole        the role to assign
+     * @param actingUsername username of the admin performing the change
+     * @return outcome per id
+     */
+    Map<Long, BulkOutcome> updateRoles(Collection<Long> ids, String newRole, String actingUsername);
+
+    /**
+     * Deletes many users in a single statement with the same protection rule as {@link #updateRoles}.
+     *
+     * @param ids            user ids
+     * @param actingUsername username of the admin performing the deletion
+     * @return outcome per id
+     */
+    Map<Long, BulkOutcome> deleteByIds(Collection<Long> ids, String actingUsername);
+
+    /**
+     * Builds the in-memory username filter used to answer lookups of unknown usernames
+     * without a query. Safe to call more than once.
+     */
+    void loadUsernameFilter();
+
+    /**
+     * Replaces the username filter with one built from a fresh scan, dropping users deleted and picking up
+     * users created by other writers since the last build.
+     */
+    void rebuildUsernameFilter();
 }
@@ -1,6 +1,10 @@
 package epam.finalProject.DAO;
 
-import epam.finalProject.db.ConnectionPool;
+import epam.finalProject.cache.UsernameBloomFilter;
+import epam.finalProject.db.JdbcExecutor;
+import epam.finalProject.db.RowMapper;
+import epam.finalProject.dto.BulkOutcome;
+import epam.finalProject.dto.UserSummary;
 import epam.finalProject.entity.User;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -9,94 +13,124 @@ import javax.sql.DataSource;
 
 import org.springframework.data.domain.Pageable;
 
-import java.sql.*;
+import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
-
-import org.springframework.data.domain.Pageable;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 /**
  * JDBC implementation of {@link UserDao}.
  * Provides CRUD operations for {@link User} entities, including saving new users,
  * finding by username or ID, updating password and role, deleting users, and listing all users.
- * Uses a provided {@link DataSource} or a default {@link ConnectionPool}.
+ * Statements run through a {@link JdbcExecutor} on the given {@link DataSource}.
+ * Lookups by username are short-circuited by a {@link UsernameBloomFilter} owned by the instance.
+ * <p>
+ * The filter assumes this instance is the only writer of {@code users}: a user inserted by anything else
+ * (psql, another application instance) is unknown to it until {@link #findCredentials} sees the user log in
+ * or {@link #rebuildUsernameFilter()} runs. Authentication therefore never consults the filter.
  */
 public class UserDaoImpl implements UserDao {
     private static final Logger logger = LoggerFactory.getLogger(UserDaoImpl.class);
 
-    private final DataSource ds;
+    private static final int USERNAME_SCAN_FETCH_SIZE = 1000;
+
+    private static final String INSERT_USER_SQL = "INSERT INTO users (username, password, role) VALUES (?, ?, ?) ON CONFLICT DO NOTHING";
+    private static final String SELECT_BY_USERNAME_SQL = "SELECT id, username, role, password FROM users WHERE username = ?";
+    private static final String SELECT_BY_ID_SQL = "SELECT id, username, role, password FROM users WHERE id = ?";
+    private static final String UPDATE_PASSWORD_SQL = "UPDATE users SET password = ? WHERE username = ?";
+    private static final String UPDATE_ROLE_SQL = "UPDATE users SET role = ? WHERE id = ?";
+    private static final String DELETE_USER_SQL = "DELETE FROM users WHERE id = ? RETURNING username";
+    private static final String COUNT_USERS_SQL = "SELECT COUNT(*) FROM users";
+    private static final String SELECT_PAGE_SQL = "SELECT id, username, role FROM users ORDER BY id LIMIT ? OFFSET ?";
+    private static final String SCAN_USERNAMES_SQL = "SELECT username FROM users";
+
+    /** Reads id, username and role, for listings that never load the password hash. */
+    private static final RowMapper<String> USERNAME = RowMapper.positional((rs, col) -> rs.getString(1));
+    private static final RowMapper<User> USER = RowMapper.of((rs, col) -> {
+        User user = new User();
+        user.setId(rs.getLong(col[0]));
+        user.setUsername(rs.getString(col[1]));
+        user.setRole(rs.getString(col[2]));
+        return user;
+    }, "id", "username", "role");
+    private static final RowMapper<User> USER_WITH_PASSWORD = RowMapper.of((rs, col) -> {
+        User user = new User();
+        user.setId(rs.getLong(col[0]));
+        user.setUsername(rs.getString(col[1]));
+        user.setRole(rs.getString(col[2]));
+        user.setPassword(rs.getString(col[3]));
+        return user;
+    }, "id", "username", "role", "password");
+    private static final RowMapper<UserSummary> USER_SUMMARY = RowMapper.positional(
+            (rs, col) -> new UserSummary(rs.getLong(1), rs.getString(2), rs.getString(3)));
+
+    private final JdbcExecutor jdbc;
+    private volatile UsernameBloomFilter usernameFilter;
+    /** The filter {@link #rebuildUsernameFilter()} is building, which new usernames also go to; otherwise {@code null}. */
+    private volatile UsernameBloomFilter nextUsernameFilter;
+    /** Held shared by saves from adding the username until the insert commits, exclusively to start a rebuild. */
+    private final ReadWriteLock filterRebuild = new ReentrantReadWriteLock();
 
     /**
-     * Constructs a UserDaoImpl using the specified DataSource (for testing).
+     * Constructs a UserDaoImpl using the specified DataSource.
      *
      * @param ds the DataSource to obtain connections from
      */
     public UserDaoImpl(DataSource ds) {
-        this.ds = ds;
+        this.jdbc = new JdbcExecutor(ds);
+        this.usernameFilter = new UsernameBloomFilter();
         logger.debug("UserDaoImpl initialized with provided DataSource");
     }
 
     /**
-     * Constructs a UserDaoImpl using the default ConnectionPool (for production).
-     */
-    public UserDaoImpl() {
-        this.ds = null;
-        logger.debug("UserDaoImpl initialized using default ConnectionPool");
-    }
-
-    /**
-     * Obtains a database connection, either from the configured DataSource or from ConnectionPool.
-     *
-     * @return a new {@link Connection}
-     * @throws SQLException if a database access error occurs
-     */
-    private Connection getConnection() throws SQLException {
-        if (ds != null) {
-            logger.debug("Acquiring connection from DataSource");
-            return ds.getConnection();
-        } else {
-            logger.debug("Acquiring connection from ConnectionPool");
-            return ConnectionPool.getInstance().getConnection();
-        }
-    }
-
-    /**
-     * Inserts a new {@link User} into the database.
+     * Inserts a new {@link User} into the database in a single statement.
+     * A username conflict does not raise an error: the insert simply affects no rows.
+     * The username is added to the Bloom filter before the insert, so a concurrent lookup
+     * can never get a false "not present" for a committed row.
      *
      * @param user the User to save (must contain username, password, and role)
-     * @return {@code true} if the insertion succeeded, {@code false} otherwise
+     * @return {@code true} if the insertion succeeded, {@code false} if the username is taken or on error
      */
     @Override
     public boolean save(User user) {
-        String sql = "INSERT INTO users (username, password, role) VALUES (?, ?, ?)";
         logger.debug("save(User) called for username='{}'", user.getUsername());
-        try (Connection conn = getConnection(); PreparedStatement ps = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-
-            ps.setString(1, user.getUsername());
-            ps.setString(2, user.getPassword());
-            ps.setString(3, user.getRole());
-            logger.debug("Executing INSERT: {} with username='{}', role='{}'", sql, user.getUsername(), user.getRole());
-
-            int affectedRows = ps.executeUpdate();
-            if (affectedRows == 0) {
-                logger.warn("No rows inserted for User: username='{}'", user.getUsername());
+        filterRebuild.readLock().lock();
+        try {
+            addToUsernameFilter(user.getUsername());
+            logger.debug("Executing INSERT: {} with username='{}', role='{}'", INSERT_USER_SQL, user.getUsername(), user.getRole());
+            Long newId = jdbc.insert(INSERT_USER_SQL, user.getUsername(), user.getPassword(), user.getRole());
+            if (newId == null) {
+                logger.warn("No rows inserted for User (username taken): username='{}'", user.getUsername());
                 return false;
             }
-
-            try (ResultSet keys = ps.getGeneratedKeys()) {
-                if (keys.next()) {
-                    long newId = keys.getLong(1);
-                    user.setId(newId);
-                    logger.debug("User saved with generated ID={} username='{}'", newId, user.getUsername());
-                }
-            }
+            user.setId(newId);
+            logger.debug("User saved with generated ID={} username='{}'", newId, user.getUsername());
             return true;
         } catch (SQLException e) {
             logger.error("Database error in save() for username='{}': {}", user.getUsername(), e.getMessage(), e);
             return false;
+        } finally {
+            filterRebuild.readLock().unlock();
         }
     }
 
+    /**
+     * Adds a username to the filter and to the one being rebuilt, if any. The rebuilt filter is read first:
+     * once it reads {@code null} the swap is done and {@link #usernameFilter} is the new filter.
+     */
+    private void addToUsernameFilter(String username) {
+        UsernameBloomFilter next = nextUsernameFilter;
+        if (next != null) {
+            next.add(username);
+        }
+        usernameFilter.add(username);
+    }
+
     /**
      * Finds a {@link User} by username.
      *
@@ -105,32 +139,54 @@ public class UserDaoImpl implements UserDao {
      */
     @Override
     public User findByUsername(String username) {
-        String sql = "SELECT * FROM users WHERE username = ?";
         logger.debug("findByUsername() called for username='{}'", username);
-        try (Connection conn = getConnection(); PreparedStatement ps = conn.prepareStatement(sql)) {
-
-            ps.setString(1, username);
-            logger.debug("Executing SELECT: {} with username='{}'", sql, username);
-            try (ResultSet rs = ps.executeQuery()) {
-                if (rs.next()) {
-                    User user = new User();
-                    user.setId(rs.getLong("id"));
-                    user.setUsername(rs.getString("username"));
-                    user.setRole(rs.getString("role"));
-                    user.setPassword(rs.getString("password"));
-                    logger.debug("User found: id={}, username='{}', role='{}'", user.getId(), user.getUsername(), user.getRole());
-                    return user;
-                } else {
-                    logger.warn("No user found for username='{}'", username);
-                    return null;
-                }
+        if (!usernameFilter.mightContain(username)) {
+            logger.debug("Username filter rules out username='{}', skipping query", username);
+            return null;
+        }
+        try {
+            logger.debug("Executing SELECT: {} with username='{}'", SELECT_BY_USERNAME_SQL, username);
+            User user = jdbc.queryOne(SELECT_BY_USERNAME_SQL, USER_WITH_PASSWORD, username);
+            if (user != null) {
+                logger.debug("User found: id={}, username='{}', role='{}'", user.getId(), user.getUsername(), user.getRole());
+            } else {
+                logger.warn("No user found for username='{}'", username);
             }
+            return user;
         } catch (SQLException e) {
             logger.error("Database error in findByUsername() for username='{}': {}", username, e.getMessage(), e);
             return null;
         }
     }
 
+    /**
+     * Finds a {@link User} by username without consulting the username filter, for authentication.
+     * A user the filter did not know was created by another writer; the username is added to the filter,
+     * so that the user's later lookups through {@link #findByUsername} are not answered "absent".
+     *
+     * @param username the username to search for
+     * @return the User with its password hash if found, or {@code null} if not found or on error
+     */
+    @Override
+    public User findCredentials(String username) {
+        logger.debug("findCredentials() called for username='{}'", username);
+        try {
+            User user = jdbc.queryOne(SELECT_BY_USERNAME_SQL, USER_WITH_PASSWORD, username);
+            if (user == null) {
+                logger.debug("No user found for username='{}'", username);
+                return null;
+            }
+            if (!usernameFilter.mightContain(username)) {
+                logger.info("User '{}' was created outside this instance; adding it to the username filter", username);
+                addToUsernameFilter(username);
+            }
+            return user;
+        } catch (SQLException e) {
+            logger.error("Database error in findCredentials() for username='{}': {}", username, e.getMessage(), e);
+            return null;
+        }
+    }
+
     /**
      * Updates the password of an existing {@link User}.
      *
@@ -139,15 +195,10 @@ public class UserDaoImpl implements UserDao {
      */
     @Override
     public boolean updatePassword(User user) {
-        String sql = "UPDATE users SET password = ? WHERE username = ?";
         logger.debug("updatePassword() called for username='{}'", user.getUsername());
-        try (Connection conn = getConnection(); PreparedStatement ps = conn.prepareStatement(sql)) {
-
-            ps.setString(1, user.getPassword());
-            ps.setString(2, user.getUsername());
-            logger.debug("Executing UPDATE: {} with username='{}'", sql, user.getUsername());
-
-            boolean updated = ps.executeUpdate() > 0;
+        try {
+            logger.debug("Executing UPDATE: {} with username='{}'", UPDATE_PASSWORD_SQL, user.getUsername());
+            boolean updated = jdbc.update(UPDATE_PASSWORD_SQL, user.getPassword(), user.getUsername()) > 0;
             if (updated) {
                 logger.debug("Password updated successfully for username='{}'", user.getUsername());
             } else {
@@ -167,9 +218,8 @@ public class UserDaoImpl implements UserDao {
      */
     @Override
     public long count() {
-        String sql = "SELECT COUNT(*) FROM users";
-        try (Connection conn = ConnectionPool.getInstance().getConnection(); PreparedStatement ps = conn.prepareStatement(sql); ResultSet rs = ps.executeQuery()) {
-            return rs.next() ? rs.getLong(1) : 0L;
+        try {
+            return jdbc.queryLong(COUNT_USERS_SQL);
         } catch (SQLException e) {
             throw new RuntimeException(e);
         }
@@ -177,28 +227,61 @@ public class UserDaoImpl implements UserDao {
 
     @Override
     public List<User> findAll(Pageable pageable) {
-        String sql = "SELECT id, username, password, role " + "FROM users ORDER BY id " + "LIMIT ? OFFSET ?";
-        try (Connection conn = ConnectionPool.getInstance().getConnection(); PreparedStatement ps = conn.prepareStatement(sql)) {
-
-            ps.setInt(1, pageable.getPageSize());
-            ps.setLong(2, pageable.getOffset());
-            try (ResultSet rs = ps.executeQuery()) {
-                List<User> result = new ArrayList<>();
-                while (rs.next()) {
-                    User u = new User();
-                    u.setId(rs.getLong("id"));
-                    u.setUsername(rs.getString("username"));
-                    u.setPassword(rs.getString("password"));
-                    u.setRole(rs.getString("role"));
-                    result.add(u);
-                }
-                return result;
-            }
+        try {
+            return jdbc.query(SELECT_PAGE_SQL, USER, pageable.getPageSize(), pageable.getOffset());
         } catch (SQLException e) {
             throw new RuntimeException(e);
         }
     }
 
+    /**
+     * Returns one keyset page of users ordered by username, optionally restricted to a username prefix.
+     * The prefix predicate is served by the {@code text_pattern_ops} index on {@code users.username};
+     * the password column is never read.
+     *
+     * @param usernamePrefix prefix to match, or {@code null}/blank for all users
+     * @param cursor         username to continue from (exclusive), or {@code null} to start at the edge
+     * @param forward        {@code true} to read usernames after the cursor, {@code false} to read before it
+     * @param limit          maximum number of rows
+     * @return matching users in ascending username order; empty list on error
+     */
+    @Override
+    public List<UserSummary> findSummaries(String usernamePrefix, String cursor, boolean forward, int limit) {
+        StringBuilder sql = new StringBuilder("SELECT id, username, role FROM users WHERE 1 = 1");
+        List<Object> params = new ArrayList<>();
+        if (usernamePrefix != null && !usernamePrefix.isBlank()) {
+            sql.append(" AND username LIKE ? ESCAPE '\\'");
+            params.add(escapeLike(usernamePrefix.trim()) + "%");
+        }
+        if (cursor != null) {
+            sql.append(forward ? " AND username > ?" : " AND username < ?");
+            params.add(cursor);
+        }
+        params.add(limit);
+        sql.append(forward ? " ORDER BY username" : " ORDER BY username DESC").append(" LIMIT ?");
+        logger.debug("findSummaries() called for prefix='{}' cursor='{}' forward={} limit={}", usernamePrefix, cursor, forward, limit);
+
+        List<UserSummary> result;
+        try {
+            result = jdbc.query(sql.toString(), USER_SUMMARY, params.toArray());
+        } catch (SQLException e) {
+            logger.error("Database error in findSummaries() for prefix='{}': {}", usernamePrefix, e.getMessage(), e);
+            return new ArrayList<>();
+        }
+        if (!forward) {
+            Collections.reverse(result);
+        }
+        logger.debug("findSummaries() returned {} users", result.size());
+        return result;
+    }
+
+    /**
+     * Escapes LIKE wildcards so that user input is matched literally.
+     */
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
     /**
      * Deletes the specified {@link User} from the database.
      *
@@ -207,14 +290,14 @@ public class UserDaoImpl implements UserDao {
      */
     @Override
     public boolean delete(User user) {
-        String sql = "DELETE FROM users WHERE id = ?";
         logger.debug("delete(User) called for id={}", user.getId());
-        try (Connection conn = getConnection(); PreparedStatement ps = conn.prepareStatement(sql)) {
-
-            ps.setLong(1, user.getId());
-            logger.debug("Executing DELETE: {} with id={}", sql, user.getId());
-            boolean deleted = ps.executeUpdate() > 0;
+        try {
+            logger.debug("Executing DELETE: {} with id={}", DELETE_USER_SQL, user.getId());
+            // the filter entry is removed by the name the row actually had, not the caller's copy
+            String deletedUsername = jdbc.queryOne(DELETE_USER_SQL, USERNAME, user.getId());
+            boolean deleted = deletedUsername != null;
             if (deleted) {
+                usernameFilter.remove(deletedUsername);
                 logger.debug("User deleted successfully: id={}", user.getId());
             } else {
                 logger.warn("No user found to delete for id={}", user.getId());
@@ -234,26 +317,16 @@ public class UserDaoImpl implements UserDao {
      */
     @Override
     public User findById(Long id) {
-        String sql = "SELECT * FROM users WHERE id = ?";
         logger.debug("findById() called for id={}", id);
-        try (Connection conn = getConnection(); PreparedStatement ps = conn.prepareStatement(sql)) {
-
-            ps.setLong(1, id);
-            logger.debug("Executing SELECT: {} with id={}", sql, id);
-            try (ResultSet rs = ps.executeQuery()) {
-                if (rs.next()) {
-                    User user = new User();
-                    user.setId(rs.getLong("id"));
-                    user.setUsername(rs.getString("username"));
-                    user.setRole(rs.getString("role"));
-                    user.setPassword(rs.getString("password"));
-                    logger.debug("User found: id={}, username='{}', role='{}'", user.getId(), user.getUsername(), user.getRole());
-                    return user;
-                } else {
-                    logger.warn("No user found for id={}", id);
-                    return null;
-                }
+        try {
+            logger.debug("Executing SELECT: {} with id={}", SELECT_BY_ID_SQL, id);
+            User user = jdbc.queryOne(SELECT_BY_ID_SQL, USER_WITH_PASSWORD, id);
+            if (user != null) {
+                logger.debug("User found: id={}, username='{}', role='{}'", user.getId(), user.getUsername(), user.getRole());
+            } else {
+                logger.warn("No user found for id={}", id);
             }
+            return user;
         } catch (SQLException e) {
             logger.error("Database error in findById() for id={}: {}", id, e.getMessage(), e);
             return null;
@@ -269,14 +342,10 @@ public class UserDaoImpl implements UserDao {
      */
     @Override
     public boolean updateRole(Long id, String newRole) {
-        String sql = "UPDATE users SET role = ? WHERE id = ?";
         logger.debug("updateRole() called for id={} newRole='{}'", id, newRole);
-        try (Connection conn = getConnection(); PreparedStatement ps = conn.prepareStatement(sql)) {
-
-            ps.setString(1, newRole);
-            ps.setLong(2, id);
-            logger.debug("Executing UPDATE: {} with newRole='{}', id={}", sql, newRole, id);
-            boolean updated = ps.executeUpdate() > 0;
+        try {
+            logger.debug("Executing UPDATE: {} with newRole='{}', id={}", UPDATE_ROLE_SQL, newRole, id);
+            boolean updated = jdbc.update(UPDATE_ROLE_SQL, newRole, id) > 0;
             if (updated) {
                 logger.debug("User role updated successfully: id={} newRole='{}'", id, newRole);
             } else {
@@ -288,4 +357,154 @@ public class UserDaoImpl implements UserDao {
             return false;
         }
     }
+
+    /**
+     * Changes the role of many users in one statement.
+     * The admin-protection rule is part of the statement: rows of other admins are skipped,
+     * the acting admin's own row is not. The same statement reports an outcome for every requested id.
+     *
+     * @param ids            ids of the users to update
+     * @param newRole        the role to assign
+     * @param actingUsername username of the admin performing the change
+     * @return outcome per requested id, in ascending id order
+     */
+    @Override
+    public Map<Long, BulkOutcome> updateRoles(Collection<Long> ids, String newRole, String actingUsername) {
+        String sql = """
+                WITH changed AS (
+                    UPDATE users SET role = ?
+                     WHERE id = ANY(?) AND (role <> 'ADMIN' OR username = ?)
+                    RETURNING id
+                )
+                SELECT r.id, NULL,
+                       CASE WHEN c.id IS NOT NULL THEN 'DONE'
+                            WHEN u.id IS NOT NULL THEN 'PROTECTED'
+                            ELSE 'NOT_FOUND' END
+                  FROM unnest(?) AS r(id)
+                  LEFT JOIN changed c ON c.id = r.id
+                  LEFT JOIN users u ON u.id = r.id
+                 ORDER BY r.id
+                """;
+        logger.debug("updateRoles() called for {} ids newRole='{}' by '{}'", ids.size(), newRole, actingUsername);
+        return executeBulk(sql, ids, newRole, actingUsername);
+    }
+
+    /**
+     * Deletes many users in one statement, applying the same admin-protection rule as {@link #updateRoles}.
+     * Deleted usernames are removed from the username filter.
+     *
+     * @param ids            ids of the users to delete
+     * @param actingUsername username of the admin performing the deletion
+     * @return outcome per requested id, in ascending id order
+     */
+    @Override
+    public Map<Long, BulkOutcome> deleteByIds(Collection<Long> ids, String actingUsername) {
+        String sql = """
+                WITH removed AS (
+                    DELETE FROM users
+                     WHERE id = ANY(?) AND (role <> 'ADMIN' OR username = ?)
+                    RETURNING id, username
+                )
+                SELECT r.id, d.username,
+                       CASE WHEN d.id IS NOT NULL THEN 'DONE'
+                            WHEN u.id IS NOT NULL THEN 'PROTECTED'
+                            ELSE 'NOT_FOUND' END
+                  FROM unnest(?) AS r(id)
+                  LEFT JOIN removed d ON d.id = r.id
+                  LEFT JOIN users u ON u.id = r.id
+                 ORDER BY r.id
+                """;
+        logger.debug("deleteByIds() called for {} ids by '{}'", ids.size(), actingUsername);
+        return executeBulk(sql, ids, null, actingUsername);
+    }
+
+    /**
+     * Runs one of the bulk statements above. Parameters are bound in statement order:
+     * the optional role, the id array, the acting username and the id array again for the report.
+     * Column 2 of the result carries the username of deleted rows, column 3 the outcome.
+     */
+    private Map<Long, BulkOutcome> executeBulk(String sql, Collection<Long> ids, String newRole, String actingUsername) {
+        Map<Long, BulkOutcome> outcomes = new LinkedHashMap<>();
+        if (ids == null || ids.isEmpty()) {
+            return outcomes;
+        }
+        Long[] idArray = ids.stream().distinct().sorted().toArray(Long[]::new);
+        Object array = JdbcExecutor.array("bigint", List.of(idArray));
+        Object[] params = newRole != null
+                ? new Object[]{newRole, array, actingUsername, array}
+                : new Object[]{array, actingUsername, array};
+        try {
+            jdbc.forEach(sql, rs -> {
+                BulkOutcome outcome = BulkOutcome.valueOf(rs.getString(3));
+                outcomes.put(rs.getLong(1), outcome);
+                String deletedUsername = rs.getString(2);
+                if (outcome == BulkOutcome.DONE && deletedUsername != null) {
+                    usernameFilter.remove(deletedUsername);
+                }
+            }, params);
+            logger.debug("Bulk statement finished for {} ids: {}", idArray.length, outcomes);
+        } catch (SQLException e) {
+            logger.error("Database error in bulk user operation for {} ids: {}", idArray.length, e.getMessage(), e);
+            outcomes.clear();
+            for (Long id : idArray) {
+                outcomes.put(id, BulkOutcome.FAILED);
+            }
+        }
+        return outcomes;
+    }
+
+    /**
+     * Populates the username filter with a forward-only scan of the {@code users} table.
+     * Autocommit is switched off for the duration of the scan so that the PostgreSQL driver
+     * honours the fetch size instead of materialising the whole result.
+     * Does nothing if the filter is already loaded; on error the filter stays unloaded and
+     * every lookup keeps going to the database.
+     */
+    @Override
+    public void loadUsernameFilter() {
+        if (usernameFilter.isReady() || !usernameFilter.beginLoad()) {
+            return;
+        }
+        logger.debug("loadUsernameFilter() called");
+        try {
+            long count = jdbc.stream(SCAN_USERNAMES_SQL, USERNAME_SCAN_FETCH_SIZE, rs -> usernameFilter.add(rs.getString(1)));
+            usernameFilter.markReady();
+            logger.debug("Username filter loaded with {} usernames", count);
+        } catch (SQLException e) {
+            usernameFilter.abortLoad();
+            logger.error("Database error in loadUsernameFilter(): {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Builds a new username filter with the same scan as {@link #loadUsernameFilter()} and swaps it in.
+     * The rebuild starts once every save in flight has committed, and saves from then on also add to the new
+     * filter, so it holds every username the scan may miss. Deletes during the rebuild are not applied to it;
+     * they only leave false positives until the next rebuild. Loads the filter instead if it is not loaded yet;
+     * on error the current filter stays in use.
+     */
+    @Override
+    public synchronized void rebuildUsernameFilter() {
+        if (!usernameFilter.isReady()) {
+            loadUsernameFilter();
+            return;
+        }
+        UsernameBloomFilter next = new UsernameBloomFilter();
+        filterRebuild.writeLock().lock();
+        try {
+            nextUsernameFilter = next;
+        } finally {
+            filterRebuild.writeLock().unlock();
+        }
+        try {
+            long count = jdbc.stream(SCAN_USERNAMES_SQL, USERNAME_SCAN_FETCH_SIZE, rs -> next.add(rs.getString(1)));
+            next.markReady();
+            usernameFilter = next;
+            logger.debug("Username filter rebuilt with {} usernames", count);
+        } catch (SQLException e) {
+            logger.error("Database error in rebuildUsernameFilter(): {}", e.getMessage(), e);
+        } finally {
+            nextUsernameFilter = null;
+        }
+    }
 }
@@ -0,0 +1,99 @@
+package epam.finalProject.cache;
+
+import epam.finalProject.entity.Author;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Bounded map from author name to author id (and the name as stored), used to resolve the author of a new book
+ * without a query.
+ * Names are compared after {@link #normalize normalization}, so " Leo Tolstoy" and "leo tolstoy" share an entry,
+ * matching the case-insensitive lookup of the author upsert.
+ * The least recently used entry is evicted once {@link #getMaxSize()} names are held.
+ * <p>
+ * The map only ever holds ids read from the database; a miss means "ask the database", never "absent".
+ */
+public class AuthorIdCache {
+
+    public static final int DEFAULT_MAX_SIZE = 10_000;
+
+    private final int maxSize;
+    private final LinkedHashMap<String, Author> ids; // guarded by this
+
+    public AuthorIdCache() {
+        this(DEFAULT_MAX_SIZE);
+    }
+
+    /**
+     * @param maxSize maximum number of names held
+     */
+    public AuthorIdCache(int maxSize) {
+        this.maxSize = maxSize;
+        this.ids = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Author> eldest) {
+                return size() > AuthorIdCache.this.maxSize;
+            }
+        };
+    }
+
+    /**
+     * Trims and lower-cases the name.
+     *
+     * @param name an author name
+     * @return the lookup key
+     */
+    public static String normalize(String name) {
+        return name.strip().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * @param name an author name, in any case
+     * @return a copy of the stored author, or {@code null} if not cached
+     */
+    public synchronized Author get(String name) {
+        Author author = ids.get(normalize(name));
+        return author == null ? null : copy(author.getId(), author.getName());
+    }
+
+    /**
+     * Records the id of an author under its stored name.
+     *
+     * @param id   the author id
+     * @param name the author name as stored
+     */
+    public synchronized void put(long id, String name) {
+        ids.put(normalize(name), copy(id, name));
+    }
+
+    /**
+     * Forgets every name mapped to an author, after the author was renamed or deleted.
+     *
+     * @param id the author id
+     */
+    public synchronized void removeId(long id) {
+        for (Iterator<Author> it = ids.values().iterator(); it.hasNext(); ) {
+            if (it.next().getId() == id) {
+                it.remove();
+            }
+        }
+    }
+
+    public synchronized int size() {
+        return ids.size();
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    private static Author copy(long id, String name) {
+        Author author = new Author();
+        author.setId(id);
+        author.setName(name);
+        return author;
+    }
+}
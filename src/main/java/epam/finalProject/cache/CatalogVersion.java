@@ -0,0 +1,35 @@
+package epam.finalProject.cache;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counter that changes whenever the catalog (books, authors, genres) changes. The book, author and genre DAOs
+ * bump it after every successful write, so anything derived from the catalog can be cached under the version
+ * it was built from and is simply never looked up again once the version has moved on.
+ * <p>
+ * Read the version <em>before</em> reading the data it is meant to describe: a write in between then leaves
+ * newer data under an older version, which the next bump retires, rather than older data under a newer one.
+ * <p>
+ * Versions start from the start-up time in milliseconds, so a version handed out before a restart (for example
+ * in an ETag held by a browser) is not handed out again after it.
+ */
+public class CatalogVersion {
+
+    private final AtomicLong version = new AtomicLong(System.currentTimeMillis());
+
+    /**
+     * @return the current version
+     */
+    public long current() {
+        return version.get();
+    }
+
+    /**
+     * Records that the catalog has changed.
+     *
+     * @return the new version
+     */
+    public long bump() {
+        return version.incrementAndGet();
+    }
+}
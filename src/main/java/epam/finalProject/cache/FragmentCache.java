@@ -0,0 +1,102 @@
+package epam.finalProject.cache;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Least-recently-used cache of rendered HTML fragments, bounded by the memory the fragments take rather than by
+ * their number: a page of 100 rows weighs as much as ten pages of 10.
+ * Keys should include everything the fragment depends on, typically a {@link CatalogVersion}; entries for old
+ * versions are never hit again and age out.
+ *
+ * @param <K> key type
+ */
+public class FragmentCache<K> {
+
+    /** Rough per-entry cost of the map entry, key and string headers. */
+    static final long ENTRY_OVERHEAD_BYTES = 128;
+
+    private final long maxBytes;
+    private final LinkedHashMap<K, String> fragments = new LinkedHashMap<>(16, 0.75f, true); // guarded by this
+    private long bytes; // guarded by this
+    private long hits; // guarded by this
+    private long misses; // guarded by this
+
+    /**
+     * @param maxBytes approximate upper bound of the memory held by cached fragments
+     */
+    public FragmentCache(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * @param key fragment key
+     * @return the cached fragment, or {@code null} if it has to be rendered
+     */
+    public synchronized String get(K key) {
+        String html = fragments.get(key);
+        if (html == null) {
+            misses++;
+        } else {
+            hits++;
+        }
+        return html;
+    }
+
+    /**
+     * Caches a rendered fragment, evicting the least recently used ones until it fits. A fragment larger than
+     * the whole budget is not cached.
+     *
+     * @param key  fragment key
+     * @param html the rendered fragment
+     */
+    public synchronized void put(K key, String html) {
+        long weight = weigh(html);
+        if (weight > maxBytes) {
+            return;
+        }
+        String previous = fragments.put(key, html);
+        if (previous != null) {
+            bytes -= weigh(previous);
+        }
+        bytes += weight;
+        for (Iterator<String> it = fragments.values().iterator(); bytes > maxBytes && it.hasNext(); ) {
+            bytes -= weigh(it.next());
+            it.remove();
+        }
+    }
+
+    public synchronized void clear() {
+        fragments.clear();
+        bytes = 0;
+    }
+
+    public synchronized int size() {
+        return fragments.size();
+    }
+
+    /**
+     * @return approximate memory held by the cached fragments
+     */
+    public synchronized long getBytes() {
+        return bytes;
+    }
+
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    /** Two bytes per char at most, whether or not the JVM stores the string compactly. */
+    private static long weigh(String html) {
+        return ENTRY_OVERHEAD_BYTES + 2L * html.length();
+    }
+}
@@ -0,0 +1,93 @@
+package epam.finalProject.cache;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Remembers, for a short time, keys that the database has just reported as absent, so that repeated lookups
+ * of the same missing key (stale links, crawlers probing ids) are answered without a query.
+ * Entries expire after a fixed time to live; the oldest entry is evicted once {@link #getMaxSize()} keys are
+ * held. Callers must {@link #remove} a key as soon as a row with it may exist.
+ *
+ * @param <K> key type
+ */
+public class MissingKeyCache<K> {
+
+    public static final int DEFAULT_MAX_SIZE = 10_000;
+    public static final long DEFAULT_TTL_MILLIS = 30_000;
+
+    private final int maxSize;
+    private final long ttlNanos;
+    private final LongSupplier clock;
+    private final LinkedHashMap<K, Long> expiries; // guarded by this
+
+    public MissingKeyCache() {
+        this(DEFAULT_MAX_SIZE, DEFAULT_TTL_MILLIS, System::nanoTime);
+    }
+
+    /**
+     * @param maxSize   maximum number of keys held
+     * @param ttlMillis how long a key is reported missing after {@link #add}
+     * @param clock     source of {@link System#nanoTime()}-style timestamps
+     */
+    public MissingKeyCache(int maxSize, long ttlMillis, LongSupplier clock) {
+        this.maxSize = maxSize;
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+        this.clock = clock;
+        this.expiries = new LinkedHashMap<>(16, 0.75f, false) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Long> eldest) {
+                return size() > MissingKeyCache.this.maxSize;
+            }
+        };
+    }
+
+    /**
+     * @param key a key
+     * @return {@code true} if the key was recorded missing within the time to live
+     */
+    public synchronized boolean contains(K key) {
+        Long expiry = expiries.get(key);
+        if (expiry == null) {
+            return false;
+        }
+        if (expiry - clock.getAsLong() <= 0) {
+            expiries.remove(key);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Records that the database has no row for the key.
+     *
+     * @param key the key that was not found
+     */
+    public synchronized void add(K key) {
+        expiries.remove(key);
+        expiries.put(key, clock.getAsLong() + ttlNanos);
+    }
+
+    /**
+     * Forgets the key, after a row with it was inserted.
+     *
+     * @param key the key
+     */
+    public synchronized void remove(K key) {
+        expiries.remove(key);
+    }
+
+    public synchronized void clear() {
+        expiries.clear();
+    }
+
+    public synchronized int size() {
+        return expiries.size();
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+}
@@ -0,0 +1,183 @@
+package epam.finalProject.cache;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+/**
+ * In-memory copy of a small reference table (authors, genres) serving id lookups and a name-sorted list.
+ * Readers see an immutable snapshot; every write builds a new snapshot and swaps it in atomically,
+ * so lookups never lock and never observe a half-applied change.
+ * Until {@link #publish} succeeds the cache is not ready and callers must go to the database.
+ *
+ * @param <T> entity type
+ */
+public class ReferenceDataCache<T> {
+
+    private final Function<T, Long> idOf;
+    private final Function<T, String> nameOf;
+    private final UnaryOperator<T> copier;
+    private final Comparator<T> order;
+    private final AtomicReference<Snapshot<T>> snapshot = new AtomicReference<>();
+    private long modCount; // guarded by this
+
+    /**
+     * @param idOf   extracts the id of an entity
+     * @param nameOf extracts the name used for sorting
+     * @param copier creates a detached copy of an entity
+     */
+    public ReferenceDataCache(Function<T, Long> idOf, Function<T, String> nameOf, UnaryOperator<T> copier) {
+        this.idOf = idOf;
+        this.nameOf = nameOf;
+        this.copier = copier;
+        this.order = Comparator.comparing((T t) -> nameOf.apply(t), Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER))
+                .thenComparing(idOf, Comparator.nullsLast(Comparator.naturalOrder()));
+    }
+
+    public boolean isReady() {
+        return snapshot.get() != null;
+    }
+
+    /**
+     * Returns a copy of the cached entity.
+     *
+     * @param id entity id
+     * @return a detached copy, or {@code null} if absent or the cache is not ready
+     */
+    public T find(Long id) {
+        Snapshot<T> s = snapshot.get();
+        if (s == null || id == null) {
+            return null;
+        }
+        T value = s.byId.get(id);
+        return value == null ? null : copier.apply(value);
+    }
+
+    /**
+     * @param id entity id
+     * @return {@code true} if the entity is cached; always {@code false} while not ready
+     */
+    public boolean contains(Long id) {
+        Snapshot<T> s = snapshot.get();
+        return s != null && id != null && s.byId.containsKey(id);
+    }
+
+    /**
+     * Returns all entities ordered by name (case-insensitive), then id.
+     * The list and its elements are shared between callers and must not be modified.
+     *
+     * @return the sorted list, or an empty list if the cache is not ready
+     */
+    public List<T> sorted() {
+        Snapshot<T> s = snapshot.get();
+        return s == null ? Collections.emptyList() : s.sorted;
+    }
+
+    /**
+     * Returns a stamp to pass to {@link #publish} after reading the table.
+     *
+     * @return the current modification count
+     */
+    public synchronized long loadStamp() {
+        return modCount;
+    }
+
+    /**
+     * Installs the full table contents, unless a write was reported after {@code stamp} was taken;
+     * in that case the rows may already be stale and the caller should read them again.
+     *
+     * @param rows  all rows of the table
+     * @param stamp value of {@link #loadStamp()} taken before the rows were read
+     * @return {@code true} if the snapshot was installed
+     */
+    public synchronized boolean publish(Collection<T> rows, long stamp) {
+        if (stamp != modCount) {
+            return false;
+        }
+        Map<Long, T> byId = new HashMap<>(rows.size() * 2);
+        for (T row : rows) {
+            byId.put(idOf.apply(row), copier.apply(row));
+        }
+        snapshot.set(new Snapshot<>(byId, sortedValues(byId.values())));
+        return true;
+    }
+
+    /**
+     * Records an inserted or updated entity. A no-op if the cached copy is already identical.
+     *
+     * @param entity the entity as stored in the database
+     */
+    public synchronized void put(T entity) {
+        modCount++;
+        Snapshot<T> s = snapshot.get();
+        if (s == null) {
+            return;
+        }
+        Long id = idOf.apply(entity);
+        T previous = s.byId.get(id);
+        if (previous != null && Objects.equals(nameOf.apply(previous), nameOf.apply(entity))) {
+            return;
+        }
+        Map<Long, T> byId = new HashMap<>(s.byId);
+        byId.put(id, copier.apply(entity));
+        snapshot.set(new Snapshot<>(byId, sortedValues(byId.values())));
+    }
+
+    /**
+     * Records many inserted or updated entities with a single snapshot rebuild.
+     *
+     * @param entities the entities as stored in the database
+     */
+    public synchronized void putAll(Collection<T> entities) {
+        modCount++;
+        Snapshot<T> s = snapshot.get();
+        if (s == null || entities.isEmpty()) {
+            return;
+        }
+        Map<Long, T> byId = new HashMap<>(s.byId);
+        for (T entity : entities) {
+            byId.put(idOf.apply(entity), copier.apply(entity));
+        }
+        snapshot.set(new Snapshot<>(byId, sortedValues(byId.values())));
+    }
+
+    /**
+     * Records a deleted entity.
+     *
+     * @param id id of the deleted entity
+     */
+    public synchronized void remove(Long id) {
+        modCount++;
+        Snapshot<T> s = snapshot.get();
+        if (s == null || !s.byId.containsKey(id)) {
+            return;
+        }
+        Map<Long, T> byId = new HashMap<>(s.byId);
+        byId.remove(id);
+        snapshot.set(new Snapshot<>(byId, sortedValues(byId.values())));
+    }
+
+    private List<T> sortedValues(Collection<T> values) {
+        List<T> list = new ArrayList<>(values);
+        list.sort(order);
+        return Collections.unmodifiableList(list);
+    }
+
+    private static final class Snapshot<T> {
+        final Map<Long, T> byId;
+        final List<T> sorted;
+
+        Snapshot(Map<Long, T> byId, List<T> sorted) {
+            this.byId = Collections.unmodifiableMap(byId);
+            this.sorted = sorted;
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package epam.finalProject.cache;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Counting Bloom filter over usernames.
+ * Answers "definitely not present" without touching the database; any other answer
+ * means the caller has to check the {@code users} table.
+ * Counters make removal possible, so the filter can follow deletes as well as inserts.
+ * Until {@link #markReady()} is called every lookup answers "maybe present".
+ * <p>
+ * The filter only knows the usernames it is told about, so a "definitely not present" answer is only
+ * true while its owner is the single writer of the table; the owner has to rebuild it to pick up rows
+ * written by anyone else.
+ */
+public class UsernameBloomFilter {
+
+    /**
+     * Default number of counters (1 MiB). Keeps the false-positive rate below 1% up to ~100k users;
+     * beyond that the filter degrades gracefully towards "maybe present" and lookups fall back to SQL.
+     */
+    public static final int DEFAULT_SIZE = 1 << 20;
+
+    private static final int HASH_FUNCTIONS = 7;
+    private static final int MAX_COUNT = 0xFF;
+
+    private final byte[] counters;
+    private final AtomicBoolean loading = new AtomicBoolean();
+    private volatile boolean ready;
+    private volatile int writeSeq;
+
+    /**
+     * Creates a filter with {@link #DEFAULT_SIZE} counters.
+     */
+    public UsernameBloomFilter() {
+        this(DEFAULT_SIZE);
+    }
+
+    /**
+     * Creates a filter with the given number of counters.
+     *
+     * @param size number of counters; must be positive
+     */
+    public UsernameBloomFilter(int size) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("size must be positive");
+        }
+        this.counters = new byte[size];
+    }
+
+    /**
+     * Records a username. Safe to call before the filter is ready.
+     *
+     * @param username the username to add
+     */
+    public synchronized void add(String username) {
+        if (username == null) {
+            return;
+        }
+        long h = hash(username);
+        int h1 = (int) h;
+        int h2 = (int) (h >>> 32) | 1;
+        for (int i = 0; i < HASH_FUNCTIONS; i++) {
+            int idx = index(h1 + i * h2);
+            int c = counters[idx] & 0xFF;
+            if (c < MAX_COUNT) {
+                counters[idx] = (byte) (c + 1);
+            }
+        }
+        writeSeq++;
+    }
+
+    /**
+     * Forgets a username previously added. Ignored until the filter is ready, because
+     * the initial scan may not have counted the row yet; saturated counters are never decremented.
+     *
+     * @param username the username to remove
+     */
+    public synchronized void remove(String username) {
+        if (username == null || !ready || !mightContain(username)) {
+            return;
+        }
+        long h = hash(username);
+        int h1 = (int) h;
+        int h2 = (int) (h >>> 32) | 1;
+        for (int i = 0; i < HASH_FUNCTIONS; i++) {
+            int idx = index(h1 + i * h2);
+            int c = counters[idx] & 0xFF;
+            if (c > 0 && c < MAX_COUNT) {
+                counters[idx] = (byte) (c - 1);
+            }
+        }
+        writeSeq++;
+    }
+
+    /**
+     * Returns {@code false} only if the username is definitely not present.
+     *
+     * @param username the username to test
+     * @return {@code true} if the username may be present or the filter is not ready yet
+     */
+    public boolean mightContain(String username) {
+        if (!ready || username == null) {
+            return true;
+        }
+        int seq = writeSeq; // volatile read: publishes counters written by add/remove
+        long h = hash(username);
+        int h1 = (int) h;
+        int h2 = (int) (h >>> 32) | 1;
+        for (int i = 0; i < HASH_FUNCTIONS; i++) {
+            if (counters[index(h1 + i * h2)] == 0) {
+                return seq != writeSeq;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Claims the initial load so that only one caller scans the table.
+     *
+     * @return {@code true} if the caller should perform the load
+     */
+    public boolean beginLoad() {
+        return loading.compareAndSet(false, true);
+    }
+
+    /**
+     * Releases a claimed load after a failure so that it can be retried.
+     * Counters added by the partial scan stay in place; they can only cause false positives.
+     */
+    public void abortLoad() {
+        loading.set(false);
+    }
+
+    /**
+     * Marks the filter as fully populated; from now on negative answers are trusted.
+     */
+    public void markReady() {
+        ready = true;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    private int index(int combined) {
+        return (combined & Integer.MAX_VALUE) % counters.length;
+    }
+
+    /**
+     * 64-bit FNV-1a over the UTF-16 chars, finished with a murmur3 avalanche step.
+     */
+    private static long hash(String s) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < s.length(); i++) {
+            h ^= s.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
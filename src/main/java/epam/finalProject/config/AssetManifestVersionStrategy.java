@@ -0,0 +1,77 @@
+package epam.finalProject.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.Resource;
+import org.springframework.web.servlet.resource.ContentVersionStrategy;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Properties;
+
+/**
+ * Versions static assets by the content hashes the build recorded in {@value #MANIFEST} (see
+ * {@code src/build/AssetPipeline.java}), so {@code /css/style.css} is linked as {@code /css/style-<hash>.css}
+ * without the application hashing anything. An asset missing from the manifest falls back to an MD5 of its
+ * content, as with {@link ContentVersionStrategy}.
+ * <p>
+ * Only use it when the served files are the ones the build hashed: a file edited after the build keeps its
+ * old hash, and browsers holding the old URL as immutable would never fetch the edit.
+ */
+public class AssetManifestVersionStrategy extends ContentVersionStrategy {
+
+    private static final Logger logger = LoggerFactory.getLogger(AssetManifestVersionStrategy.class);
+
+    public static final String MANIFEST = "asset-manifest.properties";
+
+    private static final String STATIC_DIR = "/static/";
+
+    private final Properties manifest;
+
+    /**
+     * @param manifest asset path relative to {@code static/} mapped to its version
+     */
+    public AssetManifestVersionStrategy(Properties manifest) {
+        this.manifest = manifest;
+    }
+
+    /**
+     * @return a strategy over the manifest on the classpath, or over an empty one if the build wrote none
+     */
+    public static AssetManifestVersionStrategy fromClasspath() {
+        Properties manifest = new Properties();
+        ClassPathResource resource = new ClassPathResource(MANIFEST);
+        if (resource.exists()) {
+            try (InputStream in = resource.getInputStream()) {
+                manifest.load(in);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not read " + MANIFEST, e);
+            }
+        } else {
+            logger.warn("No {} on the classpath; static asset versions are computed at runtime", MANIFEST);
+        }
+        return new AssetManifestVersionStrategy(manifest);
+    }
+
+    @Override
+    public String getResourceVersion(Resource resource) {
+        String path = staticPath(resource);
+        String version = path == null ? null : manifest.getProperty(path);
+        return version != null ? version : super.getResourceVersion(resource);
+    }
+
+    /**
+     * @return the resource's path below the {@code static/} directory, or {@code null} if it is not in one
+     */
+    static String staticPath(Resource resource) {
+        try {
+            String url = resource.getURL().toString();
+            int start = url.lastIndexOf(STATIC_DIR);
+            return start < 0 ? null : url.substring(start + STATIC_DIR.length());
+        } catch (IOException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package epam.finalProject.config;
+
+import epam.finalProject.DAO.AuthorDao;
+import epam.finalProject.DAO.BookDao;
+import epam.finalProject.DAO.GenreDao;
+import epam.finalProject.DAO.UserDao;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Loads the in-memory lookup structures once the application has started,
+ * so that the first requests do not pay for building them, and periodically rebuilds
+ * the username filter, which cannot see users written by anything but this instance.
+ */
+@Component
+public class CacheWarmup {
+
+    private static final Logger logger = LoggerFactory.getLogger(CacheWarmup.class);
+
+    private final UserDao userDao;
+    private final AuthorDao authorDao;
+    private final GenreDao genreDao;
+    private final BookDao bookDao;
+
+    public CacheWarmup(UserDao userDao, AuthorDao authorDao, GenreDao genreDao, BookDao bookDao) {
+        this.userDao = userDao;
+        this.authorDao = authorDao;
+        this.genreDao = genreDao;
+        this.bookDao = bookDao;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        logger.debug("Warming up in-memory caches");
+        userDao.loadUsernameFilter();
+        authorDao.loadCache();
+        genreDao.loadCache();
+        bookDao.loadSuggestIndex();
+        bookDao.loadFacetIndex();
+    }
+
+    @Scheduled(initialDelayString = "${users.usernameFilter.rebuildMs}", fixedDelayString = "${users.usernameFilter.rebuildMs}")
+    public void rebuildUsernameFilter() {
+        logger.debug("Rebuilding the username filter");
+        userDao.rebuildUsernameFilter();
+    }
+}
@@ -0,0 +1,80 @@
+package epam.finalProject.config;
+
+import epam.finalProject.DAO.AuthorDaoImpl;
+import epam.finalProject.DAO.BasketDaoImpl;
+import epam.finalProject.DAO.BookDaoImpl;
+import epam.finalProject.DAO.GenreDaoImpl;
+import epam.finalProject.DAO.PurchaseHistoryDaoImpl;
+import epam.finalProject.DAO.UserDaoImpl;
+import epam.finalProject.cache.CatalogVersion;
+import epam.finalProject.db.ParallelQueries;
+import epam.finalProject.search.FacetIndex;
+import epam.finalProject.search.SuggestIndex;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * Declares one instance of every DAO, all on the application {@link DataSource} configured by
+ * {@code spring.datasource.*}. The in-memory indexes and caches live in these instances, so
+ * everything that reads or writes the catalog goes through the same ones.
+ */
+@Configuration
+public class DataAccessConfig {
+
+    @Bean
+    public SuggestIndex suggestIndex() {
+        return new SuggestIndex();
+    }
+
+    @Bean
+    public FacetIndex facetIndex() {
+        return new FacetIndex();
+    }
+
+    @Bean
+    public CatalogVersion catalogVersion() {
+        return new CatalogVersion();
+    }
+
+    @Bean
+    public AuthorDaoImpl authorDao(DataSource dataSource, SuggestIndex suggestIndex, FacetIndex facetIndex,
+                                   CatalogVersion catalogVersion) {
+        return new AuthorDaoImpl(dataSource, suggestIndex, facetIndex, catalogVersion);
+    }
+
+    @Bean
+    public GenreDaoImpl genreDao(DataSource dataSource, CatalogVersion catalogVersion) {
+        return new GenreDaoImpl(dataSource, catalogVersion);
+    }
+
+    @Bean
+    public BookDaoImpl bookDao(DataSource dataSource, AuthorDaoImpl authorDao, GenreDaoImpl genreDao,
+                               SuggestIndex suggestIndex, FacetIndex facetIndex) {
+        return new BookDaoImpl(dataSource, authorDao, genreDao, suggestIndex, facetIndex);
+    }
+
+    @Bean
+    public UserDaoImpl userDao(DataSource dataSource) {
+        return new UserDaoImpl(dataSource);
+    }
+
+    @Bean
+    public BasketDaoImpl basketDao(DataSource dataSource) {
+        return new BasketDaoImpl(dataSource);
+    }
+
+    @Bean
+    public PurchaseHistoryDaoImpl purchaseHistoryDao(DataSource dataSource) {
+        return new PurchaseHistoryDaoImpl(dataSource);
+    }
+
+    @Bean
+    public ParallelQueries parallelQueries(@Value("${db.parallel.threads:4}") int threads,
+                                           @Value("${db.parallel.queueCapacity:32}") int queueCapacity,
+                                           @Value("${db.parallel.timeoutMs:5000}") long timeoutMillis) {
+        return new ParallelQueries(threads, queueCapacity, timeoutMillis);
+    }
+}
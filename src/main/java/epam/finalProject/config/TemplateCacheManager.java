@@ -0,0 +1,118 @@
+package epam.finalProject.config;
+
+import org.thymeleaf.cache.ExpressionCacheKey;
+import org.thymeleaf.cache.ICache;
+import org.thymeleaf.cache.ICacheEntryValidityChecker;
+import org.thymeleaf.cache.ICacheManager;
+import org.thymeleaf.cache.StandardCacheManager;
+import org.thymeleaf.cache.TemplateCacheKey;
+import org.thymeleaf.engine.TemplateModel;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Thymeleaf's standard caches with the parsed-template cache bounded to a given number of entries and counting
+ * its hits and misses, so that {@link #stats()} can tell whether the cache is big enough for the templates
+ * in use. Only templates whose resolver marks them cacheable are ever stored; with a non-cacheable resolver
+ * (the dev profile) every lookup is a miss.
+ */
+public class TemplateCacheManager implements ICacheManager {
+
+    private final StandardCacheManager standard = new StandardCacheManager();
+    private final int maxSize;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final CountingCache templateCache;
+
+    /**
+     * @param maxSize upper bound of the number of parsed templates kept; fragments selected from a template are
+     *                cached as entries of their own
+     */
+    public TemplateCacheManager(int maxSize) {
+        this.maxSize = maxSize;
+        standard.setTemplateCacheMaxSize(maxSize);
+        templateCache = new CountingCache(standard.getTemplateCache());
+    }
+
+    @Override
+    public ICache<TemplateCacheKey, TemplateModel> getTemplateCache() {
+        return templateCache;
+    }
+
+    @Override
+    public ICache<ExpressionCacheKey, Object> getExpressionCache() {
+        return standard.getExpressionCache();
+    }
+
+    @Override
+    public <K, V> ICache<K, V> getSpecificCache(String name) {
+        return standard.getSpecificCache(name);
+    }
+
+    @Override
+    public List<String> getAllSpecificCacheNames() {
+        return standard.getAllSpecificCacheNames();
+    }
+
+    @Override
+    public void clearAllCaches() {
+        standard.clearAllCaches();
+    }
+
+    /**
+     * @return current number of cached templates, the bound, and lookups answered from and missed by the cache
+     */
+    public Stats stats() {
+        return new Stats(templateCache.keySet().size(), maxSize, hits.sum(), misses.sum());
+    }
+
+    public record Stats(int size, int maxSize, long hits, long misses) {
+    }
+
+    private final class CountingCache implements ICache<TemplateCacheKey, TemplateModel> {
+
+        private final ICache<TemplateCacheKey, TemplateModel> cache;
+
+        private CountingCache(ICache<TemplateCacheKey, TemplateModel> cache) {
+            this.cache = cache;
+        }
+
+        @Override
+        public void put(TemplateCacheKey key, TemplateModel value) {
+            cache.put(key, value);
+        }
+
+        @Override
+        public TemplateModel get(TemplateCacheKey key) {
+            return count(cache.get(key));
+        }
+
+        @Override
+        public TemplateModel get(TemplateCacheKey key,
+                                 ICacheEntryValidityChecker<? super TemplateCacheKey, ? super TemplateModel> validityChecker) {
+            return count(cache.get(key, validityChecker));
+        }
+
+        private TemplateModel count(TemplateModel model) {
+            (model == null ? misses : hits).increment();
+            return model;
+        }
+
+        @Override
+        public void clear() {
+            cache.clear();
+        }
+
+        @Override
+        public void clearKey(TemplateCacheKey key) {
+            cache.clearKey(key);
+        }
+
+        @Override
+        public Set<TemplateCacheKey> keySet() {
+            return cache.keySet();
+        }
+    }
+}
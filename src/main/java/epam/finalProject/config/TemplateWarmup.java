@@ -0,0 +1,120 @@
+package epam.finalProject.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.stereotype.Component;
+import org.thymeleaf.ITemplateEngine;
+import org.thymeleaf.context.Context;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Parses every page template under {@code templates/} and {@code templates/admin/} into the template cache
+ * before the web server starts taking requests, so that the first visitor of each page does not pay for
+ * reading and parsing it. Templates are parsed in parallel, one per available processor.
+ * <p>
+ * Templates are only parsed, not rendered: {@code processThrottled} builds and caches the template model under
+ * the same key a normal rendering uses, and evaluates nothing until the returned processor is driven, which
+ * it never is here. Enabled with {@code templates.warmup.enabled} (the prod profile); pointless without a
+ * cacheable template resolver.
+ */
+@Component
+public class TemplateWarmup implements SmartInitializingSingleton {
+
+    private static final Logger logger = LoggerFactory.getLogger(TemplateWarmup.class);
+
+    static final String[] LOCATIONS = {"templates/", "templates/admin/"};
+
+    private final ITemplateEngine templateEngine;
+    private final boolean enabled;
+    private volatile int warmed;
+
+    public TemplateWarmup(ITemplateEngine templateEngine,
+                          @Value("${templates.warmup.enabled:false}") boolean enabled) {
+        this.templateEngine = templateEngine;
+        this.enabled = enabled;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (enabled) {
+            warmUp();
+        }
+    }
+
+    /**
+     * Parses all page templates, logging and skipping any that fail to parse.
+     *
+     * @return the number of templates parsed
+     */
+    public int warmUp() {
+        List<String> names = templateNames();
+        long start = System.nanoTime();
+        ExecutorService pool = Executors.newFixedThreadPool(
+                Math.max(1, Math.min(names.size(), Runtime.getRuntime().availableProcessors())));
+        int parsed = 0;
+        try {
+            List<Callable<String>> tasks = new ArrayList<>();
+            for (String name : names) {
+                tasks.add(() -> {
+                    templateEngine.processThrottled(name, new Context(Locale.ENGLISH));
+                    return name;
+                });
+            }
+            for (Future<String> result : pool.invokeAll(tasks)) {
+                try {
+                    result.get();
+                    parsed++;
+                } catch (ExecutionException e) {
+                    logger.warn("Could not warm up template", e.getCause());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            pool.shutdownNow();
+        }
+        warmed = parsed;
+        logger.info("Warmed up {} of {} templates in {} ms", parsed, names.size(), (System.nanoTime() - start) / 1_000_000);
+        return parsed;
+    }
+
+    /**
+     * @return the number of templates parsed by the last warmup, 0 if there was none
+     */
+    public int getWarmed() {
+        return warmed;
+    }
+
+    /**
+     * @return template names as views refer to them, e.g. {@code "books"} and {@code "admin/users"}
+     */
+    static List<String> templateNames() {
+        PathMatchingResourcePatternResolver resolver = new PathMatchingResourcePatternResolver();
+        List<String> names = new ArrayList<>();
+        try {
+            for (String location : LOCATIONS) {
+                for (Resource resource : resolver.getResources("classpath*:" + location + "*.html")) {
+                    String file = resource.getFilename();
+                    names.add(location.substring("templates/".length()) + file.substring(0, file.length() - ".html".length()));
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return names;
+    }
+}
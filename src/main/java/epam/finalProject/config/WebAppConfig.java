@@ -1,5 +1,6 @@
 package epam.finalProject.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
@@ -16,12 +17,34 @@ import org.springframework.web.servlet.LocaleResolver;
 import org.springframework.web.servlet.i18n.CookieLocaleResolver;
 import org.springframework.web.servlet.i18n.LocaleChangeInterceptor;
 import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.ResourceChainRegistration;
+import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
+import org.springframework.web.servlet.resource.ContentVersionStrategy;
+import org.springframework.web.servlet.resource.EncodedResourceResolver;
+import org.springframework.web.servlet.resource.ResourceUrlEncodingFilter;
+import org.springframework.web.servlet.resource.VersionResourceResolver;
+import org.springframework.web.servlet.resource.VersionStrategy;
+import org.springframework.http.CacheControl;
 import java.util.Locale;
 
 @Configuration
 @ComponentScan(basePackages = "epam.finalProject")
 public class WebAppConfig implements WebMvcConfigurer {
 
+    /** Off in the dev profile, so edited templates show up on the next request. */
+    @Value("${templates.cache.enabled:false}")
+    private boolean templateCacheEnabled;
+
+    @Value("${templates.cache.maxSize:200}")
+    private int templateCacheMaxSize;
+
+    /**
+     * On in the prod profile: serve the build's .br/.gz variants and its content hashes. Off in dev, where
+     * static files may have been edited since the build and are hashed at runtime instead.
+     */
+    @Value("${assets.precompressed.enabled:false}")
+    private boolean precompressedAssets;
+
     @Bean
     public ClassLoaderTemplateResolver templateResolver() {
         ClassLoaderTemplateResolver resolver = new ClassLoaderTemplateResolver();
@@ -29,7 +52,7 @@ public class WebAppConfig implements WebMvcConfigurer {
         resolver.setSuffix(".html");
         resolver.setTemplateMode(TemplateMode.HTML);
         resolver.setCharacterEncoding("UTF-8");
-        resolver.setCacheable(false);
+        resolver.setCacheable(templateCacheEnabled);
         return resolver;
     }
 
@@ -38,10 +61,16 @@ public class WebAppConfig implements WebMvcConfigurer {
         SpringTemplateEngine engine = new SpringTemplateEngine();
         engine.setTemplateResolver(templateResolver());
         engine.setEnableSpringELCompiler(true);
+        engine.setCacheManager(templateCacheManager());
         engine.addDialect(springSecurityDialect()); // <-- ВАЖНО
         return engine;
     }
 
+    @Bean
+    public TemplateCacheManager templateCacheManager() {
+        return new TemplateCacheManager(templateCacheMaxSize);
+    }
+
     @Bean
     public ViewResolver viewResolver() {
         ThymeleafViewResolver resolver = new ThymeleafViewResolver();
@@ -82,4 +111,33 @@ public class WebAppConfig implements WebMvcConfigurer {
         registry.addInterceptor(localeChangeInterceptor());
     }
 
+    /**
+     * Static assets under fingerprinted URLs: templates link {@code @{/css/style.css}}, which is rendered as
+     * {@code /css/style-<hash>.css} and served with a year-long immutable Cache-Control, as brotli or gzip when
+     * the browser accepts it. The plain URLs still work but are revalidated on every use.
+     */
+    @Override
+    public void addResourceHandlers(ResourceHandlerRegistry registry) {
+        VersionStrategy versions = precompressedAssets
+                ? AssetManifestVersionStrategy.fromClasspath()
+                : new ContentVersionStrategy();
+        ResourceChainRegistration chain = registry.addResourceHandler("/css/**", "/*.ico")
+                .addResourceLocations("classpath:/static/")
+                .setCacheControl(CacheControl.noCache())
+                .resourceChain(true);
+        if (precompressedAssets) {
+            chain.addResolver(new EncodedResourceResolver());
+        }
+        chain.addResolver(new ImmutableAssetResolver())
+                .addResolver(new VersionResourceResolver().addVersionStrategy(versions, "/**"));
+    }
+
+    /**
+     * Rewrites links to static assets in rendered pages to their fingerprinted URLs.
+     */
+    @Bean
+    public ResourceUrlEncodingFilter resourceUrlEncodingFilter() {
+        return new ResourceUrlEncodingFilter();
+    }
+
 }
@@ -1,5 +1,6 @@
 package epam.finalProject.config;
 
+import epam.finalProject.DAO.UserDao;
 import epam.finalProject.security.UserDetailsServiceImpl;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -20,7 +21,7 @@ public class WebSecurityConfig {
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
         http
                 .authorizeHttpRequests(auth -> auth
-                        .requestMatchers("/login", "/register", "/css/**", "/books", "/home").permitAll()
+                        .requestMatchers("/login", "/register", "/css/**", "/*.ico", "/books", "/books/search", "/books/suggest", "/books/{id:\\d+}", "/home").permitAll()
 
                         .requestMatchers("/basket/**").authenticated()
 
@@ -54,8 +55,8 @@ public class WebSecurityConfig {
     }
 
     @Bean
-    public UserDetailsService userDetailsService() {
-        return new UserDetailsServiceImpl();
+    public UserDetailsService userDetailsService(UserDao userDao) {
+        return new UserDetailsServiceImpl(userDao);
     }
 
     @Bean
@@ -1,15 +1,20 @@
 package epam.finalProject.controller;
 
+import epam.finalProject.cache.CatalogVersion;
+import epam.finalProject.dto.AuthorSummary;
+import epam.finalProject.dto.KeysetPage;
 import epam.finalProject.entity.Author;
 import epam.finalProject.service.AuthorService;
-import epam.finalProject.service.AuthorServiceImpl;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 
 import java.util.List;
+import java.util.Locale;
 
 /**
  * Controller for handling public-facing author operations.
@@ -22,22 +27,55 @@ public class AuthorController {
 
     private static final Logger logger = LoggerFactory.getLogger(AuthorController.class);
 
-    private final AuthorService authorService = new AuthorServiceImpl();
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final List<String> JUMP_LETTERS = "ABCDEFGHIJKLMNOPQRSTUVWXYZ".chars()
+            .mapToObj(c -> String.valueOf((char) c)).toList();
+
+    private final AuthorService authorService;
+    private final CatalogVersion catalogVersion;
+
+    /**
+     * Constructs an AuthorController with the specified service.
+     *
+     * @param authorService  service layer for author operations
+     * @param catalogVersion identifies the directory pages for conditional GETs
+     */
+    @Autowired
+    public AuthorController(AuthorService authorService, CatalogVersion catalogVersion) {
+        this.authorService = authorService;
+        this.catalogVersion = catalogVersion;
+    }
 
     /**
      * Handles GET requests to "/authors".
-     * Retrieves all authors and adds them to the model for display.
+     * Shows one alphabetical page of authors with their book counts. Navigation is keyset based:
+     * "after"/"before" carry the author name to continue from, "from" jumps to a letter of the A-Z index.
+     * Answers 304 to a browser that already has the page for the current catalog version.
      *
-     * @param model Spring MVC model to which the list of authors will be added
-     * @return the name of the Thymeleaf template for listing authors
+     * @param after   continue after this author name
+     * @param before  continue before this author name
+     * @param from    letter to jump to
+     * @param size    page size
+     * @param locale  the request locale
+     * @param model   Spring MVC model to which the page of authors will be added
+     * @param request the current request, for the conditional GET
+     * @return the name of the Thymeleaf template for listing authors, or {@code null} for a 304
      */
     @GetMapping
-    public String listAuthors(Model model) {
-        logger.debug("GET /authors - fetching list of authors");
-        List<Author> authors = authorService.findAll();
-        logger.debug("Number of authors fetched: {}", authors.size());
-        model.addAttribute("authors", authors);
-        return "authors";
+    public String listAuthors(@RequestParam(name = "after", required = false) String after, @RequestParam(name = "before", required = false) String before, @RequestParam(name = "from", required = false) String from, @RequestParam(name = "size", defaultValue = "20") int size,
+                              Locale locale, Model model, ServletWebRequest request) {
+        logger.debug("GET /authors - after='{}' before='{}' from='{}' size={}", after, before, from, size);
+        if (CatalogETags.notModified(request, locale, catalogVersion.current())) {
+            return null;
+        }
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        String letter = from != null && JUMP_LETTERS.contains(from.toUpperCase()) ? from.toUpperCase() : null;
+        KeysetPage<AuthorSummary> authorsPage = authorService.findDirectory(after, before, letter, pageSize);
+        logger.debug("Number of authors fetched: {}", authorsPage.getContent().size());
+        model.addAttribute("authorsPage", authorsPage);
+        model.addAttribute("letters", JUMP_LETTERS);
+        model.addAttribute("currentLetter", letter);
+        return "author";
     }
 
     /**
@@ -14,6 +14,7 @@ import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 /**
@@ -165,8 +166,9 @@ public class BasketController {
             items = List.of();
         }
 
+        Map<Long, Book> books = bookService.findByIds(items.stream().map(BasketItem::getBookId).toList());
         List<Book> booksInBasket = items.stream().map(it -> {
-            Book b = bookService.findById(it.getBookId());
+            Book b = books.get(it.getBookId());
             if (b != null) {
                 b.setQuantity(it.getQuantity());
             } else {
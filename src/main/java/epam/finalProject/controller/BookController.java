@@ -1,19 +1,39 @@
 package epam.finalProject.controller;
 
+import epam.finalProject.cache.CatalogVersion;
+import epam.finalProject.cache.FragmentCache;
+import epam.finalProject.dto.BookFilter;
+import epam.finalProject.dto.BookSuggestion;
+import epam.finalProject.dto.BookSummary;
 import epam.finalProject.entity.Book;
 import epam.finalProject.service.BookService;
+import epam.finalProject.service.GenreService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.thymeleaf.ITemplateEngine;
+import org.thymeleaf.context.WebContext;
+import org.thymeleaf.web.servlet.JakartaServletWebApplication;
 
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * Controller to handle requests for viewing the list of all books.
@@ -24,33 +44,198 @@ public class BookController {
 
     private static final Logger logger = LoggerFactory.getLogger(BookController.class);
 
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int MAX_QUERY_LENGTH = 200;
+    private static final String BOOK_ROWS_TEMPLATE = "fragments/book-rows";
+    private static final Set<String> BOOK_ROWS_FRAGMENT = Set.of("rows");
+    private static final Set<String> STAFF_AUTHORITIES = Set.of("ADMIN", "LIBRARIAN");
+
     private final BookService bookService;
+    private final GenreService genreService;
+    private final ITemplateEngine templateEngine;
+    private final CatalogVersion catalogVersion;
+    private final FragmentCache<BookRowsKey> bookRows;
 
     /**
-     * Constructs a BookController with the specified BookService.
+     * Constructs a BookController with the specified services.
      *
-     * @param bookService service layer for book-related operations
+     * @param bookService    service layer for book-related operations
+     * @param genreService   source of the genre filter options
+     * @param templateEngine renders the cached book table rows
+     * @param catalogVersion changes whenever the rendered rows may have
+     * @param rowsCacheBytes memory budget for rendered book table rows
      */
     @Autowired
-    public BookController(BookService bookService) {
+    public BookController(BookService bookService, GenreService genreService, ITemplateEngine templateEngine,
+                          CatalogVersion catalogVersion,
+                          @Value("${books.rowsCache.maxBytes:8388608}") long rowsCacheBytes) {
         this.bookService = bookService;
+        this.genreService = genreService;
+        this.templateEngine = templateEngine;
+        this.catalogVersion = catalogVersion;
+        this.bookRows = new FragmentCache<>(rowsCacheBytes);
         logger.debug("BookController initialized");
     }
 
     /**
-     * Handles GET requests to "/books". Retrieves all books from the service
-     * and adds them to the model for display in the "books" view.
+     * Handles GET requests to "/books". Retrieves one page of book summaries from the service
+     * and adds them to the model for display in the "books" view. Descriptions are shown on the
+     * detail page only. All filters are optional and combine with AND; the facet counts next to them
+     * come from memory. The table rows are rendered once per catalog version, page, filter, locale and role
+     * and then served from a {@link FragmentCache}; the CSRF token stays outside them. A browser that already
+     * has the page for the current catalog version gets a 304 without any of this (see {@link CatalogETags}).
      *
-     * @param model Spring MVC model to which the list of books will be added
-     * @return the name of the Thymeleaf template for displaying all books
+     * @param genreId  only books of this genre
+     * @param authorId only books of this author
+     * @param yearFrom lowest publication year, inclusive
+     * @param yearTo   highest publication year, inclusive
+     * @param inStock  only books with copies available
+     * @param sort     sort key: title, year or quantity; id order otherwise
+     * @param dir      "desc" for descending order
+     * @param locale   the request locale, for the labels in the rows
+     * @param model    Spring MVC model to which the list of books will be added
+     * @param request  the current request, for the conditional GET and to render the rows
+     * @return the name of the Thymeleaf template for displaying all books, or {@code null} for a 304
      */
     @GetMapping("/books")
-    public String showBooks(@RequestParam(name = "page", defaultValue = "0") int page, @RequestParam(name = "size", defaultValue = "10") int size, Model model) {
+    public String showBooks(@RequestParam(name = "page", defaultValue = "0") int page, @RequestParam(name = "size", defaultValue = "10") int size,
+                            @RequestParam(name = "genre", required = false) Long genreId,
+                            @RequestParam(name = "author", required = false) Long authorId,
+                            @RequestParam(name = "yearFrom", required = false) Integer yearFrom,
+                            @RequestParam(name = "yearTo", required = false) Integer yearTo,
+                            @RequestParam(name = "inStock", defaultValue = "false") boolean inStock,
+                            @RequestParam(name = "sort", required = false) String sort,
+                            @RequestParam(name = "dir", required = false) String dir,
+                            Locale locale, Model model, ServletWebRequest request) {
         logger.debug("showBooks() page={}, size={}", page, size);
-        Pageable pageable = PageRequest.of(page, size);
-        Page<Book> booksPage = bookService.findAll(pageable);
+        // read before the rows, so that a concurrent write can only make the cached rows newer than their key
+        long version = catalogVersion.current();
+        if (CatalogETags.notModified(request, locale, version)) {
+            return null;
+        }
+        BookFilter filter = new BookFilter(genreId, authorId, yearFrom, yearTo, inStock,
+                BookFilter.Sort.from(sort), "desc".equalsIgnoreCase(dir));
+        Pageable pageable = PageRequest.of(Math.max(page, 0), Math.max(1, Math.min(size, MAX_PAGE_SIZE)));
+        Page<BookSummary> booksPage = bookService.findSummaries(filter, pageable);
+        boolean staff = isStaff();
+        BookRowsKey key = new BookRowsKey(filter.toQueryString(), pageable.getPageNumber(), pageable.getPageSize(),
+                locale, staff, version);
+        model.addAttribute("booksPage", booksPage);
+        model.addAttribute("staff", staff);
+        model.addAttribute("bookRows", renderRows(key, booksPage.getContent(), request));
+        model.addAttribute("filter", filter);
+        model.addAttribute("filterQuery", filter.toQueryString());
+        model.addAttribute("genres", genreService.findAll());
+        model.addAttribute("facets", bookService.facets(filter));
+        return "books";
+    }
+
+    /**
+     * Handles GET requests to "/books/search". Shows books matching the query by title,
+     * author name or description, best matches first, in the same view as the full list.
+     * When nothing matches exactly, the first page shows books with similar titles instead, so that
+     * a misspelled title still finds the book.
+     *
+     * @param query   search text; a blank query shows the full list
+     * @param page    zero-based page number
+     * @param size    page size
+     * @param locale  the request locale
+     * @param model   Spring MVC model to which the page of results will be added
+     * @param request the current request, for the conditional GET
+     * @return the "books" view, a redirect to "/books" for a blank query, or {@code null} for a 304
+     */
+    @GetMapping("/books/search")
+    public String searchBooks(@RequestParam(name = "q", required = false) String query, @RequestParam(name = "page", defaultValue = "0") int page, @RequestParam(name = "size", defaultValue = "10") int size,
+                              Locale locale, Model model, ServletWebRequest request) {
+        logger.debug("searchBooks() q='{}' page={}, size={}", query, page, size);
+        if (query == null || query.isBlank()) {
+            return "redirect:/books";
+        }
+        if (CatalogETags.notModified(request, locale, catalogVersion.current())) {
+            return null;
+        }
+        String q = query.strip();
+        if (q.length() > MAX_QUERY_LENGTH) {
+            q = q.substring(0, MAX_QUERY_LENGTH);
+        }
+        Page<BookSummary> booksPage = bookService.search(q, PageRequest.of(Math.max(page, 0), Math.max(1, Math.min(size, MAX_PAGE_SIZE))));
+        if (booksPage.getTotalElements() == 0 && booksPage.getNumber() == 0) {
+            List<BookSummary> similar = bookService.fuzzySearch(q);
+            if (!similar.isEmpty()) {
+                booksPage = new PageImpl<>(similar, booksPage.getPageable(), similar.size());
+                model.addAttribute("fuzzy", true);
+            }
+        }
         model.addAttribute("booksPage", booksPage);
+        model.addAttribute("staff", isStaff());
+        model.addAttribute("q", q);
         return "books";
     }
 
+    /**
+     * Handles GET requests to "/books/{id}". Shows the full book, including its description.
+     * An unknown id is rendered by the global not-found handler.
+     *
+     * @param id    the book ID
+     * @param model Spring MVC model to which the book will be added
+     * @return the "book" view
+     */
+    @GetMapping("/books/{id:\\d+}")
+    public String showBook(@PathVariable Long id, Model model) {
+        logger.debug("showBook() id={}", id);
+        Book book = bookService.findById(id);
+        model.addAttribute("book", book);
+        return "book";
+    }
+
+    /**
+     * Handles GET requests to "/books/suggest". Returns up to ten books whose title or author name
+     * matches the typed text, as JSON for the search-as-you-type box. Answered from memory.
+     *
+     * @param query the text typed so far
+     * @return the suggestions, best first
+     */
+    @GetMapping("/books/suggest")
+    @ResponseBody
+    public List<BookSuggestion> suggestBooks(@RequestParam(name = "q", required = false) String query) {
+        if (query == null || query.length() > MAX_QUERY_LENGTH) {
+            return List.of();
+        }
+        return bookService.suggest(query);
+    }
+
+    /**
+     * Returns the rendered rows for the key, rendering and caching them on a miss.
+     */
+    private String renderRows(BookRowsKey key, List<BookSummary> books, ServletWebRequest request) {
+        String html = bookRows.get(key);
+        if (html == null) {
+            WebContext context = new WebContext(JakartaServletWebApplication.buildApplication(request.getRequest().getServletContext())
+                    .buildExchange(request.getRequest(), request.getResponse()), key.locale(), Map.of("books", books, "staff", key.staff()));
+            html = templateEngine.process(BOOK_ROWS_TEMPLATE, BOOK_ROWS_FRAGMENT, context);
+            bookRows.put(key, html);
+            logger.debug("Rendered book rows for {}", key);
+        }
+        return html;
+    }
+
+    private static boolean isStaff() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth == null) {
+            return false;
+        }
+        for (GrantedAuthority authority : auth.getAuthorities()) {
+            if (STAFF_AUTHORITIES.contains(authority.getAuthority())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Everything the rendered book table rows depend on besides the CSRF token, which is not part of them.
+     */
+    private record BookRowsKey(String filter, int page, int size, Locale locale, boolean staff, long version) {
+    }
+
 }
@@ -0,0 +1,64 @@
+package epam.finalProject.controller;
+
+import epam.finalProject.cache.CatalogVersion;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpSession;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.web.csrf.DeferredCsrfToken;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.util.Locale;
+
+/**
+ * Conditional GET for pages built only from the catalog: the page is identified by a weak ETag made of the
+ * {@link CatalogVersion}, the locale and the session, and a browser that already holds it gets a 304 before
+ * any data is read or any template is rendered.
+ * <p>
+ * The session is part of the tag because these pages also carry a CSRF token and role-dependent buttons,
+ * which change when the user logs in or out (the session id changes then too). A request without a session, or
+ * whose CSRF token is created by this request, gets no ETag at all: the page it renders carries a token that no
+ * copy the browser may hold could have, and the session it creates is not known yet. Nothing else may vary: a page
+ * that shows anything else per user, or anything outside the catalog, must not use this.
+ * There is deliberately no Last-Modified, since a timestamp cannot say which locale or session a copy was for.
+ */
+public final class CatalogETags {
+
+    /** Lets the browser keep the page, but only use it after asking whether it is still current. */
+    static final String CACHE_CONTROL = "private, no-cache";
+
+    private CatalogETags() {
+    }
+
+    /**
+     * Sets the ETag and Cache-Control headers and checks the request's If-None-Match against them.
+     * Does neither when the request has no session yet or its CSRF token is new, so such a request is always
+     * rendered. Read {@code version} before reading any of the page's data.
+     *
+     * @param request the current request
+     * @param locale  the locale the page would be rendered in
+     * @param version the current {@link CatalogVersion}
+     * @return {@code true} if the response has been set to 304 and the handler should return {@code null}
+     */
+    public static boolean notModified(ServletWebRequest request, Locale locale, long version) {
+        HttpSession session = request.getRequest().getSession(false);
+        // checked only with a session, since loading the token saves a new one into the session
+        if (session == null || csrfTokenGenerated(request.getRequest())) {
+            return false;
+        }
+        if (request.getResponse() != null) {
+            request.getResponse().setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL);
+        }
+        return request.checkNotModified(etag(session, locale, version));
+    }
+
+    static String etag(HttpSession session, Locale locale, long version) {
+        return "W/\"" + Long.toHexString(version) + "-" + locale.toLanguageTag() + "-"
+                + Integer.toHexString(session.getId().hashCode()) + "\"";
+    }
+
+    /** Whether the CSRF filter had no token stored for this session and generates one for this request. */
+    private static boolean csrfTokenGenerated(HttpServletRequest request) {
+        return request.getAttribute(DeferredCsrfToken.class.getName()) instanceof DeferredCsrfToken token
+                && token.isGenerated();
+    }
+}
@@ -2,10 +2,10 @@ package epam.finalProject.controller;
 
 import epam.finalProject.entity.User;
 import epam.finalProject.service.UserService;
-import epam.finalProject.service.UserServiceImpl;
 import jakarta.servlet.http.HttpSession;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.crypto.bcrypt.BCrypt;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
@@ -22,7 +22,17 @@ public class ProfileController {
 
     private static final Logger logger = LoggerFactory.getLogger(ProfileController.class);
 
-    private final UserService userService = new UserServiceImpl();
+    private final UserService userService;
+
+    /**
+     * Constructs a ProfileController with the specified service.
+     *
+     * @param userService service layer for user operations
+     */
+    @Autowired
+    public ProfileController(UserService userService) {
+        this.userService = userService;
+    }
 
     /**
      * Handles GET requests to "/profile". Retrieves the authenticated user's data
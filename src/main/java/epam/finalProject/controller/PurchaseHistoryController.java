@@ -14,6 +14,7 @@ import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
 
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 /**
@@ -71,8 +72,9 @@ public class PurchaseHistoryController {
         List<PurchaseHistory> raw = historyService.getByUserId(user.getId());
         logger.debug("Fetched {} purchase history records for userId={}", raw.size(), user.getId());
 
+        Map<Long, Book> books = bookService.findByIds(raw.stream().map(PurchaseHistory::getBookId).distinct().toList());
         List<Object[]> historyRows = raw.stream().map(ph -> {
-            Book book = bookService.findById(ph.getBookId());
+            Book book = books.get(ph.getBookId());
             if (book == null) {
                 logger.warn("Book with id={} not found for purchase record id={}", ph.getBookId(), ph.getId());
             }
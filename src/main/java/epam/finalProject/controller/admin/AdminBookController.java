@@ -1,38 +1,64 @@
 package epam.finalProject.controller.admin;
 
+import epam.finalProject.cache.CatalogVersion;
+import epam.finalProject.controller.CatalogETags;
+import epam.finalProject.dto.ImportReport;
 import epam.finalProject.entity.Author;
 import epam.finalProject.entity.Book;
 import epam.finalProject.exception.ResourceNotFoundException;
+import epam.finalProject.io.DataFormat;
 import epam.finalProject.service.AuthorService;
 import epam.finalProject.service.AuthorServiceImpl;
 import epam.finalProject.service.BookService;
+import epam.finalProject.service.CatalogImportService;
 import epam.finalProject.service.GenreService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
+import java.util.Locale;
 
 @Controller
 @PreAuthorize("hasAnyAuthority('ADMIN','LIBRARIAN')")
 @RequestMapping("/admin/books")
 public class AdminBookController {
 
+    private static final Logger logger = LoggerFactory.getLogger(AdminBookController.class);
+
     private final BookService bookService;
     private final AuthorService authorService;
     private final GenreService genreService;
+    private final CatalogImportService catalogImportService;
+    private final CatalogVersion catalogVersion;
 
-    public AdminBookController(BookService bookService, AuthorService authorService, GenreService genreService) {
+    public AdminBookController(BookService bookService, AuthorService authorService, GenreService genreService,
+                               CatalogImportService catalogImportService, CatalogVersion catalogVersion) {
         this.bookService = bookService;
         this.authorService = authorService;
         this.genreService = genreService;
+        this.catalogImportService = catalogImportService;
+        this.catalogVersion = catalogVersion;
     }
 
 
+    /**
+     * Shows the form for a new book with the author and genre lists, or answers 304 if the browser has it
+     * for the current catalog version
+     */
     @GetMapping("/add")
-    public String showAddForm(Model model) {
+    public String showAddForm(Locale locale, Model model, ServletWebRequest request) {
+        if (CatalogETags.notModified(request, locale, catalogVersion.current())) {
+            return null;
+        }
         model.addAttribute("book", new Book());
         model.addAttribute("authors", authorService.findAll());
         model.addAttribute("genres", genreService.findAll());
@@ -64,6 +90,36 @@ public class AdminBookController {
         return "admin/add-book";
     }
 
+    @GetMapping("/import")
+    public String showImportForm() {
+        return "admin/import-books";
+    }
+
+    /**
+     * Imports books from an uploaded CSV or NDJSON file. The upload is streamed row by row and committed
+     * in chunks; the page then shows how many rows were imported and why the others were rejected.
+     *
+     * @param file  the uploaded file; its extension selects the format
+     * @param model Spring MVC model receiving the import report or an error message
+     * @return the "admin/import-books" view
+     */
+    @PostMapping("/import")
+    public String importBooks(@RequestParam("file") MultipartFile file, Model model) {
+        DataFormat format = DataFormat.fromFileName(file.getOriginalFilename());
+        if (file.isEmpty() || format == null) {
+            model.addAttribute("error", "Choose a non-empty .csv, .ndjson or .jsonl file.");
+            return "admin/import-books";
+        }
+        try (InputStream in = file.getInputStream()) {
+            ImportReport report = catalogImportService.importCatalog(in, format);
+            model.addAttribute("report", report);
+        } catch (IOException e) {
+            logger.error("Catalog import of '{}' failed", file.getOriginalFilename(), e);
+            model.addAttribute("error", "The file could not be read; rows before the failure may have been imported.");
+        }
+        return "admin/import-books";
+    }
+
     @GetMapping("/edit/{id}")
     public String showEditForm(@PathVariable Long id, Model model) {
         try {
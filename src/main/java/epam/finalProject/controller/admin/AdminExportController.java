@@ -0,0 +1,101 @@
+package epam.finalProject.controller.admin;
+
+import epam.finalProject.io.DataFormat;
+import epam.finalProject.service.ExportService;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.Locale;
+
+/**
+ * Downloads of the full catalog and purchase history for accounting, as CSV or NDJSON.
+ * The body is streamed straight to the response while the database cursor advances, so a dump of any size
+ * uses the same memory. If the export fails part-way the connection is aborted instead of ending
+ * the body normally, so a client never mistakes a truncated file for a complete one.
+ */
+@Controller
+@PreAuthorize("hasAuthority('ADMIN')")
+@RequestMapping("/admin/export")
+public class AdminExportController {
+
+    private static final Logger logger = LoggerFactory.getLogger(AdminExportController.class);
+
+    private final ExportService exportService;
+
+    public AdminExportController(ExportService exportService) {
+        this.exportService = exportService;
+    }
+
+    /**
+     * Handles GET requests to "/admin/export/catalog": every book with author, genres and stock.
+     *
+     * @param format   "csv" (default) or "ndjson"
+     * @param response the response the rows are written to
+     * @throws IOException if the export fails; the response is then aborted
+     */
+    @GetMapping("/catalog")
+    public void exportCatalog(@RequestParam(name = "format", defaultValue = "csv") String format,
+                              HttpServletResponse response) throws IOException {
+        DataFormat dataFormat = parseFormat(format, response);
+        if (dataFormat != null) {
+            prepare(response, "catalog", dataFormat);
+            exportService.exportCatalog(response.getOutputStream(), dataFormat);
+        }
+    }
+
+    /**
+     * Handles GET requests to "/admin/export/purchases": every purchase with buyer and book title.
+     *
+     * @param format   "csv" (default) or "ndjson"
+     * @param response the response the rows are written to
+     * @throws IOException if the export fails; the response is then aborted
+     */
+    @GetMapping("/purchases")
+    public void exportPurchases(@RequestParam(name = "format", defaultValue = "csv") String format,
+                                HttpServletResponse response) throws IOException {
+        DataFormat dataFormat = parseFormat(format, response);
+        if (dataFormat != null) {
+            prepare(response, "purchases", dataFormat);
+            exportService.exportPurchases(response.getOutputStream(), dataFormat);
+        }
+    }
+
+    /**
+     * Takes export failures away from the global handler, which would append an error page to the rows
+     * already sent. Rethrowing leaves the exception to the container: it aborts a response that is already
+     * committed and sends its error page for one that is not.
+     */
+    @ExceptionHandler(Exception.class)
+    public void abortExport(Exception e) throws Exception {
+        logger.error("Export failed: {}", e.getMessage(), e);
+        throw e;
+    }
+
+    private static DataFormat parseFormat(String format, HttpServletResponse response) throws IOException {
+        try {
+            return DataFormat.valueOf(format.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            logger.debug("Rejected export format '{}'", format);
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, "format must be csv or ndjson");
+            return null;
+        }
+    }
+
+    private static void prepare(HttpServletResponse response, String name, DataFormat format) {
+        response.setContentType(format.getContentType());
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"" + name + "-" + LocalDate.now() + format.getExtension() + "\"");
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "no-store");
+    }
+}
@@ -1,5 +1,7 @@
 package epam.finalProject.controller.admin;
 
+import epam.finalProject.cache.CatalogVersion;
+import epam.finalProject.controller.CatalogETags;
 import epam.finalProject.entity.Genre;
 import epam.finalProject.service.GenreService;
 import org.slf4j.Logger;
@@ -11,8 +13,10 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.context.request.ServletWebRequest;
 
 import java.util.List;
+import java.util.Locale;
 
 @Controller
 @RequestMapping("/admin/genres")
@@ -20,9 +24,11 @@ import java.util.List;
 public class AdminGenreController {
     private static final Logger logger = LoggerFactory.getLogger(AdminGenreController.class);
     private final GenreService genreService;
+    private final CatalogVersion catalogVersion;
 
-    public AdminGenreController(GenreService genreService) {
+    public AdminGenreController(GenreService genreService, CatalogVersion catalogVersion) {
         this.genreService = genreService;
+        this.catalogVersion = catalogVersion;
     }
 
     /**
@@ -54,11 +60,14 @@ public class AdminGenreController {
 
 
     /**
-     * Shows the list of all genres
+     * Shows the list of all genres, or answers 304 if the browser has it for the current catalog version
      */
     @GetMapping
-    public String listGenres(Model model) {
+    public String listGenres(Locale locale, Model model, ServletWebRequest request) {
         logger.debug("GET /admin/genres — taking list of genres");
+        if (CatalogETags.notModified(request, locale, catalogVersion.current())) {
+            return null;
+        }
         List<Genre> genres = genreService.findAll();
         logger.debug("Found {} genres", genres.size());
         model.addAttribute("genres", genres);
@@ -0,0 +1,43 @@
+package epam.finalProject.controller.admin;
+
+import epam.finalProject.config.TemplateCacheManager;
+import epam.finalProject.config.TemplateWarmup;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Controller
+@PreAuthorize("hasAuthority('ADMIN')")
+@RequestMapping("/admin/templates")
+public class AdminTemplateCacheController {
+
+    private final TemplateCacheManager templateCacheManager;
+    private final TemplateWarmup templateWarmup;
+
+    public AdminTemplateCacheController(TemplateCacheManager templateCacheManager, TemplateWarmup templateWarmup) {
+        this.templateCacheManager = templateCacheManager;
+        this.templateWarmup = templateWarmup;
+    }
+
+    /**
+     * Handles GET requests to "/admin/templates/cache": parsed-template cache size, bound, hits and misses,
+     * and how many templates the startup warmup parsed.
+     */
+    @GetMapping("/cache")
+    @ResponseBody
+    public Map<String, Object> cacheStats() {
+        TemplateCacheManager.Stats stats = templateCacheManager.stats();
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("size", stats.size());
+        body.put("maxSize", stats.maxSize());
+        body.put("hits", stats.hits());
+        body.put("misses", stats.misses());
+        body.put("warmed", templateWarmup.getWarmed());
+        return body;
+    }
+}
@@ -1,10 +1,12 @@
 package epam.finalProject.controller.admin;
 
+import epam.finalProject.dto.BulkOutcome;
+import epam.finalProject.dto.KeysetPage;
+import epam.finalProject.dto.UserSummary;
 import epam.finalProject.entity.User;
 import epam.finalProject.service.UserService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -12,11 +14,13 @@ import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
 /**
  * Controller for managing user accounts in the admin panel.
  * Provides endpoints to list, edit roles, and delete users.
@@ -29,6 +33,9 @@ import org.springframework.web.bind.annotation.RequestMapping;
 public class AdminUserController {
 
     private static final Logger logger = LoggerFactory.getLogger(AdminUserController.class);
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int MAX_BULK_SIZE = 500;
+    private static final Set<String> BULK_ROLES = Set.of("USER", "LIBRARIAN");
     private final UserService userService;
 
     public AdminUserController(UserService userService) {
@@ -36,12 +43,17 @@ public class AdminUserController {
         logger.debug("AdminUserController initialized");
     }
 
+    /**
+     * Lists users ordered by username with optional prefix search.
+     * Uses keyset pagination: the "after"/"before" parameters carry the username to continue from.
+     */
     @GetMapping
-    public String listUsers(@RequestParam(name = "page", defaultValue = "0") int page, @RequestParam(name = "size", defaultValue = "10") int size, Model model) {
-        logger.debug("listUsers() page={} size={}", page, size);
-        Pageable pageable = PageRequest.of(page, size);
-        Page<User> usersPage = userService.findAll(pageable);
+    public String listUsers(@RequestParam(name = "q", required = false) String query, @RequestParam(name = "after", required = false) String after, @RequestParam(name = "before", required = false) String before, @RequestParam(name = "size", defaultValue = "10") int size, Model model) {
+        logger.debug("listUsers() q='{}' after='{}' before='{}' size={}", query, after, before, size);
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        KeysetPage<UserSummary> usersPage = userService.searchUsers(query, after, before, pageSize);
         model.addAttribute("usersPage", usersPage);
+        model.addAttribute("q", query);
         return "admin/users";
     }
 
@@ -66,26 +78,20 @@ public class AdminUserController {
         return "admin/edit-user";
     }
 
+    /**
+     * Changes the role of one user. The admin-protection rule is applied by the update statement,
+     * so no lookups of the target or the current admin are needed.
+     */
     @PostMapping("/edit")
     public String updateUserRole(@ModelAttribute("user") User user, RedirectAttributes ra) {
         logger.debug("POST /admin/users/edit - updating role for user id={}", user.getId());
-        User target = userService.getById(user.getId());
-        if (target == null) {
-            return "redirect:/admin/users";
-        }
-        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        String currentUsername = auth.getName();
-        User current = userService.getByUsername(currentUsername);
-        boolean editingSelf = current != null && current.getId().equals(target.getId());
-        if ("ADMIN".equals(target.getRole()) && !editingSelf) {
-            ra.addFlashAttribute("errorMessage", "Cannot change another user");
-            return "redirect:/admin/users";
-        }
-        try {
-            userService.updateRole(user.getId(), user.getRole());
+        BulkOutcome outcome = userService.updateRoles(List.of(user.getId()), user.getRole(), currentUsername()).get(user.getId());
+        if (outcome == BulkOutcome.DONE) {
             logger.info("Role updated for user id={}", user.getId());
-        } catch (Exception e) {
-            logger.error("Error updating role for user id={}: {}", user.getId(), e.getMessage());
+        } else if (outcome == BulkOutcome.PROTECTED) {
+            ra.addFlashAttribute("errorMessage", "Cannot change another user");
+        } else if (outcome == BulkOutcome.FAILED) {
+            logger.error("Error updating role for user id={}", user.getId());
             ra.addFlashAttribute("errorMessage", "Error with updating new role");
         }
         return "redirect:/admin/users";
@@ -94,25 +100,64 @@ public class AdminUserController {
     @PostMapping("/delete/{id}")
     public String deleteUser(@PathVariable Long id, RedirectAttributes ra) {
         logger.info("POST /admin/users/delete/{} - deleting user", id);
-        User target = userService.getById(id);
-        if (target == null) {
+        BulkOutcome outcome = userService.deleteUsers(List.of(id), currentUsername()).get(id);
+        if (outcome == BulkOutcome.DONE) {
+            logger.info("User id={} deleted successfully", id);
+        } else if (outcome == BulkOutcome.PROTECTED) {
+            ra.addFlashAttribute("errorMessage", "Cannot delete another admin");
+        } else if (outcome == BulkOutcome.FAILED) {
+            logger.error("Error deleting user id={}", id);
+            ra.addFlashAttribute("errorMessage", "Error with deleting");
+        }
+        return "redirect:/admin/users";
+    }
+
+    /**
+     * Assigns one role to all selected users in a single statement.
+     * Only non-admin roles can be granted in bulk; the per-id outcome is shown on the user list.
+     */
+    @PostMapping("/bulk/role")
+    public String bulkUpdateRole(@RequestParam(name = "ids", required = false) List<Long> ids, @RequestParam("role") String role, RedirectAttributes ra) {
+        logger.info("POST /admin/users/bulk/role - {} users, role='{}'", ids == null ? 0 : ids.size(), role);
+        if (!BULK_ROLES.contains(role)) {
+            ra.addFlashAttribute("errorMessage", "Role cannot be assigned in bulk");
             return "redirect:/admin/users";
         }
-        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        String currentUsername = auth.getName();
-        User current = userService.getByUsername(currentUsername);
-        boolean deletingSelf = current != null && current.getId().equals(id);
-        if ("ADMIN".equals(target.getRole()) && !deletingSelf) {
-            ra.addFlashAttribute("errorMessage", "Cannot delete another admin");
+        if (!validBulkSelection(ids, ra)) {
             return "redirect:/admin/users";
         }
-        try {
-            userService.deleteUser(target);
-            logger.info("User id={} deleted successfully", id);
-        } catch (Exception e) {
-            logger.error("Error deleting user id={}: {}", id, e.getMessage());
-            ra.addFlashAttribute("errorMessage", "Error with deleting");
+        ra.addFlashAttribute("bulkResults", userService.updateRoles(ids, role, currentUsername()));
+        return "redirect:/admin/users";
+    }
+
+    /**
+     * Deletes all selected users in a single statement; the per-id outcome is shown on the user list.
+     */
+    @PostMapping("/bulk/delete")
+    public String bulkDelete(@RequestParam(name = "ids", required = false) List<Long> ids, RedirectAttributes ra) {
+        logger.info("POST /admin/users/bulk/delete - {} users", ids == null ? 0 : ids.size());
+        if (!validBulkSelection(ids, ra)) {
+            return "redirect:/admin/users";
         }
+        Map<Long, BulkOutcome> results = userService.deleteUsers(ids, currentUsername());
+        ra.addFlashAttribute("bulkResults", results);
         return "redirect:/admin/users";
     }
+
+    private boolean validBulkSelection(List<Long> ids, RedirectAttributes ra) {
+        if (ids == null || ids.isEmpty()) {
+            ra.addFlashAttribute("errorMessage", "No users selected");
+            return false;
+        }
+        if (ids.size() > MAX_BULK_SIZE) {
+            ra.addFlashAttribute("errorMessage", "Too many users selected");
+            return false;
+        }
+        return true;
+    }
+
+    private String currentUsername() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        return auth.getName();
+    }
 }
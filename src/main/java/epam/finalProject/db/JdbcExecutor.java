@@ -0,0 +1,442 @@
+package epam.finalProject.db;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Runs statements for the DAOs: borrows a connection, prepares and binds the statement, reads the rows
+ * through a {@link RowMapper} and closes the result set, statement and connection in every case.
+ * Errors are thrown as {@link SQLException}; the DAOs decide what a failure means for their callers.
+ * <p>
+ * Methods taking a {@link Connection} run on that connection and leave it open, for work inside a
+ * transaction started with {@link #inTransaction}. Every statement is reported to the {@link QueryListener}.
+ * <p>
+ * Parameters are bound with {@code setObject}; {@code null} is bound as an untyped null and
+ * {@link #array} values as SQL arrays.
+ */
+public final class JdbcExecutor {
+
+    private static final long SLOW_QUERY_MILLIS = 500;
+
+    private static final RowMapper<Long> FIRST_LONG = RowMapper.positional((rs, c) -> rs.getLong(1));
+
+    private static volatile QueryListener listener = QueryListener.logging(SLOW_QUERY_MILLIS);
+
+    /**
+     * Does work with an open connection.
+     *
+     * @param <R> the result type
+     */
+    @FunctionalInterface
+    public interface ConnectionCallback<R> {
+        R run(Connection conn) throws SQLException;
+    }
+
+    /**
+     * Binds the parameters of one batch entry.
+     *
+     * @param <P> the entry type
+     */
+    @FunctionalInterface
+    public interface BatchBinder<P> {
+        void bind(PreparedStatement ps, P item) throws SQLException;
+    }
+
+    /**
+     * Consumes rows one at a time, for results that are not collected into a list.
+     *
+     * @param <X> an exception the consumer may throw besides {@link SQLException}
+     */
+    @FunctionalInterface
+    public interface RowCallback<X extends Exception> {
+        void row(ResultSet rs) throws SQLException, X;
+    }
+
+    private final DataSource dataSource;
+
+    /**
+     * Creates an executor that borrows connections from the given DataSource.
+     *
+     * @param ds the DataSource
+     */
+    public JdbcExecutor(DataSource ds) {
+        this.dataSource = ds;
+    }
+
+    /**
+     * Replaces the listener that receives the timing of every statement.
+     *
+     * @param queryListener the new listener
+     */
+    public static void setListener(QueryListener queryListener) {
+        listener = queryListener;
+    }
+
+    public static QueryListener getListener() {
+        return listener;
+    }
+
+    /**
+     * Wraps values to be bound as an SQL array parameter.
+     *
+     * @param type   the SQL element type, e.g. {@code "bigint"}
+     * @param values the elements
+     * @return the parameter value
+     */
+    public static Object array(String type, Collection<?> values) {
+        return new SqlArray(type, values.toArray());
+    }
+
+    /**
+     * Borrows a connection for the duration of {@code work}.
+     */
+    public <R> R withConnection(ConnectionCallback<R> work) throws SQLException {
+        try (Connection conn = dataSource.getConnection()) {
+            return work.run(conn);
+        }
+    }
+
+    /**
+     * Runs {@code work} in a transaction: commits if it returns, rolls back if it throws.
+     * The connection's autocommit mode is restored before it is given back.
+     */
+    public <R> R inTransaction(ConnectionCallback<R> work) throws SQLException {
+        try (Connection conn = dataSource.getConnection()) {
+            boolean autoCommit = conn.getAutoCommit();
+            conn.setAutoCommit(false);
+            try {
+                R result = work.run(conn);
+                conn.commit();
+                return result;
+            } catch (SQLException | RuntimeException | Error e) {
+                rollback(conn, e);
+                throw e;
+            } finally {
+                conn.setAutoCommit(autoCommit);
+            }
+        }
+    }
+
+    /**
+     * @return all mapped rows, in result order
+     */
+    public <T> List<T> query(String sql, RowMapper<T> mapper, Object... params) throws SQLException {
+        try (Connection conn = dataSource.getConnection()) {
+            return query(conn, sql, mapper, params);
+        }
+    }
+
+    /**
+     * @return all mapped rows, in result order
+     */
+    public <T> List<T> query(Connection conn, String sql, RowMapper<T> mapper, Object... params) throws SQLException {
+        List<T> result = new ArrayList<>();
+        Mapping<T> mapping = new Mapping<>(sql, mapper);
+        forEach(conn, sql, 0, rs -> result.add(mapping.map(rs)), params);
+        return result;
+    }
+
+    /**
+     * @return the first mapped row, or {@code null} if there is none
+     */
+    public <T> T queryOne(String sql, RowMapper<T> mapper, Object... params) throws SQLException {
+        try (Connection conn = dataSource.getConnection()) {
+            return queryOne(conn, sql, mapper, params);
+        }
+    }
+
+    /**
+     * @return the first mapped row, or {@code null} if there is none
+     */
+    public <T> T queryOne(Connection conn, String sql, RowMapper<T> mapper, Object... params) throws SQLException {
+        List<T> rows = query(conn, sql, mapper, params);
+        return rows.isEmpty() ? null : rows.get(0);
+    }
+
+    /**
+     * @return the first column of the first row as a long, or 0 if there is no row
+     */
+    public long queryLong(String sql, Object... params) throws SQLException {
+        Long value = queryOne(sql, FIRST_LONG, params);
+        return value == null ? 0 : value;
+    }
+
+    /**
+     * @return whether the statement returns at least one row
+     */
+    public boolean exists(String sql, Object... params) throws SQLException {
+        boolean[] found = new boolean[1];
+        try (Connection conn = dataSource.getConnection()) {
+            forEach(conn, sql, 0, rs -> found[0] = true, params);
+        }
+        return found[0];
+    }
+
+    /**
+     * Passes every row to {@code rows}.
+     *
+     * @return the number of rows
+     */
+    public <X extends Exception> long forEach(String sql, RowCallback<X> rows, Object... params) throws SQLException, X {
+        try (Connection conn = dataSource.getConnection()) {
+            return forEach(conn, sql, 0, rows, params);
+        }
+    }
+
+    /**
+     * Passes every row to {@code rows}. The {@link QueryListener} is told the time until the first row was
+     * available, so neither the later fetches of a cursor nor the time spent in {@code rows} count.
+     *
+     * @param fetchSize rows fetched per round trip, or 0 for the driver default; PostgreSQL only honours
+     *                  it with autocommit off
+     * @return the number of rows
+     */
+    public <X extends Exception> long forEach(Connection conn, String sql, int fetchSize, RowCallback<X> rows,
+                                              Object... params) throws SQLException, X {
+        long start = System.nanoTime();
+        long elapsed = -1;
+        long count = 0;
+        SQLException failure = null;
+        try (PreparedStatement ps = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            if (fetchSize > 0) {
+                ps.setFetchSize(fetchSize);
+            }
+            bind(ps, params);
+            try (ResultSet rs = ps.executeQuery()) {
+                boolean more = rs.next();
+                elapsed = System.nanoTime() - start;
+                while (more) {
+                    rows.row(rs);
+                    count++;
+                    more = rs.next();
+                }
+            }
+            return count;
+        } catch (SQLException e) {
+            failure = e;
+            throw e;
+        } finally {
+            listener.executed(sql, elapsed >= 0 ? elapsed : System.nanoTime() - start, count, failure);
+        }
+    }
+
+    /**
+     * Streams a large result through a forward-only cursor. Autocommit is switched off for the duration
+     * so that the PostgreSQL driver fetches {@code fetchSize} rows at a time instead of reading the
+     * whole result into memory.
+     *
+     * @return the number of rows
+     */
+    public <X extends Exception> long stream(String sql, int fetchSize, RowCallback<X> rows, Object... params) throws SQLException, X {
+        try (Connection conn = dataSource.getConnection()) {
+            boolean autoCommit = conn.getAutoCommit();
+            conn.setAutoCommit(false);
+            try {
+                long count = forEach(conn, sql, fetchSize, rows, params);
+                conn.commit();
+                return count;
+            } catch (Exception e) {
+                rollback(conn, e);
+                throw e;
+            } finally {
+                conn.setAutoCommit(autoCommit);
+            }
+        }
+    }
+
+    /**
+     * @return the number of affected rows
+     */
+    public int update(String sql, Object... params) throws SQLException {
+        try (Connection conn = dataSource.getConnection()) {
+            return update(conn, sql, params);
+        }
+    }
+
+    /**
+     * @return the number of affected rows
+     */
+    public int update(Connection conn, String sql, Object... params) throws SQLException {
+        long start = System.nanoTime();
+        int affected = -1;
+        SQLException failure = null;
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            bind(ps, params);
+            affected = ps.executeUpdate();
+            return affected;
+        } catch (SQLException e) {
+            failure = e;
+            throw e;
+        } finally {
+            report(sql, start, affected, failure);
+        }
+    }
+
+    /**
+     * Runs an INSERT and returns the generated key of the new row.
+     *
+     * @return the generated key, or {@code null} if no row was inserted (e.g. {@code ON CONFLICT DO NOTHING})
+     * @throws SQLException if the insert fails, or inserts a row without a generated key
+     */
+    public Long insert(String sql, Object... params) throws SQLException {
+        try (Connection conn = dataSource.getConnection()) {
+            return insert(conn, sql, params);
+        }
+    }
+
+    /**
+     * Runs an INSERT and returns the generated key of the new row.
+     *
+     * @return the generated key, or {@code null} if no row was inserted (e.g. {@code ON CONFLICT DO NOTHING})
+     * @throws SQLException if the insert fails, or inserts a row without a generated key
+     */
+    public Long insert(Connection conn, String sql, Object... params) throws SQLException {
+        long start = System.nanoTime();
+        int affected = -1;
+        SQLException failure = null;
+        try (PreparedStatement ps = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+            bind(ps, params);
+            affected = ps.executeUpdate();
+            if (affected == 0) {
+                return null;
+            }
+            try (ResultSet keys = ps.getGeneratedKeys()) {
+                if (keys.next()) {
+                    return keys.getLong(1);
+                }
+            }
+            throw new SQLException("No generated key for: " + sql);
+        } catch (SQLException e) {
+            failure = e;
+            throw e;
+        } finally {
+            report(sql, start, affected, failure);
+        }
+    }
+
+    /**
+     * Runs one statement for every item as a single JDBC batch.
+     *
+     * @return the update count of each item
+     */
+    public <P> int[] batch(Connection conn, String sql, Collection<P> items, BatchBinder<P> binder) throws SQLException {
+        if (items.isEmpty()) {
+            return new int[0];
+        }
+        long start = System.nanoTime();
+        SQLException failure = null;
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            for (P item : items) {
+                binder.bind(ps, item);
+                ps.addBatch();
+            }
+            return ps.executeBatch();
+        } catch (SQLException e) {
+            failure = e;
+            throw e;
+        } finally {
+            report(sql, start, items.size(), failure);
+        }
+    }
+
+    /**
+     * Runs an INSERT for every item as a single JDBC batch and returns the generated {@code id} of each row,
+     * in item order.
+     *
+     * @return the generated keys
+     * @throws SQLException if the batch fails or a key is missing
+     */
+    public <P> long[] batchInsert(Connection conn, String sql, Collection<P> items, BatchBinder<P> binder) throws SQLException {
+        long[] ids = new long[items.size()];
+        if (items.isEmpty()) {
+            return ids;
+        }
+        long start = System.nanoTime();
+        SQLException failure = null;
+        try (PreparedStatement ps = conn.prepareStatement(sql, new String[]{"id"})) {
+            for (P item : items) {
+                binder.bind(ps, item);
+                ps.addBatch();
+            }
+            ps.executeBatch();
+            try (ResultSet keys = ps.getGeneratedKeys()) {
+                for (int i = 0; i < ids.length; i++) {
+                    if (!keys.next()) {
+                        throw new SQLException("Missing generated key " + (i + 1) + " of " + ids.length + " for: " + sql);
+                    }
+                    ids[i] = keys.getLong(1);
+                }
+            }
+            return ids;
+        } catch (SQLException e) {
+            failure = e;
+            throw e;
+        } finally {
+            report(sql, start, items.size(), failure);
+        }
+    }
+
+    private static void bind(PreparedStatement ps, Object[] params) throws SQLException {
+        for (int i = 0; i < params.length; i++) {
+            Object param = params[i];
+            if (param == null) {
+                ps.setNull(i + 1, Types.NULL);
+            } else if (param instanceof SqlArray array) {
+                ps.setArray(i + 1, ps.getConnection().createArrayOf(array.type, array.values));
+            } else {
+                ps.setObject(i + 1, param);
+            }
+        }
+    }
+
+    private static void rollback(Connection conn, Throwable cause) {
+        try {
+            conn.rollback();
+        } catch (SQLException e) {
+            cause.addSuppressed(e);
+        }
+    }
+
+    private static void report(String sql, long start, long rows, SQLException failure) {
+        listener.executed(sql, System.nanoTime() - start, rows, failure);
+    }
+
+    /**
+     * Column indexes of one execution, resolved at its first row.
+     */
+    private static final class Mapping<T> {
+        private final String sql;
+        private final RowMapper<T> mapper;
+        private int[] columns;
+
+        Mapping(String sql, RowMapper<T> mapper) {
+            this.sql = sql;
+            this.mapper = mapper;
+        }
+
+        T map(ResultSet rs) throws SQLException {
+            if (columns == null) {
+                columns = mapper.columnsFor(sql, rs);
+            }
+            return mapper.map(rs, columns);
+        }
+    }
+
+    private static final class SqlArray {
+        private final String type;
+        private final Object[] values;
+
+        SqlArray(String type, Object[] values) {
+            this.type = type;
+            this.values = values;
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package epam.finalProject.db;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+import java.util.function.Supplier;
+
+/**
+ * Runs two independent queries of one request side by side, typically the {@code COUNT(*)} and the rows
+ * of a list page. Each DAO call borrows its own connection, so the request waits for the slower of the
+ * two instead of their sum.
+ * <p>
+ * The first query goes to a small fixed pool with a bounded queue, the second runs on the calling thread.
+ * When the pool is saturated the caller runs the first query too, so a burst degrades to sequential
+ * execution instead of queueing without bound or failing. The caller waits at most the timeout for the
+ * pooled query and then throws an {@link IllegalStateException}.
+ * <p>
+ * The timeout bounds the request, not the query. A pooled query that has not started yet is dropped and
+ * one waiting for a connection is interrupted, but a statement already executing ignores the interrupt: it
+ * runs to completion and keeps its pool thread and connection until then. At most {@code threads} such
+ * queries can be left running, since each holds a pool thread.
+ */
+public class ParallelQueries implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ParallelQueries.class);
+
+    private final ExecutorService executor;
+    private final long timeoutMillis;
+
+    /**
+     * @param threads       threads running the pooled queries; each may hold a connection
+     * @param queueCapacity queries waiting for a thread before callers run them themselves
+     * @param timeoutMillis how long the caller waits for the pooled query
+     */
+    public ParallelQueries(int threads, int queueCapacity, long timeoutMillis) {
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), threadFactory(), new ThreadPoolExecutor.CallerRunsPolicy());
+        pool.allowCoreThreadTimeOut(true);
+        this.executor = pool;
+        this.timeoutMillis = timeoutMillis;
+        logger.debug("ParallelQueries initialized with {} threads, queue {}, timeout {} ms", threads, queueCapacity, timeoutMillis);
+    }
+
+    private ParallelQueries() {
+        this.executor = null;
+        this.timeoutMillis = 0;
+    }
+
+    /**
+     * Returns an instance that runs both queries on the calling thread, one after the other.
+     *
+     * @return the sequential instance
+     */
+    public static ParallelQueries sequential() {
+        return new ParallelQueries();
+    }
+
+    /**
+     * Runs {@code first} on the pool and {@code second} on the calling thread, then combines the results.
+     * A runtime exception thrown by either query is rethrown as is.
+     *
+     * @param first   the query handed to the pool
+     * @param second  the query run by the caller
+     * @param combine builds the result from both answers
+     * @return the combined result
+     * @throws IllegalStateException if {@code first} does not finish within the timeout
+     */
+    public <A, B, R> R both(Supplier<A> first, Supplier<B> second, BiFunction<A, B, R> combine) {
+        if (executor == null) {
+            A a = first.get();
+            return combine.apply(a, second.get());
+        }
+        Future<A> pending = executor.submit(first::get);
+        B b;
+        try {
+            b = second.get();
+        } catch (RuntimeException | Error e) {
+            pending.cancel(true);
+            throw e;
+        }
+        return combine.apply(await(pending), b);
+    }
+
+    private <A> A await(Future<A> pending) {
+        try {
+            return pending.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            // only stops a query that has not reached the database; a running statement finishes on its own
+            pending.cancel(true);
+            logger.warn("Parallel query did not finish within {} ms; stopped waiting for it", timeoutMillis);
+            throw new IllegalStateException("Query did not finish within " + timeoutMillis + " ms", e);
+        } catch (InterruptedException e) {
+            pending.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a query", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException("Query failed", cause);
+        }
+    }
+
+    /**
+     * Stops the pool threads; queries already running are allowed to finish.
+     */
+    @Override
+    public void close() {
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+
+    private static ThreadFactory threadFactory() {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "parallel-query-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,47 @@
+package epam.finalProject.db;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Receives the timing of every statement run through {@link JdbcExecutor}.
+ * One listener is installed for the whole application with {@link JdbcExecutor#setListener}.
+ */
+@FunctionalInterface
+public interface QueryListener {
+
+    /**
+     * Called after a statement has been executed and its rows, if any, have been read.
+     *
+     * @param sql          the statement text
+     * @param elapsedNanos for a query, time from execution until its first row was available (or the result
+     *                     was known to be empty), so that reading a long cursor is not reported as a slow
+     *                     statement; for other statements, time until they completed
+     * @param rows         rows read or affected; -1 if unknown
+     * @param failure      the error, or {@code null} if the statement succeeded
+     */
+    void executed(String sql, long elapsedNanos, long rows, SQLException failure);
+
+    /**
+     * The default listener: logs every statement at debug level and statements slower than
+     * {@code slowMillis} at warn level.
+     *
+     * @param slowMillis threshold in milliseconds
+     * @return the listener
+     */
+    static QueryListener logging(long slowMillis) {
+        Logger logger = LoggerFactory.getLogger(QueryListener.class);
+        long slowNanos = TimeUnit.MILLISECONDS.toNanos(slowMillis);
+        return (sql, elapsedNanos, rows, failure) -> {
+            if (elapsedNanos >= slowNanos) {
+                logger.warn("Slow statement: {} ms, {} rows: {}", TimeUnit.NANOSECONDS.toMillis(elapsedNanos), rows, sql);
+            } else if (logger.isDebugEnabled()) {
+                logger.debug("Statement took {} us, {} rows{}: {}", TimeUnit.NANOSECONDS.toMicros(elapsedNanos), rows,
+                        failure == null ? "" : " (failed)", sql);
+            }
+        };
+    }
+}
@@ -0,0 +1,109 @@
+package epam.finalProject.db;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Maps result rows to objects by column index.
+ * A mapper names the columns it reads; {@link JdbcExecutor} resolves those names to indexes from the
+ * result metadata once per statement text and passes the indexes to every row, so rows are read
+ * with {@code rs.getLong(int)} instead of a name lookup per column per row.
+ * Mappers created with {@link #positional} read fixed positions and skip the resolution.
+ *
+ * @param <T> the mapped type
+ */
+public final class RowMapper<T> {
+
+    /** Statement texts remembered per mapper; further shapes are resolved on every execution. */
+    private static final int MAX_SHAPES = 256;
+
+    private static final int[] NO_COLUMNS = new int[0];
+
+    /**
+     * Reads one row.
+     *
+     * @param <T> the mapped type
+     */
+    @FunctionalInterface
+    public interface Row<T> {
+        /**
+         * @param rs      the result set positioned at a row
+         * @param columns the index of each named column, in the order the names were given
+         * @return the mapped object
+         * @throws SQLException if a column cannot be read
+         */
+        T map(ResultSet rs, int[] columns) throws SQLException;
+    }
+
+    private final String[] labels;
+    private final Row<T> row;
+    private final ConcurrentMap<String, int[]> columnsBySql = new ConcurrentHashMap<>();
+
+    private RowMapper(String[] labels, Row<T> row) {
+        this.labels = labels;
+        this.row = row;
+    }
+
+    /**
+     * Creates a mapper that reads the named columns, matched case-insensitively against column labels.
+     *
+     * @param row    reads a row using the resolved indexes
+     * @param labels the columns read, in the order {@code row} expects their indexes
+     * @param <T>    the mapped type
+     * @return the mapper
+     */
+    public static <T> RowMapper<T> of(Row<T> row, String... labels) {
+        return new RowMapper<>(labels.clone(), row);
+    }
+
+    /**
+     * Creates a mapper for statements whose column order is fixed; {@code row} receives no indexes.
+     *
+     * @param row reads a row by position
+     * @param <T> the mapped type
+     * @return the mapper
+     */
+    public static <T> RowMapper<T> positional(Row<T> row) {
+        return new RowMapper<>(new String[0], row);
+    }
+
+    T map(ResultSet rs, int[] columns) throws SQLException {
+        return row.map(rs, columns);
+    }
+
+    /**
+     * Returns the column indexes for a result of {@code sql}, resolving them on the first call.
+     */
+    int[] columnsFor(String sql, ResultSet rs) throws SQLException {
+        if (labels.length == 0) {
+            return NO_COLUMNS;
+        }
+        int[] columns = columnsBySql.get(sql);
+        if (columns == null) {
+            columns = resolve(sql, rs.getMetaData());
+            if (columnsBySql.size() < MAX_SHAPES) {
+                columnsBySql.putIfAbsent(sql, columns);
+            }
+        }
+        return columns;
+    }
+
+    private int[] resolve(String sql, ResultSetMetaData meta) throws SQLException {
+        int[] columns = new int[labels.length];
+        int count = meta.getColumnCount();
+        for (int i = 0; i < labels.length; i++) {
+            for (int c = 1; c <= count && columns[i] == 0; c++) {
+                if (labels[i].equalsIgnoreCase(meta.getColumnLabel(c))) {
+                    columns[i] = c;
+                }
+            }
+            if (columns[i] == 0) {
+                throw new SQLException("Column '" + labels[i] + "' is not in the result of: " + sql);
+            }
+        }
+        return columns;
+    }
+}
@@ -0,0 +1,43 @@
+package epam.finalProject.dto;
+
+/**
+ * Row of the author directory: an author together with the number of their books.
+ */
+public class AuthorSummary {
+    private Long id;
+    private String name;
+    private long bookCount;
+
+    public AuthorSummary() {
+    }
+
+    public AuthorSummary(Long id, String name, long bookCount) {
+        this.id = id;
+        this.name = name;
+        this.bookCount = bookCount;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public long getBookCount() {
+        return bookCount;
+    }
+
+    public void setBookCount(long bookCount) {
+        this.bookCount = bookCount;
+    }
+}
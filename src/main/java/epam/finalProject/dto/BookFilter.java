@@ -0,0 +1,181 @@
+package epam.finalProject.dto;
+
+/**
+ * Filter and sort order of the book list. Every criterion is optional; an empty filter lists the
+ * whole catalog in id order. Instances are immutable.
+ */
+public class BookFilter {
+
+    /**
+     * Sort keys offered on the book list. Each key maps to a fixed column, so user input never
+     * reaches the SQL text; ties are broken by id.
+     */
+    public enum Sort {
+        ID("id"),
+        TITLE("title"),
+        YEAR("\"year\""),
+        QUANTITY("quantity");
+
+        private final String column;
+
+        Sort(String column) {
+            this.column = column;
+        }
+
+        public String getColumn() {
+            return column;
+        }
+
+        /**
+         * @param name request parameter value, case-insensitive
+         * @return the matching key, or {@link #ID} for {@code null} and unknown values
+         */
+        public static Sort from(String name) {
+            if (name != null) {
+                for (Sort sort : values()) {
+                    if (sort.name().equalsIgnoreCase(name)) {
+                        return sort;
+                    }
+                }
+            }
+            return ID;
+        }
+    }
+
+    private static final BookFilter NONE = new BookFilter(null, null, null, null, false, Sort.ID, false);
+
+    private final Long genreId;
+    private final Long authorId;
+    private final Integer yearFrom;
+    private final Integer yearTo;
+    private final boolean inStock;
+    private final Sort sort;
+    private final boolean descending;
+
+    /**
+     * @param genreId    only books of this genre, or {@code null}
+     * @param authorId   only books of this author, or {@code null}
+     * @param yearFrom   lowest publication year, inclusive, or {@code null}
+     * @param yearTo     highest publication year, inclusive, or {@code null}
+     * @param inStock    only books with a positive quantity
+     * @param sort       sort key; {@code null} means {@link Sort#ID}
+     * @param descending reverse the sort order
+     */
+    public BookFilter(Long genreId, Long authorId, Integer yearFrom, Integer yearTo, boolean inStock,
+                      Sort sort, boolean descending) {
+        this.genreId = genreId;
+        this.authorId = authorId;
+        this.yearFrom = yearFrom;
+        this.yearTo = yearTo;
+        this.inStock = inStock;
+        this.sort = sort == null ? Sort.ID : sort;
+        this.descending = descending;
+    }
+
+    /**
+     * @return the filter that lists every book in id order
+     */
+    public static BookFilter none() {
+        return NONE;
+    }
+
+    /**
+     * @return {@code true} if no criterion restricts the rows (the sort order may still differ)
+     */
+    public boolean isUnrestricted() {
+        return genreId == null && authorId == null && yearFrom == null && yearTo == null && !inStock;
+    }
+
+    /**
+     * @param genreId the genre to filter by, or {@code null} for any
+     * @return a copy of this filter with the genre replaced
+     */
+    public BookFilter withGenre(Long genreId) {
+        return new BookFilter(genreId, authorId, yearFrom, yearTo, inStock, sort, descending);
+    }
+
+    /**
+     * @param authorId the author to filter by, or {@code null} for any
+     * @return a copy of this filter with the author replaced
+     */
+    public BookFilter withAuthor(Long authorId) {
+        return new BookFilter(genreId, authorId, yearFrom, yearTo, inStock, sort, descending);
+    }
+
+    /**
+     * @param from lowest year, inclusive, or {@code null}
+     * @param to   highest year, inclusive, or {@code null}
+     * @return a copy of this filter with the year range replaced
+     */
+    public BookFilter withYears(Integer from, Integer to) {
+        return new BookFilter(genreId, authorId, from, to, inStock, sort, descending);
+    }
+
+    /**
+     * @param inStock whether to list only available books
+     * @return a copy of this filter with the availability criterion replaced
+     */
+    public BookFilter withInStock(boolean inStock) {
+        return new BookFilter(genreId, authorId, yearFrom, yearTo, inStock, sort, descending);
+    }
+
+    /**
+     * Renders the filter as query parameters for pagination links, each prefixed with {@code &}.
+     * All values are numbers, booleans or enum names, so no encoding is needed.
+     *
+     * @return the parameters, or an empty string for {@link #none()}
+     */
+    public String toQueryString() {
+        StringBuilder sb = new StringBuilder();
+        if (genreId != null) {
+            sb.append("&genre=").append(genreId);
+        }
+        if (authorId != null) {
+            sb.append("&author=").append(authorId);
+        }
+        if (yearFrom != null) {
+            sb.append("&yearFrom=").append(yearFrom);
+        }
+        if (yearTo != null) {
+            sb.append("&yearTo=").append(yearTo);
+        }
+        if (inStock) {
+            sb.append("&inStock=true");
+        }
+        if (sort != Sort.ID) {
+            sb.append("&sort=").append(sort.name().toLowerCase());
+        }
+        if (descending) {
+            sb.append("&dir=desc");
+        }
+        return sb.toString();
+    }
+
+    public Long getGenreId() {
+        return genreId;
+    }
+
+    public Long getAuthorId() {
+        return authorId;
+    }
+
+    public Integer getYearFrom() {
+        return yearFrom;
+    }
+
+    public Integer getYearTo() {
+        return yearTo;
+    }
+
+    public boolean isInStock() {
+        return inStock;
+    }
+
+    public Sort getSort() {
+        return sort;
+    }
+
+    public boolean isDescending() {
+        return descending;
+    }
+}
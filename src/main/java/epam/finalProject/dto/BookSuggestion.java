@@ -0,0 +1,43 @@
+package epam.finalProject.dto;
+
+/**
+ * Autocomplete entry for the search box: a book with its author's name.
+ */
+public class BookSuggestion {
+    private Long id;
+    private String title;
+    private String authorName;
+
+    public BookSuggestion() {
+    }
+
+    public BookSuggestion(Long id, String title, String authorName) {
+        this.id = id;
+        this.title = title;
+        this.authorName = authorName;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public String getAuthorName() {
+        return authorName;
+    }
+
+    public void setAuthorName(String authorName) {
+        this.authorName = authorName;
+    }
+}
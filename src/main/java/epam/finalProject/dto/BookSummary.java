@@ -0,0 +1,91 @@
+package epam.finalProject.dto;
+
+import epam.finalProject.entity.Book;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Row of a book list page: the book without its description, with the author name and genre names
+ * already resolved. Loaded by a single query per page; the full {@link Book} is only read for the
+ * detail and edit pages.
+ */
+public class BookSummary {
+    private Long id;
+    private String title;
+    private Long authorId;
+    private String authorName;
+    private Integer year;
+    private Integer quantity;
+    private List<String> genreNames = new ArrayList<>();
+
+    public BookSummary() {
+    }
+
+    public BookSummary(Long id, String title, Long authorId, String authorName, Integer year, Integer quantity,
+                       List<String> genreNames) {
+        this.id = id;
+        this.title = title;
+        this.authorId = authorId;
+        this.authorName = authorName;
+        this.year = year;
+        this.quantity = quantity;
+        this.genreNames = genreNames;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public Long getAuthorId() {
+        return authorId;
+    }
+
+    public void setAuthorId(Long authorId) {
+        this.authorId = authorId;
+    }
+
+    public String getAuthorName() {
+        return authorName;
+    }
+
+    public void setAuthorName(String authorName) {
+        this.authorName = authorName;
+    }
+
+    public Integer getYear() {
+        return year;
+    }
+
+    public void setYear(Integer year) {
+        this.year = year;
+    }
+
+    public Integer getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(Integer quantity) {
+        this.quantity = quantity;
+    }
+
+    public List<String> getGenreNames() {
+        return genreNames;
+    }
+
+    public void setGenreNames(List<String> genreNames) {
+        this.genreNames = genreNames;
+    }
+}
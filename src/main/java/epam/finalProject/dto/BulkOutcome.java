@@ -0,0 +1,15 @@
+package epam.finalProject.dto;
+
+/**
+ * Per-id result of a bulk admin operation.
+ */
+public enum BulkOutcome {
+    /** The row was changed. */
+    DONE,
+    /** The row belongs to another admin and was left untouched. */
+    PROTECTED,
+    /** No row with this id exists. */
+    NOT_FOUND,
+    /** The statement failed; nothing was changed. */
+    FAILED
+}
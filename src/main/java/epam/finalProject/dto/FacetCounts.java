@@ -0,0 +1,68 @@
+package epam.finalProject.dto;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Facet counts shown next to the book list filters. Each facet is counted under every active filter
+ * except its own, so the numbers tell how many books a click on that value would list.
+ */
+public class FacetCounts {
+    private final long total;
+    private final Map<Long, Long> genres;
+    private final Map<Integer, Long> decades;
+    private final Map<Long, Long> authors;
+    private final long inStock;
+    private final long outOfStock;
+    private Map<Long, String> authorNames = Collections.emptyMap();
+
+    /**
+     * @param total      books matching the whole filter
+     * @param genres     books per genre id
+     * @param decades    books per decade (1860 for 1860-1869), ascending
+     * @param authors    books per author id, most first
+     * @param inStock    books with copies available
+     * @param outOfStock books without copies
+     */
+    public FacetCounts(long total, Map<Long, Long> genres, Map<Integer, Long> decades, Map<Long, Long> authors,
+                       long inStock, long outOfStock) {
+        this.total = total;
+        this.genres = genres;
+        this.decades = decades;
+        this.authors = authors;
+        this.inStock = inStock;
+        this.outOfStock = outOfStock;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public Map<Long, Long> getGenres() {
+        return genres;
+    }
+
+    public Map<Integer, Long> getDecades() {
+        return decades;
+    }
+
+    public Map<Long, Long> getAuthors() {
+        return authors;
+    }
+
+    public long getInStock() {
+        return inStock;
+    }
+
+    public long getOutOfStock() {
+        return outOfStock;
+    }
+
+    public Map<Long, String> getAuthorNames() {
+        return authorNames;
+    }
+
+    public void setAuthorNames(Map<Long, String> authorNames) {
+        this.authorNames = authorNames;
+    }
+}
@@ -0,0 +1,84 @@
+package epam.finalProject.dto;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Outcome of a catalog import: row counts and the reason each rejected row was skipped.
+ * Only the first {@link #MAX_ERRORS} errors are kept so that a file full of bad rows cannot exhaust memory.
+ */
+public class ImportReport {
+
+    public static final int MAX_ERRORS = 1000;
+
+    private long rowsRead;
+    private long imported;
+    private long failed;
+    private final List<RowError> errors = new ArrayList<>();
+
+    public void rowRead() {
+        rowsRead++;
+    }
+
+    public void imported(int count) {
+        imported += count;
+    }
+
+    /**
+     * Records a rejected row.
+     *
+     * @param line    line on which the row starts
+     * @param message why the row was rejected
+     */
+    public void rejected(int line, String message) {
+        failed++;
+        if (errors.size() < MAX_ERRORS) {
+            errors.add(new RowError(line, message));
+        }
+    }
+
+    public long getRowsRead() {
+        return rowsRead;
+    }
+
+    public long getImported() {
+        return imported;
+    }
+
+    public long getFailed() {
+        return failed;
+    }
+
+    public List<RowError> getErrors() {
+        return Collections.unmodifiableList(errors);
+    }
+
+    /**
+     * @return {@code true} if more rows failed than are listed in {@link #getErrors()}
+     */
+    public boolean isErrorsTruncated() {
+        return failed > errors.size();
+    }
+
+    /**
+     * A rejected row of the import file.
+     */
+    public static class RowError {
+        private final int line;
+        private final String message;
+
+        public RowError(int line, String message) {
+            this.line = line;
+            this.message = message;
+        }
+
+        public int getLine() {
+            return line;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+    }
+}
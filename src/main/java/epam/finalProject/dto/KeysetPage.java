@@ -0,0 +1,48 @@
+package epam.finalProject.dto;
+
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated listing.
+ * Instead of page numbers it carries the sort keys to continue from in either direction;
+ * a {@code null} cursor means there is nothing further that way.
+ *
+ * @param <T> the row type
+ */
+public class KeysetPage<T> {
+    private final List<T> content;
+    private final String nextCursor;
+    private final String previousCursor;
+    private final int size;
+
+    public KeysetPage(List<T> content, String nextCursor, String previousCursor, int size) {
+        this.content = content;
+        this.nextCursor = nextCursor;
+        this.previousCursor = previousCursor;
+        this.size = size;
+    }
+
+    public List<T> getContent() {
+        return content;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public String getPreviousCursor() {
+        return previousCursor;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+
+    public boolean hasPrevious() {
+        return previousCursor != null;
+    }
+}
@@ -0,0 +1,43 @@
+package epam.finalProject.dto;
+
+/**
+ * Read-only view of a user for listings. Deliberately carries no password hash.
+ */
+public class UserSummary {
+    private Long id;
+    private String username;
+    private String role;
+
+    public UserSummary() {
+    }
+
+    public UserSummary(Long id, String username, String role) {
+        this.id = id;
+        this.username = username;
+        this.role = role;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public void setUsername(String username) {
+        this.username = username;
+    }
+
+    public String getRole() {
+        return role;
+    }
+
+    public void setRole(String role) {
+        this.role = role;
+    }
+}
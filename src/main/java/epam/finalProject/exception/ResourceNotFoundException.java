@@ -5,4 +5,19 @@ public class ResourceNotFoundException extends RuntimeException {
     public ResourceNotFoundException(String message) {
         super(message);
     }
+
+    private ResourceNotFoundException(String message, boolean writableStackTrace) {
+        super(message, null, false, writableStackTrace);
+    }
+
+    /**
+     * Creates the exception without filling in a stack trace. Use it for expected misses on hot paths,
+     * where the trace would never be looked at and costs more than the lookup itself.
+     *
+     * @param message the detail message
+     * @return a new exception with an empty stack trace
+     */
+    public static ResourceNotFoundException withoutStackTrace(String message) {
+        return new ResourceNotFoundException(message, false);
+    }
 }
\ No newline at end of file
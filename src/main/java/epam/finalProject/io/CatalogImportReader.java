@@ -0,0 +1,267 @@
+package epam.finalProject.io;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Streaming reader for catalog import files. Records are parsed one at a time from a small character
+ * buffer, so memory use does not depend on the file size.
+ * <p>
+ * CSV files start with a header row naming the columns; NDJSON files hold one JSON object per line.
+ * Column names are case-insensitive. Multi-valued fields (genres) are separated by {@code '|'} in CSV
+ * and may be a JSON array in NDJSON; arrays are returned joined with {@code '|'}.
+ * <p>
+ * A malformed record becomes a failed {@link ImportRow} and reading continues with the next one.
+ * Only a record longer than {@link #MAX_RECORD_LENGTH} (usually an unbalanced quote swallowing the rest
+ * of the file) ends the input, since the next record boundary can no longer be found reliably.
+ */
+public class CatalogImportReader implements Closeable {
+
+    /** Longest accepted record, in characters. */
+    public static final int MAX_RECORD_LENGTH = 64 * 1024;
+
+    public static final String MULTI_VALUE_SEPARATOR = "|";
+
+    /** Columns every CSV header must contain. */
+    public static final List<String> REQUIRED_COLUMNS = List.of("title", "author");
+
+    private static final int BUFFER_SIZE = 16 * 1024;
+
+    private final Reader in;
+    private final DataFormat format;
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private int pos;
+    private int limit;
+    private int line;
+    private boolean started;
+    private boolean done;
+    private List<String> header;
+
+    /**
+     * @param in     UTF-8 encoded input, closed together with this reader
+     * @param format file format
+     */
+    public CatalogImportReader(InputStream in, DataFormat format) {
+        this.in = new InputStreamReader(in, StandardCharsets.UTF_8);
+        this.format = format;
+    }
+
+    /**
+     * Reads the next non-blank record.
+     *
+     * @return the record, or {@code null} at the end of the input
+     * @throws IOException if the underlying stream fails
+     */
+    public ImportRow next() throws IOException {
+        if (!started) {
+            started = true;
+            if (peek() == '\uFEFF') {
+                read();
+            }
+        }
+        return format == DataFormat.CSV ? nextCsv() : nextNdjson();
+    }
+
+    private ImportRow nextCsv() throws IOException {
+        while (!done) {
+            int startLine = line + 1;
+            List<String> fields = new ArrayList<>();
+            String error = readCsvRecord(fields);
+            if (error == null && fields.size() == 1 && fields.get(0).isEmpty()) {
+                continue;
+            }
+            if (header == null) {
+                if (error != null) {
+                    done = true;
+                    return ImportRow.failed(startLine, "Unreadable header: " + error);
+                }
+                header = new ArrayList<>(fields.size());
+                for (String name : fields) {
+                    header.add(name.strip().toLowerCase(Locale.ROOT));
+                }
+                if (!header.containsAll(REQUIRED_COLUMNS)) {
+                    done = true;
+                    return ImportRow.failed(startLine, "Header must name the columns " + String.join(", ", REQUIRED_COLUMNS));
+                }
+                continue;
+            }
+            if (error != null) {
+                return ImportRow.failed(startLine, error);
+            }
+            if (fields.size() != header.size()) {
+                return ImportRow.failed(startLine, "Expected " + header.size() + " fields but found " + fields.size());
+            }
+            Map<String, String> values = new HashMap<>(header.size() * 2);
+            for (int i = 0; i < fields.size(); i++) {
+                values.put(header.get(i), fields.get(i));
+            }
+            return ImportRow.parsed(startLine, values);
+        }
+        return null;
+    }
+
+    /**
+     * Reads one CSV record into {@code fields}.
+     *
+     * @return {@code null} on success, otherwise why the record is malformed
+     */
+    private String readCsvRecord(List<String> fields) throws IOException {
+        StringBuilder field = new StringBuilder();
+        boolean inQuotes = false;
+        boolean quotedField = false;
+        int length = 0;
+        while (true) {
+            int c = read();
+            if (c == -1) {
+                done = true;
+                fields.add(field.toString());
+                return inQuotes ? "Unterminated quoted field" : null;
+            }
+            if (++length > MAX_RECORD_LENGTH) {
+                done = true;
+                return "Record longer than " + MAX_RECORD_LENGTH + " characters; import stopped here";
+            }
+            if (inQuotes) {
+                if (c == '"') {
+                    if (peek() == '"') {
+                        read();
+                        field.append('"');
+                    } else {
+                        inQuotes = false;
+                    }
+                } else {
+                    if (c == '\n') {
+                        line++;
+                    }
+                    field.append((char) c);
+                }
+            } else if (c == '"' && field.length() == 0 && !quotedField) {
+                inQuotes = true;
+                quotedField = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+                quotedField = false;
+            } else if (c == '\n' || c == '\r') {
+                if (c == '\r' && peek() == '\n') {
+                    read();
+                }
+                line++;
+                fields.add(field.toString());
+                return null;
+            } else {
+                field.append((char) c);
+            }
+        }
+    }
+
+    private ImportRow nextNdjson() throws IOException {
+        while (!done) {
+            int startLine = line + 1;
+            StringBuilder text = new StringBuilder();
+            String error = readLine(text);
+            if (error != null) {
+                return ImportRow.failed(startLine, error);
+            }
+            if (text.toString().isBlank()) {
+                continue;
+            }
+            JsonNode node;
+            try {
+                node = mapper.readTree(text.toString());
+            } catch (JsonProcessingException e) {
+                return ImportRow.failed(startLine, "Invalid JSON: " + e.getOriginalMessage());
+            }
+            if (node == null || !node.isObject()) {
+                return ImportRow.failed(startLine, "Expected a JSON object");
+            }
+            Map<String, String> values = new HashMap<>();
+            for (Iterator<Map.Entry<String, JsonNode>> it = node.fields(); it.hasNext(); ) {
+                Map.Entry<String, JsonNode> entry = it.next();
+                values.put(entry.getKey().toLowerCase(Locale.ROOT), textOf(entry.getValue()));
+            }
+            return ImportRow.parsed(startLine, values);
+        }
+        return null;
+    }
+
+    private String readLine(StringBuilder text) throws IOException {
+        while (true) {
+            int c = read();
+            if (c == -1) {
+                done = true;
+                return null;
+            }
+            if (c == '\n' || c == '\r') {
+                if (c == '\r' && peek() == '\n') {
+                    read();
+                }
+                line++;
+                return null;
+            }
+            if (text.length() == MAX_RECORD_LENGTH) {
+                done = true;
+                return "Line longer than " + MAX_RECORD_LENGTH + " characters; import stopped here";
+            }
+            text.append((char) c);
+        }
+    }
+
+    private static String textOf(JsonNode value) {
+        if (value == null || value.isNull()) {
+            return null;
+        }
+        if (value.isArray()) {
+            StringBuilder joined = new StringBuilder();
+            for (JsonNode element : value) {
+                if (joined.length() > 0) {
+                    joined.append(MULTI_VALUE_SEPARATOR);
+                }
+                joined.append(element.asText());
+            }
+            return joined.toString();
+        }
+        return value.isValueNode() ? value.asText() : value.toString();
+    }
+
+    private int read() throws IOException {
+        if (pos == limit && !fill()) {
+            return -1;
+        }
+        return buffer[pos++];
+    }
+
+    private int peek() throws IOException {
+        if (pos == limit && !fill()) {
+            return -1;
+        }
+        return buffer[pos];
+    }
+
+    private boolean fill() throws IOException {
+        int n = in.read(buffer, 0, buffer.length);
+        pos = 0;
+        limit = Math.max(n, 0);
+        return n > 0;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+}
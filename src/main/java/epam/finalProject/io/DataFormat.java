@@ -0,0 +1,49 @@
+package epam.finalProject.io;
+
+import java.util.Locale;
+
+/**
+ * File formats accepted by the catalog import and produced by the exports.
+ */
+public enum DataFormat {
+    /** Comma-separated values with a header row (RFC 4180 quoting). */
+    CSV("text/csv", ".csv"),
+    /** One JSON object per line. */
+    NDJSON("application/x-ndjson", ".ndjson");
+
+    private final String contentType;
+    private final String extension;
+
+    DataFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    /**
+     * Guesses the format from a file name.
+     *
+     * @param fileName uploaded file name, may be {@code null}
+     * @return the format, or {@code null} if the extension is not recognised
+     */
+    public static DataFormat fromFileName(String fileName) {
+        if (fileName == null) {
+            return null;
+        }
+        String lower = fileName.toLowerCase(Locale.ROOT);
+        if (lower.endsWith(".csv")) {
+            return CSV;
+        }
+        if (lower.endsWith(".ndjson") || lower.endsWith(".jsonl")) {
+            return NDJSON;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,207 @@
+package epam.finalProject.io;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.util.List;
+
+/**
+ * Writes rows as CSV or NDJSON to a channel through one fixed-size byte buffer.
+ * Each row is formatted into a reused character buffer and encoded straight into the byte buffer,
+ * which is written to the channel whenever it fills up, so memory use does not grow with the row count.
+ * <p>
+ * CSV output starts with a header row and quotes fields only when needed (RFC 4180); NDJSON output is one
+ * object per row keyed by column name. Timestamps are written in ISO-8601 form.
+ */
+public class ExportWriter implements Closeable {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final WritableByteChannel channel;
+    private final DataFormat format;
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+    private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    private final StringBuilder line = new StringBuilder(256);
+    private List<String> columns;
+    private long rowCount;
+
+    /**
+     * @param channel destination, closed together with this writer
+     * @param format  output format
+     */
+    public ExportWriter(WritableByteChannel channel, DataFormat format) {
+        this.channel = channel;
+        this.format = format;
+    }
+
+    /**
+     * Declares the columns; writes the header row for CSV. Must be called once before the first row.
+     *
+     * @param columns column names, in the order values are passed to {@link #writeRow}
+     * @throws IOException if the channel fails
+     */
+    public void start(List<String> columns) throws IOException {
+        this.columns = columns;
+        if (format == DataFormat.CSV) {
+            line.setLength(0);
+            for (int i = 0; i < columns.size(); i++) {
+                if (i > 0) {
+                    line.append(',');
+                }
+                appendCsv(columns.get(i));
+            }
+            line.append("\r\n");
+            encodeLine();
+        }
+    }
+
+    /**
+     * Writes one row.
+     *
+     * @param values one value per column: strings, numbers, booleans, timestamps or {@code null}
+     * @throws IOException if the channel fails
+     */
+    public void writeRow(Object... values) throws IOException {
+        if (columns == null || values.length != columns.size()) {
+            throw new IllegalStateException("Expected " + (columns == null ? "start() before rows" : columns.size() + " values"));
+        }
+        line.setLength(0);
+        if (format == DataFormat.CSV) {
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    line.append(',');
+                }
+                Object value = values[i];
+                if (value instanceof Number || value instanceof Boolean) {
+                    line.append(value);
+                } else if (value != null) {
+                    appendCsv(textOf(value));
+                }
+            }
+            line.append("\r\n");
+        } else {
+            line.append('{');
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    line.append(',');
+                }
+                appendJsonString(columns.get(i));
+                line.append(':');
+                Object value = values[i];
+                if (value == null) {
+                    line.append("null");
+                } else if (value instanceof Number || value instanceof Boolean) {
+                    line.append(value);
+                } else {
+                    appendJsonString(textOf(value));
+                }
+            }
+            line.append("}\n");
+        }
+        encodeLine();
+        rowCount++;
+    }
+
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * Writes out everything buffered so far.
+     *
+     * @throws IOException if the channel fails
+     */
+    public void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            channel.close();
+        }
+    }
+
+    private void encodeLine() throws IOException {
+        CharBuffer chars = CharBuffer.wrap(line);
+        encoder.reset();
+        while (true) {
+            CoderResult result = encoder.encode(chars, buffer, true);
+            if (result.isOverflow()) {
+                flush();
+            } else if (result.isError()) {
+                result.throwException();
+            } else {
+                break;
+            }
+        }
+        while (encoder.flush(buffer).isOverflow()) {
+            flush();
+        }
+    }
+
+    private static String textOf(Object value) {
+        if (value instanceof Timestamp timestamp) {
+            return timestamp.toLocalDateTime().toString();
+        }
+        return value.toString();
+    }
+
+    private void appendCsv(String value) {
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            line.append(value);
+            return;
+        }
+        line.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                line.append('"');
+            }
+            line.append(c);
+        }
+        line.append('"');
+    }
+
+    private void appendJsonString(String value) {
+        line.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> line.append("\\\"");
+                case '\\' -> line.append("\\\\");
+                case '\n' -> line.append("\\n");
+                case '\r' -> line.append("\\r");
+                case '\t' -> line.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        line.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        line.append(c);
+                    }
+                }
+            }
+        }
+        line.append('"');
+    }
+}
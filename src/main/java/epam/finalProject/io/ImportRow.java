@@ -0,0 +1,50 @@
+package epam.finalProject.io;
+
+import java.util.Map;
+
+/**
+ * One record read from an import file: either its fields by lower-case column name, or the reason
+ * it could not be parsed.
+ */
+public final class ImportRow {
+
+    private final int line;
+    private final Map<String, String> fields;
+    private final String error;
+
+    private ImportRow(int line, Map<String, String> fields, String error) {
+        this.line = line;
+        this.fields = fields;
+        this.error = error;
+    }
+
+    static ImportRow parsed(int line, Map<String, String> fields) {
+        return new ImportRow(line, fields, null);
+    }
+
+    static ImportRow failed(int line, String error) {
+        return new ImportRow(line, null, error);
+    }
+
+    /**
+     * @return the line on which the record starts, counting from 1
+     */
+    public int getLine() {
+        return line;
+    }
+
+    /**
+     * @return the field value, or {@code null} if the column is absent or the record failed to parse
+     */
+    public String get(String column) {
+        return fields == null ? null : fields.get(column);
+    }
+
+    public boolean isFailed() {
+        return error != null;
+    }
+
+    public String getError() {
+        return error;
+    }
+}
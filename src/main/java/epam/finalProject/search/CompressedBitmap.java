@@ -0,0 +1,455 @@
+package epam.finalProject.search;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.IntConsumer;
+
+/**
+ * Compressed set of non-negative ints, organised like a Roaring bitmap.
+ * Values are split by their upper 16 bits into chunks of 65536; a chunk holding at most
+ * {@link #ARRAY_MAX} values stores them as a sorted {@code char[]} (2 bytes per value), a fuller chunk
+ * as a 65536-bit {@code long[]} (8 KB). Sparse facets such as a single author therefore cost a few bytes,
+ * dense ones such as "in stock" one bit per book, and intersections run word by word.
+ * <p>
+ * Not thread-safe; {@link FacetIndex} guards its bitmaps with a lock.
+ */
+public class CompressedBitmap {
+
+    /** Largest chunk kept as a sorted array; at this size both forms take 8 KB. */
+    static final int ARRAY_MAX = 4096;
+
+    private static final int BITMAP_WORDS = 1024;
+
+    /** Size ratio above which array intersections binary-search the larger array instead of merging. */
+    private static final int SKEW = 16;
+
+    private char[] keys = new char[0];
+    private Object[] chunks = new Object[0];
+    private int[] chunkSizes = new int[0];
+    private int chunkCount;
+
+    /**
+     * Adds a value.
+     *
+     * @param value a non-negative int
+     * @return {@code true} if the value was not present
+     */
+    public boolean add(int value) {
+        char key = (char) (value >>> 16);
+        char low = (char) value;
+        int i = indexOf(key);
+        if (i < 0) {
+            i = -i - 1;
+            insertChunk(i, key, new char[]{low}, 1);
+            return true;
+        }
+        Object chunk = chunks[i];
+        int size = chunkSizes[i];
+        if (chunk instanceof long[] words) {
+            long bit = 1L << low;
+            if ((words[low >>> 6] & bit) != 0) {
+                return false;
+            }
+            words[low >>> 6] |= bit;
+            chunkSizes[i] = size + 1;
+            return true;
+        }
+        char[] values = (char[]) chunk;
+        int pos = Arrays.binarySearch(values, 0, size, low);
+        if (pos >= 0) {
+            return false;
+        }
+        pos = -pos - 1;
+        if (size == ARRAY_MAX) {
+            long[] words = toWords(values, size);
+            words[low >>> 6] |= 1L << low;
+            chunks[i] = words;
+        } else {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, Math.min(ARRAY_MAX, Math.max(4, size * 2)));
+                chunks[i] = values;
+            }
+            System.arraycopy(values, pos, values, pos + 1, size - pos);
+            values[pos] = low;
+        }
+        chunkSizes[i] = size + 1;
+        return true;
+    }
+
+    /**
+     * Removes a value.
+     *
+     * @param value a non-negative int
+     * @return {@code true} if the value was present
+     */
+    public boolean remove(int value) {
+        int i = indexOf((char) (value >>> 16));
+        if (i < 0) {
+            return false;
+        }
+        char low = (char) value;
+        int size = chunkSizes[i];
+        if (chunks[i] instanceof long[] words) {
+            long bit = 1L << low;
+            if ((words[low >>> 6] & bit) == 0) {
+                return false;
+            }
+            words[low >>> 6] &= ~bit;
+            size--;
+            if (size <= ARRAY_MAX) {
+                chunks[i] = toValues(words, size);
+            }
+        } else {
+            char[] values = (char[]) chunks[i];
+            int pos = Arrays.binarySearch(values, 0, size, low);
+            if (pos < 0) {
+                return false;
+            }
+            System.arraycopy(values, pos + 1, values, pos, size - pos - 1);
+            size--;
+        }
+        if (size == 0) {
+            removeChunk(i);
+        } else {
+            chunkSizes[i] = size;
+        }
+        return true;
+    }
+
+    public boolean contains(int value) {
+        int i = indexOf((char) (value >>> 16));
+        if (i < 0) {
+            return false;
+        }
+        char low = (char) value;
+        if (chunks[i] instanceof long[] words) {
+            return (words[low >>> 6] & (1L << low)) != 0;
+        }
+        return Arrays.binarySearch((char[]) chunks[i], 0, chunkSizes[i], low) >= 0;
+    }
+
+    public long cardinality() {
+        long total = 0;
+        for (int i = 0; i < chunkCount; i++) {
+            total += chunkSizes[i];
+        }
+        return total;
+    }
+
+    public boolean isEmpty() {
+        return chunkCount == 0;
+    }
+
+    /**
+     * Counts the values present in both bitmaps without building the intersection.
+     *
+     * @param other the other bitmap
+     * @return size of the intersection
+     */
+    public long andCardinality(CompressedBitmap other) {
+        long total = 0;
+        int i = 0;
+        int j = 0;
+        while (i < chunkCount && j < other.chunkCount) {
+            if (keys[i] < other.keys[j]) {
+                i++;
+            } else if (keys[i] > other.keys[j]) {
+                j++;
+            } else {
+                total += andCardinality(chunks[i], chunkSizes[i], other.chunks[j], other.chunkSizes[j]);
+                i++;
+                j++;
+            }
+        }
+        return total;
+    }
+
+    /**
+     * @param other the other bitmap
+     * @return a new bitmap holding the values present in both
+     */
+    public CompressedBitmap and(CompressedBitmap other) {
+        return and(other, true);
+    }
+
+    /**
+     * Like {@link #and} but keeps every chunk of the result as a bitmap, which makes the result cheaper
+     * to intersect with many other bitmaps. Meant for short-lived query results.
+     *
+     * @param other the other bitmap
+     * @return a new bitmap holding the values present in both
+     */
+    CompressedBitmap andDense(CompressedBitmap other) {
+        return and(other, false);
+    }
+
+    private CompressedBitmap and(CompressedBitmap other, boolean compact) {
+        CompressedBitmap result = new CompressedBitmap();
+        int i = 0;
+        int j = 0;
+        while (i < chunkCount && j < other.chunkCount) {
+            if (keys[i] < other.keys[j]) {
+                i++;
+            } else if (keys[i] > other.keys[j]) {
+                j++;
+            } else {
+                long[] words = toWords(chunks[i], chunkSizes[i]);
+                long[] otherWords = toWords(other.chunks[j], other.chunkSizes[j]);
+                int size = 0;
+                for (int w = 0; w < BITMAP_WORDS; w++) {
+                    words[w] &= otherWords[w];
+                    size += Long.bitCount(words[w]);
+                }
+                if (compact) {
+                    result.appendChunk(keys[i], words, size);
+                } else if (size > 0) {
+                    result.insertChunk(result.chunkCount, keys[i], words, size);
+                }
+                i++;
+                j++;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @param other the other bitmap
+     * @return a new bitmap holding the values present in either
+     */
+    public CompressedBitmap or(CompressedBitmap other) {
+        CompressedBitmap result = new CompressedBitmap();
+        int i = 0;
+        int j = 0;
+        while (i < chunkCount || j < other.chunkCount) {
+            if (j == other.chunkCount || (i < chunkCount && keys[i] < other.keys[j])) {
+                result.appendChunk(keys[i], copy(chunks[i], chunkSizes[i]), chunkSizes[i]);
+                i++;
+            } else if (i == chunkCount || keys[i] > other.keys[j]) {
+                result.appendChunk(other.keys[j], copy(other.chunks[j], other.chunkSizes[j]), other.chunkSizes[j]);
+                j++;
+            } else {
+                long[] words = toWords(chunks[i], chunkSizes[i]);
+                long[] otherWords = toWords(other.chunks[j], other.chunkSizes[j]);
+                int size = 0;
+                for (int w = 0; w < BITMAP_WORDS; w++) {
+                    words[w] |= otherWords[w];
+                    size += Long.bitCount(words[w]);
+                }
+                result.appendChunk(keys[i], words, size);
+                i++;
+                j++;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Builds the union of many bitmaps in one pass over their chunks.
+     *
+     * @param bitmaps the bitmaps to merge
+     * @return a new bitmap holding every value of every argument
+     */
+    public static CompressedBitmap union(Collection<CompressedBitmap> bitmaps) {
+        TreeMap<Character, long[]> merged = new TreeMap<>();
+        for (CompressedBitmap bitmap : bitmaps) {
+            for (int i = 0; i < bitmap.chunkCount; i++) {
+                long[] words = merged.computeIfAbsent(bitmap.keys[i], k -> new long[BITMAP_WORDS]);
+                Object chunk = bitmap.chunks[i];
+                if (chunk instanceof long[] other) {
+                    for (int w = 0; w < BITMAP_WORDS; w++) {
+                        words[w] |= other[w];
+                    }
+                } else {
+                    char[] values = (char[]) chunk;
+                    for (int k = 0; k < bitmap.chunkSizes[i]; k++) {
+                        words[values[k] >>> 6] |= 1L << values[k];
+                    }
+                }
+            }
+        }
+        CompressedBitmap result = new CompressedBitmap();
+        for (Map.Entry<Character, long[]> e : merged.entrySet()) {
+            int size = 0;
+            for (long word : e.getValue()) {
+                size += Long.bitCount(word);
+            }
+            result.appendChunk(e.getKey(), e.getValue(), size);
+        }
+        return result;
+    }
+
+    /**
+     * Passes every value to {@code action} in ascending order.
+     *
+     * @param action receives the values
+     */
+    public void forEach(IntConsumer action) {
+        for (int i = 0; i < chunkCount; i++) {
+            int high = keys[i] << 16;
+            if (chunks[i] instanceof long[] words) {
+                for (int w = 0; w < BITMAP_WORDS; w++) {
+                    long word = words[w];
+                    while (word != 0) {
+                        action.accept(high | (w << 6) + Long.numberOfTrailingZeros(word));
+                        word &= word - 1;
+                    }
+                }
+            } else {
+                char[] values = (char[]) chunks[i];
+                for (int k = 0; k < chunkSizes[i]; k++) {
+                    action.accept(high | values[k]);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return approximate heap size of the stored chunks in bytes
+     */
+    public long sizeInBytes() {
+        long bytes = 0;
+        for (int i = 0; i < chunkCount; i++) {
+            bytes += chunks[i] instanceof long[] ? BITMAP_WORDS * 8L : chunkSizes[i] * 2L;
+        }
+        return bytes;
+    }
+
+    private static long andCardinality(Object a, int aSize, Object b, int bSize) {
+        if (a instanceof long[] aWords && b instanceof long[] bWords) {
+            long total = 0;
+            for (int w = 0; w < BITMAP_WORDS; w++) {
+                total += Long.bitCount(aWords[w] & bWords[w]);
+            }
+            return total;
+        }
+        if (a instanceof long[] aWords) {
+            return probe((char[]) b, bSize, aWords);
+        }
+        if (b instanceof long[] bWords) {
+            return probe((char[]) a, aSize, bWords);
+        }
+        char[] x = (char[]) a;
+        char[] y = (char[]) b;
+        if (aSize * SKEW < bSize) {
+            return search(x, aSize, y, bSize);
+        }
+        if (bSize * SKEW < aSize) {
+            return search(y, bSize, x, aSize);
+        }
+        long total = 0;
+        int i = 0;
+        int j = 0;
+        while (i < aSize && j < bSize) {
+            if (x[i] < y[j]) {
+                i++;
+            } else if (x[i] > y[j]) {
+                j++;
+            } else {
+                total++;
+                i++;
+                j++;
+            }
+        }
+        return total;
+    }
+
+    /** Looks each value of a small array up in a much larger one instead of merging both. */
+    private static long search(char[] small, int smallSize, char[] large, int largeSize) {
+        long total = 0;
+        int from = 0;
+        for (int k = 0; k < smallSize && from < largeSize; k++) {
+            int pos = Arrays.binarySearch(large, from, largeSize, small[k]);
+            if (pos >= 0) {
+                total++;
+                from = pos + 1;
+            } else {
+                from = -pos - 1;
+            }
+        }
+        return total;
+    }
+
+    private static long probe(char[] values, int size, long[] words) {
+        long total = 0;
+        for (int k = 0; k < size; k++) {
+            char v = values[k];
+            if ((words[v >>> 6] & (1L << v)) != 0) {
+                total++;
+            }
+        }
+        return total;
+    }
+
+    private static long[] toWords(Object chunk, int size) {
+        if (chunk instanceof long[] words) {
+            return words.clone();
+        }
+        return toWords((char[]) chunk, size);
+    }
+
+    private static long[] toWords(char[] values, int size) {
+        long[] words = new long[BITMAP_WORDS];
+        for (int k = 0; k < size; k++) {
+            words[values[k] >>> 6] |= 1L << values[k];
+        }
+        return words;
+    }
+
+    private static char[] toValues(long[] words, int size) {
+        char[] values = new char[size];
+        int k = 0;
+        for (int w = 0; w < BITMAP_WORDS; w++) {
+            long word = words[w];
+            while (word != 0) {
+                values[k++] = (char) ((w << 6) + Long.numberOfTrailingZeros(word));
+                word &= word - 1;
+            }
+        }
+        return values;
+    }
+
+    private static Object copy(Object chunk, int size) {
+        return chunk instanceof long[] words ? words.clone() : Arrays.copyOf((char[]) chunk, size);
+    }
+
+    /** Appends a chunk with a key greater than all present ones, in its compact form. */
+    private void appendChunk(char key, Object chunk, int size) {
+        if (size == 0) {
+            return;
+        }
+        if (chunk instanceof long[] words && size <= ARRAY_MAX) {
+            chunk = toValues(words, size);
+        }
+        insertChunk(chunkCount, key, chunk, size);
+    }
+
+    private int indexOf(char key) {
+        return Arrays.binarySearch(keys, 0, chunkCount, key);
+    }
+
+    private void insertChunk(int i, char key, Object chunk, int size) {
+        if (chunkCount == keys.length) {
+            int capacity = Math.max(4, chunkCount * 2);
+            keys = Arrays.copyOf(keys, capacity);
+            chunks = Arrays.copyOf(chunks, capacity);
+            chunkSizes = Arrays.copyOf(chunkSizes, capacity);
+        }
+        System.arraycopy(keys, i, keys, i + 1, chunkCount - i);
+        System.arraycopy(chunks, i, chunks, i + 1, chunkCount - i);
+        System.arraycopy(chunkSizes, i, chunkSizes, i + 1, chunkCount - i);
+        keys[i] = key;
+        chunks[i] = chunk;
+        chunkSizes[i] = size;
+        chunkCount++;
+    }
+
+    private void removeChunk(int i) {
+        System.arraycopy(keys, i + 1, keys, i, chunkCount - i - 1);
+        System.arraycopy(chunks, i + 1, chunks, i, chunkCount - i - 1);
+        System.arraycopy(chunkSizes, i + 1, chunkSizes, i, chunkCount - i - 1);
+        chunkCount--;
+        chunks[chunkCount] = null;
+    }
+}
@@ -0,0 +1,62 @@
+package epam.finalProject.search;
+
+/**
+ * Levenshtein distance with an upper bound.
+ * Only the diagonal band of width {@code 2 * max + 1} is computed, and the scan stops as soon as every cell
+ * of a row exceeds {@code max}: from then on no alignment can come back under the bound. Comparing a word
+ * with an unrelated one therefore usually ends after a character or two instead of filling the full table.
+ */
+public final class EditDistance {
+
+    private EditDistance() {
+    }
+
+    /**
+     * Computes the edit distance between {@code a} and {@code b}, giving up once it exceeds {@code max}.
+     *
+     * @param a   first string
+     * @param b   second string
+     * @param max largest distance of interest, at least 0
+     * @return the distance if it is at most {@code max}, otherwise {@code max + 1}
+     */
+    public static int bounded(CharSequence a, CharSequence b, int max) {
+        int la = a.length();
+        int lb = b.length();
+        int over = max + 1;
+        if (Math.abs(la - lb) > max) {
+            return over;
+        }
+        int[] prev = new int[lb + 1];
+        int[] cur = new int[lb + 1];
+        for (int j = 0; j <= lb; j++) {
+            prev[j] = Math.min(j, over);
+        }
+        for (int i = 1; i <= la; i++) {
+            int from = Math.max(1, i - max);
+            int to = Math.min(lb, i + max);
+            cur[0] = Math.min(i, over);
+            if (from > 1) {
+                cur[from - 1] = over;
+            }
+            int rowMin = from == 1 ? cur[0] : over;
+            char ca = a.charAt(i - 1);
+            for (int j = from; j <= to; j++) {
+                int d = prev[j - 1] + (ca == b.charAt(j - 1) ? 0 : 1);
+                d = Math.min(d, prev[j] + 1);
+                d = Math.min(d, cur[j - 1] + 1);
+                cur[j] = Math.min(d, over);
+                rowMin = Math.min(rowMin, cur[j]);
+            }
+            if (to < lb) {
+                cur[to + 1] = over;
+            }
+            if (rowMin > max) {
+                return over;
+            }
+            int[] swap = prev;
+            prev = cur;
+            cur = swap;
+        }
+        return prev[lb];
+    }
+}
@@ -0,0 +1,475 @@
+package epam.finalProject.search;
+
+import epam.finalProject.dto.BookFilter;
+import epam.finalProject.dto.FacetCounts;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * In-memory facet counts for the book list. Every facet value (genre, publication year, author, in stock)
+ * holds a {@link CompressedBitmap} of the ids of its books, so the counts for a filter are intersections
+ * of a few bitmaps instead of {@code GROUP BY} queries.
+ * <p>
+ * Counts follow the usual faceted-navigation rule: the counts of one facet apply every active filter
+ * except that facet's own, so a user who picked a genre still sees how many books the other genres have.
+ * Decades are summed from per-year bitmaps, which also serve arbitrary year ranges.
+ * <p>
+ * The index is built once by a streaming scan ({@link #beginLoad()}, {@link #loadBook}, {@link #loadGenre},
+ * {@link #markReady()}) and then follows the DAO writes, like {@link SuggestIndex}. Books written while the
+ * scan runs keep the written state and ignore scanned rows; a quantity set or an author deleted while the scan
+ * runs is applied to the rows scanned after it too.
+ */
+public class FacetIndex {
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Integer, BookEntry> books = new HashMap<>();
+    private final Map<Long, CompressedBitmap> byGenre = new HashMap<>();
+    private final Map<Long, CompressedBitmap> byAuthor = new HashMap<>();
+    private final TreeMap<Integer, CompressedBitmap> byYear = new TreeMap<>();
+    private final CompressedBitmap inStock = new CompressedBitmap();
+    private final CompressedBitmap all = new CompressedBitmap();
+    private final Set<Integer> writtenDuringLoad = new HashSet<>();
+    private final Map<Integer, Integer> quantitiesWrittenDuringLoad = new HashMap<>();
+    private final Set<Long> authorsRemovedDuringLoad = new HashSet<>();
+    private final AtomicBoolean loading = new AtomicBoolean();
+    private volatile boolean ready;
+
+    /**
+     * Counts the books matching a filter and the facet values within it.
+     *
+     * @param filter     the active filter; its sort order is ignored
+     * @param maxAuthors number of authors to report, those with the most matching books first
+     * @return the counts
+     */
+    public FacetCounts counts(BookFilter filter, int maxAuthors) {
+        lock.readLock().lock();
+        try {
+            CompressedBitmap genre = filter.getGenreId() == null ? null : bitmapOf(byGenre, filter.getGenreId());
+            CompressedBitmap author = filter.getAuthorId() == null ? null : bitmapOf(byAuthor, filter.getAuthorId());
+            CompressedBitmap years = yearRange(filter.getYearFrom(), filter.getYearTo());
+            CompressedBitmap stock = filter.isInStock() ? inStock : null;
+
+            CompressedBitmap exceptGenre = intersect(author, years, stock);
+            CompressedBitmap exceptAuthor = intersect(genre, years, stock);
+            CompressedBitmap exceptYear = intersect(genre, author, stock);
+            CompressedBitmap exceptStock = intersect(genre, author, years);
+
+            Map<Long, Long> genres = new LinkedHashMap<>();
+            for (Map.Entry<Long, CompressedBitmap> e : byGenre.entrySet()) {
+                long n = countWithin(e.getValue(), exceptGenre);
+                if (n > 0) {
+                    genres.put(e.getKey(), n);
+                }
+            }
+            Map<Integer, Long> decades = new TreeMap<>();
+            for (Map.Entry<Integer, CompressedBitmap> e : byYear.entrySet()) {
+                long n = countWithin(e.getValue(), exceptYear);
+                if (n > 0) {
+                    decades.merge(Math.floorDiv(e.getKey(), 10) * 10, n, Long::sum);
+                }
+            }
+            Map<Long, Long> authors = topAuthors(exceptAuthor, maxAuthors);
+            long available = countWithin(inStock, exceptStock);
+            long total = stock == null ? exceptStock.cardinality() : available;
+            return new FacetCounts(total, genres, decades, authors, available, exceptStock.cardinality() - available);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Counts the books matching a filter.
+     *
+     * @param filter the filter; its sort order is ignored
+     * @return number of matching books
+     */
+    public long count(BookFilter filter) {
+        lock.readLock().lock();
+        try {
+            CompressedBitmap genre = filter.getGenreId() == null ? null : bitmapOf(byGenre, filter.getGenreId());
+            CompressedBitmap author = filter.getAuthorId() == null ? null : bitmapOf(byAuthor, filter.getAuthorId());
+            CompressedBitmap years = yearRange(filter.getYearFrom(), filter.getYearTo());
+            CompressedBitmap base = intersect(genre, author, years);
+            return filter.isInStock() ? base.andCardinality(inStock) : base.cardinality();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Adds or replaces a book.
+     *
+     * @param id       book id
+     * @param authorId author id, or {@code null}
+     * @param year     publication year, or {@code null}
+     * @param quantity copies in stock
+     * @param genreIds genre ids
+     */
+    public void putBook(long id, Long authorId, Integer year, int quantity, Collection<Long> genreIds) {
+        lock.writeLock().lock();
+        try {
+            int key = ordinal(id);
+            removeBookLocked(key);
+            addBookLocked(key, new BookEntry(authorId, year, quantity, genreIds));
+            markWrittenLocked(key);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Updates the author, year and quantity of a book and keeps its genres.
+     *
+     * @param id       book id
+     * @param authorId author id, or {@code null}
+     * @param year     publication year, or {@code null}
+     * @param quantity copies in stock
+     */
+    public void updateBook(long id, Long authorId, Integer year, int quantity) {
+        lock.writeLock().lock();
+        try {
+            int key = ordinal(id);
+            BookEntry old = removeBookLocked(key);
+            addBookLocked(key, new BookEntry(authorId, year, quantity, old == null ? List.of() : old.genreIds));
+            markWrittenLocked(key);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Sets the quantity of a book, e.g. after a sale. The new quantity rather than the change is passed so that
+     * a sale during the load can override the scanned row whether or not the scan has already seen it.
+     *
+     * @param id       book id
+     * @param quantity copies in stock after the write
+     */
+    public void setQuantity(long id, int quantity) {
+        lock.writeLock().lock();
+        try {
+            int key = ordinal(id);
+            BookEntry entry = books.get(key);
+            if (entry != null) {
+                entry.quantity = quantity;
+                if (quantity > 0) {
+                    inStock.add(key);
+                } else {
+                    inStock.remove(key);
+                }
+            }
+            if (isLoadingLocked()) {
+                quantitiesWrittenDuringLoad.put(key, quantity);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes a book.
+     *
+     * @param id book id
+     */
+    public void removeBook(long id) {
+        lock.writeLock().lock();
+        try {
+            int key = ordinal(id);
+            removeBookLocked(key);
+            markWrittenLocked(key);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Detaches the books of a deleted author, matching {@code ON DELETE SET NULL}.
+     *
+     * @param authorId author id
+     */
+    public void removeAuthor(long authorId) {
+        lock.writeLock().lock();
+        try {
+            CompressedBitmap bitmap = byAuthor.remove(authorId);
+            if (bitmap != null) {
+                for (BookEntry entry : books.values()) {
+                    if (entry.authorId != null && entry.authorId == authorId) {
+                        entry.authorId = null;
+                    }
+                }
+            }
+            if (isLoadingLocked()) {
+                authorsRemovedDuringLoad.add(authorId);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Claims the initial load so that only one caller scans the tables.
+     *
+     * @return {@code true} if the caller should perform the load
+     */
+    public boolean beginLoad() {
+        return loading.compareAndSet(false, true);
+    }
+
+    /**
+     * Adds a scanned book unless a concurrent write already covered it.
+     */
+    public void loadBook(long id, Long authorId, Integer year, int quantity) {
+        lock.writeLock().lock();
+        try {
+            int key = ordinal(id);
+            if (!books.containsKey(key) && !writtenDuringLoad.contains(key)) {
+                Long author = authorId != null && authorsRemovedDuringLoad.contains(authorId) ? null : authorId;
+                addBookLocked(key, new BookEntry(author, year, quantitiesWrittenDuringLoad.getOrDefault(key, quantity), List.of()));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Adds a scanned genre link of a book loaded by {@link #loadBook}.
+     */
+    public void loadGenre(long bookId, long genreId) {
+        lock.writeLock().lock();
+        try {
+            int key = ordinal(bookId);
+            BookEntry entry = books.get(key);
+            if (entry != null && !writtenDuringLoad.contains(key) && !entry.genreIds.contains(genreId)) {
+                entry.genreIds.add(genreId);
+                byGenre.computeIfAbsent(genreId, g -> new CompressedBitmap()).add(key);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Releases a claimed load after a failure so that it can be retried. Rows scanned so far are dropped.
+     */
+    public void abortLoad() {
+        lock.writeLock().lock();
+        try {
+            for (Integer key : new ArrayList<>(books.keySet())) {
+                if (!writtenDuringLoad.contains(key)) {
+                    removeBookLocked(key);
+                }
+            }
+            loading.set(false);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Marks the scan as complete.
+     */
+    public void markReady() {
+        lock.writeLock().lock();
+        try {
+            ready = true;
+            writtenDuringLoad.clear();
+            quantitiesWrittenDuringLoad.clear();
+            authorsRemovedDuringLoad.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * @return approximate heap size of all bitmaps in bytes
+     */
+    public long sizeInBytes() {
+        lock.readLock().lock();
+        try {
+            long bytes = inStock.sizeInBytes() + all.sizeInBytes();
+            for (CompressedBitmap b : byGenre.values()) {
+                bytes += b.sizeInBytes();
+            }
+            for (CompressedBitmap b : byAuthor.values()) {
+                bytes += b.sizeInBytes();
+            }
+            for (CompressedBitmap b : byYear.values()) {
+                bytes += b.sizeInBytes();
+            }
+            return bytes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static int ordinal(long id) {
+        if (id < 0 || id > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Book id out of range: " + id);
+        }
+        return (int) id;
+    }
+
+    private static <K> CompressedBitmap bitmapOf(Map<K, CompressedBitmap> facet, K value) {
+        CompressedBitmap bitmap = facet.get(value);
+        return bitmap == null ? new CompressedBitmap() : bitmap;
+    }
+
+    /** Union of the years in range, or {@code null} if the range is open on both ends. */
+    private CompressedBitmap yearRange(Integer from, Integer to) {
+        if (from == null && to == null) {
+            return null;
+        }
+        int lo = from == null ? Integer.MIN_VALUE : from;
+        int hi = to == null ? Integer.MAX_VALUE : to;
+        if (lo > hi) {
+            return new CompressedBitmap();
+        }
+        return CompressedBitmap.union(byYear.subMap(lo, true, hi, true).values());
+    }
+
+    /**
+     * Counts books per author within {@code base} and keeps the {@code limit} largest counts.
+     * Authors far outnumber the other facet values, so when the base is smaller than the number of authors
+     * its books are tallied one by one instead of intersecting every author's bitmap.
+     */
+    private Map<Long, Long> topAuthors(CompressedBitmap base, int limit) {
+        Comparator<Map.Entry<Long, Long>> order = Map.Entry.<Long, Long>comparingByValue()
+                .thenComparing(Map.Entry.<Long, Long>comparingByKey().reversed());
+        PriorityQueue<Map.Entry<Long, Long>> top = new PriorityQueue<>(order);
+        Consumer<Map.Entry<Long, Long>> offer = e -> {
+            if (top.size() < limit) {
+                top.add(e);
+            } else if (limit > 0 && order.compare(e, top.peek()) > 0) {
+                top.poll();
+                top.add(e);
+            }
+        };
+        if (base.cardinality() < byAuthor.size()) {
+            Map<Long, Long> tally = new HashMap<>();
+            base.forEach(key -> {
+                Long authorId = books.get(key).authorId;
+                if (authorId != null) {
+                    tally.merge(authorId, 1L, Long::sum);
+                }
+            });
+            tally.entrySet().forEach(offer);
+        } else {
+            for (Map.Entry<Long, CompressedBitmap> e : byAuthor.entrySet()) {
+                long n = countWithin(e.getValue(), base);
+                if (n > 0) {
+                    offer.accept(Map.entry(e.getKey(), n));
+                }
+            }
+        }
+        List<Map.Entry<Long, Long>> sorted = new ArrayList<>(top);
+        sorted.sort(order.reversed());
+        Map<Long, Long> result = new LinkedHashMap<>();
+        for (Map.Entry<Long, Long> e : sorted) {
+            result.put(e.getKey(), e.getValue());
+        }
+        return result;
+    }
+
+    /**
+     * Intersection of the non-null arguments, kept in bitmap form because it is probed once per facet value;
+     * {@link #all} itself if every argument is {@code null}.
+     */
+    private CompressedBitmap intersect(CompressedBitmap... bitmaps) {
+        CompressedBitmap result = all;
+        for (CompressedBitmap bitmap : bitmaps) {
+            if (bitmap != null) {
+                result = result.andDense(bitmap);
+            }
+        }
+        return result;
+    }
+
+    /** Books of a facet value within {@code base}; no intersection is needed when the base is every book. */
+    private long countWithin(CompressedBitmap bitmap, CompressedBitmap base) {
+        return base == all ? bitmap.cardinality() : bitmap.andCardinality(base);
+    }
+
+    private boolean isLoadingLocked() {
+        return loading.get() && !ready;
+    }
+
+    private void markWrittenLocked(int key) {
+        if (isLoadingLocked()) {
+            writtenDuringLoad.add(key);
+        }
+    }
+
+    private void addBookLocked(int key, BookEntry entry) {
+        books.put(key, entry);
+        all.add(key);
+        if (entry.authorId != null) {
+            byAuthor.computeIfAbsent(entry.authorId, a -> new CompressedBitmap()).add(key);
+        }
+        if (entry.year != null) {
+            byYear.computeIfAbsent(entry.year, y -> new CompressedBitmap()).add(key);
+        }
+        if (entry.quantity > 0) {
+            inStock.add(key);
+        }
+        for (Long genreId : entry.genreIds) {
+            byGenre.computeIfAbsent(genreId, g -> new CompressedBitmap()).add(key);
+        }
+    }
+
+    private BookEntry removeBookLocked(int key) {
+        BookEntry entry = books.remove(key);
+        if (entry == null) {
+            return null;
+        }
+        all.remove(key);
+        inStock.remove(key);
+        if (entry.authorId != null) {
+            removeFrom(byAuthor, entry.authorId, key);
+        }
+        if (entry.year != null) {
+            removeFrom(byYear, entry.year, key);
+        }
+        for (Long genreId : entry.genreIds) {
+            removeFrom(byGenre, genreId, key);
+        }
+        return entry;
+    }
+
+    private static <K> void removeFrom(Map<K, CompressedBitmap> facet, K value, int key) {
+        CompressedBitmap bitmap = facet.get(value);
+        if (bitmap != null && bitmap.remove(key) && bitmap.isEmpty()) {
+            facet.remove(value);
+        }
+    }
+
+    private static final class BookEntry {
+        private Long authorId;
+        private final Integer year;
+        private int quantity;
+        private final List<Long> genreIds;
+
+        private BookEntry(Long authorId, Integer year, int quantity, Collection<Long> genreIds) {
+            this.authorId = authorId;
+            this.year = year;
+            this.quantity = quantity;
+            this.genreIds = new ArrayList<>(genreIds == null ? List.of() : genreIds);
+        }
+    }
+}
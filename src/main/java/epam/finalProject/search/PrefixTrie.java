@@ -0,0 +1,162 @@
+package epam.finalProject.search;
+
+import java.util.Arrays;
+import java.util.function.LongPredicate;
+
+/**
+ * Character trie mapping terms to sorted postings of numeric ids.
+ * Children are kept in sorted {@code char[]}/{@code Node[]} pairs and postings in sorted {@code long[]},
+ * so a node costs a few small arrays instead of a map. Not thread-safe; {@link SuggestIndex} guards it.
+ */
+final class PrefixTrie {
+
+    private static final char[] NO_KEYS = new char[0];
+    private static final Node[] NO_CHILDREN = new Node[0];
+    private static final long[] NO_IDS = new long[0];
+
+    private final Node root = new Node();
+
+    /**
+     * Adds {@code id} to the postings of {@code term}. Appending ids in ascending order is O(1).
+     */
+    void add(String term, long id) {
+        Node node = root;
+        for (int i = 0; i < term.length(); i++) {
+            node = node.childOrCreate(term.charAt(i));
+        }
+        node.addId(id);
+    }
+
+    /**
+     * Removes {@code id} from the postings of {@code term}. Empty nodes are left in place.
+     */
+    void remove(String term, long id) {
+        Node node = find(term);
+        if (node != null) {
+            node.removeId(id);
+        }
+    }
+
+    /**
+     * Visits the ids of all terms starting with {@code prefix}: the exact term first, then longer terms
+     * in lexicographic order. Stops as soon as the visitor returns {@code false}.
+     *
+     * @return {@code false} if the visitor stopped the walk
+     */
+    boolean visitPrefix(String prefix, LongPredicate visitor) {
+        Node node = find(prefix);
+        return node == null || visit(node, visitor);
+    }
+
+    /**
+     * Visits the ids of exactly {@code term}, in ascending order.
+     *
+     * @return {@code false} if the visitor stopped the walk
+     */
+    boolean visitExact(String term, LongPredicate visitor) {
+        Node node = find(term);
+        if (node == null) {
+            return true;
+        }
+        for (int i = 0; i < node.idCount; i++) {
+            if (!visitor.test(node.ids[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return the number of ids posted under exactly {@code term}
+     */
+    int count(String term) {
+        Node node = find(term);
+        return node == null ? 0 : node.idCount;
+    }
+
+    private Node find(String term) {
+        Node node = root;
+        for (int i = 0; i < term.length() && node != null; i++) {
+            node = node.child(term.charAt(i));
+        }
+        return node;
+    }
+
+    private static boolean visit(Node node, LongPredicate visitor) {
+        for (int i = 0; i < node.idCount; i++) {
+            if (!visitor.test(node.ids[i])) {
+                return false;
+            }
+        }
+        for (int i = 0; i < node.childCount; i++) {
+            if (!visit(node.children[i], visitor)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static final class Node {
+        char[] keys = NO_KEYS;
+        Node[] children = NO_CHILDREN;
+        int childCount;
+        long[] ids = NO_IDS;
+        int idCount;
+
+        Node child(char c) {
+            int pos = Arrays.binarySearch(keys, 0, childCount, c);
+            return pos >= 0 ? children[pos] : null;
+        }
+
+        Node childOrCreate(char c) {
+            int pos = Arrays.binarySearch(keys, 0, childCount, c);
+            if (pos >= 0) {
+                return children[pos];
+            }
+            int at = -pos - 1;
+            if (childCount == keys.length) {
+                int capacity = Math.max(2, childCount * 2);
+                keys = Arrays.copyOf(keys, capacity);
+                children = Arrays.copyOf(children, capacity);
+            }
+            System.arraycopy(keys, at, keys, at + 1, childCount - at);
+            System.arraycopy(children, at, children, at + 1, childCount - at);
+            Node created = new Node();
+            keys[at] = c;
+            children[at] = created;
+            childCount++;
+            return created;
+        }
+
+        void addId(long id) {
+            int at;
+            if (idCount == 0 || ids[idCount - 1] < id) {
+                at = idCount;
+            } else {
+                int pos = Arrays.binarySearch(ids, 0, idCount, id);
+                if (pos >= 0) {
+                    return;
+                }
+                at = -pos - 1;
+            }
+            if (idCount == ids.length) {
+                ids = Arrays.copyOf(ids, Math.max(2, idCount + (idCount >> 1) + 1));
+            }
+            System.arraycopy(ids, at, ids, at + 1, idCount - at);
+            ids[at] = id;
+            idCount++;
+        }
+
+        void removeId(long id) {
+            int pos = Arrays.binarySearch(ids, 0, idCount, id);
+            if (pos < 0) {
+                return;
+            }
+            System.arraycopy(ids, pos + 1, ids, pos, idCount - pos - 1);
+            idCount--;
+            if (idCount == 0) {
+                ids = NO_IDS;
+            }
+        }
+    }
+}
@@ -0,0 +1,477 @@
+package epam.finalProject.search;
+
+import epam.finalProject.dto.BookSuggestion;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongPredicate;
+
+/**
+ * In-memory autocomplete index over book titles and author names.
+ * Title words and author name words each go into a {@link PrefixTrie} (word to book ids or author ids),
+ * so a keystroke is answered by walking one trie branch and stopping after the first {@code limit} hits.
+ * <p>
+ * Every query word must be a prefix of some word of the book's title or author name. The longest query
+ * word drives the trie walk; the others are checked against the candidate's words. Title hits come before
+ * author hits, shorter (exact) words before longer ones.
+ * <p>
+ * The same index answers typo-tolerant title lookups ({@link #fuzzyTitles}). Every title word is also split
+ * into padded trigrams ({@code "$$h", "$ho", "hob", ...}) posted in a third trie. A word within {@code k} edits
+ * of the query word shares all but at most {@code 3k} of its trigrams, so a book can only match if it appears
+ * in one of the rarest {@code 3k + 1} trigram lists of the query word. Those lists give the candidates, which
+ * are then ranked by {@link EditDistance#bounded bounded edit distance}.
+ * <p>
+ * The index is built once by a streaming scan ({@link #beginLoad()}, {@link #loadBook}, {@link #markReady()})
+ * and then follows the DAO writes. Writes that arrive while the scan runs take precedence over scanned rows.
+ */
+public class SuggestIndex {
+
+    public static final int DEFAULT_LIMIT = 10;
+
+    /** Upper bound on candidates examined per query, so very short prefixes stay cheap. */
+    private static final int MAX_CANDIDATES = 5000;
+
+    private static final String GRAM_PAD = "$$";
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final PrefixTrie titleTerms = new PrefixTrie();
+    private final PrefixTrie authorTerms = new PrefixTrie();
+    private final PrefixTrie titleGrams = new PrefixTrie();
+    private final Map<Long, BookEntry> books = new HashMap<>();
+    private final Map<Long, AuthorEntry> authors = new HashMap<>();
+    private final Set<Long> removedBooksDuringLoad = new HashSet<>();
+    private final Set<Long> removedAuthorsDuringLoad = new HashSet<>();
+    private final AtomicBoolean loading = new AtomicBoolean();
+    private volatile boolean ready;
+
+    /**
+     * Returns up to {@code limit} books whose title or author name matches the typed text.
+     *
+     * @param query the text typed so far
+     * @param limit maximum number of suggestions
+     * @return matching books, best first; empty for a blank query
+     */
+    public List<BookSuggestion> suggest(String query, int limit) {
+        List<String> words = tokenize(query);
+        if (words.isEmpty() || limit <= 0) {
+            return Collections.emptyList();
+        }
+        String pivot = words.get(0);
+        for (String w : words) {
+            if (w.length() > pivot.length()) {
+                pivot = w;
+            }
+        }
+        List<String> others = new ArrayList<>(words);
+        others.remove(pivot);
+
+        lock.readLock().lock();
+        try {
+            Set<Long> hits = new LinkedHashSet<>();
+            int[] scanned = {0};
+            LongPredicate onBook = bookId -> {
+                if (++scanned[0] > MAX_CANDIDATES) {
+                    return false;
+                }
+                if (!hits.contains(bookId) && matchesAll(books.get(bookId), others)) {
+                    hits.add(bookId);
+                }
+                return hits.size() < limit;
+            };
+            if (titleTerms.visitPrefix(pivot, onBook)) {
+                authorTerms.visitPrefix(pivot, authorId -> {
+                    for (long bookId : authors.get(authorId).bookIds) {
+                        if (!onBook.test(bookId)) {
+                            return false;
+                        }
+                    }
+                    return true;
+                });
+            }
+            List<BookSuggestion> result = new ArrayList<>(hits.size());
+            for (Long id : hits) {
+                BookEntry book = books.get(id);
+                AuthorEntry author = book.authorId == null ? null : authors.get(book.authorId);
+                result.add(new BookSuggestion(id, book.title, author == null ? null : author.name));
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the ids of up to {@code limit} books whose title contains, for every query word, a word
+     * within {@link #maxEdits} edits of it. Best matches (fewest total edits, then shortest title) come first.
+     *
+     * @param query the search text, possibly misspelled
+     * @param limit maximum number of ids
+     * @return matching book ids, best first; empty for a blank query
+     */
+    public List<Long> fuzzyTitles(String query, int limit) {
+        List<String> words = List.of(distinct(tokenize(query)));
+        if (words.isEmpty() || limit <= 0) {
+            return Collections.emptyList();
+        }
+        String pivot = words.get(0);
+        for (String w : words) {
+            if (w.length() > pivot.length()) {
+                pivot = w;
+            }
+        }
+
+        lock.readLock().lock();
+        try {
+            List<String> grams = new ArrayList<>(trigrams(pivot));
+            grams.sort(Comparator.comparingInt(titleGrams::count));
+            int lists = Math.min(grams.size(), 3 * maxEdits(pivot.length()) + 1);
+            Set<Long> candidates = new HashSet<>();
+            for (int i = 0; i < lists; i++) {
+                titleGrams.visitExact(grams.get(i), id -> {
+                    candidates.add(id);
+                    return true;
+                });
+            }
+
+            List<FuzzyHit> hits = new ArrayList<>();
+            for (Long id : candidates) {
+                BookEntry book = books.get(id);
+                int score = fuzzyScore(book.words, words);
+                if (score >= 0) {
+                    hits.add(new FuzzyHit(id, score, book.title.length()));
+                }
+            }
+            hits.sort(Comparator.comparingInt((FuzzyHit h) -> h.score)
+                    .thenComparingInt(h -> h.titleLength)
+                    .thenComparingLong(h -> h.id));
+            List<Long> result = new ArrayList<>(Math.min(limit, hits.size()));
+            for (int i = 0; i < hits.size() && i < limit; i++) {
+                result.add(hits.get(i).id);
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Number of typos tolerated in a word of the given length: none up to two characters,
+     * one up to five, two beyond that.
+     *
+     * @param length word length
+     * @return the edit budget
+     */
+    public static int maxEdits(int length) {
+        return length <= 2 ? 0 : length <= 5 ? 1 : 2;
+    }
+
+    /**
+     * Splits a word into distinct trigrams after padding both ends with two {@code '$'}.
+     *
+     * @param word a lower-case word
+     * @return the trigrams in order of first appearance
+     */
+    static Set<String> trigrams(String word) {
+        String padded = GRAM_PAD + word + GRAM_PAD;
+        Set<String> grams = new LinkedHashSet<>();
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            grams.add(padded.substring(i, i + 3));
+        }
+        return grams;
+    }
+
+    /**
+     * Adds or replaces a book.
+     *
+     * @param id         book id
+     * @param title      book title
+     * @param authorId   author id, or {@code null}
+     * @param authorName author name if known; {@code null} keeps the indexed name
+     */
+    public void putBook(long id, String title, Long authorId, String authorName) {
+        lock.writeLock().lock();
+        try {
+            removeBookLocked(id);
+            addBookLocked(id, title, authorId);
+            if (authorId != null && authorName != null) {
+                putAuthorLocked(authorId, authorName);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes a book.
+     *
+     * @param id book id
+     */
+    public void removeBook(long id) {
+        lock.writeLock().lock();
+        try {
+            removeBookLocked(id);
+            if (loading.get() && !ready) {
+                removedBooksDuringLoad.add(id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Adds an author or records a new name for an existing one.
+     *
+     * @param id   author id
+     * @param name author name
+     */
+    public void putAuthor(long id, String name) {
+        lock.writeLock().lock();
+        try {
+            putAuthorLocked(id, name);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes an author; their books stay indexed by title only, matching {@code ON DELETE SET NULL}.
+     *
+     * @param id author id
+     */
+    public void removeAuthor(long id) {
+        lock.writeLock().lock();
+        try {
+            AuthorEntry author = authors.remove(id);
+            if (author != null) {
+                for (String word : author.words) {
+                    authorTerms.remove(word, id);
+                }
+                for (long bookId : author.bookIds) {
+                    books.get(bookId).authorId = null;
+                }
+            }
+            if (loading.get() && !ready) {
+                removedAuthorsDuringLoad.add(id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Claims the initial load so that only one caller scans the tables.
+     *
+     * @return {@code true} if the caller should perform the load
+     */
+    public boolean beginLoad() {
+        return loading.compareAndSet(false, true);
+    }
+
+    /**
+     * Adds a scanned row unless a concurrent write already covered (or removed) the book or its author.
+     */
+    public void loadBook(long id, String title, Long authorId, String authorName) {
+        lock.writeLock().lock();
+        try {
+            if (books.containsKey(id) || removedBooksDuringLoad.contains(id)) {
+                return;
+            }
+            Long author = authorId != null && removedAuthorsDuringLoad.contains(authorId) ? null : authorId;
+            addBookLocked(id, title, author);
+            if (author != null && authorName != null && authors.get(author).name == null) {
+                putAuthorLocked(author, authorName);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Releases a claimed load after a failure so that it can be retried.
+     */
+    public void abortLoad() {
+        loading.set(false);
+    }
+
+    /**
+     * Marks the scan as complete.
+     */
+    public void markReady() {
+        lock.writeLock().lock();
+        try {
+            ready = true;
+            removedBooksDuringLoad.clear();
+            removedAuthorsDuringLoad.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Splits text into lower-case words of letters and digits.
+     *
+     * @param text any text, may be {@code null}
+     * @return the words in order of appearance
+     */
+    public static List<String> tokenize(String text) {
+        List<String> words = new ArrayList<>();
+        if (text == null) {
+            return words;
+        }
+        String lower = text.toLowerCase(Locale.ROOT);
+        int start = -1;
+        for (int i = 0; i <= lower.length(); i++) {
+            boolean wordChar = i < lower.length() && Character.isLetterOrDigit(lower.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                words.add(lower.substring(start, i));
+                start = -1;
+            }
+        }
+        return words;
+    }
+
+    private boolean matchesAll(BookEntry book, List<String> words) {
+        for (String word : words) {
+            if (!hasPrefix(book.words, word)) {
+                AuthorEntry author = book.authorId == null ? null : authors.get(book.authorId);
+                if (author == null || !hasPrefix(author.words, word)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Sums, over the query words, the distance to the closest title word.
+     *
+     * @return the total number of edits, or {@code -1} if some query word has no title word within its budget
+     */
+    private static int fuzzyScore(String[] titleWords, List<String> queryWords) {
+        int total = 0;
+        for (String q : queryWords) {
+            int max = maxEdits(q.length());
+            int best = max + 1;
+            for (String w : titleWords) {
+                best = Math.min(best, EditDistance.bounded(q, w, max));
+                if (best == 0) {
+                    break;
+                }
+            }
+            if (best > max) {
+                return -1;
+            }
+            total += best;
+        }
+        return total;
+    }
+
+    private static boolean hasPrefix(String[] words, String prefix) {
+        for (String w : words) {
+            if (w.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void addBookLocked(long id, String title, Long authorId) {
+        String[] words = distinct(tokenize(title));
+        books.put(id, new BookEntry(title, authorId, words));
+        for (String word : words) {
+            titleTerms.add(word, id);
+            for (String gram : trigrams(word)) {
+                titleGrams.add(gram, id);
+            }
+        }
+        if (authorId != null) {
+            authors.computeIfAbsent(authorId, k -> new AuthorEntry()).bookIds.add(id);
+        }
+    }
+
+    private void removeBookLocked(long id) {
+        BookEntry old = books.remove(id);
+        if (old == null) {
+            return;
+        }
+        for (String word : old.words) {
+            titleTerms.remove(word, id);
+            for (String gram : trigrams(word)) {
+                titleGrams.remove(gram, id);
+            }
+        }
+        if (old.authorId != null) {
+            AuthorEntry author = authors.get(old.authorId);
+            if (author != null) {
+                author.bookIds.remove(id);
+            }
+        }
+    }
+
+    private void putAuthorLocked(long id, String name) {
+        AuthorEntry author = authors.computeIfAbsent(id, k -> new AuthorEntry());
+        if (name.equals(author.name)) {
+            return;
+        }
+        for (String word : author.words) {
+            authorTerms.remove(word, id);
+        }
+        author.name = name;
+        author.words = distinct(tokenize(name));
+        for (String word : author.words) {
+            authorTerms.add(word, id);
+        }
+    }
+
+    private static String[] distinct(List<String> words) {
+        return new LinkedHashSet<>(words).toArray(new String[0]);
+    }
+
+    private static final class BookEntry {
+        final String title;
+        final String[] words;
+        Long authorId;
+
+        BookEntry(String title, Long authorId, String[] words) {
+            this.title = title;
+            this.authorId = authorId;
+            this.words = words;
+        }
+    }
+
+    private static final class FuzzyHit {
+        final long id;
+        final int score;
+        final int titleLength;
+
+        FuzzyHit(long id, int score, int titleLength) {
+            this.id = id;
+            this.score = score;
+            this.titleLength = titleLength;
+        }
+    }
+
+    private static final class AuthorEntry {
+        String name;
+        String[] words = new String[0];
+        final Set<Long> bookIds = new TreeSet<>();
+    }
+}
@@ -1,7 +1,6 @@
 package epam.finalProject.security;
 
 import epam.finalProject.DAO.UserDao;
-import epam.finalProject.DAO.UserDaoImpl;
 import epam.finalProject.entity.User;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
@@ -12,11 +11,15 @@ import java.util.List;
 
 public class UserDetailsServiceImpl implements UserDetailsService {
 
-    private final UserDao userDao = new UserDaoImpl();
+    private final UserDao userDao;
+
+    public UserDetailsServiceImpl(UserDao userDao) {
+        this.userDao = userDao;
+    }
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        User user = userDao.findByUsername(username);
+        User user = userDao.findCredentials(username);
         if (user == null) throw new UsernameNotFoundException("User not found");
 
         GrantedAuthority authority = new SimpleGrantedAuthority(user.getRole());
@@ -1,5 +1,7 @@
 package epam.finalProject.service;
 
+import epam.finalProject.dto.AuthorSummary;
+import epam.finalProject.dto.KeysetPage;
 import epam.finalProject.entity.Author;
 
 import java.util.List;
@@ -17,4 +19,17 @@ public interface AuthorService {
 
     boolean existsById(Long id);
 
+    /**
+     * Returns one page of the alphabetical author directory with book counts.
+     * Pass the cursor of the current page as {@code after} or {@code before},
+     * or a name prefix such as a single letter as {@code startAt} to jump there.
+     *
+     * @param after   continue after this author name, or {@code null}
+     * @param before  continue before this author name, or {@code null}
+     * @param startAt start at the first name not less than this value, or {@code null}
+     * @param size    page size
+     * @return the page with cursors for the neighbouring pages
+     */
+    KeysetPage<AuthorSummary> findDirectory(String after, String before, String startAt, int size);
+
 }
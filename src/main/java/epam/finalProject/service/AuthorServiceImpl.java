@@ -1,10 +1,12 @@
 package epam.finalProject.service;
 
 import epam.finalProject.DAO.AuthorDao;
-import epam.finalProject.DAO.AuthorDaoImpl;
+import epam.finalProject.dto.AuthorSummary;
+import epam.finalProject.dto.KeysetPage;
 import epam.finalProject.entity.Author;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -19,19 +21,12 @@ public class AuthorServiceImpl implements AuthorService {
 
     private final AuthorDao authorDao;
 
-    /**
-     * Constructs an AuthorServiceImpl using a default {@link AuthorDaoImpl}.
-     */
-    public AuthorServiceImpl() {
-        this(new AuthorDaoImpl());
-        logger.debug("AuthorServiceImpl initialized with default AuthorDaoImpl");
-    }
-
     /**
      * Constructs an AuthorServiceImpl using the specified {@link AuthorDao}.
      *
      * @param authorDao the DAO to delegate operations to
      */
+    @Autowired
     public AuthorServiceImpl(AuthorDao authorDao) {
         this.authorDao = authorDao;
         logger.debug("AuthorServiceImpl initialized with provided AuthorDao");
@@ -135,4 +130,41 @@ public class AuthorServiceImpl implements AuthorService {
         logger.debug("Author exists check for id={} returned {}", id, exists);
         return exists;
     }
+
+    /**
+     * Retrieves one keyset page of the author directory. One extra row is requested to find out
+     * whether another page exists in the direction of travel, so no {@code COUNT(*)} is needed.
+     *
+     * @param after   continue after this author name, or {@code null}
+     * @param before  continue before this author name (used only if {@code after} is {@code null})
+     * @param startAt jump target used only if neither cursor is given
+     * @param size    page size
+     * @return the page of authors together with next/previous cursors
+     */
+    @Override
+    public KeysetPage<AuthorSummary> findDirectory(String after, String before, String startAt, int size) {
+        logger.debug("findDirectory() called for after='{}' before='{}' startAt='{}' size={}", after, before, startAt, size);
+        boolean backward = after == null && before != null;
+        boolean jump = after == null && before == null && startAt != null;
+        String cursor = jump ? startAt : (backward ? before : after);
+        List<AuthorSummary> rows = authorDao.findDirectoryPage(cursor, jump, !backward, size + 1);
+        boolean more = rows.size() > size;
+        if (more) {
+            rows = backward ? rows.subList(1, rows.size()) : rows.subList(0, size);
+        }
+        String first = rows.isEmpty() ? null : rows.get(0).getName();
+        String last = rows.isEmpty() ? null : rows.get(rows.size() - 1).getName();
+
+        String next;
+        String previous;
+        if (backward) {
+            next = last;
+            previous = more ? first : null;
+        } else {
+            next = more ? last : null;
+            previous = cursor != null ? first : null;
+        }
+        logger.debug("findDirectory() returned {} authors", rows.size());
+        return new KeysetPage<>(rows, next, previous, size);
+    }
 }
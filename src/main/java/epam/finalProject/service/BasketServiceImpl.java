@@ -1,18 +1,15 @@
 package epam.finalProject.service;
 
 import epam.finalProject.DAO.BasketDao;
-import epam.finalProject.DAO.BasketDaoImpl;
 import epam.finalProject.DAO.BookDao;
-import epam.finalProject.DAO.BookDaoImpl;
 import epam.finalProject.DAO.PurchaseHistoryDao;
-import epam.finalProject.DAO.PurchaseHistoryDaoImpl;
 import epam.finalProject.entity.BasketItem;
 import epam.finalProject.entity.PurchaseHistory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
-import javax.sql.DataSource;
 import java.sql.Timestamp;
 import java.util.List;
 
@@ -25,11 +22,24 @@ import java.util.List;
 public class BasketServiceImpl implements BasketService {
 
     private static final Logger logger = LoggerFactory.getLogger(BasketServiceImpl.class);
-    private DataSource ds;
 
-    private final BasketDao basketDao = new BasketDaoImpl();
-    private final BookDao bookDao = new BookDaoImpl();
-    private final PurchaseHistoryDao historyDao = new PurchaseHistoryDaoImpl();
+    private final BasketDao basketDao;
+    private final BookDao bookDao;
+    private final PurchaseHistoryDao historyDao;
+
+    /**
+     * Constructs a BasketServiceImpl using the specified DAOs.
+     *
+     * @param basketDao  stores the basket items
+     * @param bookDao    checks and decrements stock
+     * @param historyDao records confirmed purchases
+     */
+    @Autowired
+    public BasketServiceImpl(BasketDao basketDao, BookDao bookDao, PurchaseHistoryDao historyDao) {
+        this.basketDao = basketDao;
+        this.bookDao = bookDao;
+        this.historyDao = historyDao;
+    }
 
     /**
      * Adds or subtracts {@code delta} copies of a book in the user’s basket.
@@ -1,10 +1,18 @@
 package epam.finalProject.service;
 
+import epam.finalProject.dto.BookFilter;
+import epam.finalProject.dto.BookSuggestion;
+import epam.finalProject.dto.BookSummary;
+import epam.finalProject.dto.FacetCounts;
 import epam.finalProject.entity.Author;
 import epam.finalProject.entity.Book;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
 
 public interface BookService {
 
@@ -18,8 +26,59 @@ public interface BookService {
         return findAll(Pageable.unpaged());
     }
 
+    /**
+     * Returns one page of the catalog for list views, without descriptions.
+     *
+     * @param filter   filter criteria and sort order
+     * @param pageable page to return
+     * @return one page of matching book summaries
+     */
+    Page<BookSummary> findSummaries(BookFilter filter, Pageable pageable);
+
+    /**
+     * Counts books per genre, decade, author and availability under a filter.
+     *
+     * @param filter active filter
+     * @return the counts, or {@code null} if they are not available yet
+     */
+    FacetCounts facets(BookFilter filter);
+
     Book findById(Long id);
 
+    /**
+     * Loads several books at once, for views that show many books by ID.
+     *
+     * @param ids book IDs
+     * @return books by ID; missing IDs are absent
+     */
+    Map<Long, Book> findByIds(Collection<Long> ids);
+
+    /**
+     * Searches the catalog by title, author name and description, best matches first.
+     * The total is capped, so very broad queries report at most a fixed number of pages.
+     *
+     * @param query    search text
+     * @param pageable page to return
+     * @return one page of matching books
+     */
+    Page<BookSummary> search(String query, Pageable pageable);
+
+    /**
+     * Search-as-you-type suggestions over titles and author names, answered from memory.
+     *
+     * @param query text typed so far
+     * @return up to ten matching books
+     */
+    List<BookSuggestion> suggest(String query);
+
+    /**
+     * Finds books whose titles are close to a possibly misspelled query.
+     *
+     * @param query search text
+     * @return up to ten books, closest first
+     */
+    List<BookSummary> fuzzySearch(String query);
+
     boolean saveBookWithAuthor(Book book, Author author);
 }
 
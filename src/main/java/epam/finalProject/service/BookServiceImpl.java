@@ -1,18 +1,26 @@
 package epam.finalProject.service;
 
 import epam.finalProject.DAO.BookDao;
-import epam.finalProject.DAO.BookDaoImpl;
+import epam.finalProject.db.ParallelQueries;
+import epam.finalProject.search.SuggestIndex;
+import epam.finalProject.dto.BookFilter;
+import epam.finalProject.dto.BookSuggestion;
+import epam.finalProject.dto.BookSummary;
+import epam.finalProject.dto.FacetCounts;
 import epam.finalProject.entity.Author;
 import epam.finalProject.entity.Book;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.stereotype.Service;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Service implementation for {@link Book} operations.
@@ -23,15 +31,16 @@ public class BookServiceImpl implements BookService {
 
     private static final Logger logger = LoggerFactory.getLogger(BookServiceImpl.class);
 
+    /** Upper bound for the reported number of search results. */
+    static final int SEARCH_RESULT_CAP = 1000;
+
+    /** Number of authors listed in the author facet. */
+    static final int FACET_AUTHORS = 10;
+
     private final BookDao bookDao;
 
-    /**
-     * Constructs a BookServiceImpl using the default {@link BookDaoImpl}.
-     */
-    public BookServiceImpl() {
-        this(new BookDaoImpl());
-        logger.debug("BookServiceImpl initialized with default BookDaoImpl");
-    }
+    /** Runs the count and the rows of a list page side by side. */
+    private final ParallelQueries parallelQueries;
 
     /**
      * Constructs a BookServiceImpl using the specified {@link BookDao}.
@@ -39,7 +48,19 @@ public class BookServiceImpl implements BookService {
      * @param bookDao the DAO to delegate operations to
      */
     public BookServiceImpl(BookDao bookDao) {
+        this(bookDao, ParallelQueries.sequential());
+    }
+
+    /**
+     * Constructs a BookServiceImpl that runs the count and the rows of list pages with {@code parallelQueries}.
+     *
+     * @param bookDao         the DAO to delegate operations to
+     * @param parallelQueries runs the two queries of a list page
+     */
+    @Autowired
+    public BookServiceImpl(BookDao bookDao, ParallelQueries parallelQueries) {
         this.bookDao = bookDao;
+        this.parallelQueries = parallelQueries;
         logger.debug("BookServiceImpl initialized with provided BookDao");
     }
 
@@ -87,10 +108,39 @@ public class BookServiceImpl implements BookService {
     @Override
     public Page<Book> findAll(Pageable pageable) {
         logger.debug("findAll() called to retrieve all books");
-        long total = bookDao.count();
-        List<Book> books = bookDao.findAll(pageable);
-        logger.debug("Number of books retrieved: {}", books.size());
-        return new PageImpl<>(books, pageable, total);
+        return parallelQueries.both(bookDao::count, () -> bookDao.findAll(pageable), (total, books) -> {
+            logger.debug("Number of books retrieved: {}", books.size());
+            return new PageImpl<>(books, pageable, total);
+        });
+    }
+
+    /**
+     * Retrieves one page of {@link BookSummary} rows for the book list. The count and the page are
+     * queried side by side.
+     *
+     * @param filter   the filter criteria and sort order
+     * @param pageable the page to return
+     * @return a page of summaries with the total number of matching books
+     */
+    @Override
+    public Page<BookSummary> findSummaries(BookFilter filter, Pageable pageable) {
+        logger.debug("findSummaries() called for filter='{}' page={}", filter.toQueryString(), pageable.getPageNumber());
+        return parallelQueries.both(() -> bookDao.count(filter), () -> bookDao.findSummaries(filter, pageable),
+                (total, books) -> {
+                    logger.debug("Number of book summaries retrieved: {}", books.size());
+                    return new PageImpl<>(books, pageable, total);
+                });
+    }
+
+    /**
+     * Returns the facet counts for the book list, with the top {@link #FACET_AUTHORS} authors.
+     *
+     * @param filter the active filter
+     * @return the counts, or {@code null} until the in-memory index is built
+     */
+    @Override
+    public FacetCounts facets(BookFilter filter) {
+        return bookDao.facetCounts(filter, FACET_AUTHORS);
     }
 
     /**
@@ -111,6 +161,63 @@ public class BookServiceImpl implements BookService {
         return book;
     }
 
+    /**
+     * Finds several {@link Book}s by their IDs with a constant number of queries.
+     *
+     * @param ids the IDs of the books to retrieve
+     * @return books by ID; IDs without a book are absent
+     */
+    @Override
+    public Map<Long, Book> findByIds(Collection<Long> ids) {
+        logger.debug("findByIds() called for {} ids", ids.size());
+        Map<Long, Book> books = bookDao.findByIds(ids);
+        logger.debug("findByIds() found {} books", books.size());
+        return books;
+    }
+
+    /**
+     * Searches books by title, author name and description.
+     * The reported total is capped at {@link #SEARCH_RESULT_CAP} so counting never scans every match;
+     * the count and the page are queried side by side.
+     *
+     * @param query    the search text
+     * @param pageable the page to return
+     * @return a page of matching books, best matches first
+     */
+    @Override
+    public Page<BookSummary> search(String query, Pageable pageable) {
+        logger.debug("search() called for query='{}'", query);
+        return parallelQueries.both(() -> bookDao.countSearch(query, SEARCH_RESULT_CAP), () -> bookDao.search(query, pageable),
+                (total, books) -> {
+                    logger.debug("search() returned {} of {} books", books.size(), total);
+                    return new PageImpl<>(books, pageable, total);
+                });
+    }
+
+    /**
+     * Returns up to {@link SuggestIndex#DEFAULT_LIMIT} autocomplete suggestions for the typed text.
+     *
+     * @param query the text typed so far
+     * @return matching books, best first
+     */
+    @Override
+    public List<BookSuggestion> suggest(String query) {
+        return bookDao.suggest(query, SuggestIndex.DEFAULT_LIMIT);
+    }
+
+    /**
+     * Returns up to {@link SuggestIndex#DEFAULT_LIMIT} books whose title words are within a few typos
+     * of the query words, closest first.
+     *
+     * @param query the search text
+     * @return similar books, closest first
+     */
+    @Override
+    public List<BookSummary> fuzzySearch(String query) {
+        logger.debug("fuzzySearch() called for query='{}'", query);
+        return bookDao.fuzzySearch(query, SuggestIndex.DEFAULT_LIMIT);
+    }
+
     /**
      * Saves a new {@link Book} along with its {@link Author} in a single transaction.
      * If the author does not already exist, it will be created.
@@ -0,0 +1,23 @@
+package epam.finalProject.service;
+
+import epam.finalProject.dto.ImportReport;
+import epam.finalProject.io.DataFormat;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Bulk import of books from CSV or NDJSON files.
+ */
+public interface CatalogImportService {
+
+    /**
+     * Imports every valid row of the file; invalid rows are listed in the report and skipped.
+     *
+     * @param in     file contents, read once from start to end
+     * @param format file format
+     * @return counts and per-row errors
+     * @throws IOException if the file cannot be read
+     */
+    ImportReport importCatalog(InputStream in, DataFormat format) throws IOException;
+}
@@ -0,0 +1,196 @@
+package epam.finalProject.service;
+
+import epam.finalProject.DAO.BookDao;
+import epam.finalProject.DAO.GenreDao;
+import epam.finalProject.dto.ImportReport;
+import epam.finalProject.entity.Author;
+import epam.finalProject.entity.Book;
+import epam.finalProject.entity.Genre;
+import epam.finalProject.io.CatalogImportReader;
+import epam.finalProject.io.DataFormat;
+import epam.finalProject.io.ImportRow;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Service implementation of {@link CatalogImportService}.
+ * Rows are streamed from the file, validated, and handed to {@link BookDao#importBooks} in chunks of
+ * {@link #CHUNK_SIZE}, each committed on its own; at most one chunk is held in memory.
+ * A failed chunk does not undo the chunks committed before it.
+ * <p>
+ * Columns: {@code title} and {@code author} (required), {@code year}, {@code quantity} (default 0),
+ * {@code description} and {@code genres} (genre names separated by {@code '|'}; each must already exist).
+ */
+@Service
+public class CatalogImportServiceImpl implements CatalogImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CatalogImportServiceImpl.class);
+
+    /** Rows inserted per transaction. */
+    static final int CHUNK_SIZE = 1000;
+
+    static final int MAX_TITLE_LENGTH = 200;
+    static final int MAX_AUTHOR_LENGTH = 255;
+
+    private static final Pattern GENRE_SEPARATOR = Pattern.compile(Pattern.quote(CatalogImportReader.MULTI_VALUE_SEPARATOR));
+
+    private final BookDao bookDao;
+    private final GenreDao genreDao;
+
+    /**
+     * Constructs a CatalogImportServiceImpl using the specified DAOs.
+     *
+     * @param bookDao  DAO that stores the imported books
+     * @param genreDao DAO used to resolve genre names
+     */
+    @Autowired
+    public CatalogImportServiceImpl(BookDao bookDao, GenreDao genreDao) {
+        this.bookDao = bookDao;
+        this.genreDao = genreDao;
+    }
+
+    /**
+     * Imports every valid row of the file; invalid rows are listed in the report and skipped.
+     *
+     * @param in     file contents, read once from start to end
+     * @param format file format
+     * @return counts and per-row errors
+     * @throws IOException if the file cannot be read
+     */
+    @Override
+    public ImportReport importCatalog(InputStream in, DataFormat format) throws IOException {
+        logger.debug("importCatalog() called, format={}", format);
+        Map<String, Long> genreIds = new HashMap<>();
+        for (Genre genre : genreDao.findAll()) {
+            genreIds.putIfAbsent(genre.getName().strip().toLowerCase(Locale.ROOT), genre.getId());
+        }
+
+        ImportReport report = new ImportReport();
+        List<Book> chunk = new ArrayList<>(CHUNK_SIZE);
+        List<Integer> lines = new ArrayList<>(CHUNK_SIZE);
+        try (CatalogImportReader reader = new CatalogImportReader(in, format)) {
+            ImportRow row;
+            while ((row = reader.next()) != null) {
+                report.rowRead();
+                if (row.isFailed()) {
+                    report.rejected(row.getLine(), row.getError());
+                    continue;
+                }
+                try {
+                    chunk.add(toBook(row, genreIds));
+                    lines.add(row.getLine());
+                } catch (IllegalArgumentException e) {
+                    report.rejected(row.getLine(), e.getMessage());
+                    continue;
+                }
+                if (chunk.size() == CHUNK_SIZE) {
+                    flush(chunk, lines, report);
+                }
+            }
+        }
+        flush(chunk, lines, report);
+        logger.info("Catalog import finished: {} rows read, {} imported, {} rejected",
+                report.getRowsRead(), report.getImported(), report.getFailed());
+        return report;
+    }
+
+    private void flush(List<Book> chunk, List<Integer> lines, ImportReport report) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        Map<Integer, String> failures = bookDao.importBooks(chunk);
+        report.imported(chunk.size() - failures.size());
+        for (Entry<Integer, String> failure : failures.entrySet()) {
+            report.rejected(lines.get(failure.getKey()), failure.getValue());
+        }
+        chunk.clear();
+        lines.clear();
+    }
+
+    /**
+     * Validates a row and turns it into a book carrying its author by name.
+     *
+     * @throws IllegalArgumentException with a message for the report if the row is invalid
+     */
+    static Book toBook(ImportRow row, Map<String, Long> genreIds) {
+        String title = trimToNull(row.get("title"));
+        if (title == null) {
+            throw new IllegalArgumentException("Title is required");
+        }
+        if (title.length() > MAX_TITLE_LENGTH) {
+            throw new IllegalArgumentException("Title is longer than " + MAX_TITLE_LENGTH + " characters");
+        }
+        String authorName = trimToNull(row.get("author"));
+        if (authorName == null) {
+            throw new IllegalArgumentException("Author is required");
+        }
+        if (authorName.length() > MAX_AUTHOR_LENGTH) {
+            throw new IllegalArgumentException("Author is longer than " + MAX_AUTHOR_LENGTH + " characters");
+        }
+
+        Book book = new Book();
+        book.setTitle(title);
+        Author author = new Author();
+        author.setName(authorName);
+        book.setAuthor(author);
+        book.setYear(parseInt(row.get("year"), "Year"));
+        Integer quantity = parseInt(row.get("quantity"), "Quantity");
+        if (quantity != null && quantity < 0) {
+            throw new IllegalArgumentException("Quantity must not be negative");
+        }
+        book.setQuantity(quantity == null ? 0 : quantity);
+        book.setDescription(trimToNull(row.get("description")));
+
+        Set<Long> genres = new LinkedHashSet<>();
+        String genreList = trimToNull(row.get("genres"));
+        if (genreList != null) {
+            for (String name : GENRE_SEPARATOR.split(genreList)) {
+                String key = name.strip().toLowerCase(Locale.ROOT);
+                if (key.isEmpty()) {
+                    continue;
+                }
+                Long genreId = genreIds.get(key);
+                if (genreId == null) {
+                    throw new IllegalArgumentException("Unknown genre '" + name.strip() + "'");
+                }
+                genres.add(genreId);
+            }
+        }
+        book.setGenreIds(new ArrayList<>(genres));
+        return book;
+    }
+
+    private static Integer parseInt(String value, String column) {
+        String text = trimToNull(value);
+        if (text == null) {
+            return null;
+        }
+        try {
+            return Integer.valueOf(text);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(column + " is not a whole number: '" + text + "'");
+        }
+    }
+
+    private static String trimToNull(String value) {
+        if (value == null) {
+            return null;
+        }
+        String trimmed = value.strip();
+        return trimmed.isEmpty() ? null : trimmed;
+    }
+}
@@ -0,0 +1,32 @@
+package epam.finalProject.service;
+
+import epam.finalProject.io.DataFormat;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Full data dumps for offline processing, streamed row by row.
+ */
+public interface ExportService {
+
+    /**
+     * Writes the whole catalog, one row per book, in the column layout accepted by the catalog import.
+     *
+     * @param out    destination; closed when the export ends
+     * @param format output format
+     * @return number of rows written
+     * @throws IOException if writing fails or the export is cut short
+     */
+    long exportCatalog(OutputStream out, DataFormat format) throws IOException;
+
+    /**
+     * Writes every purchase, oldest first.
+     *
+     * @param out    destination; closed when the export ends
+     * @param format output format
+     * @return number of rows written
+     * @throws IOException if writing fails or the export is cut short
+     */
+    long exportPurchases(OutputStream out, DataFormat format) throws IOException;
+}
@@ -0,0 +1,71 @@
+package epam.finalProject.service;
+
+import epam.finalProject.DAO.BookDao;
+import epam.finalProject.DAO.PurchaseHistoryDao;
+import epam.finalProject.io.DataFormat;
+import epam.finalProject.io.ExportWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+
+/**
+ * Service implementation of {@link ExportService}.
+ * Rows travel from a database cursor through an {@link ExportWriter} buffer to the output stream,
+ * so memory use stays the same whatever the table size. The cursor fetch size is taken from
+ * {@code export.fetchSize}.
+ * <p>
+ * The stream is flushed and closed only once every row has been written. If the export fails part-way the
+ * stream is left open and the exception propagates, so the container aborts the response instead of ending
+ * it normally and a truncated dump cannot pass for a complete one.
+ */
+@Service
+public class ExportServiceImpl implements ExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExportServiceImpl.class);
+
+    static final int DEFAULT_FETCH_SIZE = 5000;
+
+    private final BookDao bookDao;
+    private final PurchaseHistoryDao purchaseHistoryDao;
+
+    @Value("${export.fetchSize:5000}")
+    private int fetchSize = DEFAULT_FETCH_SIZE;
+
+    /**
+     * Constructs an ExportServiceImpl using the specified DAOs.
+     *
+     * @param bookDao            source of the catalog rows
+     * @param purchaseHistoryDao source of the purchase rows
+     */
+    @Autowired
+    public ExportServiceImpl(BookDao bookDao, PurchaseHistoryDao purchaseHistoryDao) {
+        this.bookDao = bookDao;
+        this.purchaseHistoryDao = purchaseHistoryDao;
+    }
+
+    @Override
+    public long exportCatalog(OutputStream out, DataFormat format) throws IOException {
+        long start = System.nanoTime();
+        ExportWriter writer = new ExportWriter(Channels.newChannel(out), format);
+        long rows = bookDao.exportCatalog(writer, fetchSize);
+        writer.close();
+        logger.info("Catalog export ({}) wrote {} rows in {} ms", format, rows, (System.nanoTime() - start) / 1_000_000);
+        return rows;
+    }
+
+    @Override
+    public long exportPurchases(OutputStream out, DataFormat format) throws IOException {
+        long start = System.nanoTime();
+        ExportWriter writer = new ExportWriter(Channels.newChannel(out), format);
+        long rows = purchaseHistoryDao.exportAll(writer, fetchSize);
+        writer.close();
+        logger.info("Purchase export ({}) wrote {} rows in {} ms", format, rows, (System.nanoTime() - start) / 1_000_000);
+        return rows;
+    }
+}
@@ -1,10 +1,10 @@
 package epam.finalProject.service;
 
 import epam.finalProject.DAO.GenreDao;
-import epam.finalProject.DAO.GenreDaoImpl;
 import epam.finalProject.entity.Genre;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -17,7 +17,17 @@ import java.util.List;
 public class GenreServiceImpl implements GenreService {
     private static final Logger logger = LoggerFactory.getLogger(GenreServiceImpl.class);
 
-    private final GenreDao genreDao = new GenreDaoImpl();
+    private final GenreDao genreDao;
+
+    /**
+     * Constructs a GenreServiceImpl using the specified {@link GenreDao}.
+     *
+     * @param genreDao the DAO to delegate operations to
+     */
+    @Autowired
+    public GenreServiceImpl(GenreDao genreDao) {
+        this.genreDao = genreDao;
+    }
 
     /**
      * Saves a new {@link Genre}.
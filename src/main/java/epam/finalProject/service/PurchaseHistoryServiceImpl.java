@@ -1,10 +1,10 @@
 package epam.finalProject.service;
 
 import epam.finalProject.DAO.PurchaseHistoryDao;
-import epam.finalProject.DAO.PurchaseHistoryDaoImpl;
 import epam.finalProject.entity.PurchaseHistory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -17,7 +17,17 @@ import java.util.List;
 public class PurchaseHistoryServiceImpl implements PurchaseHistoryService {
     private static final Logger logger = LoggerFactory.getLogger(PurchaseHistoryServiceImpl.class);
 
-    private final PurchaseHistoryDao historyDao = new PurchaseHistoryDaoImpl();
+    private final PurchaseHistoryDao historyDao;
+
+    /**
+     * Constructs a PurchaseHistoryServiceImpl using the specified {@link PurchaseHistoryDao}.
+     *
+     * @param historyDao the DAO to delegate operations to
+     */
+    @Autowired
+    public PurchaseHistoryServiceImpl(PurchaseHistoryDao historyDao) {
+        this.historyDao = historyDao;
+    }
 
     /**
      * Records a new purchase history entry.
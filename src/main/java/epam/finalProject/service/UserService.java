@@ -1,11 +1,16 @@
 package epam.finalProject.service;
 
+import epam.finalProject.dto.BulkOutcome;
+import epam.finalProject.dto.KeysetPage;
+import epam.finalProject.dto.UserSummary;
 import epam.finalProject.entity.User;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Service interface for user-related business logic.
@@ -46,6 +51,25 @@ public interface UserService {
 
     boolean updateRole(Long userId, String newRole);
 
+    /**
+     * Assigns a role to several users in one statement; other admins are left untouched.
+     *
+     * @param userIds        ids of the users to update
+     * @param newRole        the role to assign
+     * @param actingUsername username of the admin performing the change
+     * @return outcome per requested id
+     */
+    Map<Long, BulkOutcome> updateRoles(Collection<Long> userIds, String newRole, String actingUsername);
+
+    /**
+     * Deletes several users in one statement; other admins are left untouched.
+     *
+     * @param userIds        ids of the users to delete
+     * @param actingUsername username of the admin performing the deletion
+     * @return outcome per requested id
+     */
+    Map<Long, BulkOutcome> deleteUsers(Collection<Long> userIds, String actingUsername);
+
     /**
      * Shows all users
      *
@@ -53,6 +77,18 @@ public interface UserService {
      */
     Page<User> findAll(Pageable pageable);
 
+    /**
+     * Returns one page of the admin user directory, ordered by username.
+     * Navigation is keyset based: pass the cursor of the current page as {@code after} or {@code before}.
+     *
+     * @param usernamePrefix optional username prefix filter
+     * @param after          continue after this username, or {@code null}
+     * @param before         continue before this username, or {@code null}
+     * @param size           page size
+     * @return the page with cursors for the neighbouring pages
+     */
+    KeysetPage<UserSummary> searchUsers(String usernamePrefix, String after, String before, int size);
+
     boolean deleteUser(User user);
 
     User getById(Long id);
@@ -1,17 +1,23 @@
 package epam.finalProject.service;
 
 import epam.finalProject.DAO.UserDao;
-import epam.finalProject.DAO.UserDaoImpl;
+import epam.finalProject.db.ParallelQueries;
+import epam.finalProject.dto.BulkOutcome;
+import epam.finalProject.dto.KeysetPage;
+import epam.finalProject.dto.UserSummary;
 import epam.finalProject.entity.User;
 import org.mindrot.jbcrypt.BCrypt;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Service implementation for {@link User} operations.
@@ -26,13 +32,8 @@ public class UserServiceImpl implements UserService {
 
     private final UserDao userDAO;
 
-    /**
-     * Constructs a UserServiceImpl using the default {@link UserDaoImpl}.
-     */
-    public UserServiceImpl() {
-        this(new UserDaoImpl());
-        logger.debug("UserServiceImpl initialized with default UserDaoImpl");
-    }
+    /** Runs the count and the rows of a list page side by side. */
+    private final ParallelQueries parallelQueries;
 
     /**
      * Constructs a UserServiceImpl using the specified {@link UserDao}.
@@ -40,13 +41,25 @@ public class UserServiceImpl implements UserService {
      * @param userDAO the DAO to delegate user-related operations to
      */
     public UserServiceImpl(UserDao userDAO) {
+        this(userDAO, ParallelQueries.sequential());
+    }
+
+    /**
+     * Constructs a UserServiceImpl that runs the count and the rows of list pages with {@code parallelQueries}.
+     *
+     * @param userDAO         the DAO to delegate user-related operations to
+     * @param parallelQueries runs the two queries of a list page
+     */
+    @Autowired
+    public UserServiceImpl(UserDao userDAO, ParallelQueries parallelQueries) {
         this.userDAO = userDAO;
+        this.parallelQueries = parallelQueries;
         logger.debug("UserServiceImpl initialized with provided UserDao");
     }
 
     /**
-     * Registers a new {@link User}. Checks for existing username, hashes the password,
-     * sets role to "USER", and saves to database.
+     * Registers a new {@link User}. Hashes the password, sets role to "USER", and saves to database.
+     * The username check is part of the insert itself, so there is no separate lookup beforehand.
      *
      * @param user the User object containing username and plaintext password
      * @return {@code true} if registration succeeded, {@code false} if username already exists or save failed
@@ -54,10 +67,6 @@ public class UserServiceImpl implements UserService {
     @Override
     public boolean register(User user) {
         logger.debug("register() called for username='{}'", user.getUsername());
-        if (userDAO.findByUsername(user.getUsername()) != null) {
-            logger.warn("Registration failed: username '{}' already exists", user.getUsername());
-            return false;
-        }
         String hashed = BCrypt.hashpw(user.getPassword(), BCrypt.gensalt());
         user.setPassword(hashed);
         user.setRole("USER");
@@ -65,7 +74,7 @@ public class UserServiceImpl implements UserService {
         if (result) {
             logger.debug("User registered successfully: username='{}'", user.getUsername());
         } else {
-            logger.error("User registration failed for username='{}'", user.getUsername());
+            logger.warn("Registration failed: username '{}' already exists or save failed", user.getUsername());
         }
         return result;
     }
@@ -127,15 +136,81 @@ public class UserServiceImpl implements UserService {
     }
 
     /**
-     * Retrieves all {@link User} records from the database.
+     * Assigns a role to several users at once. Other admins are skipped by the DAO statement itself.
+     *
+     * @param userIds        ids of the users to update
+     * @param newRole        the role to assign
+     * @param actingUsername username of the admin performing the change
+     * @return outcome per requested id
+     */
+    @Override
+    public Map<Long, BulkOutcome> updateRoles(Collection<Long> userIds, String newRole, String actingUsername) {
+        logger.debug("updateRoles() called for {} users newRole='{}'", userIds.size(), newRole);
+        Map<Long, BulkOutcome> outcomes = userDAO.updateRoles(userIds, newRole, actingUsername);
+        logger.debug("updateRoles() finished: {}", outcomes);
+        return outcomes;
+    }
+
+    /**
+     * Deletes several users at once. Other admins are skipped by the DAO statement itself.
+     *
+     * @param userIds        ids of the users to delete
+     * @param actingUsername username of the admin performing the deletion
+     * @return outcome per requested id
+     */
+    @Override
+    public Map<Long, BulkOutcome> deleteUsers(Collection<Long> userIds, String actingUsername) {
+        logger.debug("deleteUsers() called for {} users", userIds.size());
+        Map<Long, BulkOutcome> outcomes = userDAO.deleteByIds(userIds, actingUsername);
+        logger.debug("deleteUsers() finished: {}", outcomes);
+        return outcomes;
+    }
+
+    /**
+     * Retrieves one page of {@link User} records; the count and the page are queried side by side.
      *
      * @return a List of all Users; empty if none found or on error
      */
     @Override
     public Page<User> findAll(Pageable pageable) {
-        long total = userDAO.count();
-        List<User> list = userDAO.findAll(pageable);
-        return new PageImpl<>(list, pageable, total);
+        return parallelQueries.both(userDAO::count, () -> userDAO.findAll(pageable),
+                (total, list) -> new PageImpl<>(list, pageable, total));
+    }
+
+    /**
+     * Retrieves one keyset page of the user directory. One extra row is requested to find out
+     * whether another page exists in the direction of travel, so no {@code COUNT(*)} is needed.
+     *
+     * @param usernamePrefix optional username prefix filter
+     * @param after          continue after this username, or {@code null}
+     * @param before         continue before this username (used only if {@code after} is {@code null})
+     * @param size           page size
+     * @return the page of users together with next/previous cursors
+     */
+    @Override
+    public KeysetPage<UserSummary> searchUsers(String usernamePrefix, String after, String before, int size) {
+        logger.debug("searchUsers() called for prefix='{}' after='{}' before='{}' size={}", usernamePrefix, after, before, size);
+        boolean backward = after == null && before != null;
+        String cursor = backward ? before : after;
+        List<UserSummary> rows = userDAO.findSummaries(usernamePrefix, cursor, !backward, size + 1);
+        boolean more = rows.size() > size;
+        if (more) {
+            rows = backward ? rows.subList(1, rows.size()) : rows.subList(0, size);
+        }
+        String first = rows.isEmpty() ? null : rows.get(0).getUsername();
+        String last = rows.isEmpty() ? null : rows.get(rows.size() - 1).getUsername();
+
+        String next;
+        String previous;
+        if (backward) {
+            next = last;
+            previous = more ? first : null;
+        } else {
+            next = more ? last : null;
+            previous = cursor != null ? first : null;
+        }
+        logger.debug("searchUsers() returned {} users", rows.size());
+        return new KeysetPage<>(rows, next, previous, size);
     }
 
     /**
@@ -184,7 +259,7 @@ public class UserServiceImpl implements UserService {
     @Override
     public boolean authenticate(String username, String password) {
         logger.debug("authenticate() called for username='{}'", username);
-        User user = userDAO.findByUsername(username);
+        User user = userDAO.findCredentials(username);
         if (user == null) {
             logger.warn("Authentication failed: user '{}' not found", username);
             return false;
@@ -6,12 +6,21 @@ CREATE TABLE users (
     role VARCHAR(20) NOT NULL
 );
 
+-- prefix search in the admin user directory (LIKE 'abc%' independent of collation)
+CREATE INDEX idx_users_username_pattern ON users (username text_pattern_ops);
+
 -- AUTHORS
 CREATE TABLE authors (
     id SERIAL PRIMARY KEY,
-    name VARCHAR(255) NOT NULL UNIQUE
+    name VARCHAR(255) NOT NULL
 );
 
+-- one author per name regardless of case; case-insensitive lookup and upsert target when a book is added or imported
+CREATE UNIQUE INDEX idx_authors_name_lower ON authors (lower(name));
+
+-- keyset pages of the author directory (WHERE name > ? ORDER BY name LIMIT ?)
+CREATE INDEX idx_authors_name ON authors (name);
+
 
 -- GENRES
 CREATE TABLE genres (
@@ -27,9 +36,55 @@ CREATE TABLE books (
   genre_id  INT REFERENCES genres(id)  ON DELETE SET NULL,
   year INT,
   description TEXT,
-  quantity INT NOT NULL DEFAULT 0
+  quantity INT NOT NULL DEFAULT 0,
+  search_vector TSVECTOR
 );
 
+-- per-author book counts in the author directory, author filter on /books
+CREATE INDEX idx_books_author_id ON books (author_id);
+
+-- year range filter and year sort on /books
+CREATE INDEX idx_books_year ON books (year);
+
+-- "in stock only" filter on /books; only available books are indexed
+CREATE INDEX idx_books_in_stock ON books (id) WHERE quantity > 0;
+
+-- FULL-TEXT SEARCH
+-- search_vector is maintained by triggers: title (A), author name (B), description (C).
+-- The 'simple' configuration is used because the catalog mixes Russian and English titles.
+CREATE OR REPLACE FUNCTION books_search_vector(p_title TEXT, p_author_id INT, p_description TEXT)
+RETURNS TSVECTOR AS $$
+    SELECT setweight(to_tsvector('simple', coalesce(p_title, '')), 'A')
+        || setweight(to_tsvector('simple', coalesce((SELECT name FROM authors WHERE id = p_author_id), '')), 'B')
+        || setweight(to_tsvector('simple', coalesce(p_description, '')), 'C');
+$$ LANGUAGE sql STABLE;
+
+CREATE OR REPLACE FUNCTION books_search_vector_trigger() RETURNS TRIGGER AS $$
+BEGIN
+    NEW.search_vector := books_search_vector(NEW.title, NEW.author_id, NEW.description);
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_books_search_vector
+    BEFORE INSERT OR UPDATE OF title, author_id, description ON books
+    FOR EACH ROW EXECUTE FUNCTION books_search_vector_trigger();
+
+CREATE OR REPLACE FUNCTION authors_search_vector_trigger() RETURNS TRIGGER AS $$
+BEGIN
+    UPDATE books SET search_vector = books_search_vector(title, author_id, description)
+     WHERE author_id = NEW.id;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_authors_search_vector
+    AFTER UPDATE OF name ON authors
+    FOR EACH ROW WHEN (OLD.name IS DISTINCT FROM NEW.name)
+    EXECUTE FUNCTION authors_search_vector_trigger();
+
+CREATE INDEX idx_books_search_vector ON books USING GIN (search_vector);
+
 --BOOK GENRE
 CREATE TABLE book_genres (
   book_id  INT REFERENCES books(id)  ON DELETE CASCADE,
@@ -37,6 +92,9 @@ CREATE TABLE book_genres (
   PRIMARY KEY (book_id, genre_id)
 );
 
+-- genre filter on /books: the primary key leads with book_id, so it cannot find the books of a genre
+CREATE INDEX idx_book_genres_genre_book ON book_genres (genre_id, book_id);
+
 
 --BASKET
 CREATE TABLE basket_items (
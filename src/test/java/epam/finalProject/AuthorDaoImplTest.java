@@ -65,6 +65,14 @@ public class AuthorDaoImplTest {
         assertEquals(1L, a.getId());
     }
 
+    @Test
+    void save_existingNameInOtherCase_shouldReuseAuthor() {
+        Author a = new Author();
+        a.setName("  existing AUTHOR ");
+        assertFalse(dao.save(a));
+        assertEquals(1L, a.getId());
+    }
+
     @Test
     void save_newAuthor_shouldReturnTrueAndGenerateId() {
         Author a = new Author();
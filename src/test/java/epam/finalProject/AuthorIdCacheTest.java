@@ -0,0 +1,43 @@
+package epam.finalProject;
+
+import epam.finalProject.cache.AuthorIdCache;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AuthorIdCacheTest {
+
+    @Test
+    void get_shouldIgnoreCaseAndSurroundingSpaces() {
+        AuthorIdCache cache = new AuthorIdCache();
+        cache.put(7L, "Leo Tolstoy");
+
+        assertEquals(7L, cache.get("  leo TOLSTOY ").getId());
+        assertEquals("Leo Tolstoy", cache.get("leo tolstoy").getName());
+        assertNull(cache.get("Fyodor Dostoevsky"));
+    }
+
+    @Test
+    void put_overCapacity_shouldEvictLeastRecentlyUsed() {
+        AuthorIdCache cache = new AuthorIdCache(2);
+        cache.put(1L, "A");
+        cache.put(2L, "B");
+        cache.get("a");
+        cache.put(3L, "C");
+
+        assertEquals(2, cache.size());
+        assertNotNull(cache.get("A"));
+        assertNull(cache.get("B"));
+    }
+
+    @Test
+    void removeId_shouldForgetRenamedAuthor() {
+        AuthorIdCache cache = new AuthorIdCache();
+        cache.put(1L, "Old Name");
+        cache.removeId(1L);
+        cache.put(1L, "New Name");
+
+        assertNull(cache.get("Old Name"));
+        assertEquals(1L, cache.get("new name").getId());
+    }
+}
@@ -1,9 +1,7 @@
 package epam.finalProject;
 
 import epam.finalProject.DAO.BasketDaoImpl;
-import epam.finalProject.db.ConnectionPool;
 import epam.finalProject.entity.BasketItem;
-import epam.finalProject.testUtils.ConnectionPoolTestUtils;
 import org.h2.tools.RunScript;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -38,9 +36,7 @@ import static org.junit.jupiter.api.Assertions.*;
                 RunScript.execute(conn, new StringReader(schema));
             }
 
-            ConnectionPool.setTestDataSource(ds);
-
-            dao = new BasketDaoImpl();
+            dao = new BasketDaoImpl(ds);
         }
 
 
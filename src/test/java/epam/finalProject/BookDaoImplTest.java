@@ -0,0 +1,235 @@
+package epam.finalProject;
+
+import epam.finalProject.DAO.BookDaoImpl;
+import epam.finalProject.dto.BookFilter;
+import epam.finalProject.dto.BookSuggestion;
+import epam.finalProject.dto.BookSummary;
+import epam.finalProject.entity.Author;
+import epam.finalProject.entity.Book;
+import epam.finalProject.exception.ResourceNotFoundException;
+import org.h2.tools.RunScript;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+import java.io.StringReader;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BookDaoImplTest {
+
+    private DataSource ds;
+    private BookDaoImpl dao;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        ds = new DriverManagerDataSource("jdbc:h2:mem:test;MODE=PostgreSQL;DB_CLOSE_DELAY=-1", "sa", "");
+        try (Connection conn = ds.getConnection()) {
+            conn.createStatement().execute("DROP ALL OBJECTS");
+            String schema = """
+                    CREATE TABLE authors (id SERIAL PRIMARY KEY, name VARCHAR(255) NOT NULL UNIQUE);
+                    CREATE TABLE genres (id SERIAL PRIMARY KEY, name VARCHAR(100) NOT NULL);
+                    CREATE TABLE books (
+                      id SERIAL PRIMARY KEY,
+                      title VARCHAR(200) NOT NULL,
+                      author_id INT REFERENCES authors(id),
+                      "year" INT,
+                      description TEXT,
+                      quantity INT NOT NULL DEFAULT 0
+                    );
+                    CREATE TABLE book_genres (book_id INT, genre_id INT, PRIMARY KEY (book_id, genre_id));
+                    INSERT INTO authors (name) VALUES ('Leo Tolstoy'), ('Fyodor Dostoevsky');
+                    INSERT INTO genres (name) VALUES ('Novel');
+                    INSERT INTO books (title, author_id, "year", description, quantity) VALUES
+                      ('War and Peace', 1, 1869, 'Napoleonic wars', 3),
+                      ('Crime and Punishment', 2, 1866, 'A novel about peace of mind', 2),
+                      ('Anna Karenina', 1, 1878, 'Family drama', 0);
+                    INSERT INTO book_genres (book_id, genre_id) VALUES (1, 1), (2, 1);
+                    """;
+            RunScript.execute(conn, new StringReader(schema));
+        }
+        dao = new BookDaoImpl(ds);
+    }
+
+    @Test
+    void search_titleMatch_shouldRankBeforeDescriptionMatch() {
+        List<BookSummary> result = dao.search("peace", PageRequest.of(0, 10));
+        assertEquals(2, result.size());
+        assertEquals("War and Peace", result.get(0).getTitle());
+        assertEquals("Crime and Punishment", result.get(1).getTitle());
+        assertEquals(List.of("Novel"), result.get(0).getGenreNames());
+    }
+
+    @Test
+    void search_authorName_shouldFindAllTheirBooks() {
+        List<BookSummary> result = dao.search("tolstoy", PageRequest.of(0, 10));
+        assertEquals(2, result.size());
+        assertEquals("Leo Tolstoy", result.get(0).getAuthorName());
+    }
+
+    @Test
+    void findSummaries_shouldAggregateGenresWithoutLoadingBooks() {
+        List<BookSummary> result = dao.findSummaries(BookFilter.none(), PageRequest.of(1, 2));
+        assertEquals(1, result.size());
+        BookSummary summary = result.get(0);
+        assertEquals("Anna Karenina", summary.getTitle());
+        assertEquals("Leo Tolstoy", summary.getAuthorName());
+        assertEquals(1878, summary.getYear());
+        assertEquals(List.of(), summary.getGenreNames());
+    }
+
+    @Test
+    void findSummaries_filters_shouldCombineAndSort() {
+        BookFilter tolstoyInStock = new BookFilter(null, 1L, null, null, true, BookFilter.Sort.ID, false);
+        assertEquals(List.of("War and Peace"),
+                dao.findSummaries(tolstoyInStock, PageRequest.of(0, 10)).stream().map(BookSummary::getTitle).toList());
+        assertEquals(1, dao.count(tolstoyInStock));
+
+        BookFilter novelsByYear = new BookFilter(1L, null, 1860, 1870, false, BookFilter.Sort.YEAR, true);
+        assertEquals(List.of("War and Peace", "Crime and Punishment"),
+                dao.findSummaries(novelsByYear, PageRequest.of(0, 10)).stream().map(BookSummary::getTitle).toList());
+        assertEquals(2, dao.count(novelsByYear));
+
+        BookFilter byTitle = new BookFilter(null, null, null, null, false, BookFilter.Sort.TITLE, false);
+        assertEquals("Anna Karenina", dao.findSummaries(byTitle, PageRequest.of(0, 1)).get(0).getTitle());
+    }
+
+    @Test
+    void fuzzySearch_misspelledTitle_shouldReturnSummaries() {
+        dao.loadSuggestIndex();
+
+        List<BookSummary> result = dao.fuzzySearch("war and peice", 10);
+
+        assertEquals(List.of("War and Peace"), result.stream().map(BookSummary::getTitle).toList());
+        assertEquals("Leo Tolstoy", result.get(0).getAuthorName());
+        assertEquals(List.of("Novel"), result.get(0).getGenreNames());
+    }
+
+    @Test
+    void countSearch_shouldStopAtLimit() {
+        assertEquals(1, dao.countSearch("tolstoy", 1));
+        assertEquals(0, dao.countSearch("pushkin", 10));
+    }
+
+    @Test
+    void findById_concurrentRequests_shouldLoadBookOnce() throws Exception {
+        AtomicInteger bookQueries = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        BookDaoImpl slowDao = new BookDaoImpl(holdingBookQueries(bookQueries, release));
+        ExecutorService requests = Executors.newFixedThreadPool(16);
+        try {
+            List<Future<Book>> results = new ArrayList<>();
+            for (int i = 0; i < 16; i++) {
+                results.add(requests.submit(() -> slowDao.findById(1L)));
+            }
+            Thread.sleep(200);
+            release.countDown();
+
+            for (Future<Book> result : results) {
+                assertEquals("War and Peace", result.get(5, TimeUnit.SECONDS).getTitle());
+            }
+            assertEquals(1, bookQueries.get());
+        } finally {
+            requests.shutdown();
+        }
+    }
+
+    @Test
+    void findById_missingBook_shouldBeAnsweredFromMemoryUntilSaved() {
+        AtomicInteger bookQueries = new AtomicInteger();
+        BookDaoImpl countingDao = new BookDaoImpl(holdingBookQueries(bookQueries, new CountDownLatch(0)));
+
+        for (int i = 0; i < 3; i++) {
+            ResourceNotFoundException e = assertThrows(ResourceNotFoundException.class, () -> countingDao.findById(4L));
+            assertEquals(0, e.getStackTrace().length);
+        }
+        assertEquals(1, bookQueries.get());
+
+        Book book = new Book();
+        book.setTitle("Resurrection");
+        book.setYear(1899);
+        book.setQuantity(1);
+        book.setGenreIds(List.of());
+        Author author = new Author();
+        author.setName("Leo Tolstoy");
+        assertTrue(countingDao.saveBookWithAuthor(book, author));
+        assertEquals(4L, book.getId());
+
+        assertEquals("Resurrection", countingDao.findById(4L).getTitle());
+        assertEquals(2, bookQueries.get());
+    }
+
+    @Test
+    void importBooks_badRow_shouldRejectOnlyThatRow() {
+        List<Book> books = List.of(imported("Resurrection", "Leo Tolstoy"), imported("x".repeat(201), "Anton Chekhov"),
+                imported("The Cherry Orchard", "Anton Chekhov"));
+
+        Map<Integer, String> failures = dao.importBooks(books);
+
+        assertEquals(Set.of(1), failures.keySet());
+        assertNull(books.get(1).getId());
+        assertEquals(1L, books.get(0).getAuthorId());
+        assertEquals("Resurrection", dao.findById(books.get(0).getId()).getTitle());
+        assertEquals("The Cherry Orchard", dao.findById(books.get(2).getId()).getTitle());
+        assertEquals(List.of("The Cherry Orchard"),
+                dao.suggest("chekhov", 10).stream().map(BookSuggestion::getTitle).toList());
+        assertEquals(5, dao.count(BookFilter.none()));
+    }
+
+    private static Book imported(String title, String authorName) {
+        Book book = new Book();
+        book.setTitle(title);
+        book.setYear(1900);
+        book.setQuantity(1);
+        book.setGenreIds(List.of(1L));
+        Author author = new Author();
+        author.setName(authorName);
+        book.setAuthor(author);
+        return book;
+    }
+
+    /**
+     * Wraps the test database so that every single-book query is counted and held until {@code release} opens,
+     * keeping the first request's load in flight while the others arrive.
+     */
+    private DataSource holdingBookQueries(AtomicInteger bookQueries, CountDownLatch release) {
+        ClassLoader loader = getClass().getClassLoader();
+        return (DataSource) Proxy.newProxyInstance(loader, new Class<?>[]{DataSource.class}, (proxy, method, args) -> {
+            Object result = invoke(method, ds, args);
+            if (!(result instanceof Connection conn)) {
+                return result;
+            }
+            return Proxy.newProxyInstance(loader, new Class<?>[]{Connection.class}, (c, m, a) -> {
+                if (m.getName().equals("prepareStatement") && ((String) a[0]).endsWith("FROM books WHERE id = ?")) {
+                    bookQueries.incrementAndGet();
+                    release.await(5, TimeUnit.SECONDS);
+                }
+                return invoke(m, conn, a);
+            });
+        });
+    }
+
+    private static Object invoke(Method method, Object target, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package epam.finalProject;
+
+import epam.finalProject.cache.CatalogVersion;
+import epam.finalProject.controller.AuthorController;
+import epam.finalProject.controller.BookController;
+import epam.finalProject.dto.KeysetPage;
+import epam.finalProject.service.AuthorService;
+import epam.finalProject.service.BookService;
+import epam.finalProject.service.GenreService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.security.web.csrf.DeferredCsrfToken;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.thymeleaf.ITemplateEngine;
+import org.thymeleaf.context.IContext;
+
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anySet;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class CatalogETagsTest {
+
+    private final BookService bookService = mock(BookService.class);
+    private final AuthorService authorService = mock(AuthorService.class);
+    private final CatalogVersion catalogVersion = new CatalogVersion();
+    private final MockHttpSession session = new MockHttpSession();
+    private MockMvc mvc;
+
+    @BeforeEach
+    void setUp() {
+        ITemplateEngine templateEngine = mock(ITemplateEngine.class);
+        when(templateEngine.process(anyString(), anySet(), any(IContext.class))).thenReturn("<tr></tr>");
+        when(bookService.findSummaries(any(), any())).thenReturn(Page.empty());
+        when(authorService.findDirectory(any(), any(), any(), anyInt())).thenReturn(new KeysetPage<>(List.of(), null, null, 20));
+        mvc = MockMvcBuilders.standaloneSetup(
+                new BookController(bookService, mock(GenreService.class), templateEngine, catalogVersion, 1 << 20),
+                new AuthorController(authorService, catalogVersion))
+                .setSingleView((model, request, response) -> {
+                })
+                .build();
+    }
+
+    @Test
+    void books_firstVisit_shouldSendWeakETagAndRevalidate() throws Exception {
+        MvcResult result = mvc.perform(get("/books").session(session))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "private, no-cache"))
+                .andReturn();
+
+        assertTrue(result.getResponse().getHeader(HttpHeaders.ETAG).startsWith("W/\""));
+    }
+
+    @Test
+    void books_sameVersion_shouldAnswer304WithoutReadingData() throws Exception {
+        String etag = etagOf("/books");
+        clearInvocations(bookService);
+
+        mvc.perform(get("/books").session(session).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag));
+
+        verifyNoInteractions(bookService);
+    }
+
+    @Test
+    void books_afterCatalogWrite_shouldRenderAgain() throws Exception {
+        String etag = etagOf("/books");
+        catalogVersion.bump();
+
+        MvcResult result = mvc.perform(get("/books").session(session).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        assertNotEquals(etag, result.getResponse().getHeader(HttpHeaders.ETAG));
+        verify(bookService, times(2)).findSummaries(any(), any());
+    }
+
+    @Test
+    void books_otherLocaleOrSession_shouldNotMatch() throws Exception {
+        String etag = etagOf("/books");
+
+        mvc.perform(get("/books").session(session).locale(Locale.forLanguageTag("ru")).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk());
+        mvc.perform(get("/books").session(new MockHttpSession()).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void books_withoutSession_shouldSendNoETagAndRender() throws Exception {
+        String etag = etagOf("/books");
+
+        MvcResult result = mvc.perform(get("/books").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        assertNull(result.getResponse().getHeader(HttpHeaders.ETAG));
+        verify(bookService, times(2)).findSummaries(any(), any());
+    }
+
+    @Test
+    void books_csrfTokenCreatedByThisRequest_shouldSendNoETagAndRender() throws Exception {
+        String etag = etagOf("/books");
+        DeferredCsrfToken newToken = mock(DeferredCsrfToken.class);
+        when(newToken.isGenerated()).thenReturn(true);
+
+        MvcResult result = mvc.perform(get("/books").session(session).header(HttpHeaders.IF_NONE_MATCH, etag)
+                        .requestAttr(DeferredCsrfToken.class.getName(), newToken))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        assertNull(result.getResponse().getHeader(HttpHeaders.ETAG));
+        verify(bookService, times(2)).findSummaries(any(), any());
+    }
+
+    @Test
+    void authors_sameVersion_shouldAnswer304WithoutReadingData() throws Exception {
+        String etag = etagOf("/authors");
+        clearInvocations(authorService);
+
+        mvc.perform(get("/authors").session(session).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+        verifyNoInteractions(authorService);
+    }
+
+    private String etagOf(String url) throws Exception {
+        return mvc.perform(get(url).session(session)).andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+    }
+}
@@ -0,0 +1,113 @@
+package epam.finalProject;
+
+import epam.finalProject.DAO.BookDao;
+import epam.finalProject.DAO.GenreDao;
+import epam.finalProject.dto.ImportReport;
+import epam.finalProject.entity.Book;
+import epam.finalProject.entity.Genre;
+import epam.finalProject.io.DataFormat;
+import epam.finalProject.service.CatalogImportServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class CatalogImportServiceImplTest {
+
+    @Mock
+    private BookDao bookDao;
+
+    @Mock
+    private GenreDao genreDao;
+
+    @InjectMocks
+    private CatalogImportServiceImpl service;
+
+    private final List<List<Book>> chunks = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(genreDao.findAll()).thenReturn(List.of(genre(1L, "Novel"), genre(2L, "Fantasy")));
+        when(bookDao.importBooks(anyList())).thenAnswer(inv -> {
+            chunks.add(new ArrayList<>(inv.getArgument(0)));
+            return Map.of();
+        });
+    }
+
+    @Test
+    void importCatalog_csv_shouldParseQuotedFieldsAndReportBadRows() throws Exception {
+        String csv = "Title,Author,Year,Quantity,Genres,Description\r\n"
+                + "\"War and Peace\",Leo Tolstoy,1869,3,novel|FANTASY,\"Long, \"\"very\"\" long\nbook\"\r\n"
+                + ",Nobody,2000,1,,\r\n"
+                + "Emma,Jane Austen,eighteen,1,,\r\n"
+                + "Dune,Frank Herbert,1965,2,Space Opera,\r\n"
+                + "\r\n"
+                + "Hobbit,J.R.R. Tolkien\r\n";
+
+        ImportReport report = service.importCatalog(utf8(csv), DataFormat.CSV);
+
+        assertEquals(5, report.getRowsRead());
+        assertEquals(1, report.getImported());
+        assertEquals(4, report.getFailed());
+        assertEquals(List.of(4, 5, 6, 8), report.getErrors().stream().map(ImportReport.RowError::getLine).toList());
+        assertEquals("Unknown genre 'Space Opera'", report.getErrors().get(2).getMessage());
+
+        Book book = chunks.get(0).get(0);
+        assertEquals("War and Peace", book.getTitle());
+        assertEquals("Leo Tolstoy", book.getAuthor().getName());
+        assertEquals("Long, \"very\" long\nbook", book.getDescription());
+        assertEquals(List.of(1L, 2L), book.getGenreIds());
+    }
+
+    @Test
+    void importCatalog_ndjson_shouldCommitInChunksAndMapDaoFailuresToLines() throws Exception {
+        StringBuilder ndjson = new StringBuilder("not json\n");
+        for (int i = 0; i < 1500; i++) {
+            ndjson.append("{\"title\":\"Book ").append(i).append("\",\"author\":\"Author ").append(i % 7)
+                    .append("\",\"quantity\":1,\"genres\":[\"Novel\"]}\n");
+        }
+        when(bookDao.importBooks(anyList())).thenReturn(Map.of()).thenReturn(Map.of(0, "duplicate"));
+
+        ImportReport report = service.importCatalog(utf8(ndjson.toString()), DataFormat.NDJSON);
+
+        verify(bookDao, times(2)).importBooks(anyList());
+        assertEquals(1501, report.getRowsRead());
+        assertEquals(1499, report.getImported());
+        assertEquals(2, report.getErrors().size());
+        assertEquals(1, report.getErrors().get(0).getLine());
+        assertEquals(1002, report.getErrors().get(1).getLine());
+        assertEquals("duplicate", report.getErrors().get(1).getMessage());
+    }
+
+    @Test
+    void importCatalog_csvWithoutRequiredColumns_shouldStop() throws Exception {
+        ImportReport report = service.importCatalog(utf8("name,year\nEmma,1815\n"), DataFormat.CSV);
+
+        assertEquals(0, report.getImported());
+        assertEquals(1, report.getFailed());
+        verify(bookDao, never()).importBooks(anyList());
+    }
+
+    private static ByteArrayInputStream utf8(String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Genre genre(Long id, String name) {
+        Genre g = new Genre();
+        g.setId(id);
+        g.setName(name);
+        return g;
+    }
+}
@@ -0,0 +1,202 @@
+package epam.finalProject;
+
+import epam.finalProject.cache.CatalogVersion;
+import epam.finalProject.controller.AuthorController;
+import epam.finalProject.controller.BookController;
+import epam.finalProject.dto.AuthorSummary;
+import epam.finalProject.dto.BookSummary;
+import epam.finalProject.dto.KeysetPage;
+import epam.finalProject.entity.Genre;
+import epam.finalProject.service.AuthorService;
+import epam.finalProject.service.BookService;
+import epam.finalProject.service.GenreService;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.support.ReloadableResourceBundleMessageSource;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.security.web.csrf.DefaultCsrfToken;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.spring6.view.ThymeleafViewResolver;
+import org.thymeleaf.templatemode.TemplateMode;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * Replays a browsing trace against /books and /authors, rendered by the real templates, once with browsers
+ * that never revalidate and once with browsers that send back the ETag they were given, and reports the
+ * server CPU time of each run. The services are mocks returning realistic pages, so the numbers cover the
+ * controllers and the rendering but not the database; the saving on the database side comes on top.
+ * The trace: {@link #SESSIONS} users each wander over a small set of popular pages (catalog pages, filters,
+ * the author directory), coming back to pages they have seen, while the catalog changes every
+ * {@link #REQUESTS_PER_WRITE} requests. The security dialect is not loaded, so {@code sec:} attributes are
+ * left in the output as they are.
+ */
+class ConditionalGetBenchmark {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConditionalGetBenchmark.class);
+
+    private static final int SESSIONS = 50;
+    private static final int REQUESTS = 5_000;
+    private static final int REQUESTS_PER_WRITE = 500;
+    private static final List<String> PAGES = List.of(
+            "/books", "/books?page=1", "/books?page=2", "/books?page=3", "/books?size=50",
+            "/books?genre=1", "/books?genre=2", "/books?inStock=true", "/books?sort=title", "/books?sort=year&dir=desc",
+            "/authors", "/authors?from=B", "/authors?from=D", "/authors?from=T", "/books/search?q=war");
+
+    private final CatalogVersion catalogVersion = new CatalogVersion();
+    private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+
+    @Test
+    void unconditionalAgainstConditionalGet() throws Exception {
+        MockMvc mvc = mvc();
+        List<Visit> trace = trace();
+
+        replay(mvc, trace, false);
+        replay(mvc, trace, true);
+        Result unconditional = replay(mvc, trace, false);
+        Result conditional = replay(mvc, trace, true);
+
+        logger.info(String.format(Locale.ROOT, "%d requests: unconditional %.0f ms CPU (%.0f us/request); conditional %.0f ms CPU "
+                        + "(%.0f us/request), %d%% answered 304; %.0f%% CPU saved", REQUESTS,
+                unconditional.cpuMillis, unconditional.cpuMillis * 1000 / REQUESTS,
+                conditional.cpuMillis, conditional.cpuMillis * 1000 / REQUESTS, conditional.notModified * 100 / REQUESTS,
+                100 * (1 - conditional.cpuMillis / unconditional.cpuMillis)));
+        assertEquals(0, unconditional.notModified);
+        assertTrue(conditional.notModified > 0);
+    }
+
+    /**
+     * Runs the trace on this thread (MockMvc handles each request on the calling thread) and measures its CPU time.
+     * Each session keeps the last ETag it saw per page, like a browser cache.
+     */
+    private Result replay(MockMvc mvc, List<Visit> trace, boolean revalidate) throws Exception {
+        List<MockHttpSession> sessions = new ArrayList<>();
+        List<Map<String, String>> browserCaches = new ArrayList<>();
+        for (int s = 0; s < SESSIONS; s++) {
+            sessions.add(new MockHttpSession());
+            browserCaches.add(new HashMap<>());
+        }
+        int notModified = 0;
+        long start = threads.getCurrentThreadCpuTime();
+        for (int i = 0; i < trace.size(); i++) {
+            if (i > 0 && i % REQUESTS_PER_WRITE == 0) {
+                catalogVersion.bump();
+            }
+            Visit visit = trace.get(i);
+            MockHttpServletRequestBuilder request = get(visit.page).session(sessions.get(visit.session))
+                    .requestAttr("_csrf", new DefaultCsrfToken("X-CSRF-TOKEN", "_csrf", "token-" + visit.session));
+            String etag = browserCaches.get(visit.session).get(visit.page);
+            if (revalidate && etag != null) {
+                request.header(HttpHeaders.IF_NONE_MATCH, etag);
+            }
+            MockHttpServletResponse response = mvc.perform(request).andReturn().getResponse();
+            if (response.getStatus() == 304) {
+                notModified++;
+            } else {
+                assertEquals(200, response.getStatus());
+                browserCaches.get(visit.session).put(visit.page, response.getHeader(HttpHeaders.ETAG));
+            }
+        }
+        return new Result((threads.getCurrentThreadCpuTime() - start) / 1e6, notModified);
+    }
+
+    /** Each session mostly returns to a few favourite pages; popular pages are popular for everyone. */
+    private static List<Visit> trace() {
+        Random random = new Random(42);
+        List<Visit> trace = new ArrayList<>(REQUESTS);
+        for (int i = 0; i < REQUESTS; i++) {
+            int page = (int) Math.min(PAGES.size() - 1, Math.abs(random.nextGaussian()) * PAGES.size() / 3);
+            trace.add(new Visit(random.nextInt(SESSIONS), PAGES.get(page)));
+        }
+        return trace;
+    }
+
+    private MockMvc mvc() {
+        BookService bookService = mock(BookService.class);
+        when(bookService.findSummaries(any(), any())).thenAnswer(inv -> books(inv.getArgument(1)));
+        when(bookService.search(any(), any())).thenAnswer(inv -> books(inv.getArgument(1)));
+        GenreService genreService = mock(GenreService.class);
+        List<Genre> genres = new ArrayList<>();
+        for (long id = 1; id <= 12; id++) {
+            Genre genre = new Genre();
+            genre.setId(id);
+            genre.setName("Genre " + id);
+            genres.add(genre);
+        }
+        when(genreService.findAll()).thenReturn(genres);
+        AuthorService authorService = mock(AuthorService.class);
+        when(authorService.findDirectory(any(), any(), any(), anyInt())).thenAnswer(inv -> {
+            int size = inv.getArgument(3);
+            List<AuthorSummary> authors = new ArrayList<>();
+            for (long id = 1; id <= size; id++) {
+                authors.add(new AuthorSummary(id, "Author " + id, id % 7));
+            }
+            return new KeysetPage<>(authors, "Author " + size, null, size);
+        });
+
+        SpringTemplateEngine engine = templateEngine();
+        // given its application context by the standalone setup
+        ThymeleafViewResolver views = new ThymeleafViewResolver();
+        views.setTemplateEngine(engine);
+        views.setCharacterEncoding("UTF-8");
+        return MockMvcBuilders.standaloneSetup(
+                        new BookController(bookService, genreService, engine, catalogVersion, 8 << 20),
+                        new AuthorController(authorService, catalogVersion))
+                .setViewResolvers(views)
+                .build();
+    }
+
+    private static SpringTemplateEngine templateEngine() {
+        ClassLoaderTemplateResolver templates = new ClassLoaderTemplateResolver();
+        templates.setPrefix("templates/");
+        templates.setSuffix(".html");
+        templates.setTemplateMode(TemplateMode.HTML);
+        templates.setCharacterEncoding("UTF-8");
+        templates.setCacheable(true);
+        ReloadableResourceBundleMessageSource messages = new ReloadableResourceBundleMessageSource();
+        messages.setBasename("classpath:i18n/messages");
+        messages.setDefaultEncoding("UTF-8");
+        SpringTemplateEngine engine = new SpringTemplateEngine();
+        engine.setTemplateResolver(templates);
+        engine.setTemplateEngineMessageSource(messages);
+        engine.setEnableSpringELCompiler(true);
+        return engine;
+    }
+
+    private static PageImpl<BookSummary> books(Pageable pageable) {
+        List<BookSummary> books = new ArrayList<>();
+        for (long i = 0; i < pageable.getPageSize(); i++) {
+            long id = pageable.getOffset() + i + 1;
+            books.add(new BookSummary(id, "Book title number " + id, id % 40, "Author " + id % 40,
+                    1850 + (int) (id % 170), (int) (id % 5), List.of("Novel", "Genre " + id % 12)));
+        }
+        return new PageImpl<>(books, pageable, 2_000);
+    }
+
+    private record Visit(int session, String page) {
+    }
+
+    private record Result(double cpuMillis, int notModified) {
+    }
+}
@@ -7,7 +7,8 @@ import org.junit.platform.suite.api.Suite;
 @Suite
 @SelectClasses({
         AuthorDaoImplTest.class,
-        BasketDaoImplTest.class
+        BasketDaoImplTest.class,
+        BookDaoImplTest.class
 })
 public class DaoTestSuite {
 }
@@ -0,0 +1,66 @@
+package epam.finalProject;
+
+import epam.finalProject.DAO.BookDao;
+import epam.finalProject.DAO.PurchaseHistoryDao;
+import epam.finalProject.io.DataFormat;
+import epam.finalProject.io.ExportWriter;
+import epam.finalProject.service.ExportServiceImpl;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+class ExportServiceImplTest {
+
+    private final BookDao bookDao = mock(BookDao.class);
+    private final ExportServiceImpl service = new ExportServiceImpl(bookDao, mock(PurchaseHistoryDao.class));
+    private final ClosingTrackingStream out = new ClosingTrackingStream();
+
+    @Test
+    void exportCatalog_success_shouldFlushAndClose() throws Exception {
+        when(bookDao.exportCatalog(any(), anyInt())).thenAnswer(inv -> {
+            ExportWriter writer = inv.getArgument(0);
+            writer.start(List.of("id"));
+            writer.writeRow(1L);
+            return 1L;
+        });
+
+        assertEquals(1, service.exportCatalog(out, DataFormat.CSV));
+
+        assertTrue(out.closed);
+        assertEquals("id\r\n1\r\n", out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void exportCatalog_daoFailsMidStream_shouldRethrowAndLeaveStreamOpen() throws Exception {
+        IOException failure = new IOException("cursor lost");
+        when(bookDao.exportCatalog(any(), anyInt())).thenAnswer(inv -> {
+            ExportWriter writer = inv.getArgument(0);
+            writer.start(List.of("id"));
+            writer.writeRow(1L);
+            throw failure;
+        });
+
+        assertSame(failure, assertThrows(IOException.class, () -> service.exportCatalog(out, DataFormat.CSV)));
+
+        assertFalse(out.closed);
+        assertEquals(0, out.size());
+    }
+
+    private static final class ClosingTrackingStream extends ByteArrayOutputStream {
+
+        private boolean closed;
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+}
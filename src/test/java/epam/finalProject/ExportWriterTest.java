@@ -0,0 +1,56 @@
+package epam.finalProject;
+
+import epam.finalProject.io.DataFormat;
+import epam.finalProject.io.ExportWriter;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExportWriterTest {
+
+    @Test
+    void csv_shouldQuoteOnlyWhenNeeded() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ExportWriter writer = new ExportWriter(Channels.newChannel(out), DataFormat.CSV)) {
+            writer.start(List.of("id", "title", "year"));
+            writer.writeRow(1L, "War and Peace", 1869);
+            writer.writeRow(2L, "Say \"hi\", world\nagain", null);
+        }
+        assertEquals("id,title,year\r\n1,War and Peace,1869\r\n2,\"Say \"\"hi\"\", world\nagain\",\r\n",
+                out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void ndjson_shouldEscapeStringsAndFormatTimestamps() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ExportWriter writer = new ExportWriter(Channels.newChannel(out), DataFormat.NDJSON)) {
+            writer.start(List.of("id", "title", "at"));
+            writer.writeRow(1L, "Tab\there \"\u0412\u043e\u0439\u043d\u0430\" \\", Timestamp.valueOf(LocalDateTime.of(2025, 1, 2, 3, 4, 5)));
+            writer.writeRow(2L, null, null);
+        }
+        assertEquals("{\"id\":1,\"title\":\"Tab\\there \\\"\u0412\u043e\u0439\u043d\u0430\\\" \\\\\",\"at\":\"2025-01-02T03:04:05\"}\n"
+                        + "{\"id\":2,\"title\":null,\"at\":null}\n",
+                out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void rowsLargerThanBuffer_shouldBeWrittenCompletely() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        String big = "\u0436".repeat(100_000);
+        try (ExportWriter writer = new ExportWriter(Channels.newChannel(out), DataFormat.CSV)) {
+            writer.start(List.of("text"));
+            for (int i = 0; i < 3; i++) {
+                writer.writeRow(big);
+            }
+            assertEquals(3, writer.getRowCount());
+        }
+        assertEquals("text\r\n" + (big + "\r\n").repeat(3), out.toString(StandardCharsets.UTF_8));
+    }
+}
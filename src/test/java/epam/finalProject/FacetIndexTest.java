@@ -0,0 +1,117 @@
+package epam.finalProject;
+
+import epam.finalProject.dto.BookFilter;
+import epam.finalProject.dto.FacetCounts;
+import epam.finalProject.search.CompressedBitmap;
+import epam.finalProject.search.FacetIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FacetIndexTest {
+
+    private FacetIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new FacetIndex();
+        index.beginLoad();
+        index.loadBook(1, 10L, 1869, 3);
+        index.loadBook(2, 20L, 1866, 2);
+        index.loadBook(3, 10L, 1878, 0);
+        index.loadBook(4, 30L, 1954, 1);
+        index.loadGenre(1, 100L);
+        index.loadGenre(2, 100L);
+        index.loadGenre(4, 200L);
+        index.markReady();
+    }
+
+    @Test
+    void counts_eachFacet_shouldIgnoreItsOwnFilter() {
+        FacetCounts counts = index.counts(new BookFilter(100L, null, null, null, true, null, false), 10);
+
+        assertEquals(2, counts.getTotal());
+        assertEquals(Map.of(100L, 2L, 200L, 1L), counts.getGenres());
+        assertEquals(Map.of(1860, 2L), counts.getDecades());
+        assertEquals(List.of(10L, 20L), List.copyOf(counts.getAuthors().keySet()));
+        assertEquals(2, counts.getInStock());
+        assertEquals(0, counts.getOutOfStock());
+        assertEquals(1, index.count(new BookFilter(null, 10L, 1860, 1870, false, null, false)));
+    }
+
+    @Test
+    void writes_shouldBeVisibleImmediately() {
+        index.putBook(5, 30L, 1961, 0, List.of(200L));
+        index.setQuantity(4, 0);
+        index.updateBook(2, 10L, 1866, 2);
+        index.removeBook(1);
+        index.removeAuthor(30L);
+
+        FacetCounts counts = index.counts(BookFilter.none(), 10);
+        assertEquals(4, counts.getTotal());
+        assertEquals(Map.of(100L, 1L, 200L, 2L), counts.getGenres());
+        assertEquals(Map.of(10L, 2L), counts.getAuthors());
+        assertEquals(1, counts.getInStock());
+        assertEquals(3, counts.getOutOfStock());
+        assertEquals(Map.of(1860, 1L, 1870, 1L, 1950, 1L, 1960, 1L), counts.getDecades());
+    }
+
+    @Test
+    void quantityAndAuthorWritesDuringLoad_shouldOverrideRowsScannedLater() {
+        FacetIndex loading = new FacetIndex();
+        loading.beginLoad();
+        loading.loadBook(1, 10L, 1869, 3);
+        loading.setQuantity(1, 2);
+        loading.setQuantity(2, 0);
+        loading.removeAuthor(20L);
+        loading.loadBook(2, 20L, 1866, 1);
+        loading.loadGenre(2, 100L);
+        loading.markReady();
+
+        FacetCounts counts = loading.counts(BookFilter.none(), 10);
+        assertEquals(1, counts.getInStock());
+        assertEquals(1, counts.getOutOfStock());
+        assertEquals(Map.of(10L, 1L), counts.getAuthors());
+        assertEquals(Map.of(100L, 1L), counts.getGenres());
+    }
+
+    @Test
+    void compressedBitmap_shouldMatchSetAcrossArrayAndBitmapChunks() {
+        Random random = new Random(42);
+        CompressedBitmap a = new CompressedBitmap();
+        CompressedBitmap b = new CompressedBitmap();
+        Set<Integer> setA = new TreeSet<>();
+        Set<Integer> setB = new TreeSet<>();
+        for (int i = 0; i < 30000; i++) {
+            int x = random.nextInt(200000);
+            int y = random.nextInt(10000) + 60000;
+            assertEquals(setA.add(x), a.add(x));
+            assertEquals(setB.add(y), b.add(y));
+        }
+        for (int i = 0; i < 10000; i++) {
+            int x = random.nextInt(200000);
+            assertEquals(setA.remove(x), a.remove(x));
+        }
+        Set<Integer> both = new TreeSet<>(setA);
+        both.retainAll(setB);
+        Set<Integer> either = new TreeSet<>(setA);
+        either.addAll(setB);
+
+        assertEquals(setA.size(), a.cardinality());
+        assertEquals(both.size(), a.andCardinality(b));
+        assertEquals(both.size(), a.and(b).cardinality());
+        CompressedBitmap union = a.or(b);
+        assertEquals(either.size(), union.cardinality());
+        for (int x : either) {
+            assertTrue(union.contains(x));
+        }
+        assertFalse(a.contains(-1 >>> 1));
+    }
+}
@@ -0,0 +1,51 @@
+package epam.finalProject;
+
+import epam.finalProject.cache.FragmentCache;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FragmentCacheTest {
+
+    /** 128 bytes of overhead plus two per char. */
+    private static final String KB = "x".repeat(448);
+
+    @Test
+    void put_overBudget_shouldEvictLeastRecentlyUsed() {
+        FragmentCache<String> cache = new FragmentCache<>(3 * 1024);
+        cache.put("a", KB);
+        cache.put("b", KB);
+        cache.put("c", KB);
+        cache.get("a");
+        cache.put("d", KB);
+
+        assertEquals(3, cache.size());
+        assertEquals(3 * 1024, cache.getBytes());
+        assertNotNull(cache.get("a"));
+        assertNull(cache.get("b"));
+        assertNotNull(cache.get("d"));
+    }
+
+    @Test
+    void put_largerThanBudget_shouldNotCache() {
+        FragmentCache<String> cache = new FragmentCache<>(1024);
+        cache.put("a", KB);
+        cache.put("huge", KB + KB);
+
+        assertNull(cache.get("huge"));
+        assertEquals(KB, cache.get("a"));
+    }
+
+    @Test
+    void put_sameKey_shouldReplaceAndReweigh() {
+        FragmentCache<String> cache = new FragmentCache<>(4096);
+        cache.put("a", KB + KB);
+        cache.put("a", KB);
+
+        assertEquals(1024, cache.getBytes());
+        assertEquals(KB, cache.get("a"));
+        assertEquals(1, cache.getHits());
+        cache.get("b");
+        assertEquals(1, cache.getMisses());
+    }
+}
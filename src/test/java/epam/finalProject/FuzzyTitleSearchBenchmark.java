@@ -0,0 +1,157 @@
+package epam.finalProject;
+
+import epam.finalProject.search.SuggestIndex;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compares the trigram-filtered fuzzy title search with a naive scan that computes the full Levenshtein
+ * distance between every query word and every title word, and checks that both return the same titles.
+ */
+class FuzzyTitleSearchBenchmark {
+
+    private static final Logger logger = LoggerFactory.getLogger(FuzzyTitleSearchBenchmark.class);
+
+    private static final int BOOKS = 200_000;
+    private static final int QUERIES = 200;
+    private static final int LIMIT = 10;
+    private static final String[] SYLLABLES = {
+            "ka", "ren", "to", "lis", "mar", "gar", "ve", "dor", "an", "sel", "qui", "ho", "bit", "ru",
+            "sha", "lem", "no", "vak", "pi", "tre", "ul", "ski", "fen", "zo", "bra", "mi", "kor", "der"
+    };
+
+    @Test
+    void indexedSearch_againstNaiveScan() {
+        Random random = new Random(42);
+        String[] titles = new String[BOOKS];
+        SuggestIndex index = new SuggestIndex();
+        index.beginLoad();
+        for (int i = 0; i < BOOKS; i++) {
+            titles[i] = randomTitle(random);
+            index.loadBook(i, titles[i], null, null);
+        }
+        index.markReady();
+
+        List<String> queries = new ArrayList<>();
+        for (int i = 0; i < QUERIES; i++) {
+            queries.add(withTypo(titles[random.nextInt(BOOKS)], random));
+        }
+
+        for (String q : queries.subList(0, 20)) {
+            index.fuzzyTitles(q, LIMIT);
+            naiveScan(titles, q);
+        }
+
+        long start = System.nanoTime();
+        List<List<Long>> indexed = new ArrayList<>();
+        for (String q : queries) {
+            indexed.add(index.fuzzyTitles(q, LIMIT));
+        }
+        long indexedNanos = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        List<List<Long>> naive = new ArrayList<>();
+        for (String q : queries) {
+            naive.add(naiveScan(titles, q));
+        }
+        long naiveNanos = System.nanoTime() - start;
+
+        logger.info(String.format(Locale.ROOT, "%d titles, %d queries: trigram index %.3f ms/query, naive scan %.3f ms/query",
+                BOOKS, QUERIES, indexedNanos / 1e6 / QUERIES, naiveNanos / 1e6 / QUERIES));
+        assertEquals(naive, indexed);
+    }
+
+    /**
+     * Same scoring as the index (closest title word per query word, within the same edit budget),
+     * computed with the textbook full-table Levenshtein over every title.
+     */
+    private static List<Long> naiveScan(String[] titles, String query) {
+        List<String> words = List.copyOf(new LinkedHashSet<>(SuggestIndex.tokenize(query)));
+        List<long[]> hits = new ArrayList<>();
+        for (int id = 0; id < titles.length; id++) {
+            List<String> titleWords = SuggestIndex.tokenize(titles[id]);
+            int total = 0;
+            for (String q : words) {
+                int best = Integer.MAX_VALUE;
+                for (String w : titleWords) {
+                    best = Math.min(best, levenshtein(q, w));
+                }
+                if (best > SuggestIndex.maxEdits(q.length())) {
+                    total = -1;
+                    break;
+                }
+                total += best;
+            }
+            if (total >= 0) {
+                hits.add(new long[]{total, titles[id].length(), id});
+            }
+        }
+        hits.sort(Comparator.<long[]>comparingLong(h -> h[0]).thenComparingLong(h -> h[1]).thenComparingLong(h -> h[2]));
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < hits.size() && i < LIMIT; i++) {
+            ids.add(hits.get(i)[2]);
+        }
+        return ids;
+    }
+
+    private static int levenshtein(String a, String b) {
+        int[] prev = new int[b.length() + 1];
+        int[] cur = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            prev[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            cur[0] = i;
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                cur[j] = Math.min(Math.min(cur[j - 1] + 1, prev[j] + 1), prev[j - 1] + cost);
+            }
+            int[] swap = prev;
+            prev = cur;
+            cur = swap;
+        }
+        return prev[b.length()];
+    }
+
+    private static String randomTitle(Random random) {
+        int words = 1 + random.nextInt(4);
+        StringBuilder title = new StringBuilder();
+        for (int w = 0; w < words; w++) {
+            if (w > 0) {
+                title.append(' ');
+            }
+            int syllables = 1 + random.nextInt(3);
+            for (int s = 0; s < syllables; s++) {
+                title.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+            }
+        }
+        return title.toString();
+    }
+
+    /** Replaces one character of the longest word, which stays within every word's edit budget. */
+    private static String withTypo(String title, Random random) {
+        String[] words = title.split(" ");
+        int longest = 0;
+        for (int i = 1; i < words.length; i++) {
+            if (words[i].length() > words[longest].length()) {
+                longest = i;
+            }
+        }
+        char[] chars = words[longest].toCharArray();
+        if (chars.length > 2) {
+            chars[random.nextInt(chars.length)] = (char) ('a' + random.nextInt(26));
+        }
+        words[longest] = new String(chars);
+        return String.join(" ", words);
+    }
+}
@@ -0,0 +1,123 @@
+package epam.finalProject;
+
+import epam.finalProject.db.JdbcExecutor;
+import epam.finalProject.db.QueryListener;
+import epam.finalProject.db.RowMapper;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JdbcExecutorTest {
+
+    private static final RowMapper<String> ID_AND_TITLE = RowMapper.of(
+            (rs, col) -> rs.getLong(col[0]) + ":" + rs.getString(col[1]), "id", "title");
+
+    /** Metadata lookups made by the fake result sets. */
+    private final AtomicInteger metadataCalls = new AtomicInteger();
+
+    @Test
+    void query_shouldResolveLabelsOncePerStatement() throws SQLException {
+        JdbcExecutor jdbc = new JdbcExecutor(dataSource(new String[]{"TITLE", "ID"},
+                new Object[][]{{"Dune", 1L}, {"Emma", 2L}}));
+
+        assertEquals(List.of("1:Dune", "2:Emma"), jdbc.query("SELECT title, id FROM books", ID_AND_TITLE));
+        assertEquals(List.of("1:Dune", "2:Emma"), jdbc.query("SELECT title, id FROM books", ID_AND_TITLE));
+        assertEquals(1, metadataCalls.get());
+    }
+
+    @Test
+    void query_missingLabel_shouldFail() {
+        JdbcExecutor jdbc = new JdbcExecutor(dataSource(new String[]{"id"}, new Object[][]{{1L}}));
+
+        assertThrows(SQLException.class, () -> jdbc.query("SELECT id FROM books", ID_AND_TITLE));
+    }
+
+    @Test
+    void queryLong_noRow_shouldReturnZero() throws SQLException {
+        JdbcExecutor jdbc = new JdbcExecutor(dataSource(new String[]{"count"}, new Object[0][]));
+
+        assertEquals(0L, jdbc.queryLong("SELECT COUNT(*) FROM books WHERE 1 = 0"));
+    }
+
+    @Test
+    void forEach_shouldNotReportRowHandlingAsStatementTime() throws Exception {
+        long[] reported = new long[2];
+        QueryListener previous = JdbcExecutor.getListener();
+        JdbcExecutor.setListener((sql, elapsedNanos, rows, failure) -> {
+            reported[0] = elapsedNanos;
+            reported[1] = rows;
+        });
+        try {
+            JdbcExecutor jdbc = new JdbcExecutor(dataSource(new String[]{"id"}, new Object[][]{{1L}, {2L}, {3L}}));
+            assertEquals(3, jdbc.forEach("SELECT id FROM books", rs -> Thread.sleep(50)));
+        } finally {
+            JdbcExecutor.setListener(previous);
+        }
+
+        assertEquals(3, reported[1]);
+        assertTrue(reported[0] < TimeUnit.MILLISECONDS.toNanos(50), reported[0] + " ns");
+    }
+
+    /**
+     * A DataSource whose every statement returns the given rows; only the calls the executor makes are answered.
+     */
+    private DataSource dataSource(String[] labels, Object[][] rows) {
+        Connection conn = proxy(Connection.class, (name, args) -> switch (name) {
+            case "prepareStatement" -> statement(labels, rows);
+            case "close" -> null;
+            default -> throw new UnsupportedOperationException(name);
+        });
+        return proxy(DataSource.class, (name, args) -> {
+            if (name.equals("getConnection")) {
+                return conn;
+            }
+            throw new UnsupportedOperationException(name);
+        });
+    }
+
+    private PreparedStatement statement(String[] labels, Object[][] rows) {
+        ResultSetMetaData meta = proxy(ResultSetMetaData.class, (name, args) -> switch (name) {
+            case "getColumnCount" -> labels.length;
+            case "getColumnLabel" -> labels[(Integer) args[0] - 1];
+            default -> throw new UnsupportedOperationException(name);
+        });
+        int[] cursor = {-1};
+        ResultSet rs = proxy(ResultSet.class, (name, args) -> switch (name) {
+            case "next" -> ++cursor[0] < rows.length;
+            case "getMetaData" -> {
+                metadataCalls.incrementAndGet();
+                yield meta;
+            }
+            case "getLong" -> ((Number) rows[cursor[0]][(Integer) args[0] - 1]).longValue();
+            case "getString" -> (String) rows[cursor[0]][(Integer) args[0] - 1];
+            case "close" -> null;
+            default -> throw new UnsupportedOperationException(name);
+        });
+        return proxy(PreparedStatement.class, (name, args) -> switch (name) {
+            case "executeQuery" -> rs;
+            case "setFetchSize", "close" -> null;
+            default -> throw new UnsupportedOperationException(name);
+        });
+    }
+
+    @FunctionalInterface
+    private interface Handler {
+        Object invoke(String method, Object[] args) throws Exception;
+    }
+
+    private static <T> T proxy(Class<T> type, Handler handler) {
+        return type.cast(Proxy.newProxyInstance(JdbcExecutorTest.class.getClassLoader(), new Class<?>[]{type},
+                (p, method, args) -> handler.invoke(method.getName(), args)));
+    }
+}
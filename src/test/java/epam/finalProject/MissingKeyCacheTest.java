@@ -0,0 +1,51 @@
+package epam.finalProject;
+
+import epam.finalProject.cache.MissingKeyCache;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MissingKeyCacheTest {
+
+    private final AtomicLong now = new AtomicLong();
+
+    @Test
+    void contains_shouldExpireAfterTtl() {
+        MissingKeyCache<Long> cache = new MissingKeyCache<>(10, 1000, now::get);
+        cache.add(7L);
+
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(999));
+        assertTrue(cache.contains(7L));
+        assertFalse(cache.contains(8L));
+
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(1));
+        assertFalse(cache.contains(7L));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void remove_shouldForgetKey() {
+        MissingKeyCache<Long> cache = new MissingKeyCache<>(10, 1000, now::get);
+        cache.add(7L);
+        cache.remove(7L);
+
+        assertFalse(cache.contains(7L));
+    }
+
+    @Test
+    void add_overCapacity_shouldEvictOldest() {
+        MissingKeyCache<Long> cache = new MissingKeyCache<>(2, 1000, now::get);
+        cache.add(1L);
+        cache.add(2L);
+        cache.add(1L);
+        cache.add(3L);
+
+        assertEquals(2, cache.size());
+        assertTrue(cache.contains(1L));
+        assertFalse(cache.contains(2L));
+        assertTrue(cache.contains(3L));
+    }
+}
@@ -0,0 +1,114 @@
+package epam.finalProject;
+
+import epam.finalProject.DAO.BookDao;
+import epam.finalProject.DAO.UserDao;
+import epam.finalProject.db.ParallelQueries;
+import epam.finalProject.dto.BookFilter;
+import epam.finalProject.service.BookServiceImpl;
+import epam.finalProject.service.UserServiceImpl;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Measures page latency of the /books list ({@code BookServiceImpl.findSummaries}) and the paged user list
+ * ({@code UserServiceImpl.findAll}) with the count and the page query run one after the other and side by side.
+ * The DAOs are mocks that sleep for a jittered, typical query time, so the numbers show the effect of the
+ * overlap rather than of any database.
+ */
+class PageQueryLatencyBenchmark {
+
+    private static final Logger logger = LoggerFactory.getLogger(PageQueryLatencyBenchmark.class);
+
+    private static final int CLIENTS = 4;
+    private static final int REQUESTS_PER_CLIENT = 150;
+    private static final long COUNT_MILLIS = 12;
+    private static final long PAGE_MILLIS = 9;
+
+    @Test
+    void booksPage() throws Exception {
+        BookDao bookDao = mock(BookDao.class);
+        when(bookDao.count(any(BookFilter.class))).thenAnswer(inv -> slow(COUNT_MILLIS, () -> 500L));
+        when(bookDao.findSummaries(any(), any())).thenAnswer(inv -> slow(PAGE_MILLIS, List::of));
+        compare("/books", queries -> {
+            BookServiceImpl service = new BookServiceImpl(bookDao, queries);
+            return () -> service.findSummaries(BookFilter.none(), PageRequest.of(3, 20));
+        });
+    }
+
+    @Test
+    void usersPage() throws Exception {
+        UserDao userDao = mock(UserDao.class);
+        when(userDao.count()).thenAnswer(inv -> slow(COUNT_MILLIS, () -> 500L));
+        when(userDao.findAll(any())).thenAnswer(inv -> slow(PAGE_MILLIS, List::of));
+        compare("/admin/users", queries -> {
+            UserServiceImpl service = new UserServiceImpl(userDao, queries);
+            return () -> service.findAll(PageRequest.of(3, 20));
+        });
+    }
+
+    private void compare(String page, Function<ParallelQueries, Runnable> requestWith) throws Exception {
+        long[] sequential = measure(requestWith.apply(ParallelQueries.sequential()));
+        long[] parallel;
+        try (ParallelQueries queries = new ParallelQueries(CLIENTS, 32, 5000)) {
+            parallel = measure(requestWith.apply(queries));
+        }
+
+        logger.info(String.format(Locale.ROOT, "%s: sequential p50 %.1f ms p99 %.1f ms, parallel p50 %.1f ms p99 %.1f ms", page,
+                percentile(sequential, 50), percentile(sequential, 99), percentile(parallel, 50), percentile(parallel, 99)));
+    }
+
+    /** Runs the request from several client threads and returns every latency in nanoseconds, sorted. */
+    private static long[] measure(Runnable request) throws Exception {
+        ExecutorService clients = Executors.newFixedThreadPool(CLIENTS);
+        try {
+            List<Future<long[]>> results = new ArrayList<>();
+            for (int c = 0; c < CLIENTS; c++) {
+                results.add(clients.submit(() -> {
+                    long[] latencies = new long[REQUESTS_PER_CLIENT];
+                    for (int i = 0; i < REQUESTS_PER_CLIENT; i++) {
+                        long start = System.nanoTime();
+                        request.run();
+                        latencies[i] = System.nanoTime() - start;
+                    }
+                    return latencies;
+                }));
+            }
+            long[] all = new long[CLIENTS * REQUESTS_PER_CLIENT];
+            for (int c = 0; c < CLIENTS; c++) {
+                System.arraycopy(results.get(c).get(), 0, all, c * REQUESTS_PER_CLIENT, REQUESTS_PER_CLIENT);
+            }
+            Arrays.sort(all);
+            return all;
+        } finally {
+            clients.shutdown();
+        }
+    }
+
+    private static double percentile(long[] sorted, int p) {
+        int index = (int) Math.ceil(p / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(index, 0)] / 1e6;
+    }
+
+    /** Sleeps for the given time plus up to 50% jitter, like a query under light load. */
+    private static <T> T slow(long millis, Supplier<T> result) throws InterruptedException {
+        long jitter = (long) (new Random().nextDouble() * millis / 2);
+        Thread.sleep(millis + jitter);
+        return result.get();
+    }
+}
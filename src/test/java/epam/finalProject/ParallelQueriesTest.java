@@ -0,0 +1,100 @@
+package epam.finalProject;
+
+import epam.finalProject.db.ParallelQueries;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParallelQueriesTest {
+
+    @Test
+    void both_shouldRunQueriesConcurrently() {
+        CountDownLatch started = new CountDownLatch(2);
+        try (ParallelQueries queries = new ParallelQueries(2, 4, 5000)) {
+            // each query only finishes once the other one has started
+            String result = queries.both(() -> awaitOther(started, 7L), () -> awaitOther(started, "rows"),
+                    (count, rows) -> rows + ":" + count);
+
+            assertEquals("rows:7", result);
+        }
+    }
+
+    @Test
+    void both_slowFirstQuery_shouldTimeOut() {
+        try (ParallelQueries queries = new ParallelQueries(1, 1, 50)) {
+            assertThrows(IllegalStateException.class, () -> queries.both(() -> sleep(5000), () -> "rows",
+                    (count, rows) -> rows));
+        }
+    }
+
+    @Test
+    void both_shouldRethrowQueryException() {
+        try (ParallelQueries queries = new ParallelQueries(1, 1, 5000)) {
+            IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> queries.both(() -> {
+                throw new IllegalArgumentException("count failed");
+            }, () -> "rows", (count, rows) -> rows));
+            assertEquals("count failed", e.getMessage());
+        }
+    }
+
+    @Test
+    void both_saturatedPool_shouldRunOnCaller() {
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch queuedSubmitted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        try (ParallelQueries queries = new ParallelQueries(1, 1, 5000)) {
+            // the only pool thread runs the blocker's query, then the second query fills the queue
+            new Thread(() -> queries.both(() -> block(running, release), () -> 0, (a, b) -> a)).start();
+            await(running);
+            new Thread(() -> queries.both(() -> block(running, release), () -> {
+                queuedSubmitted.countDown();
+                return 0;
+            }, (a, b) -> a)).start();
+            await(queuedSubmitted);
+
+            String caller = Thread.currentThread().getName();
+            assertEquals(caller, queries.both(() -> Thread.currentThread().getName(), () -> "", (a, b) -> a));
+            release.countDown();
+        }
+    }
+
+    private static <T> T awaitOther(CountDownLatch started, T value) {
+        started.countDown();
+        try {
+            assertTrue(started.await(5, TimeUnit.SECONDS), "queries did not overlap");
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+        return value;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static int block(CountDownLatch running, CountDownLatch release) {
+        running.countDown();
+        try {
+            release.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return 0;
+    }
+
+    private static int sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return 0;
+    }
+}
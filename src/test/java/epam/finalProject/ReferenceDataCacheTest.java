@@ -0,0 +1,63 @@
+package epam.finalProject;
+
+import epam.finalProject.cache.ReferenceDataCache;
+import epam.finalProject.entity.Genre;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReferenceDataCacheTest {
+
+    private ReferenceDataCache<Genre> cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new ReferenceDataCache<>(Genre::getId, Genre::getName, g -> genre(g.getId(), g.getName()));
+    }
+
+    @Test
+    void notLoaded_shouldNotBeReady() {
+        cache.put(genre(1L, "Drama"));
+        assertFalse(cache.isReady());
+        assertNull(cache.find(1L));
+        assertTrue(cache.sorted().isEmpty());
+    }
+
+    @Test
+    void publish_shouldServeSortedListAndLookups() {
+        assertTrue(cache.publish(List.of(genre(1L, "poetry"), genre(2L, "Drama")), cache.loadStamp()));
+        assertEquals("Drama", cache.sorted().get(0).getName());
+        assertEquals("poetry", cache.find(1L).getName());
+        assertTrue(cache.contains(2L));
+    }
+
+    @Test
+    void publish_afterConcurrentWrite_shouldBeRejected() {
+        long stamp = cache.loadStamp();
+        cache.put(genre(3L, "Horror"));
+        assertFalse(cache.publish(List.of(genre(1L, "Drama")), stamp));
+        assertFalse(cache.isReady());
+    }
+
+    @Test
+    void writes_shouldReplaceSnapshot() {
+        cache.publish(List.of(genre(1L, "Drama")), cache.loadStamp());
+        List<Genre> before = cache.sorted();
+        cache.put(genre(2L, "Comedy"));
+        cache.remove(1L);
+        assertEquals(1, before.size());
+        assertEquals(1, cache.sorted().size());
+        assertEquals("Comedy", cache.sorted().get(0).getName());
+        assertNull(cache.find(1L));
+    }
+
+    private static Genre genre(Long id, String name) {
+        Genre g = new Genre();
+        g.setId(id);
+        g.setName(name);
+        return g;
+    }
+}
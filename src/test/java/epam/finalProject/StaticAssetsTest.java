@@ -0,0 +1,97 @@
+package epam.finalProject;
+
+import epam.finalProject.config.AssetManifestVersionStrategy;
+import epam.finalProject.config.ImmutableAssetResolver;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockServletContext;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.resource.NoResourceFoundException;
+import org.springframework.web.servlet.resource.EncodedResourceResolver;
+import org.springframework.web.servlet.resource.PathResourceResolver;
+import org.springframework.web.servlet.resource.ResourceHttpRequestHandler;
+import org.springframework.web.servlet.resource.VersionResourceResolver;
+
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Properties;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StaticAssetsTest {
+
+    private static final String CSS = "body { color: #333; }\n".repeat(50);
+    private static final String VERSION = "0123456789abcdef";
+
+    @TempDir
+    Path dir;
+
+    private ResourceHttpRequestHandler handler;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        Path css = Files.createDirectories(dir.resolve("static/css")).resolve("style.css");
+        Files.writeString(css, CSS);
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(css.resolveSibling("style.css.gz")))) {
+            out.write(CSS.getBytes());
+        }
+        Properties manifest = new Properties();
+        manifest.setProperty("css/style.css", VERSION);
+
+        handler = new ResourceHttpRequestHandler();
+        handler.setLocations(List.of(new FileSystemResource(dir.resolve("static") + "/")));
+        handler.setResourceResolvers(List.of(new EncodedResourceResolver(), new ImmutableAssetResolver(),
+                new VersionResourceResolver().addVersionStrategy(new AssetManifestVersionStrategy(manifest), "/**"),
+                new PathResourceResolver()));
+        handler.setCacheControl(CacheControl.noCache());
+        handler.setServletContext(new MockServletContext());
+        handler.afterPropertiesSet();
+    }
+
+    @Test
+    void fingerprintedUrl_shouldServePrecompressedAndImmutable() throws Exception {
+        MockHttpServletResponse response = get("css/style-" + VERSION + ".css", "gzip, deflate, br");
+
+        assertEquals(200, response.getStatus());
+        assertEquals("gzip", response.getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertEquals("public, max-age=31536000, immutable", response.getHeader(HttpHeaders.CACHE_CONTROL));
+        assertTrue(response.getHeaders(HttpHeaders.VARY).contains(HttpHeaders.ACCEPT_ENCODING));
+        assertTrue(response.getContentAsByteArray().length < CSS.length());
+    }
+
+    @Test
+    void plainUrl_shouldBeRevalidated() throws Exception {
+        MockHttpServletResponse response = get("css/style.css", null);
+
+        assertEquals(200, response.getStatus());
+        assertNull(response.getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertEquals("no-cache", response.getHeader(HttpHeaders.CACHE_CONTROL));
+        assertEquals(CSS, response.getContentAsString());
+    }
+
+    @Test
+    void staleFingerprint_shouldNotBeFound() {
+        // answered with 404 by the DispatcherServlet's default exception handling
+        assertThrows(NoResourceFoundException.class, () -> get("css/style-fedcba9876543210.css", "gzip"));
+    }
+
+    private MockHttpServletResponse get(String path, String acceptEncoding) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/" + path);
+        request.setAttribute(HandlerMapping.PATH_WITHIN_HANDLER_MAPPING_ATTRIBUTE, path);
+        if (acceptEncoding != null) {
+            request.addHeader(HttpHeaders.ACCEPT_ENCODING, acceptEncoding);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        handler.handleRequest(request, response);
+        return response;
+    }
+}
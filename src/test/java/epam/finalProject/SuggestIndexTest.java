@@ -0,0 +1,89 @@
+package epam.finalProject;
+
+import epam.finalProject.dto.BookSuggestion;
+import epam.finalProject.search.EditDistance;
+import epam.finalProject.search.SuggestIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SuggestIndexTest {
+
+    private SuggestIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new SuggestIndex();
+        index.beginLoad();
+        index.loadBook(1, "War and Peace", 10L, "Leo Tolstoy");
+        index.loadBook(2, "Anna Karenina", 10L, "Leo Tolstoy");
+        index.loadBook(3, "Warlock", 20L, "Andre Norton");
+        index.markReady();
+    }
+
+    @Test
+    void suggest_titlePrefix_shouldPreferExactWord() {
+        List<BookSuggestion> result = index.suggest("war", 10);
+        assertEquals(List.of(1L, 3L), result.stream().map(BookSuggestion::getId).toList());
+        assertEquals("Leo Tolstoy", result.get(0).getAuthorName());
+    }
+
+    @Test
+    void suggest_authorAndTitleWords_shouldIntersect() {
+        List<BookSuggestion> result = index.suggest("tolst ann", 10);
+        assertEquals(1, result.size());
+        assertEquals("Anna Karenina", result.get(0).getTitle());
+    }
+
+    @Test
+    void writes_shouldBeVisibleImmediately() {
+        index.putBook(4, "Resurrection", 10L, null);
+        index.removeBook(3);
+        index.putAuthor(10L, "Lev Tolstoy");
+        assertEquals(3, index.suggest("lev", 10).size());
+        assertTrue(index.suggest("warlock", 10).isEmpty());
+        assertTrue(index.suggest("leo", 10).isEmpty());
+    }
+
+    @Test
+    void fuzzyTitles_misspelledWords_shouldRankClosestFirst() {
+        index.putBook(4, "War and Pease", 10L, null);
+        assertEquals(List.of(1L, 4L), index.fuzzyTitles("war peace", 10));
+        assertEquals(List.of(2L), index.fuzzyTitles("ana karenia", 10));
+        assertEquals(List.of(3L), index.fuzzyTitles("warlok", 10));
+        assertTrue(index.fuzzyTitles("tolstoy", 10).isEmpty());
+    }
+
+    @Test
+    void fuzzyTitles_shouldFollowWrites() {
+        index.removeBook(2);
+        index.putBook(5, "Karenina Returns", null, null);
+        assertEquals(List.of(5L), index.fuzzyTitles("karenin", 10));
+    }
+
+    @Test
+    void editDistance_shouldStopAtBound() {
+        assertEquals(0, EditDistance.bounded("hobbit", "hobbit", 2));
+        assertEquals(1, EditDistance.bounded("hobit", "hobbit", 2));
+        assertEquals(2, EditDistance.bounded("kitten", "sitting", 1));
+        assertEquals(3, EditDistance.bounded("kitten", "sitting", 3));
+        assertEquals(3, EditDistance.bounded("abc", "xyzabc", 2));
+    }
+
+    @Test
+    void loadBook_shouldNotOverrideConcurrentWrites() {
+        SuggestIndex fresh = new SuggestIndex();
+        fresh.beginLoad();
+        fresh.putBook(1, "New Title", null, null);
+        fresh.removeBook(2);
+        fresh.loadBook(1, "Old Title", null, null);
+        fresh.loadBook(2, "Deleted", null, null);
+        fresh.markReady();
+        assertEquals(1, fresh.suggest("new", 10).size());
+        assertTrue(fresh.suggest("old", 10).isEmpty());
+        assertTrue(fresh.suggest("deleted", 10).isEmpty());
+    }
+}
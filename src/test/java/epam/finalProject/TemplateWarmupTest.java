@@ -0,0 +1,52 @@
+package epam.finalProject;
+
+import epam.finalProject.config.TemplateCacheManager;
+import epam.finalProject.config.TemplateWarmup;
+import org.junit.jupiter.api.Test;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.templatemode.TemplateMode;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TemplateWarmupTest {
+
+    private final TemplateCacheManager cacheManager = new TemplateCacheManager(200);
+
+    @Test
+    void warmUp_shouldParsePageAndAdminTemplatesIntoCache() {
+        SpringTemplateEngine engine = engine(true);
+
+        int warmed = new TemplateWarmup(engine, true).warmUp();
+
+        assertTrue(warmed > 0);
+        assertEquals(warmed, cacheManager.stats().size());
+        assertEquals(warmed, cacheManager.stats().misses());
+        engine.processThrottled("admin/users", new Context(Locale.ENGLISH));
+        assertEquals(1, cacheManager.stats().hits());
+    }
+
+    @Test
+    void warmUp_nonCacheableResolver_shouldCacheNothing() {
+        new TemplateWarmup(engine(false), true).warmUp();
+
+        assertEquals(0, cacheManager.stats().size());
+        assertEquals(0, cacheManager.stats().hits());
+    }
+
+    private SpringTemplateEngine engine(boolean cacheable) {
+        ClassLoaderTemplateResolver templates = new ClassLoaderTemplateResolver();
+        templates.setPrefix("templates/");
+        templates.setSuffix(".html");
+        templates.setTemplateMode(TemplateMode.HTML);
+        templates.setCharacterEncoding("UTF-8");
+        templates.setCacheable(cacheable);
+        SpringTemplateEngine engine = new SpringTemplateEngine();
+        engine.setTemplateResolver(templates);
+        engine.setCacheManager(cacheManager);
+        return engine;
+    }
+}
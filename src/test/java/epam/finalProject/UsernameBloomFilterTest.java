@@ -0,0 +1,48 @@
+package epam.finalProject;
+
+import epam.finalProject.cache.UsernameBloomFilter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UsernameBloomFilterTest {
+
+    private UsernameBloomFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        filter = new UsernameBloomFilter(1 << 12);
+    }
+
+    @Test
+    void notReady_shouldAnswerMaybePresent() {
+        assertTrue(filter.mightContain("ghost"));
+    }
+
+    @Test
+    void ready_addedUsername_shouldBePresent() {
+        filter.add("alice");
+        filter.markReady();
+        assertTrue(filter.mightContain("alice"));
+        assertFalse(filter.mightContain("bob"));
+    }
+
+    @Test
+    void remove_shouldForgetUsername() {
+        filter.add("alice");
+        filter.add("carol");
+        filter.markReady();
+        filter.remove("alice");
+        assertFalse(filter.mightContain("alice"));
+        assertTrue(filter.mightContain("carol"));
+    }
+
+    @Test
+    void remove_beforeReady_shouldBeIgnored() {
+        filter.add("alice");
+        filter.remove("alice");
+        filter.markReady();
+        assertTrue(filter.mightContain("alice"));
+    }
+}
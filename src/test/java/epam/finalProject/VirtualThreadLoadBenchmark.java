@@ -0,0 +1,114 @@
+package epam.finalProject;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Load test of the booted application on Tomcat's platform worker pool (the default) against the
+ * "virtual-threads" profile. Both runs use the "prod" rendering profile and send {@link #REQUESTS} GETs of
+ * /books pages from {@link #CLIENTS} concurrent clients, while the Hikari pool is sampled for its active
+ * connections and the requests waiting for one. Both get their pool size from {@code db.pool.maxSize}, so only the
+ * thread mode differs. Needs the PostgreSQL database from application.properties
+ * and Java 21: {@code mvn -Pbenchmarks,virtual-threads test -Dtest=VirtualThreadLoadBenchmark}.
+ */
+class VirtualThreadLoadBenchmark {
+
+    private static final Logger logger = LoggerFactory.getLogger(VirtualThreadLoadBenchmark.class);
+
+    private static final int REQUESTS = 10_000;
+    private static final int CLIENTS = 400;
+    private static final int PAGES = 20;
+
+    @Test
+    void platformAgainstVirtualThreads() throws Exception {
+        Assumptions.assumeTrue(Runtime.version().feature() >= 21, "virtual threads need Java 21");
+
+        Result platform = run("prod");
+        Result loom = run("prod", "virtual-threads");
+
+        logger.info(String.format(Locale.ROOT, "%d requests from %d clients: platform %.0f req/s p50 %.0f ms p99 %.0f ms, "
+                        + "peak %d/%d connections active, peak %d waiting; virtual %.0f req/s p50 %.0f ms p99 %.0f ms, "
+                        + "peak %d/%d connections active, peak %d waiting",
+                REQUESTS, CLIENTS, platform.throughput, platform.p50, platform.p99, platform.peakActive, platform.poolSize,
+                platform.peakPending, loom.throughput, loom.p50, loom.p99, loom.peakActive, loom.poolSize, loom.peakPending));
+        assertEquals(0, platform.failures);
+        assertEquals(0, loom.failures);
+        assertTrue(loom.peakActive <= loom.poolSize);
+    }
+
+    /** Boots the application with the given profiles on a random port and measures each request from send to response. */
+    private Result run(String... profiles) throws Exception {
+        try (ConfigurableApplicationContext app = new SpringApplicationBuilder(FinalProjectApplication.class)
+                .profiles(profiles)
+                .properties("server.port=0")
+                .run()) {
+            String base = "http://localhost:" + app.getEnvironment().getProperty("local.server.port");
+            HttpClient client = HttpClient.newHttpClient();
+            // Hikari starts its pool on the first borrow
+            client.send(HttpRequest.newBuilder(URI.create(base + "/books")).build(), HttpResponse.BodyHandlers.discarding());
+            HikariDataSource dataSource = app.getBean(HikariDataSource.class);
+            HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+            AtomicInteger peakActive = new AtomicInteger();
+            AtomicInteger peakPending = new AtomicInteger();
+            AtomicInteger failures = new AtomicInteger();
+            ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor();
+            ExecutorService clients = Executors.newFixedThreadPool(CLIENTS);
+            try {
+                sampler.scheduleAtFixedRate(() -> {
+                    peakActive.accumulateAndGet(pool.getActiveConnections(), Math::max);
+                    peakPending.accumulateAndGet(pool.getThreadsAwaitingConnection(), Math::max);
+                }, 0, 1, TimeUnit.MILLISECONDS);
+                long start = System.nanoTime();
+                List<Future<Long>> latencies = new ArrayList<>(REQUESTS);
+                for (int i = 0; i < REQUESTS; i++) {
+                    HttpRequest request = HttpRequest.newBuilder(URI.create(base + "/books?page=" + i % PAGES)).build();
+                    latencies.add(clients.submit(() -> {
+                        long sent = System.nanoTime();
+                        if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() != 200) {
+                            failures.incrementAndGet();
+                        }
+                        return System.nanoTime() - sent;
+                    }));
+                }
+                long[] sorted = new long[REQUESTS];
+                for (int i = 0; i < REQUESTS; i++) {
+                    sorted[i] = latencies.get(i).get();
+                }
+                double seconds = (System.nanoTime() - start) / 1e9;
+                Arrays.sort(sorted);
+                return new Result(REQUESTS / seconds, sorted[REQUESTS / 2] / 1e6, sorted[REQUESTS * 99 / 100] / 1e6,
+                        peakActive.get(), peakPending.get(), dataSource.getMaximumPoolSize(), failures.get());
+            } finally {
+                clients.shutdown();
+                sampler.shutdown();
+            }
+        }
+    }
+
+    private record Result(double throughput, double p50, double p99, int peakActive, int peakPending, int poolSize,
+                          int failures) {
+    }
+}